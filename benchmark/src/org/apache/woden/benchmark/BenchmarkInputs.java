@@ -0,0 +1,194 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.woden.WSDLException;
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.tests.WSDLGenerator;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+
+/**
+ * Resolves the names of the benchmark inputs to the locations of WSDL documents
+ * and creates the readers used by the benchmarks.
+ * <p>
+ * The following input names are understood:
+ * <ul>
+ * <li><code>primer</code> - the hotel reservation service of the WSDL 2.0 primer,</li>
+ * <li><code>imports</code> - a description which imports and includes other documents,</li>
+ * <li><code>testsuite/</code><i>path</i> - a document of the W3C WSDL 2.0 test suite, 
+ * for example <code>testsuite/good/Chameleon-1G/getBalance.wsdl</code>. The path is 
+ * relative to the <code>documents</code> directory of a local copy of the test suite,
+ * given by the <code>woden.benchmark.testsuite</code> system property. By default this
+ * is the cache the W3C test suite tests download the documents to.</li>
+ * <li><code>generated/</code><i>size</i> - a description of about the given size, such
+ * as <code>generated/10MB</code>, made by the WSDLGenerator of the Woden tests. It has
+ * chains of extended interfaces, SOAP and HTTP bindings, inline and imported schemas and
+ * imported and included documents. It is generated once per JVM, in a temporary directory.</li>
+ * </ul>
+ * Any other name is taken to be the URI of the document.
+ */
+final class BenchmarkInputs 
+{
+    static final String PARSER_DOM = "DOM";
+    static final String PARSER_STAX = "StAX";
+    static final String PARSER_OM = "OM";
+    
+    static final String TESTSUITE_PROPERTY = "woden.benchmark.testsuite";
+    
+    private static final String DEFAULT_TESTSUITE = 
+        "downloads/w3c-cache/2002/ws/desc/test-suite/documents";
+    
+    private static final String TESTSUITE_PREFIX = "testsuite/";
+    
+    private static final String GENERATED_PREFIX = "generated/";
+    
+    //The generated descriptions, keyed by input name
+    private static final Map fGenerated = new HashMap();
+    
+    private BenchmarkInputs()
+    {
+    }
+    
+    /**
+     * Returns the location of the document for the benchmark input.
+     * 
+     * @param input the name of the input
+     * @return the URI of the WSDL document
+     * @throws IllegalArgumentException if the input is not a bundled document
+     * or a test suite document which exists
+     */
+    static String getLocation(String input)
+    {
+        if("primer".equals(input)) 
+        {
+            return getResource("/org/apache/woden/primer-hotelReservationService.wsdl");
+        }
+        else if("imports".equals(input)) 
+        {
+            return getResource("/org/apache/woden/internal/resources/imports/main.wsdl");
+        }
+        else if(input.startsWith(TESTSUITE_PREFIX))
+        {
+            String dir = System.getProperty(TESTSUITE_PROPERTY, DEFAULT_TESTSUITE);
+            File file = new File(dir, input.substring(TESTSUITE_PREFIX.length()));
+            if(!file.isFile()) {
+                throw new IllegalArgumentException("The test suite document " + file + 
+                        " does not exist. Set " + TESTSUITE_PROPERTY + 
+                        " to the documents directory of the W3C WSDL 2.0 test suite.");
+            }
+            return file.toURI().toString();
+        }
+        else if(input.startsWith(GENERATED_PREFIX))
+        {
+            return getGenerated(input);
+        }
+        return input;
+    }
+    
+    /**
+     * Creates a reader for the specified XML parser API, with validation
+     * turned on or off.
+     * 
+     * @param parser one of PARSER_DOM, PARSER_STAX or PARSER_OM
+     * @param validate true if the reader should validate the WSDL
+     * @return a new WSDLReader
+     * @throws WSDLException if the reader cannot be created
+     */
+    static WSDLReader newReader(String parser, boolean validate) throws WSDLException
+    {
+        WSDLFactory factory;
+        if(PARSER_DOM.equals(parser)) {
+            factory = WSDLFactory.newInstance("org.apache.woden.internal.DOMWSDLFactory");
+        } else if(PARSER_STAX.equals(parser)) {
+            factory = WSDLFactory.newInstance("org.apache.woden.internal.StAXWSDLFactory");
+        } else if(PARSER_OM.equals(parser)) {
+            factory = WSDLFactory.newInstance("org.apache.woden.internal.OMWSDLFactory");
+        } else {
+            throw new IllegalArgumentException("Unknown parser " + parser + ".");
+        }
+        WSDLReader reader = factory.newWSDLReader();
+        reader.setFeature(WSDLReader.FEATURE_VALIDATION, validate);
+        return reader;
+    }
+    
+    /**
+     * Reads the element model of the benchmark input with a non-validating
+     * DOM reader.
+     * 
+     * @param input the name of the input
+     * @return the DescriptionElement read
+     * @throws WSDLException if the document cannot be read
+     */
+    static DescriptionElement readDescription(String input) throws WSDLException
+    {
+        return newReader(PARSER_DOM, false).readWSDL(getLocation(input));
+    }
+    
+    private static synchronized String getGenerated(String input)
+    {
+        String location = (String)fGenerated.get(input);
+        if(location != null) {
+            return location;
+        }
+        
+        WSDLGenerator generator = new WSDLGenerator();
+        generator.setExtendsDepth(2);
+        generator.setHTTPBindings(true);
+        generator.setImportedSchemas(1);
+        generator.setImports(2);
+        generator.setIncludes(1);
+        try {
+            generator.setSize(WSDLGenerator.parseSize(input.substring(GENERATED_PREFIX.length())));
+            
+            File dir = File.createTempFile("woden-benchmark", "");
+            dir.delete();
+            File main = generator.generate(dir);
+            deleteOnExit(dir);
+            location = main.toURI().toString();
+        } catch(IOException e) {
+            throw new IllegalStateException("Unable to generate the description " + input + 
+                    ": " + e.getMessage());
+        }
+        fGenerated.put(input, location);
+        return location;
+    }
+    
+    private static void deleteOnExit(File dir)
+    {
+        //Files are deleted in the reverse order they are registered in
+        dir.deleteOnExit();
+        File[] files = dir.listFiles();
+        for(int i = 0; i < files.length; i++) {
+            files[i].deleteOnExit();
+        }
+    }
+    
+    private static String getResource(String name)
+    {
+        URL url = BenchmarkInputs.class.getResource(name);
+        if(url == null) {
+            throw new IllegalArgumentException("The benchmark resource " + name + " was not found.");
+        }
+        return url.toString();
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.woden.WSDLException;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the time the ComponentModelBuilder takes to build the component
+ * model from the element model.
+ * <p>
+ * The component model is built only once per DescriptionElement, so the
+ * document is read again before each invocation. Reading is not included
+ * in the measured time, but it makes this benchmark unsuitable for inputs
+ * much smaller than the primer, where the invocation overhead would dominate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ComponentModelBenchmark 
+{
+    @Param({"primer", "imports", "generated/1MB"})
+    public String input;
+    
+    private DescriptionElement fDescElement;
+    
+    @Setup(Level.Invocation)
+    public void readDescription() throws WSDLException
+    {
+        fDescElement = BenchmarkInputs.readDescription(input);
+    }
+    
+    @Benchmark
+    public Description build()
+    {
+        return fDescElement.toComponent();
+    }
+}
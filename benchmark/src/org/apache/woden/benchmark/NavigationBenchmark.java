@@ -0,0 +1,109 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.woden.WSDLException;
+import org.apache.woden.internal.wsdl20.InterfaceImpl;
+import org.apache.woden.wsdl20.Binding;
+import org.apache.woden.wsdl20.BindingOperation;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.Interface;
+import org.apache.woden.wsdl20.InterfaceOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures steady-state navigation of a component model that has already
+ * been built, as done by a runtime dispatching messages: getting the interfaces
+ * and bindings of the description, the operations of each binding and their
+ * interface operations, and looking up each interface operation in scope of
+ * its interface.
+ * <p>
+ * The description is shared by all benchmark threads. With <code>frozen</code>
+ * set to true it is frozen first, so the frozen and the mutable component
+ * model can be compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NavigationBenchmark 
+{
+    @Param({"primer", "imports", "generated/1MB"})
+    public String input;
+    
+    @Param({"false", "true"})
+    public boolean frozen;
+    
+    private Description fDesc;
+    
+    @Setup
+    public void setUp() throws WSDLException
+    {
+        fDesc = BenchmarkInputs.readDescription(input).toComponent();
+        if(frozen) {
+            fDesc.freeze();
+        }
+    }
+    
+    @Benchmark
+    public void getInterfaces(Blackhole bh)
+    {
+        Interface[] interfaces = fDesc.getInterfaces();
+        for(int i = 0; i < interfaces.length; i++) {
+            bh.consume(interfaces[i].getInterfaceOperations());
+        }
+    }
+    
+    @Benchmark
+    public void getBindingOperations(Blackhole bh)
+    {
+        Binding[] bindings = fDesc.getBindings();
+        for(int i = 0; i < bindings.length; i++) {
+            BindingOperation[] bindOps = bindings[i].getBindingOperations();
+            for(int j = 0; j < bindOps.length; j++) {
+                bh.consume(bindOps[j].getInterfaceOperation());
+            }
+        }
+    }
+    
+    @Benchmark
+    public void getInScopeInterfaceOperation(Blackhole bh)
+    {
+        Binding[] bindings = fDesc.getBindings();
+        for(int i = 0; i < bindings.length; i++) {
+            InterfaceImpl interfac = (InterfaceImpl)bindings[i].getInterface();
+            if(interfac == null) {
+                continue;
+            }
+            BindingOperation[] bindOps = bindings[i].getBindingOperations();
+            for(int j = 0; j < bindOps.length; j++) {
+                InterfaceOperation intOp = bindOps[j].getInterfaceOperation();
+                if(intOp != null) {
+                    bh.consume(interfac.getInScopeInterfaceOperation(intOp.getName()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.woden.WSDLException;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.ParsedDocumentCache;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time to read a description with a validating DOM reader,
+ * directly and from an up to date ParsedDocumentCache. Reading from the
+ * cache still retrieves and digests every document and compiles the
+ * schemas, so the difference is the cost of parsing the documents.
+ * <p>
+ * The <code>read</code> and <code>readFromCache</code> benchmarks measure a
+ * warmed up JVM. The <code>coldRead</code> and <code>coldReadFromCache</code>
+ * benchmarks measure the first description read by a new JVM, the case the
+ * cache is meant for, so each measurement is made in a JVM of its own. The
+ * cache file it reads is written beforehand by another JVM, by the main
+ * method of this class, so that writing it does not warm up the JVM measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParseCacheBenchmark
+{
+    /**
+     * The reader and an up to date cache, for the warm benchmarks.
+     */
+    @State(Scope.Thread)
+    public static class Warm
+    {
+        @Param({"primer", "imports", "generated/1MB"})
+        public String input;
+
+        WSDLReader fReader;
+        String fLocation;
+        ParsedDocumentCache fCache;
+
+        @Setup
+        public void setUp() throws WSDLException, IOException
+        {
+            fLocation = BenchmarkInputs.getLocation(input);
+            fReader = BenchmarkInputs.newReader(BenchmarkInputs.PARSER_DOM, true);
+
+            File file = File.createTempFile("woden-parsecache", ".bin");
+            file.delete();
+            fCache = new ParsedDocumentCache(file);
+            fCache.read(fReader, fLocation);
+            fCache.read(fReader, fLocation);
+            if(!fCache.isLastReadFromCache()) {
+                throw new IllegalStateException("No cache was written for " + input +
+                        ", as errors were reported while reading it.");
+            }
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            fCache.getFile().delete();
+        }
+    }
+
+    /**
+     * A cache file written by another JVM, for the cold benchmarks.
+     */
+    @State(Scope.Thread)
+    public static class Cold
+    {
+        @Param({"primer", "imports", "generated/1MB"})
+        public String input;
+
+        String fLocation;
+        File fFile;
+        ParsedDocumentCache fCache;
+
+        @Setup
+        public void setUp() throws IOException, InterruptedException
+        {
+            fLocation = BenchmarkInputs.getLocation(input);
+            fFile = File.createTempFile("woden-parsecache", ".bin");
+            fFile.delete();
+
+            String java = System.getProperty("java.home") + File.separator + "bin" +
+                File.separator + "java";
+            ProcessBuilder builder = new ProcessBuilder(new String[] {java,
+                    "-cp", System.getProperty("java.class.path"),
+                    ParseCacheBenchmark.class.getName(), fLocation, fFile.getPath()});
+            builder.redirectErrorStream(true);
+            builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+            if(builder.start().waitFor() != 0 || !fFile.isFile()) {
+                throw new IllegalStateException("No cache was written for " + input + ".");
+            }
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            fFile.delete();
+            if(fCache != null && !fCache.isLastReadFromCache()) {
+                throw new IllegalStateException("The cache written for " + input +
+                        " was not used.");
+            }
+        }
+    }
+
+    @Benchmark
+    public DescriptionElement read(Warm state) throws WSDLException
+    {
+        return state.fReader.readWSDL(state.fLocation);
+    }
+
+    @Benchmark
+    public DescriptionElement readFromCache(Warm state) throws WSDLException
+    {
+        return state.fCache.read(state.fReader, state.fLocation);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public DescriptionElement coldRead(Cold state) throws WSDLException
+    {
+        WSDLReader reader = BenchmarkInputs.newReader(BenchmarkInputs.PARSER_DOM, true);
+        return reader.readWSDL(state.fLocation);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public DescriptionElement coldReadFromCache(Cold state) throws WSDLException
+    {
+        WSDLReader reader = BenchmarkInputs.newReader(BenchmarkInputs.PARSER_DOM, true);
+        state.fCache = new ParsedDocumentCache(state.fFile);
+        return state.fCache.read(reader, state.fLocation);
+    }
+
+    /**
+     * Writes the cache file for a cold benchmark.
+     *
+     * @param args the location of the WSDL document and the cache file
+     */
+    public static void main(String[] args) throws WSDLException
+    {
+        WSDLReader reader = BenchmarkInputs.newReader(BenchmarkInputs.PARSER_DOM, true);
+        new ParsedDocumentCache(new File(args[1])).read(reader, args[0]);
+    }
+}
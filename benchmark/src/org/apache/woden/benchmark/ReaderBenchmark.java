@@ -0,0 +1,63 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.woden.WSDLException;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures how many documents per second the DOM, StAX and OM readers
+ * parse into the element model. Validation is turned off, so only
+ * the parsing of the WSDL and its schemas is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReaderBenchmark 
+{
+    @Param({"primer", "imports", "generated/1MB"})
+    public String input;
+    
+    @Param({BenchmarkInputs.PARSER_DOM, BenchmarkInputs.PARSER_STAX, BenchmarkInputs.PARSER_OM})
+    public String parser;
+    
+    private WSDLReader fReader;
+    private String fLocation;
+    
+    @Setup
+    public void setUp() throws WSDLException
+    {
+        fLocation = BenchmarkInputs.getLocation(input);
+        fReader = BenchmarkInputs.newReader(parser, false);
+    }
+    
+    @Benchmark
+    public DescriptionElement read() throws WSDLException
+    {
+        return fReader.readWSDL(fLocation);
+    }
+}
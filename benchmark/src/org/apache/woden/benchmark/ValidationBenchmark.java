@@ -0,0 +1,113 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.woden.ErrorHandler;
+import org.apache.woden.ErrorInfo;
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.WSDLException;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.wsdl20.validation.WSDLComponentValidator;
+import org.apache.woden.internal.wsdl20.validation.WSDLDocumentValidator;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the time taken by the WSDL 2.0 assertions, checked by the
+ * WSDLDocumentValidator on the element model and by the WSDLComponentValidator
+ * on the component model. The description is read and its component model
+ * built once, before the measurements.
+ * <p>
+ * Any errors found are counted rather than printed, so the console output of
+ * the default error handler is not measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationBenchmark 
+{
+    @Param({"primer", "imports", "generated/1MB"})
+    public String input;
+    
+    private DescriptionElement fDescElement;
+    private Description fDesc;
+    private ErrorReporter fErrorReporter;
+    private final CountingErrorHandler fErrorHandler = new CountingErrorHandler();
+    
+    @Setup
+    public void setUp() throws WSDLException
+    {
+        WSDLReader reader = BenchmarkInputs.newReader(BenchmarkInputs.PARSER_DOM, false);
+        fDescElement = reader.readWSDL(BenchmarkInputs.getLocation(input));
+        fDesc = fDescElement.toComponent();
+        fErrorReporter = reader.getErrorReporter();
+        fErrorReporter.setErrorHandler(fErrorHandler);
+    }
+    
+    @Benchmark
+    public boolean validateDocument() throws WSDLException
+    {
+        return new WSDLDocumentValidator().validate(fDescElement, fErrorReporter);
+    }
+    
+    @Benchmark
+    public int validateComponents() throws WSDLException
+    {
+        new WSDLComponentValidator().validate(fDesc, fErrorReporter);
+        return fErrorHandler.fCount;
+    }
+    
+    @Benchmark
+    public int validate() throws WSDLException
+    {
+        new WSDLDocumentValidator().validate(fDescElement, fErrorReporter);
+        new WSDLComponentValidator().validate(fDesc, fErrorReporter);
+        return fErrorHandler.fCount;
+    }
+    
+    /*
+     * Counts the errors reported, so that reporting them is not optimized away.
+     */
+    private static class CountingErrorHandler implements ErrorHandler
+    {
+        int fCount = 0;
+        
+        public void warning(ErrorInfo errorInfo)
+        {
+            fCount++;
+        }
+        
+        public void error(ErrorInfo errorInfo)
+        {
+            fCount++;
+        }
+        
+        public void fatalError(ErrorInfo errorInfo)
+        {
+            fCount++;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the Woden benchmarks. The command line options are those of the JMH
+ * runner, for example <code>-p input=primer,testsuite/good/Chameleon-1G/getBalance.wsdl</code>
+ * to choose the inputs or a regular expression such as <code>Reader</code> to 
+ * choose the benchmarks.
+ * <p>
+ * The results are written as JSON, to <code>woden-benchmarks.json</code> unless
+ * another file is given with <code>-rff</code>.
+ */
+public class WodenBenchmarks 
+{
+    static final String DEFAULT_RESULT_FILE = "woden-benchmarks.json";
+    
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException
+    {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .parent(cmdOptions)
+            .resultFormat(ResultFormatType.JSON);
+        if(!cmdOptions.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        
+        new Runner(options.build()).run();
+    }
+}
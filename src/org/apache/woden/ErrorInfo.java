@@ -33,5 +33,12 @@ public interface ErrorInfo {
 
     public String getMessage();
     
+    /**
+     * Returns the arguments of the parameterized message text identified 
+     * by the key, or null if the error was reported with a ready-formatted 
+     * message.
+     */
+    public Object[] getArguments();
+    
     public Exception getException();
 }
\ No newline at end of file
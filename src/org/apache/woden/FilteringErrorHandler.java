@@ -0,0 +1,36 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden;
+
+/**
+ * An ErrorHandler that only wants some of the errors reported to it.
+ * The ErrorReporter asks the handler before building the error info, 
+ * so warnings or errors the handler would discard cost next to nothing. 
+ * <p>
+ * Fatal errors still terminate parsing with a WSDLException when the 
+ * handler does not want them reported.
+ */
+public interface FilteringErrorHandler extends ErrorHandler {
+
+    /**
+     * Returns true if errors of the specified severity should be passed 
+     * to this handler.
+     * 
+     * @param severity one of the ErrorReporter SEVERITY constants.
+     */
+    public boolean isReported(short severity);
+
+}
@@ -83,6 +83,28 @@ public interface WSDLReader {
     public static String FEATURE_CONTINUE_ON_ERROR =
         "http://ws.apache.org/woden/features/continue_on_error";
     
+    /**
+     * Set to <code>true</code> to retrieve and parse the documents referenced
+     * by &lt;wsdl:import&gt;, &lt;wsdl:include&gt; and &lt;xs:import&gt; 
+     * concurrently, <code>false</code> otherwise. The threads used are 
+     * configured with the property
+     * "http://ws.apache.org/woden/property/import_executor".
+     * This feature is currently supported by the DOM-based reader only.
+     */
+    public static String FEATURE_PARALLEL_IMPORTS =
+        "http://ws.apache.org/woden/features/parallel_imports";
+    
+    /**
+     * Set to <code>true</code> to validate the interfaces, bindings and 
+     * services of the component model concurrently when the feature
+     * "http://ws.apache.org/woden/features/validation" is enabled, 
+     * <code>false</code> otherwise. The errors are reported in the same
+     * order either way. The threads used are configured with the property
+     * "http://ws.apache.org/woden/property/validation_executor".
+     */
+    public static String FEATURE_PARALLEL_VALIDATION =
+        "http://ws.apache.org/woden/features/parallel_validation";
+    
     /**
      * Constants for reader configuration property names.
      * Properties have a value represented by an object. 
@@ -97,6 +119,50 @@ public interface WSDLReader {
     public static String PROPERTY_TYPE_SYSTEM_API = 
         "http://ws.apache.org/woden/property/type_system_api";
     
+    /**
+     * The <code>org.apache.woden.schema.SchemaCache</code> used to cache the
+     * schemas compiled by the reader. Set the same cache on several readers to 
+     * share schemas between them. By default each reader has its own cache.
+     */
+    public static String PROPERTY_SCHEMA_CACHE = 
+        "http://ws.apache.org/woden/property/schema_cache";
+    
+    /**
+     * The <code>java.util.concurrent.Executor</code> used to retrieve 
+     * referenced documents when the feature 
+     * "http://ws.apache.org/woden/features/parallel_imports" is enabled.
+     * If not set, the reader uses a thread pool of its own for each WSDL
+     * read, with <code>DEFAULT_IMPORT_THREADS</code> threads.
+     */
+    public static String PROPERTY_IMPORT_EXECUTOR = 
+        "http://ws.apache.org/woden/property/import_executor";
+    
+    /**
+     * The <code>java.util.concurrent.Executor</code> used to validate the 
+     * component model when the feature 
+     * "http://ws.apache.org/woden/features/parallel_validation" is enabled.
+     * If not set, the reader uses a <code>java.util.concurrent.ForkJoinPool</code>
+     * of its own for each WSDL validated, with one thread per available processor.
+     */
+    public static String PROPERTY_VALIDATION_EXECUTOR = 
+        "http://ws.apache.org/woden/property/validation_executor";
+    
+    /**
+     * The <code>org.apache.woden.resolver.URIResolver</code> used to map the 
+     * location of each document retrieved by the reader, including the WSDL 
+     * being read, imported and included WSDL documents, schemas and external 
+     * entities, to the location it is actually retrieved from. By default 
+     * documents are retrieved from their original location.
+     */
+    public static String PROPERTY_URI_RESOLVER = 
+        "http://ws.apache.org/woden/property/uri_resolver";
+    
+    /**
+     * The number of threads used to retrieve referenced documents
+     * if no executor has been set.
+     */
+    public static final int DEFAULT_IMPORT_THREADS = 4;
+    
     /**
      * A constant representing the W3C XML Schema type system. All
      * implementations of the Woden API must support W3C XML Schema.
@@ -14,6 +14,7 @@ import org.apache.tools.ant.taskdefs.MatchingTask;
 import org.apache.woden.WSDLException;
 import org.apache.woden.WSDLFactory;
 import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.ValidationCache;
 import org.apache.woden.wsdl20.Binding;
 import org.apache.woden.wsdl20.Description;
 import org.apache.woden.wsdl20.ElementDeclaration;
@@ -47,6 +48,15 @@ import org.apache.woden.wsdl20.xml.DescriptionElement;
  * Component Model interchange format output files. This is ignored if <code>cm</code>
  * is false. The default is <code>.wsdlcm</code>.
  * 
+ * The <code>cache</code> attribute is a file directory for a cache of the
+ * validation results. WSDL files that are unchanged since they were last
+ * validated, along with the documents they import or include, are not read
+ * again and their cached results are reported instead. The cache is not used
+ * if <code>cm</code> is true. The default is not to use a cache.
+ * 
+ * The <code>cachesize</code> attribute is the maximum size of the cache in
+ * bytes. The least recently used results are discarded when it is exceeded.
+ * 
  * @author Arthur Ryman (ryman@ca.ibm.com)
  * 
  * TODO: add support writing out failed assertions in XML
@@ -79,6 +89,12 @@ public class ValidateWSDL20 extends MatchingTask {
     // report writer
     private Report reportWriter;
 
+    // directory for the validation result cache
+    private File cache;
+
+    // maximum size of the validation result cache in bytes
+    private long cacheSize = ValidationCache.DEFAULT_MAX_SIZE;
+
     // default extension for Component Model interchange format output
     private static final String CMEXT_DEFAULT = ".wsdlcm";
 
@@ -208,6 +224,42 @@ public class ValidateWSDL20 extends MatchingTask {
         this.report = report;
     }
 
+    /**
+     * Gets the validation result cache directory.
+     * 
+     * @return the directory
+     */
+    public File getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the validation result cache directory.
+     * 
+     * @param cache the directory
+     */
+    public void setCache(File cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Gets the maximum size of the validation result cache.
+     * 
+     * @return the size in bytes
+     */
+    public long getCachesize() {
+        return cacheSize;
+    }
+
+    /**
+     * Sets the maximum size of the validation result cache.
+     * 
+     * @param cacheSize the size in bytes
+     */
+    public void setCachesize(long cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
     public void execute() throws BuildException {
 
         // check the cm input attributes and set defaults if necessary
@@ -275,6 +327,12 @@ public class ValidateWSDL20 extends MatchingTask {
             System.out.println("File baseDir = " + baseDir.getAbsolutePath());
         }
 
+        // the cached results do not include the component model
+        ValidationCache validationCache = null;
+        if (getCache() != null && !isCm()) {
+            validationCache = new ValidationCache(getCache(), getCachesize());
+        }
+
         DirectoryScanner directoryScanner = getDirectoryScanner(dir);
         String[] files = directoryScanner.getIncludedFiles();
 
@@ -294,7 +352,19 @@ public class ValidateWSDL20 extends MatchingTask {
 
             try {
                 // <-- the <description> element
-                DescriptionElement desc = reader.readWSDL(wsdlLoc, reportWriter);
+                DescriptionElement desc;
+                if (validationCache != null) {
+                    desc = validationCache.validate(reader, wsdlLoc, reportWriter);
+                    if (desc == null) {
+
+                        // unchanged, so the cached results were reported
+                        System.out.println("unchanged, using cached results");
+                        reportWriter.endWsdl();
+                        continue;
+                    }
+                } else {
+                    desc = reader.readWSDL(wsdlLoc, reportWriter);
+                }
 
                 // <-- the Description component
                 Description descComp = desc.toComponent();
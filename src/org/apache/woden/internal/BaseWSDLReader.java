@@ -15,11 +15,26 @@
  */
 package org.apache.woden.internal;
 
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+
 import org.apache.woden.ErrorReporter;
 import org.apache.woden.WSDLException;
 import org.apache.woden.WSDLFactory;
 import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.resolver.ResolverUtils;
+import org.apache.woden.internal.resolver.SchemaURIResolver;
+import org.apache.woden.internal.schema.LRUSchemaCache;
+import org.apache.woden.internal.wsdl20.validation.WSDLComponentValidator;
+import org.apache.woden.resolver.URIResolver;
+import org.apache.woden.schema.SchemaCache;
+import org.apache.woden.wsdl20.Description;
 import org.apache.woden.wsdl20.extensions.ExtensionRegistry;
+import org.apache.ws.commons.schema.XmlSchemaCollection;
+import org.xml.sax.InputSource;
 
 
 /**
@@ -40,6 +55,13 @@ public abstract class BaseWSDLReader implements WSDLReader {
     private String fFactoryImplName = null;
     private ErrorReporter fErrorReporter;
     private ExtensionRegistry fExtReg;
+    private SchemaCache fSchemaCache = new LRUSchemaCache();
+    private Executor fImportExecutor;
+    private Executor fValidationExecutor;
+    
+    //The component validator, created when first needed
+    private WSDLComponentValidator fComponentValidator;
+    private URIResolver fURIResolver;
     
     protected ReaderFeatures features;
 
@@ -104,6 +126,133 @@ public abstract class BaseWSDLReader implements WSDLReader {
         return fExtReg;    
     }
     
+    /**
+     * @return the Executor set for retrieving referenced documents, or null.
+     */
+    protected Executor getImportExecutor()
+    {
+        return fImportExecutor;
+    }
+    
+    /**
+     * Get the validator this reader checks the WSDL component assertions with.
+     * Assertions registered with its AssertionRegistry are checked by later
+     * reads, and are part of the keys of the ValidationCache.
+     * 
+     * @return the component validator of this reader.
+     */
+    public WSDLComponentValidator getComponentValidator()
+    {
+        if(fComponentValidator == null)
+        {
+            fComponentValidator = new WSDLComponentValidator();
+        }
+        return fComponentValidator;
+    }
+    
+    /**
+     * Validate the component model with the component validator. If the
+     * parallel validation feature is enabled, the components are validated
+     * on the validation executor, or on a ForkJoinPool owned by this method
+     * if no executor has been set.
+     * 
+     * @param compValidator the component validator.
+     * @param desc the description component to validate.
+     * @throws WSDLException if the validation fails.
+     */
+    protected void validateComponents(WSDLComponentValidator compValidator, Description desc) 
+        throws WSDLException
+    {
+        if(!features.getValue(WSDLReader.FEATURE_PARALLEL_VALIDATION))
+        {
+            compValidator.setExecutor(null);
+            compValidator.validate(desc, getErrorReporter());
+            return;
+        }
+        
+        ExecutorService ownExecutor = null;
+        Executor executor = fValidationExecutor;
+        if(executor == null)
+        {
+            //One worker per available processor. The workers are daemon threads
+            //and idle ones steal the checks queued for busy ones.
+            ownExecutor = new ForkJoinPool();
+            executor = ownExecutor;
+        }
+        
+        compValidator.setExecutor(executor);
+        try
+        {
+            compValidator.validate(desc, getErrorReporter());
+        }
+        finally
+        {
+            compValidator.setExecutor(null);
+            if(ownExecutor != null)
+            {
+                ownExecutor.shutdownNow();
+            }
+        }
+    }
+    
+    /**
+     * @return the SchemaCache used by this reader, never null.
+     */
+    protected SchemaCache getSchemaCache()
+    {
+        return fSchemaCache;
+    }
+    
+    /**
+     * @return the URIResolver set on this reader, or null.
+     */
+    protected URIResolver getURIResolver()
+    {
+        return fURIResolver;
+    }
+    
+    /**
+     * Returns the location the document at the specified location should be
+     * retrieved from, as mapped by the URIResolver of this reader. 
+     * 
+     * @param location the absolute location of a document.
+     * @return the resolved location, or the location itself if it is not mapped.
+     * @throws IOException if the URIResolver fails.
+     */
+    protected String resolveLocation(String location) throws IOException
+    {
+        return ResolverUtils.resolveLocation(fURIResolver, location);
+    }
+    
+    /**
+     * Returns an InputSource for the document at the specified location, 
+     * retrieved from the location mapped by the URIResolver of this reader.
+     * The system id of the InputSource is the original location.
+     * 
+     * @param location the absolute location of a document.
+     * @return the InputSource.
+     * @throws IOException if the URIResolver fails or the resolved location 
+     * cannot be opened.
+     */
+    protected InputSource createInputSource(String location) throws IOException
+    {
+        return ResolverUtils.getInputSource(fURIResolver, location);
+    }
+    
+    /**
+     * @return a new XmlSchemaCollection, which retrieves the schemas referenced 
+     * by the schemas it reads through the URIResolver of this reader, if any.
+     */
+    protected XmlSchemaCollection createSchemaCollection()
+    {
+        XmlSchemaCollection xsc = new XmlSchemaCollection();
+        if(fURIResolver != null)
+        {
+            xsc.setSchemaResolver(new SchemaURIResolver(fURIResolver));
+        }
+        return xsc;
+    }
+    
     /**
      * Set a named feature on or off with a boolean. Note, this relates to 
      * features of the Woden framework, not to WSDL-specific features such
@@ -194,6 +343,63 @@ public abstract class BaseWSDLReader implements WSDLReader {
             throw new IllegalArgumentException(
                     fErrorReporter.getFormattedMessage("WSDL007", null));
         }
+        else if(name.equals(WSDLReader.PROPERTY_SCHEMA_CACHE))
+        {
+            if(value == null)
+            {
+                //revert to a cache private to this reader
+                fSchemaCache = new LRUSchemaCache();
+            }
+            else if(value instanceof SchemaCache)
+            {
+                fSchemaCache = (SchemaCache)value;
+            }
+            else
+            {
+                Object[] args = new Object[] {name, SchemaCache.class.getName()};
+                throw new IllegalArgumentException(
+                        fErrorReporter.getFormattedMessage("WSDL018", args));
+            }
+        }
+        else if(name.equals(WSDLReader.PROPERTY_IMPORT_EXECUTOR))
+        {
+            if(value == null || value instanceof Executor)
+            {
+                fImportExecutor = (Executor)value;
+            }
+            else
+            {
+                Object[] args = new Object[] {name, Executor.class.getName()};
+                throw new IllegalArgumentException(
+                        fErrorReporter.getFormattedMessage("WSDL018", args));
+            }
+        }
+        else if(name.equals(WSDLReader.PROPERTY_VALIDATION_EXECUTOR))
+        {
+            if(value == null || value instanceof Executor)
+            {
+                fValidationExecutor = (Executor)value;
+            }
+            else
+            {
+                Object[] args = new Object[] {name, Executor.class.getName()};
+                throw new IllegalArgumentException(
+                        fErrorReporter.getFormattedMessage("WSDL018", args));
+            }
+        }
+        else if(name.equals(WSDLReader.PROPERTY_URI_RESOLVER))
+        {
+            if(value == null || value instanceof URIResolver)
+            {
+                fURIResolver = (URIResolver)value;
+            }
+            else
+            {
+                Object[] args = new Object[] {name, URIResolver.class.getName()};
+                throw new IllegalArgumentException(
+                        fErrorReporter.getFormattedMessage("WSDL018", args));
+            }
+        }
         else if(name.equals("xyz"))
         {
             //TODO determine the required properties and
@@ -227,7 +433,23 @@ public abstract class BaseWSDLReader implements WSDLReader {
         //Return the property's value or throw an exception if the property
         //name is not recognized
         
-        if(name.equals("xyz"))
+        if(name.equals(WSDLReader.PROPERTY_SCHEMA_CACHE))
+        {
+            return fSchemaCache;
+        }
+        else if(name.equals(WSDLReader.PROPERTY_IMPORT_EXECUTOR))
+        {
+            return fImportExecutor;
+        }
+        else if(name.equals(WSDLReader.PROPERTY_VALIDATION_EXECUTOR))
+        {
+            return fValidationExecutor;
+        }
+        else if(name.equals(WSDLReader.PROPERTY_URI_RESOLVER))
+        {
+            return fURIResolver;
+        }
+        else if(name.equals("xyz"))
         {
             //TODO determine the required properties and
             //create an if block for each one to get the value.
@@ -242,4 +464,25 @@ public abstract class BaseWSDLReader implements WSDLReader {
         }
     }
     
-}
\ No newline at end of file
+    /*
+     * Creates daemon threads for the executors owned by a reader, so that
+     * unfinished work cannot prevent the JVM from exiting.
+     */
+    protected static class DaemonThreadFactory implements ThreadFactory
+    {
+        private final String fName;
+        
+        protected DaemonThreadFactory(String name)
+        {
+            fName = name;
+        }
+        
+        public Thread newThread(Runnable r)
+        {
+            Thread t = new Thread(r, fName);
+            t.setDaemon(true);
+            return t;
+        }
+    }
+    
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.woden.ErrorHandler;
+import org.apache.woden.ErrorInfo;
+import org.apache.woden.ErrorReporter;
+
+/**
+ * An ErrorHandler that keeps the errors reported to it in memory, for 
+ * applications such as servers that inspect them after reading a WSDL 
+ * rather than print them.
+ * <p>
+ * All errors are counted, by severity and by error id, but only the first
+ * and the last few errors are kept, so the memory used does not depend on
+ * how many errors a document produces. The errors in between are only
+ * counted.
+ * <p>
+ * This class is thread-safe.
+ */
+public class CollectingErrorHandler implements ErrorHandler {
+    
+    /**
+     * The number of errors kept from the start and from the end, unless 
+     * specified otherwise.
+     */
+    public static final int DEFAULT_RETAINED = 50;
+    
+    private static final ErrorInfo[] NO_ERRORS = new ErrorInfo[0];
+    
+    //The first errors reported
+    private final List fFirst = new ArrayList();
+    private final int fMaxFirst;
+    
+    //The last errors reported after the first ones, in a ring buffer
+    private final ErrorInfo[] fLast;
+    private int fLastStart = 0;
+    private int fLastSize = 0;
+    
+    //Indexed by ErrorReporter severity, which starts at 1
+    private final int[] fSeverityCounts = new int[ErrorReporter.SEVERITY_FATAL_ERROR + 1];
+    
+    //Error id to int[1] count. The SAX parser errors have a null id.
+    private final Map fIdCounts = new HashMap();
+    
+    private int fTotal = 0;
+    
+    /**
+     * Creates a handler that keeps the first and last DEFAULT_RETAINED errors.
+     */
+    public CollectingErrorHandler()
+    {
+        this(DEFAULT_RETAINED, DEFAULT_RETAINED);
+    }
+    
+    /**
+     * Creates a handler that keeps the specified numbers of errors.
+     * 
+     * @param first the number of errors kept from the start.
+     * @param last the number of errors kept from the end.
+     */
+    public CollectingErrorHandler(int first, int last)
+    {
+        if(first < 0 || last < 0)
+        {
+            throw new IllegalArgumentException("Negative number of errors to keep: " + 
+                    first + ", " + last);
+        }
+        fMaxFirst = first;
+        fLast = new ErrorInfo[last];
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.ErrorHandler#warning(org.apache.woden.ErrorInfo)
+     */
+    public void warning(ErrorInfo errorInfo)
+    {
+        collect(errorInfo, ErrorReporter.SEVERITY_WARNING);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.ErrorHandler#error(org.apache.woden.ErrorInfo)
+     */
+    public void error(ErrorInfo errorInfo)
+    {
+        collect(errorInfo, ErrorReporter.SEVERITY_ERROR);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.ErrorHandler#fatalError(org.apache.woden.ErrorInfo)
+     */
+    public void fatalError(ErrorInfo errorInfo)
+    {
+        collect(errorInfo, ErrorReporter.SEVERITY_FATAL_ERROR);
+    }
+    
+    /**
+     * Returns true if a fatal error has been reported.
+     */
+    public synchronized boolean hasFatal()
+    {
+        return fSeverityCounts[ErrorReporter.SEVERITY_FATAL_ERROR] > 0;
+    }
+    
+    /**
+     * Returns true if an error or fatal error has been reported.
+     */
+    public synchronized boolean hasErrors()
+    {
+        return fSeverityCounts[ErrorReporter.SEVERITY_ERROR] > 0 ||
+               fSeverityCounts[ErrorReporter.SEVERITY_FATAL_ERROR] > 0;
+    }
+    
+    /**
+     * Returns the number of errors reported with the specified severity.
+     * 
+     * @param severity one of the ErrorReporter SEVERITY constants.
+     */
+    public synchronized int count(short severity)
+    {
+        return fSeverityCounts[severity];
+    }
+    
+    /**
+     * Returns the number of errors reported with the specified error id,
+     * such as "WSDL505" or "Interface-0030".
+     */
+    public synchronized int count(String errorId)
+    {
+        int[] count = (int[])fIdCounts.get(errorId);
+        return count != null ? count[0] : 0;
+    }
+    
+    /**
+     * Returns the number of errors reported, whatever their severity.
+     */
+    public synchronized int getTotalCount()
+    {
+        return fTotal;
+    }
+    
+    /**
+     * Returns the number of errors counted but not kept.
+     */
+    public synchronized int getDiscardedCount()
+    {
+        return fTotal - fFirst.size() - fLastSize;
+    }
+    
+    /**
+     * Returns the errors kept, in the order they were reported. If errors 
+     * were discarded, they came between the first and the last ones kept
+     * (see getDiscardedCount).
+     */
+    public synchronized ErrorInfo[] getErrors()
+    {
+        ErrorInfo[] errors = new ErrorInfo[fFirst.size() + fLastSize];
+        fFirst.toArray(errors);
+        for(int i = 0; i < fLastSize; i++)
+        {
+            errors[fFirst.size() + i] = fLast[(fLastStart + i) % fLast.length];
+        }
+        return errors.length > 0 ? errors : NO_ERRORS;
+    }
+    
+    /**
+     * Forgets all the errors reported so far, so the handler can be reused.
+     */
+    public synchronized void reset()
+    {
+        fFirst.clear();
+        for(int i = 0; i < fLast.length; i++)
+        {
+            fLast[i] = null;
+        }
+        fLastStart = 0;
+        fLastSize = 0;
+        for(int i = 0; i < fSeverityCounts.length; i++)
+        {
+            fSeverityCounts[i] = 0;
+        }
+        fIdCounts.clear();
+        fTotal = 0;
+    }
+    
+    private synchronized void collect(ErrorInfo errorInfo, short severity)
+    {
+        fTotal++;
+        fSeverityCounts[severity]++;
+        
+        String errorId = errorInfo.getKey();
+        int[] count = (int[])fIdCounts.get(errorId);
+        if(count == null)
+        {
+            count = new int[1];
+            fIdCounts.put(errorId, count);
+        }
+        count[0]++;
+        
+        if(fFirst.size() < fMaxFirst)
+        {
+            fFirst.add(errorInfo);
+        }
+        else if(fLast.length > 0)
+        {
+            if(fLastSize < fLast.length)
+            {
+                fLast[(fLastStart + fLastSize) % fLast.length] = errorInfo;
+                fLastSize++;
+            }
+            else
+            {
+                //Overwrite the oldest
+                fLast[fLastStart] = errorInfo;
+                fLastStart = (fLastStart + 1) % fLast.length;
+            }
+        }
+    }
+}
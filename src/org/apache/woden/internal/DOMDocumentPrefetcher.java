@@ -0,0 +1,229 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.woden.WSDLException;
+import org.apache.woden.internal.schema.SchemaConstants;
+import org.apache.woden.internal.util.StringUtils;
+import org.apache.woden.internal.util.dom.DOMUtils;
+import org.apache.woden.internal.util.dom.QNameUtils;
+import org.apache.woden.internal.wsdl20.Constants;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Retrieves and parses the documents referenced by a WSDL document 
+ * concurrently, ahead of the DOMWSDLReader needing them.
+ * <p>
+ * Each WSDL document is scanned for the locations of &lt;wsdl:import&gt;,
+ * &lt;wsdl:include&gt; and &lt;xs:import&gt; elements, resolved in the same
+ * way as the reader resolves them. Each location is retrieved once, on the 
+ * executor, and referenced WSDL documents are scanned in turn.
+ * <p>
+ * The reader still builds the WSDL model sequentially, in document order, 
+ * taking the parsed documents from this object instead of retrieving them 
+ * itself. So the model, the wsdlModules de-duplication and the handling of 
+ * cyclic references are the same as without prefetching. Errors are not 
+ * reported by the prefetch threads; they are reported by the reader when it 
+ * takes the document, exactly as if it had retrieved the document itself.
+ */
+class DOMDocumentPrefetcher {
+    
+    //The location of the built-in schema for schema imported by every description.
+    static final String XML_SCHEMA_LOCATION = "http://www.w3.org/2001/XMLSchema.xsd";
+    
+    private final DOMWSDLReader fReader;
+    private final Executor fExecutor;
+    
+    //FutureTasks for the parsed documents keyed by location URL
+    private final ConcurrentHashMap fDocuments = new ConcurrentHashMap();
+    
+    //The locations seen so far, so each document is retrieved at most once
+    private final ConcurrentHashMap fLocations = new ConcurrentHashMap();
+    
+    private volatile boolean fCancelled = false;
+    
+    DOMDocumentPrefetcher(DOMWSDLReader reader, Executor executor)
+    {
+        fReader = reader;
+        fExecutor = executor;
+    }
+    
+    /**
+     * Scan a WSDL document for referenced documents and start retrieving them.
+     * 
+     * @param descEl the &lt;wsdl:description&gt; element
+     * @param documentBaseURI the location of the WSDL document, may be null
+     */
+    void discover(Element descEl, String documentBaseURI)
+    {
+        if(descEl == null || !QNameUtils.matches(Constants.Q_ELEM_DESCRIPTION, descEl)) {
+            return;
+        }
+        
+        URL contextURL = null;
+        if(documentBaseURI != null)
+        {
+            try {
+                contextURL = StringUtils.getURL(null, documentBaseURI);
+            } catch (MalformedURLException e) {
+                //the reader will report this
+                return;
+            }
+            fLocations.putIfAbsent(contextURL.toString(), Boolean.TRUE);
+        }
+        
+        Element tempEl = DOMUtils.getFirstChildElement(descEl);
+        while (tempEl != null)
+        {
+            if (QNameUtils.matches(Constants.Q_ELEM_IMPORT, tempEl) ||
+                QNameUtils.matches(Constants.Q_ELEM_INCLUDE, tempEl))
+            {
+                String location = DOMUtils.getAttribute(tempEl, Constants.ATTR_LOCATION);
+                prefetch(contextURL, location, true);
+            }
+            else if (QNameUtils.matches(Constants.Q_ELEM_TYPES, tempEl))
+            {
+                Element typesChild = DOMUtils.getFirstChildElement(tempEl);
+                while (typesChild != null)
+                {
+                    if (SchemaConstants.XSD_IMPORT_QNAME_LIST.contains(QNameUtils.newQName(typesChild)) &&
+                        DOMUtils.getAttribute(typesChild, Constants.ATTR_NAMESPACE) != null)
+                    {
+                        String location = DOMUtils.getAttribute(typesChild, SchemaConstants.ATTR_SCHEMA_LOCATION);
+                        prefetch(contextURL, location, false);
+                    }
+                    typesChild = DOMUtils.getNextSiblingElement(typesChild);
+                }
+            }
+            tempEl = DOMUtils.getNextSiblingElement(tempEl);
+        }
+        
+        //every description imports the schema for schema
+        prefetch(contextURL, XML_SCHEMA_LOCATION, false);
+    }
+    
+    /**
+     * Returns the parsed document for a location, waiting for it to be retrieved
+     * if necessary. If the location was not prefetched the document is retrieved
+     * now, on the calling thread. Errors are reported as per DOMWSDLReader.getDocument.
+     * 
+     * @param location the location URL
+     * @return the parsed document
+     * @throws WSDLException if a parsing error is reported as fatal
+     * @throws IOException if the document could not be retrieved
+     */
+    Document getDocument(String location) throws WSDLException, IOException
+    {
+        //a document is only used once, a later request for it is a new retrieval
+        FutureTask task = (FutureTask)fDocuments.remove(location);
+        if(task != null)
+        {
+            //run the task here if no executor thread has started it yet
+            task.run();
+            
+            try {
+                return (Document)task.get();
+            } 
+            catch (InterruptedException e) 
+            {
+                Thread.currentThread().interrupt();
+            } 
+            catch (ExecutionException e) 
+            {
+                Throwable cause = e.getCause();
+                if(cause instanceof IOException) {
+                    throw (IOException)cause;
+                }
+                if(cause instanceof SAXException) {
+                    fReader.reportParseError((SAXException)cause, location);
+                    return null;
+                }
+                //otherwise retrieve it again below, so the error surfaces as normal
+            }
+        }
+        
+        InputSource inputSource = new InputSource(location);
+        try {
+            return fReader.parseDocument(inputSource);
+        } 
+        catch (SAXException e) 
+        {
+            fReader.reportParseError(e, location);
+            return null;
+        }
+    }
+    
+    /**
+     * Stop scanning newly retrieved documents. Retrievals already started 
+     * are left to complete. 
+     */
+    void cancel()
+    {
+        fCancelled = true;
+        fDocuments.clear();
+    }
+    
+    private void prefetch(URL contextURL, String location, final boolean isWSDL)
+    {
+        if(location == null || fCancelled) {
+            return;
+        }
+        
+        final String locationStr;
+        try {
+            locationStr = StringUtils.getURL(contextURL, location).toString();
+        } catch (MalformedURLException e) {
+            //the reader will report this
+            return;
+        }
+        
+        if(fLocations.putIfAbsent(locationStr, Boolean.TRUE) != null) {
+            //already retrieved or being retrieved
+            return;
+        }
+        
+        FutureTask task = new FutureTask(new Callable() {
+            public Object call() throws Exception {
+                Document doc = fReader.parseDocument(new InputSource(locationStr));
+                if(isWSDL && doc != null) {
+                    discover(doc.getDocumentElement(), locationStr);
+                }
+                return doc;
+            }
+        });
+        
+        fDocuments.put(locationStr, task);
+        try {
+            fExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            //the task will be run by the reader when it needs the document
+        }
+    }
+    
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.util.LinkedList;
+
+import org.apache.xerces.impl.Constants;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+
+/**
+ * A pool of Xerces DOM parsers owned by a DOMWSDLReader. Validating and
+ * non-validating parsers are kept apart, so a parser is configured once
+ * when it is created and reused for later documents.
+ * <p>
+ * Validating parsers use the shared WSDLGrammarPool, so the WSDL 2.0
+ * schemas are not compiled again for each document.
+ * <p>
+ * The parsers record the line and column numbers of the elements they
+ * parse (see LocatingDOMParser).
+ * <p>
+ * The pool is thread-safe, as documents may be parsed by the
+ * DOMDocumentPrefetcher threads.
+ */
+final class DOMParserPool {
+
+    //The most parsers of each kind kept for reuse
+    static final int DEFAULT_MAX_IDLE = 4;
+
+    private final LinkedList fParsers = new LinkedList();
+    private final LinkedList fValidatingParsers = new LinkedList();
+
+    /**
+     * Take a parser from the pool, or create a new one if none is idle.
+     *
+     * @param validating true if the parser should validate against XML Schema
+     * @return a configured LocatingDOMParser
+     */
+    LocatingDOMParser getParser(boolean validating)
+    {
+        LinkedList parsers = validating ? fValidatingParsers : fParsers;
+        synchronized(parsers)
+        {
+            if(!parsers.isEmpty())
+            {
+                return (LocatingDOMParser)parsers.removeLast();
+            }
+        }
+        return createParser(validating);
+    }
+
+    /**
+     * Return a parser to the pool. The parser is reset first, so that it
+     * does not hold on to the last parsed document or its element positions.
+     *
+     * @param parser a parser obtained from getParser
+     * @param validating the value given to getParser
+     */
+    void releaseParser(LocatingDOMParser parser, boolean validating)
+    {
+        parser.reset();
+
+        LinkedList parsers = validating ? fValidatingParsers : fParsers;
+        synchronized(parsers)
+        {
+            if(parsers.size() < DEFAULT_MAX_IDLE)
+            {
+                parsers.addLast(parser);
+            }
+        }
+    }
+
+    private LocatingDOMParser createParser(boolean validating)
+    {
+        LocatingDOMParser parser;
+        if(validating)
+        {
+            parser = new LocatingDOMParser(WSDLGrammarPool.getSymbolTable(),
+                                           WSDLGrammarPool.getGrammarPool());
+        }
+        else
+        {
+            parser = new LocatingDOMParser();
+        }
+
+        try
+        {
+            parser.setFeature(Constants.SAX_FEATURE_PREFIX + Constants.NAMESPACES_FEATURE, true);
+            parser.setFeature(Constants.SAX_FEATURE_PREFIX + Constants.NAMESPACE_PREFIXES_FEATURE, true);
+        }
+        catch(SAXNotRecognizedException e)
+        {
+
+        }
+        catch(SAXNotSupportedException e)
+        {
+
+        }
+
+        if(validating)
+        {
+            try
+            {
+                parser.setFeature(Constants.SAX_FEATURE_PREFIX + Constants.VALIDATION_FEATURE, true);
+                parser.setFeature(Constants.XERCES_FEATURE_PREFIX + Constants.SCHEMA_VALIDATION_FEATURE, true);
+
+                //The WSDL 2.0 schemas are always in the grammar pool. The schema
+                //for XML Schema is only given as a location hint if it could not
+                //be loaded into the pool.
+                if(!WSDLGrammarPool.hasSchemaForSchemas())
+                {
+                    parser.setProperty(Constants.XERCES_PROPERTY_PREFIX + Constants.SCHEMA_LOCATION,
+                            WSDLGrammarPool.NS_URI_XSD + " " + WSDLGrammarPool.XSD_LOCATION);
+                }
+            }
+            catch(SAXNotRecognizedException e)
+            {
+                System.out.println("validation not supported by parser.");
+            }
+            catch(SAXNotSupportedException e)
+            {
+
+            }
+        }
+        return parser;
+    }
+}
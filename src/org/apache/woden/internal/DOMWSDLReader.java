@@ -20,11 +20,15 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Hashtable;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -37,12 +41,14 @@ import org.apache.woden.WSDLSource;
 import org.apache.woden.internal.schema.ImportedSchemaImpl;
 import org.apache.woden.internal.schema.InlinedSchemaImpl;
 import org.apache.woden.internal.schema.SchemaConstants;
+import org.apache.woden.internal.schema.SchemaDigest;
+import org.apache.woden.internal.schema.SchemaImpl;
 import org.apache.woden.internal.util.StringUtils;
 import org.apache.woden.internal.util.dom.DOMUtils;
 import org.apache.woden.internal.util.dom.QNameUtils;
 import org.apache.woden.internal.util.dom.XPathUtils;
 import org.apache.woden.internal.wsdl20.Constants;
-import org.apache.woden.internal.wsdl20.validation.WSDLComponentValidator;
+import org.apache.woden.internal.wsdl20.WSDLElementImpl;
 import org.apache.woden.internal.wsdl20.validation.WSDLDocumentValidator;
 import org.apache.woden.schema.Schema;
 import org.apache.woden.types.NCName;
@@ -77,7 +83,6 @@ import org.apache.woden.xml.XMLAttr;
 import org.apache.ws.commons.schema.XmlSchema;
 import org.apache.ws.commons.schema.XmlSchemaCollection;
 import org.apache.ws.commons.schema.XmlSchemaException;
-import org.apache.xerces.parsers.DOMParser;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -87,8 +92,6 @@ import org.w3c.dom.NodeList;
 import org.w3c.dom.Text;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.SAXNotRecognizedException;
-import org.xml.sax.SAXNotSupportedException;
 import org.xml.sax.SAXParseException;
 
 /**
@@ -98,18 +101,42 @@ import org.xml.sax.SAXParseException;
  */
 public class DOMWSDLReader extends BaseWSDLReader {
     
-    //a map of imported schema definitions keyed by schema location URI
-    private Map fImportedSchemas = new Hashtable();
-    
     /**
      * WSDL document validator. Only one instance is needed.
      */
     private WSDLDocumentValidator docValidator = null;
     
+    
+    /**
+     * Retrieves referenced documents concurrently while a WSDL is read,
+     * if the parallel imports feature is enabled. Null otherwise.
+     */
+    private DOMDocumentPrefetcher fPrefetcher = null;
+    
     /**
-     * WSDL component validator. Only one instance is needed.
+     * The Xerces parsers used to parse documents, kept for reuse.
      */
-    private WSDLComponentValidator compValidator = null;
+    private final DOMParserPool fParserPool = new DOMParserPool();
+    
+    /**
+     * The line and column numbers of the DOM elements parsed while reading
+     * the current WSDL, keyed by DOM Element (see LocatingDOMParser).
+     * Documents may be parsed by the DOMDocumentPrefetcher threads.
+     */
+    private final Map fElementLocations = Collections.synchronizedMap(new IdentityHashMap());
+    
+    /**
+     * The documents replayed from or recorded for a ParsedDocumentCache, keyed
+     * by the system id they were requested with, or null if no cache is
+     * being used. A synchronized map, as documents may be parsed by the 
+     * DOMDocumentPrefetcher threads.
+     */
+    private Map fCachedDocuments = null;
+    
+    /**
+     * Retrieves external entities through the URIResolver, if one is set.
+     */
+    private final WSDLEntityResolver fEntityResolver = new WSDLEntityResolver();
     
     public DOMWSDLReader() throws WSDLException {
         super();
@@ -226,25 +253,60 @@ public class DOMWSDLReader extends BaseWSDLReader {
     private DescriptionElement readWSDL(String wsdlURL, Element docEl) 
         throws WSDLException {
         
-        DescriptionElement desc = parseDescription(wsdlURL, docEl, null);
-        
-        // Validate the model if validation is enabled.
-        if(features.getValue(WSDLReader.FEATURE_VALIDATION))
+        try
         {
-            if(docValidator == null)
+            DescriptionElement desc = null;
+        
+            if(features.getValue(WSDLReader.FEATURE_PARALLEL_IMPORTS))
+            {
+                ExecutorService ownExecutor = null;
+                Executor executor = getImportExecutor();
+                if(executor == null)
+                {
+                    ownExecutor = Executors.newFixedThreadPool(
+                            WSDLReader.DEFAULT_IMPORT_THREADS, new DaemonThreadFactory("woden-import"));
+                    executor = ownExecutor;
+                }
+            
+                fPrefetcher = new DOMDocumentPrefetcher(this, executor);
+                try
+                {
+                    fPrefetcher.discover(docEl, wsdlURL);
+                    desc = parseDescription(wsdlURL, docEl, null);
+                }
+                finally
+                {
+                    fPrefetcher.cancel();
+                    fPrefetcher = null;
+                    if(ownExecutor != null)
+                    {
+                        ownExecutor.shutdownNow();
+                    }
+                }
+            }
+            else
             {
-                docValidator = new WSDLDocumentValidator();
+                desc = parseDescription(wsdlURL, docEl, null);
             }
-            if(docValidator.validate(desc, getErrorReporter()))
+        
+            // Validate the model if validation is enabled.
+            if(features.getValue(WSDLReader.FEATURE_VALIDATION))
             {
-                if(compValidator == null)
+                if(docValidator == null)
+                {
+                    docValidator = new WSDLDocumentValidator();
+                }
+                if(docValidator.validate(desc, getErrorReporter()))
                 {
-                    compValidator = new WSDLComponentValidator();
+                    validateComponents(getComponentValidator(), desc.toComponent());
                 }
-                compValidator.validate(desc.toComponent(), getErrorReporter());
             }
+            return desc;
+        }
+        finally
+        {
+            fElementLocations.clear();
         }
-        return desc;
     }
     
     /*
@@ -299,6 +361,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
         
         DescriptionElement desc = 
             ((DOMWSDLFactory)getFactory()).newDescription();
+        setSourceLocation(desc, descEl);
         
         if(wsdlModules == null) 
         {
@@ -317,14 +380,14 @@ public class DOMWSDLReader extends BaseWSDLReader {
             (desc.getExtensionRegistry()).setErrorReporter(getErrorReporter());
         }
         
-        desc.setDocumentBaseURI(getURI(documentBaseURI));
+        desc.setDocumentBaseURI(getURI(documentBaseURI, descEl, desc));
 
         String targetNamespace = 
             DOMUtils.getAttribute(descEl, Constants.ATTR_TARGET_NAMESPACE);
         
         if(targetNamespace != null)
         {
-            desc.setTargetNamespace(getURI(targetNamespace));
+            desc.setTargetNamespace(getURI(targetNamespace, descEl, desc));
         }
         
         //parse the namespace declarations
@@ -342,11 +405,11 @@ public class DOMWSDLReader extends BaseWSDLReader {
           {
             if (!(Constants.ATTR_XMLNS).equals(localPart))
             {
-              desc.addNamespace(localPart, getURI(value));  //a prefixed namespace
+              desc.addNamespace(localPart, getURI(value, descEl, desc));  //a prefixed namespace
             }
             else
             {
-              desc.addNamespace(null, getURI(value));       //the default namespace
+              desc.addNamespace(null, getURI(value, descEl, desc));       //the default namespace
             }
           }
         }
@@ -439,6 +502,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                                     throws WSDLException
     {
         DocumentationElement documentation = parent.addDocumentationElement();
+        setSourceLocation(documentation, docEl);
         
         //TODO store docEl as below, or just extract any text? 
         documentation.setContent(docEl);
@@ -466,6 +530,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                       throws WSDLException
     {
         ImportElement imp = desc.addImportElement();
+        setSourceLocation(imp, importEl);
         
         String namespaceURI = DOMUtils.getAttribute(importEl, Constants.ATTR_NAMESPACE);
         String locationURI = DOMUtils.getAttribute(importEl, Constants.ATTR_LOCATION);
@@ -475,15 +540,15 @@ public class DOMWSDLReader extends BaseWSDLReader {
         if(namespaceURI != null) 
         {
             //TODO handle missing namespace attribute (REQUIRED attr)
-            imp.setNamespace(getURI(namespaceURI));
+            imp.setNamespace(getURI(namespaceURI, importEl, desc));
         }
         
         if(locationURI != null)
         {
             //TODO handle missing locationURI (OPTIONAL attr)
-            imp.setLocation(getURI(locationURI));
+            imp.setLocation(getURI(locationURI, importEl, desc));
             DescriptionElement importedDesc = 
-                getWSDLFromLocation(locationURI, desc, wsdlModules);
+                getWSDLFromLocation(locationURI, importEl, desc, wsdlModules);
             imp.setDescriptionElement(importedDesc);
         }
         
@@ -496,6 +561,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                         throws WSDLException
     {
         IncludeElement include = desc.addIncludeElement();
+        setSourceLocation(include, includeEl);
         
         String locationURI = DOMUtils.getAttribute(includeEl, Constants.ATTR_LOCATION);
         
@@ -503,9 +569,9 @@ public class DOMWSDLReader extends BaseWSDLReader {
 
         if(locationURI != null)
         {
-            include.setLocation(getURI(locationURI));
+            include.setLocation(getURI(locationURI, includeEl, desc));
             DescriptionElement includedDesc = 
-                getWSDLFromLocation(locationURI, desc, wsdlModules);
+                getWSDLFromLocation(locationURI, includeEl, desc, wsdlModules);
             include.setDescriptionElement(includedDesc);
         }
         
@@ -522,6 +588,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                     throws WSDLException
     {
         TypesElement types = desc.getTypesElement();
+        setSourceLocation(types, typesEl);
         
         //TODO for now set to W3 XML Schema. Later, add support for non-XML Schema type systems
         types.setTypeSystem(Constants.TYPE_XSD_2001);
@@ -565,30 +632,38 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                      throws WSDLException
     {
         InlinedSchemaImpl schema = new InlinedSchemaImpl();
+        setSourceLocation(schema, schemaEl, desc);
         
         schema.setId(DOMUtils.getAttribute(schemaEl, Constants.ATTR_ID));
         
         String tns = DOMUtils.getAttribute(schemaEl, Constants.ATTR_TARGET_NAMESPACE);
         if(tns != null) {
-            schema.setNamespace(getURI(tns));
+            schema.setNamespace(getURI(tns, schemaEl, desc));
         }
         
         String baseURI = desc.getDocumentBaseURI() != null ?
                          desc.getDocumentBaseURI().toString() : null;
-        XmlSchema schemaDef = null;
         
-        try {
-            XmlSchemaCollection xsc = new XmlSchemaCollection();
-            schemaDef = xsc.read(schemaEl, baseURI);
-        } 
-        catch (XmlSchemaException e) 
+        //If the same schema content has been compiled before, reuse it.
+        String digest = SchemaDigest.digest(schemaEl);
+        XmlSchema schemaDef = getSchemaCache().getSchema(baseURI, digest);
+        
+        if(schemaDef == null) 
         {
-            getErrorReporter().reportError(
-                    new ErrorLocatorImpl(),  //TODO line&col nos.
-                    "WSDL521", 
-                    new Object[] {baseURI}, 
-                    ErrorReporter.SEVERITY_WARNING,
-                    e);
+            try {
+                XmlSchemaCollection xsc = createSchemaCollection();
+                schemaDef = xsc.read(schemaEl, baseURI);
+                getSchemaCache().putSchema(baseURI, digest, schemaDef);
+            } 
+            catch (XmlSchemaException e) 
+            {
+                getErrorReporter().reportError(
+                        getErrorLocator(schemaEl, desc),
+                        "WSDL521", 
+                        new Object[] {baseURI}, 
+                        ErrorReporter.SEVERITY_WARNING,
+                        e);
+            }
         }
         
         if(schemaDef != null) {
@@ -618,15 +693,16 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                      throws WSDLException
     {
         ImportedSchemaImpl schema = new ImportedSchemaImpl();
+        setSourceLocation(schema, importEl, desc);
         
         String ns = DOMUtils.getAttribute(importEl, Constants.ATTR_NAMESPACE);
         if(ns != null) {
-            schema.setNamespace(getURI(ns));
+            schema.setNamespace(getURI(ns, importEl, desc));
         }
         
         String sloc = DOMUtils.getAttribute(importEl, SchemaConstants.ATTR_SCHEMA_LOCATION);
         if(sloc != null) {
-            schema.setSchemaLocation(getURI(sloc));
+            schema.setSchemaLocation(getURI(sloc, importEl, desc));
         }
         
         if(schema.getNamespace() == null)
@@ -668,7 +744,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
  
             String baseLoc = contextURI != null ? contextURI.toString() : null;
             getErrorReporter().reportError(
-                    new ErrorLocatorImpl(),  //TODO line&col nos.
+                    getErrorLocator(importEl, desc),
                     "WSDL502", 
                     new Object[] {baseLoc, schemaLoc}, 
                     ErrorReporter.SEVERITY_ERROR);
@@ -680,42 +756,43 @@ public class DOMWSDLReader extends BaseWSDLReader {
         
         String schemaURL = url.toString();
         
-        //If the schema has already been imported, reuse it.
-        XmlSchema schemaDef = (XmlSchema)fImportedSchemas.get(schemaURL); 
+        //Retrieve the schema, then reuse it if the same content was already 
+        //compiled for this location.
+        try {
+            importedSchemaDoc = getReferencedDocument(schemaURL);
+            
+        } catch (IOException e4) {
+            
+            //schema retrieval failed (e.g. 'not found')
+            getErrorReporter().reportError(
+                    getErrorLocator(importEl, desc),
+                    "WSDL504", 
+                    new Object[] {schemaURL}, 
+                    ErrorReporter.SEVERITY_WARNING, 
+                    e4);
+            
+            //cannot continue without an imported schema
+            schema.setReferenceable(false);
+            return schema;
+        }
+        
+        schemaEl = importedSchemaDoc.getDocumentElement();
+        String digest = SchemaDigest.digest(schemaEl);
+        XmlSchema schemaDef = getSchemaCache().getSchema(schemaURL, digest); 
         
         if(schemaDef == null)
         {
-            //not previously imported, so retrieve it now.
-            try {
-                importedSchemaDoc = getDocument(new InputSource(schemaURL), schemaURL);
-                
-            } catch (IOException e4) {
-                
-                //schema retrieval failed (e.g. 'not found')
-                getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
-                        "WSDL504", 
-                        new Object[] {schemaURL}, 
-                        ErrorReporter.SEVERITY_WARNING, 
-                        e4);
-                
-                //cannot continue without an imported schema
-                schema.setReferenceable(false);
-                return schema;
-            }
-            
-            schemaEl = importedSchemaDoc.getDocumentElement();
-            
+            //not previously compiled, so compile it now.
             try {
                 String baseLoc = contextURI != null ? contextURI.toString() : null;
-                XmlSchemaCollection xsc = new XmlSchemaCollection();
+                XmlSchemaCollection xsc = createSchemaCollection();
                 schemaDef = xsc.read(schemaEl, baseLoc);
-                fImportedSchemas.put(schemaURL, schemaDef);
+                getSchemaCache().putSchema(schemaURL, digest, schemaDef);
             } 
             catch (XmlSchemaException e) 
             {
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(importEl, desc),
                         "WSDL522", 
                         new Object[] {schemaURL}, 
                         ErrorReporter.SEVERITY_WARNING,
@@ -738,6 +815,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                             throws WSDLException
     {
         InterfaceElement intface = desc.addInterfaceElement();
+        setSourceLocation(intface, interfaceEl);
 
         String name = DOMUtils.getAttribute(interfaceEl, Constants.ATTR_NAME);
         
@@ -755,7 +833,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
             while(it.hasNext())
             {
                 uriString = (String)it.next();
-                intface.addStyleDefaultURI(getURI(uriString));
+                intface.addStyleDefaultURI(getURI(uriString, interfaceEl, desc));
             }
         }
         
@@ -831,6 +909,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                              throws WSDLException
     {
         InterfaceFaultElement fault = parent.addInterfaceFaultElement();
+        setSourceLocation(fault, faultEl);
         fault.setParentElement(parent);
         
         String name = DOMUtils.getAttribute(faultEl, Constants.ATTR_NAME);
@@ -847,7 +926,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                 fault.setElementName(qname);
             } catch (WSDLException e) {
                 getErrorReporter().reportError( 
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(faultEl, desc),
                         "WSDL505",
                         new Object[] {element, QNameUtils.newQName(faultEl)}, 
                         ErrorReporter.SEVERITY_ERROR);
@@ -891,6 +970,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                                  throws WSDLException
     {
         InterfaceOperationElement oper = parent.addInterfaceOperationElement();
+        setSourceLocation(oper, operEl);
         oper.setParentElement(parent);
         
         String name = DOMUtils.getAttribute(operEl, Constants.ATTR_NAME);
@@ -908,14 +988,14 @@ public class DOMWSDLReader extends BaseWSDLReader {
             while(it.hasNext())
             {
                 uriString = (String)it.next();
-                oper.addStyleURI(getURI(uriString));
+                oper.addStyleURI(getURI(uriString, operEl, desc));
             }
         }
         
         String pat = DOMUtils.getAttribute(operEl, Constants.ATTR_PATTERN);
         if(pat != null)
         {
-            oper.setPattern(getURI(pat));
+            oper.setPattern(getURI(pat, operEl, desc));
         }
        
         parseExtensionAttributes(operEl, InterfaceOperationElement.class, oper, desc);
@@ -978,6 +1058,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                                  throws WSDLException
     {
         InterfaceFaultReferenceElement faultRef = parent.addInterfaceFaultReferenceElement();
+        setSourceLocation(faultRef, faultRefEl);
         faultRef.setParentElement(parent);
         
         if(Constants.ELEM_INFAULT.equals(faultRefEl.getLocalName())) {
@@ -995,7 +1076,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                 faultRef.setRef(qname);
             } catch (WSDLException e) {
                 getErrorReporter().reportError( 
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(faultRefEl, desc),
                         "WSDL505",
                         new Object[] {ref, QNameUtils.newQName(faultRefEl)}, 
                         ErrorReporter.SEVERITY_ERROR);
@@ -1052,6 +1133,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                                  throws WSDLException
     {
         InterfaceMessageReferenceElement message = parent.addInterfaceMessageReferenceElement();
+        setSourceLocation(message, msgRefEl);
         message.setParentElement(parent);
         
         if(Constants.ELEM_INPUT.equals(msgRefEl.getLocalName())) {
@@ -1104,7 +1186,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                     message.setElementName(qname);
                 } catch (WSDLException e) {
                     getErrorReporter().reportError( 
-                            new ErrorLocatorImpl(),  //TODO line&col nos.
+                            getErrorLocator(msgRefEl, desc),
                             "WSDL505",
                             new Object[] {element, QNameUtils.newQName(msgRefEl)}, 
                             ErrorReporter.SEVERITY_ERROR);
@@ -1153,6 +1235,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                         throws WSDLException
     {
         BindingElement binding = desc.addBindingElement();
+        setSourceLocation(binding, bindEl);
 
         String name = DOMUtils.getAttribute(bindEl, Constants.ATTR_NAME);
         if(name != null)
@@ -1169,7 +1252,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                 binding.setInterfaceName(intfaceQN);
             } catch (WSDLException e) {
                 getErrorReporter().reportError( 
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(bindEl, desc),
                         "WSDL505",
                         new Object[] {intface, QNameUtils.newQName(bindEl)}, 
                         ErrorReporter.SEVERITY_ERROR);
@@ -1178,7 +1261,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
         
         String type = DOMUtils.getAttribute(bindEl, Constants.ATTR_TYPE);
         if(type != null) {
-            binding.setType(getURI(type));
+            binding.setType(getURI(type, bindEl, desc));
         }
         
         parseExtensionAttributes(bindEl, BindingElement.class, binding, desc);
@@ -1232,6 +1315,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                                   throws WSDLException
     {
         BindingFaultElement fault = parent.addBindingFaultElement();
+        setSourceLocation(fault, bindFaultEl);
         fault.setParentElement(parent);
         
         QName intFltQN = null;
@@ -1243,7 +1327,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                 fault.setRef(intFltQN);
             } catch (WSDLException e) {
                 getErrorReporter().reportError( 
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(bindFaultEl, desc),
                         "WSDL505",
                         new Object[] {ref, QNameUtils.newQName(bindFaultEl)}, 
                         ErrorReporter.SEVERITY_ERROR);
@@ -1294,6 +1378,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                                  throws WSDLException
     {
         BindingOperationElement oper = parent.addBindingOperationElement();
+        setSourceLocation(oper, bindOpEl);
         oper.setParentElement(parent);
         
         QName refQN = null;
@@ -1305,7 +1390,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                 oper.setRef(refQN);
             } catch (WSDLException e) {
                 getErrorReporter().reportError( 
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(bindOpEl, desc),
                         "WSDL505",
                         new Object[] {ref, QNameUtils.newQName(bindOpEl)}, 
                         ErrorReporter.SEVERITY_ERROR);
@@ -1372,6 +1457,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                                   throws WSDLException
     {
         BindingFaultReferenceElement faultRef = parent.addBindingFaultReferenceElement();
+        setSourceLocation(faultRef, faultRefEl);
         faultRef.setParentElement(parent);
         
         QName refQN = null;
@@ -1383,7 +1469,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                 faultRef.setRef(refQN);
             } catch (WSDLException e) {
                 getErrorReporter().reportError( 
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(faultRefEl, desc),
                         "WSDL505",
                         new Object[] {ref, QNameUtils.newQName(faultRefEl)}, 
                         ErrorReporter.SEVERITY_ERROR);
@@ -1447,6 +1533,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                                  throws WSDLException
     {
         BindingMessageReferenceElement message = parent.addBindingMessageReferenceElement();
+        setSourceLocation(message, msgRefEl);
         message.setParentElement(parent);
         
         if(Constants.ELEM_INPUT.equals(msgRefEl.getLocalName())) {
@@ -1523,6 +1610,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                         throws WSDLException
     {
         ServiceElement service = desc.addServiceElement();
+        setSourceLocation(service, serviceEl);
 
         String name = DOMUtils.getAttribute(serviceEl, Constants.ATTR_NAME);
         if(name != null)
@@ -1539,7 +1627,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                 service.setInterfaceName(intfaceQN);
             } catch (WSDLException e) {
                 getErrorReporter().reportError( 
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(serviceEl, desc),
                         "WSDL505",
                         new Object[] {intface, QNameUtils.newQName(serviceEl)}, 
                         ErrorReporter.SEVERITY_ERROR);
@@ -1594,6 +1682,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                           throws WSDLException
     {
         EndpointElement endpoint = parent.addEndpointElement();
+        setSourceLocation(endpoint, endpointEl);
         endpoint.setParentElement(parent);
 
         String name = DOMUtils.getAttribute(endpointEl, Constants.ATTR_NAME);
@@ -1611,7 +1700,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                 endpoint.setBindingName(bindingQN);
             } catch (WSDLException e) {
                 getErrorReporter().reportError( 
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(endpointEl, desc),
                         "WSDL505",
                         new Object[] {binding, QNameUtils.newQName(endpointEl)}, 
                         ErrorReporter.SEVERITY_ERROR);
@@ -1623,7 +1712,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
         
         if(address != null)
         {
-            endpoint.setAddress(getURI(address));
+            endpoint.setAddress(getURI(address, endpointEl, desc));
         }
 
         parseExtensionAttributes(endpointEl, EndpointElement.class, endpoint, desc);
@@ -1669,12 +1758,13 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                         throws WSDLException
     {
         FeatureElement feature = parent.addFeatureElement();
+        setSourceLocation(feature, featEl);
         feature.setParentElement(parent);
         
         String ref = DOMUtils.getAttribute(featEl, Constants.ATTR_REF);
         if(ref != null)
         {
-            feature.setRef(getURI(ref));
+            feature.setRef(getURI(ref, featEl, desc));
         }
         
         String req = DOMUtils.getAttribute(featEl, Constants.ATTR_REQUIRED);
@@ -1740,12 +1830,13 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                           throws WSDLException
     {
         PropertyElement property = parent.addPropertyElement();
+        setSourceLocation(property, propEl);
         property.setParentElement(parent);
         
         String ref = DOMUtils.getAttribute(propEl, Constants.ATTR_REF);
         if(ref != null)
         {
-            property.setRef(getURI(ref));
+            property.setRef(getURI(ref, propEl, desc));
         }
         
         parseExtensionAttributes(propEl, PropertyElement.class, property, desc);
@@ -1787,7 +1878,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                                 property.setConstraintName(qname);
                             } catch (WSDLException e) {
                                 getErrorReporter().reportError(
-                                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                                        getErrorLocator(tempEl, desc),
                                         "WSDL505",
                                         new Object[] {textValue, QNameUtils.newQName(tempEl)},
                                         ErrorReporter.SEVERITY_ERROR,
@@ -1880,7 +1971,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
             if (namespaceURI == null || namespaceURI.equals(Constants.NS_URI_WSDL20))
             {
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(el, desc),
                         "WSDL520",
                         new Object[] {elementType, parentType.getName()},
                         ErrorReporter.SEVERITY_ERROR);
@@ -1892,7 +1983,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
             if (extReg == null)
             {
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(el, desc),
                         "WSDL514",
                         new Object[] {elementType, parentType.getName()},
                         ErrorReporter.SEVERITY_ERROR);
@@ -1933,7 +2024,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
         if (!QNameUtils.matches(qname, el))
         {
             getErrorReporter().reportError(
-                new ErrorLocatorImpl(),  //TODO line&col nos.
+                getErrorLocator(el, null),
                 "WSDL501", 
                 new Object[] {qname, QNameUtils.newQName(el)}, 
                 ErrorReporter.SEVERITY_FATAL_ERROR);
@@ -1948,83 +2039,174 @@ public class DOMWSDLReader extends BaseWSDLReader {
     {
         //TODO use 'desc' URL in any error message(s) for problem resolution.
         
-//        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-//            
-//        factory.setNamespaceAware(true);
-        
-        DOMParser parser = new DOMParser();
-        try
+        Document doc = null;
+            
+        try {
+            doc = parseDocument(inputSource);
+        } 
+        catch (SAXException e) 
         {
-        	parser.setFeature(org.apache.xerces.impl.Constants.SAX_FEATURE_PREFIX + org.apache.xerces.impl.Constants.NAMESPACES_FEATURE, true);
-        	parser.setFeature(org.apache.xerces.impl.Constants.SAX_FEATURE_PREFIX + org.apache.xerces.impl.Constants.NAMESPACE_PREFIXES_FEATURE, true);
+            reportParseError(e, desc);
+        } 
+            
+        //TODO - potentially returns null. correct after deciding how 
+        //to handle exceptions (e.g. return inside try block).
+        return doc;
+    }
+    
+    /*
+     * Retrieve a document referenced by an import or include, taking it from
+     * the prefetcher if the parallel imports feature is enabled.
+     */
+    private Document getReferencedDocument(String location)
+                                           throws WSDLException, IOException
+    {
+        if(fPrefetcher != null)
+        {
+            return fPrefetcher.getDocument(location);
         }
-        catch(SAXNotRecognizedException e)
+        return getDocument(new InputSource(location), location);
+    }
+    
+    /*
+     * Report a SAX parsing error in the document located at 'desc'.
+     */
+    void reportParseError(SAXException e, String desc) throws WSDLException
+    {
+        ErrorLocatorImpl locator;
+        if(e instanceof SAXParseException)
         {
-        	
+            SAXParseException spe = (SAXParseException)e;
+            String uri = spe.getSystemId() != null ? spe.getSystemId() : desc;
+            locator = new ErrorLocatorImpl(uri, spe.getLineNumber(), spe.getColumnNumber());
         }
-        catch(SAXNotSupportedException e)
+        else
         {
-        	
+            locator = new ErrorLocatorImpl();
+            locator.setDocumentBaseURI(desc);
         }
-        
+        getErrorReporter().reportError(
+            locator,
+            "WSDL500", 
+            new Object[] {"SAX", desc}, 
+            ErrorReporter.SEVERITY_FATAL_ERROR, 
+            e);
+    }
+    
+    /*
+     * Parse the input source into a DOM Document. Errors are not reported
+     * here, so this method can also be used by the DOMDocumentPrefetcher
+     * threads. The parser configuration depends only on the reader features.
+     */
+    Document parseDocument(InputSource inputSource) throws IOException, SAXException
+    {
         // Enable validation on the XML parser if it has been enabled 
         // for the Woden parser.
-        if(features.getValue(WSDLReader.FEATURE_VALIDATION))
-        {
-        	//factory.setValidating(true);
-        	try
-        	{
-        		parser.setFeature(org.apache.xerces.impl.Constants.SAX_FEATURE_PREFIX + org.apache.xerces.impl.Constants.VALIDATION_FEATURE, true);
-        		parser.setFeature(org.apache.xerces.impl.Constants.XERCES_FEATURE_PREFIX + org.apache.xerces.impl.Constants.SCHEMA_VALIDATION_FEATURE, true);
-        		// TODO: This external schema location should be removed once an URI resolution framework
-        		// with a catalog is added to Woden.
-        		parser.setProperty(org.apache.xerces.impl.Constants.XERCES_PROPERTY_PREFIX + org.apache.xerces.impl.Constants.SCHEMA_LOCATION, "http://www.w3.org/2006/01/wsdl http://www.w3.org/2006/01/wsdl/wsdl20.xsd http://www.w3.org/2006/01/wsdl-extensions http://www.w3.org/2006/01/wsdl-extensions.xsd http://www.w3.org/2001/XMLSchema http://www.w3.org/2001/XMLSchema.xsd");
-        	}
-            catch(SAXNotRecognizedException e)
-            {
-            	System.out.println("validation not supported by parser.");
+        boolean validating = features.getValue(WSDLReader.FEATURE_VALIDATION);
+        
+        // Retrieve the document through the URIResolver, unless the 
+        // application has supplied its content or a ParsedDocumentCache holds it.
+        Map cached = fCachedDocuments;
+        String systemId = null;
+        if(inputSource.getByteStream() == null && 
+           inputSource.getCharacterStream() == null && 
+           inputSource.getSystemId() != null)
+        {
+            systemId = inputSource.getSystemId();
+            if(cached != null)
+            {
+                ParsedDocumentCache.CachedDocument recorded =
+                    (ParsedDocumentCache.CachedDocument)cached.get(systemId);
+                if(recorded != null)
+                {
+                    fElementLocations.putAll(recorded.getLocations());
+                    return recorded.getDocument();
+                }
             }
-            catch(SAXNotSupportedException e)
+            InputSource resolved = createInputSource(systemId);
+            resolved.setPublicId(inputSource.getPublicId());
+            inputSource = resolved;
+        }
+        
+        LocatingDOMParser parser = fParserPool.getParser(validating);
+        try
+        {
+            parser.setEntityResolver(fEntityResolver);
+            parser.parse(inputSource);
+            Document doc = parser.getDocument();
+            Map locations = parser.takeLocations();
+            fElementLocations.putAll(locations);
+            if(cached != null && systemId != null)
             {
-            	
+                cached.put(systemId, 
+                        new ParsedDocumentCache.CachedDocument(doc, locations));
             }
+            return doc;
         }
-        else
+        finally
         {
-        	//factory.setValidating(false);
+            fParserPool.releaseParser(parser, validating);
         }
-            
-        Document doc = null;
-            
-        try {
-              
-            //DocumentBuilder builder = factory.newDocumentBuilder();
-            //builder.getDOMImplementation().hasFeature();
-            //builder.setErrorHandler(new ErrorHandlerWrapper(getErrorReporter()));
-            //builder.setEntityResolver(new DefaultHandler());
-            //doc = builder.parse(inputSource);
-        	parser.parse(inputSource);
-        	doc = parser.getDocument();
-                
-        } 
-//        catch (ParserConfigurationException e) 
-//        {
-//            String msg = getErrorReporter().getFormattedMessage("WSDL002", new Object[] {"XML"});
-//            throw new WSDLException(WSDLException.CONFIGURATION_ERROR, msg, e);
-//        } 
-        catch (SAXException e) 
+    }
+
+    /*
+     * Used by ParsedDocumentCache and WSDLRepository. While the map is set, documents requested 
+     * by system id are taken from it if present, and otherwise added to it 
+     * once parsed. Set it to null to stop using it.
+     */
+    void setCachedDocuments(Map documents)
+    {
+        fCachedDocuments = documents;
+    }
+
+    /*
+     * Give a WSDL element the line and column numbers of the DOM element
+     * it was read from, if they were recorded when the document was parsed.
+     */
+    private void setSourceLocation(Object wsdlElement, Element domEl)
+    {
+        Long location = (Long)fElementLocations.get(domEl);
+        if(location != null && wsdlElement instanceof WSDLElementImpl)
         {
-            getErrorReporter().reportError(
-                new ErrorLocatorImpl(),  //TODO line&col nos.
-                "WSDL500", 
-                new Object[] {"SAX", desc}, 
-                ErrorReporter.SEVERITY_FATAL_ERROR, 
-                e);
-        } 
-            
-        //TODO - potentially returns null. correct after deciding how 
-        //to handle exceptions (e.g. return inside try block).
-        return doc;
+            long pos = location.longValue();
+            ((WSDLElementImpl)wsdlElement).setSourceLocation(
+                    LocatingDOMParser.getLineNumber(pos),
+                    LocatingDOMParser.getColumnNumber(pos));
+        }
+    }
+    
+    /*
+     * Record on the schema the document and the position of the &lt;xs:schema&gt;
+     * or &lt;xs:import&gt; element it was read from.
+     */
+    private void setSourceLocation(SchemaImpl schema, Element domEl, DescriptionElement desc)
+    {
+        ErrorLocatorImpl locator = getErrorLocator(domEl, desc);
+        schema.setSourceLocation(locator.getDocumentBaseURI(),
+                                 locator.getLineNumber(),
+                                 locator.getColumnNumber());
+    }
+    
+    /*
+     * Returns an error locator for the DOM element, with the document base URI
+     * of the description being parsed, if any, and the line and column numbers 
+     * recorded when the document was parsed.
+     */
+    private ErrorLocatorImpl getErrorLocator(Element domEl, DescriptionElement desc)
+    {
+        ErrorLocatorImpl locator = new ErrorLocatorImpl();
+        if(desc != null && desc.getDocumentBaseURI() != null)
+        {
+            locator.setDocumentBaseURI(desc.getDocumentBaseURI().toString());
+        }
+        Long location = (Long)fElementLocations.get(domEl);
+        if(location != null)
+        {
+            long pos = location.longValue();
+            locator.setLineNumber(LocatingDOMParser.getLineNumber(pos));
+            locator.setColumnNumber(LocatingDOMParser.getColumnNumber(pos));
+        }
+        return locator;
     }
 
     /*
@@ -2032,7 +2214,9 @@ public class DOMWSDLReader extends BaseWSDLReader {
      * An empty string argument will return an empty string URI.
      * A null argument will return a null.
      */
-    private URI getURI(String anyURI) throws WSDLException
+    private URI getURI(String anyURI, 
+                       Element domEl, 
+                       DescriptionElement desc) throws WSDLException
     {
         URI uri = null;
         if(anyURI != null)
@@ -2041,7 +2225,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
                 uri = new URI(anyURI);
             } catch (URISyntaxException e) {
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(domEl, desc),
                         "WSDL506", 
                         new Object[] {anyURI}, 
                         ErrorReporter.SEVERITY_ERROR, 
@@ -2055,9 +2239,10 @@ public class DOMWSDLReader extends BaseWSDLReader {
      * Retrieve a WSDL document by resolving the location URI specified 
      * on a WSDL &lt;import&gt; or &lt;include&gt; element.
      * 
-     * TODO add support for a URL Catalog Resolver
+     * The document is retrieved through the URIResolver, if one is set.
      */
     private DescriptionElement getWSDLFromLocation(String locationURI,
+                                               Element refEl,
                                                DescriptionElement desc,
                                                Map wsdlModules)
                                                throws WSDLException
@@ -2078,7 +2263,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
             String baseURI = contextURI != null ? contextURI.toString() : null;
                     
             getErrorReporter().reportError(
-                    new ErrorLocatorImpl(),  //TODO line&col nos.
+                    getErrorLocator(refEl, desc),
                     "WSDL502", 
                     new Object[] {baseURI, locationURI}, 
                     ErrorReporter.SEVERITY_ERROR);
@@ -2096,15 +2281,14 @@ public class DOMWSDLReader extends BaseWSDLReader {
         {
             //not previously imported or included, so retrieve the WSDL.
             try {
-                Document doc = getDocument(
-                        new InputSource(locationStr), locationStr);
+                Document doc = getReferencedDocument(locationStr);
                 docEl = doc.getDocumentElement();
             } 
             catch (IOException e) 
             {
                 //document retrieval failed (e.g. 'not found')
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(refEl, desc),
                         "WSDL503", 
                         new Object[] {locationStr}, 
                         ErrorReporter.SEVERITY_WARNING, 
@@ -2117,8 +2301,10 @@ public class DOMWSDLReader extends BaseWSDLReader {
             //The referenced document should contain a WSDL <description>
             if(!QNameUtils.matches(Constants.Q_ELEM_DESCRIPTION, docEl))
             {
+                ErrorLocatorImpl locator = getErrorLocator(docEl, null);
+                locator.setDocumentBaseURI(locationStr);
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        locator,
                         "WSDL501", 
                         new Object[] {Constants.Q_ELEM_DESCRIPTION, 
                                       QNameUtils.newQName(docEl)}, 
@@ -2168,6 +2354,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
 		public void error(SAXParseException error) throws SAXException 
 		{
 			ErrorLocatorImpl locator = new ErrorLocatorImpl();
+			locator.setDocumentBaseURI(error.getSystemId());
 			locator.setLineNumber(error.getLineNumber());
 			locator.setColumnNumber(error.getColumnNumber());
 			try
@@ -2187,6 +2374,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
 		public void fatalError(SAXParseException error) throws SAXException 
 		{
 			ErrorLocatorImpl locator = new ErrorLocatorImpl();
+			locator.setDocumentBaseURI(error.getSystemId());
 			locator.setLineNumber(error.getLineNumber());
 			locator.setColumnNumber(error.getColumnNumber());
 			try
@@ -2206,6 +2394,7 @@ public class DOMWSDLReader extends BaseWSDLReader {
 		public void warning(SAXParseException warning) throws SAXException 
 		{
 			ErrorLocatorImpl locator = new ErrorLocatorImpl();
+			locator.setDocumentBaseURI(warning.getSystemId());
 			locator.setLineNumber(warning.getLineNumber());
 			locator.setColumnNumber(warning.getColumnNumber());
 			try
@@ -2221,13 +2410,28 @@ public class DOMWSDLReader extends BaseWSDLReader {
     	
     }
     
+    /*
+     * Retrieves external entities, such as DTDs and the schemas loaded by a
+     * validating parser, through the URIResolver if one is set. Returning
+     * null lets the parser retrieve the entity itself.
+     */
     class WSDLEntityResolver implements org.xml.sax.EntityResolver
     {
 
 		public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
-			// TODO Auto-generated method stub
+			if(getURIResolver() == null || systemId == null)
+			{
+				return null;
+			}
 			
-			return null;
+			InputSource inputSource = createInputSource(systemId);
+			if(inputSource.getByteStream() == null)
+			{
+				//not mapped by the resolver
+				return null;
+			}
+			inputSource.setPublicId(publicId);
+			return inputSource;
 		}
     	
     }
@@ -15,6 +15,8 @@
  */
 package org.apache.woden.internal;
 
+import java.util.Locale;
+
 import org.apache.woden.ErrorInfo;
 import org.apache.woden.ErrorLocator;
 
@@ -23,6 +25,9 @@ import org.apache.woden.ErrorLocator;
  * for reporting warnings, errors and fatal errors. It overrides
  * the toString() method to concatenate this information into
  * a single string for reporting purposes.
+ * <p>
+ * An error reported with a message key and arguments is only formatted
+ * when its message is first asked for.
  * 
  * @author jkaputin@apache.org
  */
@@ -36,7 +41,12 @@ public class ErrorInfoImpl implements ErrorInfo {
     private ErrorLocator fErrLoc;
     private String fKey;
     private String fMessage;
+    private Object[] fArguments;
     private Exception fException;
+    
+    //Used to format the message on first use, if it was not supplied
+    private MessageFormatter fMessageFormatter;
+    private Locale fLocale;
 
     public ErrorInfoImpl(ErrorLocator errorLocator,
                          String key, 
@@ -49,6 +59,21 @@ public class ErrorInfoImpl implements ErrorInfo {
         fException = exception;
     }
     
+    public ErrorInfoImpl(ErrorLocator errorLocator,
+                         String key, 
+                         Object[] arguments,
+                         MessageFormatter messageFormatter,
+                         Locale locale,
+                         Exception exception) 
+    {
+        fErrLoc = errorLocator;
+        fKey = key;
+        fArguments = arguments;
+        fMessageFormatter = messageFormatter;
+        fLocale = locale;
+        fException = exception;
+    }
+    
     public ErrorLocator getErrorLocator() {
         return fErrLoc;
     }
@@ -58,9 +83,16 @@ public class ErrorInfoImpl implements ErrorInfo {
     }
 
     public String getMessage() {
+        if(fMessage == null && fMessageFormatter != null) {
+            fMessage = fMessageFormatter.formatMessage(fLocale, fKey, fArguments);
+        }
         return fMessage;
     }
     
+    public Object[] getArguments() {
+        return fArguments;
+    }
+    
     public Exception getException() {
         return fException;
     }
@@ -71,12 +103,16 @@ public class ErrorInfoImpl implements ErrorInfo {
         
         if(fErrLoc != null)
         {
+            if(fErrLoc.getDocumentBaseURI() != null)
+            {
+                sb.append(fErrLoc.getDocumentBaseURI() + ":");
+            }
             sb.append(fErrLoc.getLineNumber() + ":" + 
                       fErrLoc.getColumnNumber() + ",");
         }
         
         sb.append(fKey + ",");
-        sb.append(fMessage);
+        sb.append(getMessage());
         
         if(fException != null) {
             sb.append("," + fException.getClass().getName() + ":" +
@@ -16,6 +16,8 @@
 package org.apache.woden.internal;
 
 import org.apache.woden.ErrorLocator;
+import org.apache.woden.internal.schema.SchemaImpl;
+import org.apache.woden.internal.wsdl20.WSDLElementImpl;
 
 /**
  * Represents the location of parsing error within a XML document.
@@ -25,23 +27,66 @@ import org.apache.woden.ErrorLocator;
  */
 public class ErrorLocatorImpl implements ErrorLocator {
     
+    private String fDocumentBaseURI;
+    private String fLocationURI;
     private int fLineNumber;
     private int fColumnNumber;
 
+    /**
+     * Creates a locator with no location information.
+     */
+    public ErrorLocatorImpl() {
+    }
+
+    /**
+     * Creates a locator for a position in a document.
+     * 
+     * @param documentBaseURI the URI of the document, or null.
+     * @param line the line number, or 0 if not known.
+     * @param col the column number, or 0 if not known.
+     */
+    public ErrorLocatorImpl(String documentBaseURI, int line, int col) {
+        fDocumentBaseURI = documentBaseURI;
+        fLineNumber = line;
+        fColumnNumber = col;
+    }
+
+    /**
+     * Returns a locator for the position a WSDL element or component, or a 
+     * schema, was read from. If the object was not read from a document, or is
+     * not a Woden element or schema, the locator has no location information.
+     * 
+     * @param element a WSDL element or component, a schema, or null.
+     * @return the locator.
+     */
+    public static ErrorLocatorImpl forElement(Object element) {
+        if(element instanceof WSDLElementImpl) {
+            WSDLElementImpl wsdlElement = (WSDLElementImpl)element;
+            return new ErrorLocatorImpl(wsdlElement.getSourceURI(),
+                                        wsdlElement.getSourceLineNumber(),
+                                        wsdlElement.getSourceColumnNumber());
+        }
+        if(element instanceof SchemaImpl) {
+            SchemaImpl schema = (SchemaImpl)element;
+            return new ErrorLocatorImpl(schema.getSourceURI(),
+                                        schema.getSourceLineNumber(),
+                                        schema.getSourceColumnNumber());
+        }
+        return new ErrorLocatorImpl();
+    }
+
     /* (non-Javadoc)
      * @see org.apache.woden.ErrorLocator#getDocumentBaseURI()
      */
     public String getDocumentBaseURI() {
-        // TODO required?
-        return null;
+        return fDocumentBaseURI;
     }
 
     /* (non-Javadoc)
      * @see org.apache.woden.ErrorLocator#getLocationURI()
      */
     public String getLocationURI() {
-        // TODO required?
-        return null;
+        return fLocationURI;
     }
 
     /* (non-Javadoc)
@@ -64,7 +109,7 @@ public class ErrorLocatorImpl implements ErrorLocator {
      * @param uri The URI of the base location to set.
      */
     public void setDocumentBaseURI(String uri) {
-        // TODO required?
+        fDocumentBaseURI = uri;
     }
 
     /**
@@ -73,7 +118,7 @@ public class ErrorLocatorImpl implements ErrorLocator {
      * @param uri The URI of the location to set.
      */
     public void setLocationURI(String uri) {
-        // TODO required?
+        fLocationURI = uri;
     }
 
     /**
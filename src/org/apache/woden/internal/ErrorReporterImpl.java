@@ -20,6 +20,7 @@ import org.apache.woden.ErrorHandler;
 import org.apache.woden.ErrorInfo;
 import org.apache.woden.ErrorLocator;
 import org.apache.woden.ErrorReporter;
+import org.apache.woden.FilteringErrorHandler;
 import org.apache.woden.WSDLException;
 import org.apache.woden.internal.ErrorInfoImpl;
 import org.apache.woden.internal.MessageFormatter;
@@ -50,6 +51,11 @@ import org.apache.woden.internal.util.PropertyUtils;
  * ErrorHandler). However, a different locale may be configured 
  * via <code>setLocale</code> and a custom error handler implementation 
  * may be configured as a system property.
+ * <p/>
+ * Messages reported with an error id and arguments are formatted only
+ * when the error handler asks for them. If the error handler is a 
+ * FilteringErrorHandler, errors of the severities it does not want are
+ * not passed to it at all.
  * 
  * @author jkaputin@apache.org
  */
@@ -179,8 +185,14 @@ public class ErrorReporterImpl implements ErrorReporter {
                             Exception exception)
     throws WSDLException
     {
-        String message = fMessageFormatter.formatMessage(fLocale, errorId, arguments);
-        reportError(errLoc, errorId, message, severity, exception);
+        ErrorHandler eh = getErrorHandler();
+        if(severity != SEVERITY_FATAL_ERROR && isIgnored(eh, severity)) {
+            return;
+        }
+        
+        ErrorInfo errorInfo = new ErrorInfoImpl(errLoc, errorId, arguments, 
+                fMessageFormatter, fLocale, exception);
+        report(eh, errorInfo, severity, exception);
     }
     
     /*
@@ -210,17 +222,45 @@ public class ErrorReporterImpl implements ErrorReporter {
         ErrorInfo errorInfo = 
             new ErrorInfoImpl(errLoc, errorId, message, exception);
 
-        ErrorHandler eh = 
-            (fErrorHandler != null) ? fErrorHandler : fDefaultErrorHandler;
+        ErrorHandler eh = getErrorHandler();
+        report(eh, errorInfo, severity, exception);
+    }
+    
+    /*
+     * Returns true if the error handler does not want errors of this severity.
+     */
+    private boolean isIgnored(ErrorHandler eh, short severity)
+    {
+        return eh instanceof FilteringErrorHandler &&
+               !((FilteringErrorHandler)eh).isReported(severity);
+    }
+    
+    /*
+     * Pass the error to the error handler according to its severity, unless 
+     * the handler does not want it, and terminate on a fatal error.
+     */
+    private void report(ErrorHandler eh, 
+                        ErrorInfo errorInfo, 
+                        short severity, 
+                        Exception exception)
+    throws WSDLException
+    {
+        boolean ignored = isIgnored(eh, severity);
         
         if(severity == SEVERITY_WARNING) {
-            eh.warning(errorInfo);
+            if(!ignored) {
+                eh.warning(errorInfo);
+            }
         }
         else if(severity == SEVERITY_ERROR) {
-            eh.error(errorInfo);
+            if(!ignored) {
+                eh.error(errorInfo);
+            }
         }
         else if(severity == SEVERITY_FATAL_ERROR) {
-            eh.fatalError(errorInfo);
+            if(!ignored) {
+                eh.fatalError(errorInfo);
+            }
             
             // Fatal error strategy is to terminate with a WSDLException.
             
@@ -0,0 +1,135 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.parsers.DOMParser;
+import org.apache.xerces.util.SymbolTable;
+import org.apache.xerces.xni.Augmentations;
+import org.apache.xerces.xni.NamespaceContext;
+import org.apache.xerces.xni.QName;
+import org.apache.xerces.xni.XMLAttributes;
+import org.apache.xerces.xni.XMLLocator;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.w3c.dom.Node;
+
+/**
+ * A Xerces DOM parser that records where each element was read from, so that
+ * the DOMWSDLReader can give the WSDL elements it creates their line and 
+ * column numbers. The position recorded is that reported by the parser for
+ * the start tag, which is the end of the tag.
+ * <p>
+ * The positions are kept in an identity map rather than in the DOM, and are
+ * packed into a long by pack(). Deferred node expansion is turned off, as 
+ * the elements must exist when their start tags are parsed. The DOMWSDLReader
+ * visits every element of a WSDL document anyway, so there is little to gain
+ * from deferring them.
+ */
+class LocatingDOMParser extends DOMParser {
+    
+    private static final String DEFER_NODE_EXPANSION =
+        Constants.XERCES_FEATURE_PREFIX + Constants.DEFER_NODE_EXPANSION_FEATURE;
+    
+    private XMLLocator fLocator = null;
+    
+    //DOM Element to Long position, for the document being parsed
+    private Map fLocations = new IdentityHashMap();
+    
+    LocatingDOMParser()
+    {
+        super();
+        setDeferNodeExpansion();
+    }
+    
+    LocatingDOMParser(SymbolTable symbolTable, XMLGrammarPool grammarPool)
+    {
+        super(symbolTable, grammarPool);
+        setDeferNodeExpansion();
+    }
+    
+    /**
+     * Returns the positions of the elements of the last document parsed, 
+     * keyed by DOM Element, and forgets them.
+     */
+    Map takeLocations()
+    {
+        Map locations = fLocations;
+        fLocations = new IdentityHashMap();
+        return locations;
+    }
+    
+    /**
+     * Packs a line and column number into a long.
+     */
+    static long pack(int line, int column)
+    {
+        return ((long)line << 32) | (column & 0xffffffffL);
+    }
+    
+    static int getLineNumber(long position)
+    {
+        return (int)(position >>> 32);
+    }
+    
+    static int getColumnNumber(long position)
+    {
+        return (int)position;
+    }
+    
+    public void reset()
+    {
+        super.reset();
+        fLocator = null;
+        fLocations = new IdentityHashMap();
+    }
+    
+    public void startDocument(XMLLocator locator, String encoding, 
+            NamespaceContext namespaceContext, Augmentations augs) throws XNIException 
+    {
+        fLocator = locator;
+        super.startDocument(locator, encoding, namespaceContext, augs);
+    }
+    
+    public void startElement(QName element, XMLAttributes attributes, 
+            Augmentations augs) throws XNIException 
+    {
+        super.startElement(element, attributes, augs);
+        
+        //Empty elements are reported through startElement too
+        if(fLocator != null && fCurrentNode != null && 
+           fCurrentNode.getNodeType() == Node.ELEMENT_NODE)
+        {
+            fLocations.put(fCurrentNode, new Long(
+                    pack(fLocator.getLineNumber(), fLocator.getColumnNumber())));
+        }
+    }
+    
+    private void setDeferNodeExpansion()
+    {
+        try
+        {
+            setFeature(DEFER_NODE_EXPANSION, false);
+        }
+        catch(org.xml.sax.SAXException e)
+        {
+            //the parser records no positions while deferring
+        }
+    }
+}
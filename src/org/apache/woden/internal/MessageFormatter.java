@@ -16,7 +16,9 @@
 package org.apache.woden.internal;
 
 import java.text.MessageFormat;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 
@@ -26,11 +28,17 @@ import java.util.ResourceBundle;
  * in the unformatted message text with values supplied at invocation. The error
  * messages may be translated into a localized resource bundle, so a locale may be
  * specified to determine the localization required.
+ * <p>
+ * The compiled MessageFormat for each message key and locale is cached, 
+ * and shared by all MessageFormatter instances.
  * 
  * @author jkaputin@apache.org
  */
 public class MessageFormatter {
 
+    //Locale and message key to compiled MessageFormat
+    private static final Map fFormats = new HashMap();
+
     /**
      * The specified key is used to retrieve an unformatted message from a  
      * resource bundle localized for the specified locale. This text is then
@@ -48,6 +56,29 @@ public class MessageFormatter {
      */
     public String formatMessage(Locale locale, String key, Object[] args) {
         
+        MessageFormat format = getMessageFormat(locale, key);
+        
+        //MessageFormat is not thread-safe.
+        synchronized(format) {
+            return format.format(args);
+        }
+    }
+    
+    /*
+     * Returns the compiled message text for the key in the specified locale,
+     * compiling it on first use.
+     */
+    private static MessageFormat getMessageFormat(Locale locale, String key) {
+        
+        String cacheKey = (locale != null ? locale.toString() : "") + ":" + key;
+        
+        synchronized(fFormats) {
+            MessageFormat format = (MessageFormat)fFormats.get(cacheKey);
+            if(format != null) {
+                return format;
+            }
+        }
+        
         ResourceBundle bundle = null;
         
         if (locale == null) {
@@ -58,9 +89,12 @@ public class MessageFormatter {
         }
         
         String unformattedMsg = bundle.getString(key);
-        String formattedMsg = MessageFormat.format(unformattedMsg, args);
+        MessageFormat format = new MessageFormat(unformattedMsg);
         
-        return formattedMsg;
+        synchronized(fFormats) {
+            fFormats.put(cacheKey, format);
+        }
+        return format;
     }
 
 }
@@ -24,6 +24,7 @@ import org.apache.woden.WSDLSource;
 import org.apache.woden.internal.schema.ImportedSchemaImpl;
 import org.apache.woden.internal.schema.InlinedSchemaImpl;
 import org.apache.woden.internal.schema.SchemaConstants;
+import org.apache.woden.internal.schema.SchemaDigest;
 import org.apache.woden.internal.util.StringUtils;
 import org.apache.woden.internal.util.om.OMUtils;
 import org.apache.woden.internal.util.om.QNameUtils;
@@ -66,12 +67,12 @@ import org.xml.sax.InputSource;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.HashMap;
-import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -81,9 +82,6 @@ import java.util.Map;
  */
 public class OMWSDLReader extends BaseWSDLReader{
 
-    //A map of imported schema definitions keyed by schema location URI
-    private Map fImportedSchemas = new Hashtable();
-
     public OMWSDLReader() throws WSDLException {
         super();
     }
@@ -106,7 +104,7 @@ public class OMWSDLReader extends BaseWSDLReader{
                         ? wsdlURI
                         : ("file://"+wsdlURI);
 
-        OMElement wsdlDescription = OMUtils.getElement(wsdlURL);
+        OMElement wsdlDescription = getElement(wsdlURL, "WSDL503");
 
         return parseDescription(wsdlURL, wsdlDescription, null);
     }
@@ -116,7 +114,7 @@ public class OMWSDLReader extends BaseWSDLReader{
                                                 Map wsdlModules)
                                                 throws WSDLException {
 
-        checkElementName(omDescription,Constants.Q_ELEM_DESCRIPTION);
+        checkElementName(omDescription, Constants.Q_ELEM_DESCRIPTION, documentBaseURI);
 
         //Get the description element that the components to be assigned to
         DescriptionElement desc = getFactory().newDescription();
@@ -134,12 +132,12 @@ public class OMWSDLReader extends BaseWSDLReader{
             (desc.getExtensionRegistry()).setErrorReporter(getErrorReporter());
         }
 
-        desc.setDocumentBaseURI(getURI(documentBaseURI));
+        desc.setDocumentBaseURI(getURI(documentBaseURI, omDescription, desc));
 
         //Set the target namespace
         String targetNamespace = OMUtils.getAttribute(omDescription, Constants.ATTR_TARGET_NAMESPACE);
         if(targetNamespace != null){
-            desc.setTargetNamespace(getURI(targetNamespace));
+            desc.setTargetNamespace(getURI(targetNamespace, omDescription, desc));
         }
 
         //Parse namespace declarations
@@ -150,10 +148,10 @@ public class OMWSDLReader extends BaseWSDLReader{
             String value = namespace.getNamespaceURI();
 
           if (!(Constants.ATTR_XMLNS).equals(localPart)){
-            desc.addNamespace(localPart, getURI(value));  //a prefixed namespace
+            desc.addNamespace(localPart, getURI(value, omDescription, desc));  //a prefixed namespace
           }
           else{
-            desc.addNamespace(null, getURI(value));       //the default namespace
+            desc.addNamespace(null, getURI(value, omDescription, desc));       //the default namespace
           }
         }
 
@@ -282,7 +280,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             }
             catch(WSDLException e){
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),
+                        getErrorLocator(serviceEl, desc),
                         "WSDL505",
                         serviceEl.getLocalName(),
                         ErrorReporter.SEVERITY_ERROR);
@@ -338,7 +336,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             }
             catch(WSDLException e){
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),
+                        getErrorLocator(endpointEl, desc),
                         "WSDL505",
                         new Object[] {binding, QNameUtils.newQName(endpointEl)},
                         ErrorReporter.SEVERITY_ERROR);
@@ -347,7 +345,7 @@ public class OMWSDLReader extends BaseWSDLReader{
 
         String address = OMUtils.getAttribute(endpointEl, Constants.ATTR_ADDRESS);
         if(address != null){
-            endpoint.setAddress(getURI(address));
+            endpoint.setAddress(getURI(address, endpointEl, desc));
         }
 
         parseExtensionAttributes(endpointEl, EndpointElement.class, endpoint, desc);
@@ -394,7 +392,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             }
             catch(WSDLException e){
                 getErrorReporter().reportError(
-                    new ErrorLocatorImpl(),
+                    getErrorLocator(bindEl, desc),
                     "WSDL505",
                     new Object[] {intface, QNameUtils.newQName(bindEl)},
                     ErrorReporter.SEVERITY_ERROR);
@@ -403,7 +401,7 @@ public class OMWSDLReader extends BaseWSDLReader{
 
         String type = OMUtils.getAttribute(bindEl, Constants.ATTR_TYPE);
         if(type != null) {
-            binding.setType(getURI(type));
+            binding.setType(getURI(type, bindEl, desc));
         }
 
         parseExtensionAttributes(bindEl, BindingElement.class, binding, desc);
@@ -452,7 +450,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             }
             catch(WSDLException e){
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),
+                        getErrorLocator(bindOpEl, desc),
                         "WSDL505",
                         new Object[] {ref, QNameUtils.newQName(bindOpEl)},
                         ErrorReporter.SEVERITY_ERROR);
@@ -513,7 +511,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             }
             catch(WSDLException e){
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),
+                        getErrorLocator(faultRefEl, desc),
                         "WSDL505",
                         new Object[] {ref, QNameUtils.newQName(faultRefEl)},
                         ErrorReporter.SEVERITY_ERROR);
@@ -636,7 +634,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             }
             catch(WSDLException e){
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),
+                        getErrorLocator(bindFaultEl, desc),
                         "WSDL505",
                         new Object[] {ref, QNameUtils.newQName(bindFaultEl)},
                         ErrorReporter.SEVERITY_ERROR);
@@ -681,7 +679,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             Iterator it = stringList.iterator();
             while(it.hasNext()){
                 uriString = (String)it.next();
-                intface.addStyleDefaultURI(getURI(uriString));
+                intface.addStyleDefaultURI(getURI(uriString, interfaceEl, desc));
             }
         }
 
@@ -747,13 +745,13 @@ public class OMWSDLReader extends BaseWSDLReader{
             Iterator it = stringList.iterator();
             while(it.hasNext()){
                 uriString = (String)it.next();
-                oper.addStyleURI(getURI(uriString));
+                oper.addStyleURI(getURI(uriString, operEl, desc));
             }
         }
 
         String pat = OMUtils.getAttribute(operEl, Constants.ATTR_PATTERN);
         if(pat != null){
-            oper.setPattern(getURI(pat));
+            oper.setPattern(getURI(pat, operEl, desc));
         }
 
         parseExtensionAttributes(operEl, InterfaceOperationElement.class, oper, desc);
@@ -816,7 +814,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             }
             catch(WSDLException e){
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),
+                        getErrorLocator(faultRefEl, desc),
                         "WSDL505",
                         new Object[] {ref, QNameUtils.newQName(faultRefEl)},
                         ErrorReporter.SEVERITY_ERROR);
@@ -968,7 +966,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             }
             catch (WSDLException e) {
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(faultEl, desc),
                         "WSDL505",
                         new Object[] {element, QNameUtils.newQName(faultEl)},
                         ErrorReporter.SEVERITY_ERROR);
@@ -1008,7 +1006,7 @@ public class OMWSDLReader extends BaseWSDLReader{
 
         String ref = OMUtils.getAttribute(propEl, Constants.ATTR_REF);
         if(ref != null){
-            property.setRef(getURI(ref));
+            property.setRef(getURI(ref, propEl, desc));
         }
 
         parseExtensionAttributes(propEl, PropertyElement.class, property, desc);
@@ -1059,12 +1057,12 @@ public class OMWSDLReader extends BaseWSDLReader{
         String ns = OMUtils.getAttribute(importEl, Constants.ATTR_NAMESPACE);
 
         if(ns != null) {
-            schema.setNamespace(getURI(ns));
+            schema.setNamespace(getURI(ns, importEl, desc));
         }
 
         String sloc = OMUtils.getAttribute(importEl, SchemaConstants.ATTR_SCHEMA_LOCATION);
         if(sloc != null) {
-            schema.setSchemaLocation(getURI(sloc));
+            schema.setSchemaLocation(getURI(sloc, importEl, desc));
         }
 
         if(schema.getNamespace() == null){
@@ -1106,7 +1104,7 @@ public class OMWSDLReader extends BaseWSDLReader{
 
             String baseLoc = contextURI != null ? contextURI.toString() : null;
             getErrorReporter().reportError(
-                    new ErrorLocatorImpl(),  //TODO line&col nos.
+                    getErrorLocator(importEl, desc),
                     "WSDL502",
                     new Object[] {baseLoc, schemaLoc},
                     ErrorReporter.SEVERITY_ERROR);
@@ -1118,37 +1116,49 @@ public class OMWSDLReader extends BaseWSDLReader{
 
         String schemaURL = url.toString();
 
-        //If the schema has already been imported, reuse it.
-        XmlSchema schemaDef = (XmlSchema)fImportedSchemas.get(schemaURL);
+        //Retrieve the schema, then reuse it if the same content was already
+        //compiled for this location.
+        importedSchemaDoc = getElement(schemaURL, "WSDL504");
+
+        /*
+        * First get the first element and serialize that into a byte array.
+        * This is used in getting an InputSource which is later used as an argument
+        * to the XMLSchemaCollection object.
+        */
+        schemaEl = importedSchemaDoc.getFirstElement();
+        String schemaElStr = null;
+        try {
+            schemaElStr = schemaEl.toStringWithConsume();
+        }
+        catch (XMLStreamException e) {
+            //the imported schema document could not be read
+            getErrorReporter().reportError(
+                    getErrorLocator(importEl, desc),
+                    "WSDL504",
+                    new Object[] {schemaURL},
+                    ErrorReporter.SEVERITY_WARNING,
+                    e);
+
+            //cannot continue without an imported schema
+            schema.setReferenceable(false);
+            return schema;
+        }
+        String digest = SchemaDigest.digest(schemaElStr, null);
+        XmlSchema schemaDef = getSchemaCache().getSchema(schemaURL, digest);
 
         if(schemaDef == null){
-            //not previously imported, so retrieve it now.
-            importedSchemaDoc = OMUtils.getElement(schemaURL);
-
-            /*
-            * First get the first element and serialize that into a byte array.
-            * This is used in getting an InputSource which is later used as an argument
-            * to the XMLSchemaCollection object.
-            */
-            schemaEl = importedSchemaDoc.getFirstElement();
-            String schemaElStr = null;
-            try {
-                schemaElStr = schemaEl.toStringWithConsume();
-            }
-            catch (XMLStreamException e) {
-                e.printStackTrace();
-            }
+            //not previously compiled, so compile it now.
             byte[] schemaElbytes = schemaElStr.getBytes();
             InputSource schemaSource = new InputSource(new ByteArrayInputStream(schemaElbytes));
 
             try {
-                XmlSchemaCollection xsc = new XmlSchemaCollection();
+                XmlSchemaCollection xsc = createSchemaCollection();
                 schemaDef = xsc.read(schemaSource, null);
-                fImportedSchemas.put(schemaURL, schemaDef);
+                getSchemaCache().putSchema(schemaURL, digest, schemaDef);
             }
             catch (XmlSchemaException e){
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(importEl, desc),
                         "WSDL522",
                         new Object[] {schemaURL},
                         ErrorReporter.SEVERITY_WARNING,
@@ -1173,32 +1183,54 @@ public class OMWSDLReader extends BaseWSDLReader{
         schema.setId(OMUtils.getAttribute(schemaElement, Constants.ATTR_ID));
         String tns = OMUtils.getAttribute(schemaElement, Constants.ATTR_TARGET_NAMESPACE);
         if(tns != null) {
-            schema.setNamespace(getURI(tns));
+            schema.setNamespace(getURI(tns, schemaElement, desc));
         }
 
         String baseURI = desc.getDocumentBaseURI() != null ?
                          desc.getDocumentBaseURI().toString() : null;
 
-        XmlSchema schemaDef = null;
-
+        String schemaElStr = null;
         try {
-            InputSource schemaSource = OMUtils.getInputSource(schemaElement);
-            XmlSchemaCollection xsc = new XmlSchemaCollection();
-
-            //Set the baseURI and the namespaces from the DescriptionElement in the XMLSchemaCollection
-            xsc.setBaseUri(baseURI);
-            NamespaceMap namespaces = new NamespaceMap(desc.getNamespaces());
-            xsc.setNamespaceContext(namespaces);
-            schemaDef = xsc.read(schemaSource, null);
+            schemaElStr = schemaElement.toStringWithConsume();
         }
-        catch (XmlSchemaException e){
-
+        catch (XMLStreamException e) {
+            //the inline schema could not be read
             getErrorReporter().reportError(
-                    new ErrorLocatorImpl(),  //TODO line&col nos.
+                    getErrorLocator(schemaElement, desc),
                     "WSDL521",
                     new Object[] {baseURI},
                     ErrorReporter.SEVERITY_WARNING,
                     e);
+            schema.setReferenceable(false);
+            return schema;
+        }
+
+        //If the same schema content has been compiled before, reuse it.
+        String digest = SchemaDigest.digest(schemaElStr, desc.getNamespaces());
+        XmlSchema schemaDef = getSchemaCache().getSchema(baseURI, digest);
+
+        if(schemaDef == null){
+            try {
+                byte[] schemaElbytes = schemaElStr.getBytes();
+                InputSource schemaSource = new InputSource(new ByteArrayInputStream(schemaElbytes));
+                XmlSchemaCollection xsc = createSchemaCollection();
+
+                //Set the baseURI and the namespaces from the DescriptionElement in the XMLSchemaCollection
+                xsc.setBaseUri(baseURI);
+                NamespaceMap namespaces = new NamespaceMap(desc.getNamespaces());
+                xsc.setNamespaceContext(namespaces);
+                schemaDef = xsc.read(schemaSource, null);
+                getSchemaCache().putSchema(baseURI, digest, schemaDef);
+            }
+            catch (XmlSchemaException e){
+
+                getErrorReporter().reportError(
+                        getErrorLocator(schemaElement, desc),
+                        "WSDL521",
+                        new Object[] {baseURI},
+                        ErrorReporter.SEVERITY_WARNING,
+                        e);
+            }
         }
         if(schemaDef != null) {
             schema.setSchemaDefinition(schemaDef);
@@ -1221,7 +1253,7 @@ public class OMWSDLReader extends BaseWSDLReader{
 
         String ref = OMUtils.getAttribute(featEl, Constants.ATTR_REF);
         if(ref != null){
-            feature.setRef(getURI(ref));
+            feature.setRef(getURI(ref, featEl, desc));
         }
 
         String req = OMUtils.getAttribute(featEl, Constants.ATTR_REQUIRED);
@@ -1270,14 +1302,14 @@ public class OMWSDLReader extends BaseWSDLReader{
 
         if(namespaceURI != null){
             //TODO handle missing namespace attribute (REQUIRED attr)
-            imp.setNamespace(getURI(namespaceURI));
+            imp.setNamespace(getURI(namespaceURI, importEl, desc));
         }
 
         if(locationURI != null){
             //TODO handle missing locationURI (OPTIONAL attr)
-            imp.setLocation(getURI(locationURI));
+            imp.setLocation(getURI(locationURI, importEl, desc));
             DescriptionElement importedDesc =
-                getWSDLFromLocation(locationURI, desc, wsdlModules);
+                getWSDLFromLocation(locationURI, importEl, desc, wsdlModules);
             imp.setDescriptionElement(importedDesc);
         }
 
@@ -1295,9 +1327,9 @@ public class OMWSDLReader extends BaseWSDLReader{
         parseExtensionAttributes(includeEl, IncludeElement.class, include, desc);
 
         if(locationURI != null){
-            include.setLocation(getURI(locationURI));
+            include.setLocation(getURI(locationURI, includeEl, desc));
             DescriptionElement includedDesc =
-                getWSDLFromLocation(locationURI, desc, wsdlModules);
+                getWSDLFromLocation(locationURI, includeEl, desc, wsdlModules);
             include.setDescriptionElement(includedDesc);
         }
 
@@ -1317,7 +1349,7 @@ public class OMWSDLReader extends BaseWSDLReader{
         try{
             if (namespaceURI == null || namespaceURI.equals(Constants.NS_URI_WSDL20)){
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(el, desc),
                         "WSDL520",
                         new Object[] {elementType, parentType.getName()},
                         ErrorReporter.SEVERITY_ERROR);
@@ -1328,7 +1360,7 @@ public class OMWSDLReader extends BaseWSDLReader{
 
             if (extReg == null){
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(el, desc),
                         "WSDL514",
                         new Object[] {elementType, parentType.getName()},
                         ErrorReporter.SEVERITY_ERROR);
@@ -1394,7 +1426,9 @@ public class OMWSDLReader extends BaseWSDLReader{
      * An empty string argument will return an empty string URI.
      * A null argument will return a null.
      */
-    private URI getURI(String anyURI) throws WSDLException{
+    private URI getURI(String anyURI,
+                       OMElement el,
+                       DescriptionElement desc) throws WSDLException{
         URI uri = null;
         if(anyURI != null){
             try {
@@ -1402,7 +1436,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             }
             catch (URISyntaxException e) {
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        getErrorLocator(el, desc),
                         "WSDL506",
                         new Object[] {anyURI},
                         ErrorReporter.SEVERITY_ERROR,
@@ -1412,20 +1446,40 @@ public class OMWSDLReader extends BaseWSDLReader{
         return uri;
     }
 
+    /*
+     * Returns an error locator for the OM element, with the document base URI
+     * of the description being parsed, if any, and the line number set by the
+     * builder the element was read with. No column number is recorded.
+     */
+    private ErrorLocatorImpl getErrorLocator(OMElement el, DescriptionElement desc) {
+        ErrorLocatorImpl locator = new ErrorLocatorImpl();
+        if(desc != null && desc.getDocumentBaseURI() != null){
+            locator.setDocumentBaseURI(desc.getDocumentBaseURI().toString());
+        }
+        if(el != null){
+            locator.setLineNumber(el.getLineNumber());
+        }
+        return locator;
+    }
+
     /*
      * Check the actual OM element encountered against the expected qname
      *
      * @param el actual element encountered
      * @param qname expected element's qname
+     * @param documentBaseURI the URI of the document being parsed
      * @throws WSDLException
      */
     private void checkElementName(OMElement el,
-                                  QName qname)
+                                  QName qname,
+                                  String documentBaseURI)
                                   throws WSDLException {
 
         if (!QNameUtils.matches(qname, el)){
+            ErrorLocatorImpl locator = getErrorLocator(el, null);
+            locator.setDocumentBaseURI(documentBaseURI);
             getErrorReporter().reportError(
-                new ErrorLocatorImpl(),  //TODO line&col nos.
+                locator,
                 "WSDL501",
                 new Object[] {qname, QNameUtils.newQName(el)},
                 ErrorReporter.SEVERITY_FATAL_ERROR);
@@ -1434,13 +1488,32 @@ public class OMWSDLReader extends BaseWSDLReader{
         }
     }
 
+    /*
+     * Retrieve the document element of the document at the specified location,
+     * through the URIResolver if one is set. 'msgId' identifies the message
+     * reported if the resolver fails.
+     */
+    private OMElement getElement(String location, String msgId) throws WSDLException {
+        String resolved;
+        try {
+            resolved = resolveLocation(location);
+        }
+        catch (IOException e) {
+            String msg = getErrorReporter().getFormattedMessage(
+                            msgId, new Object[] {location});
+            throw new WSDLException(WSDLException.OTHER_ERROR, msg, e);
+        }
+        return OMUtils.getElement(resolved);
+    }
+
     /*
      * Retrieve a WSDL document by resolving the location URI specified
      * on a WSDL &lt;import&gt; or &lt;include&gt; element.
      *
-     * TODO add support for a URL Catalog Resolver
+     * The document is retrieved through the URIResolver, if one is set.
      */
     private DescriptionElement getWSDLFromLocation(String locationURI,
+                                                   OMElement refEl,
                                                    DescriptionElement desc,
                                                    Map wsdlModules)
                                                throws WSDLException{
@@ -1458,7 +1531,7 @@ public class OMWSDLReader extends BaseWSDLReader{
             String baseURI = contextURI != null ? contextURI.toString() : null;
 
             getErrorReporter().reportError(
-                    new ErrorLocatorImpl(),  //TODO line&col nos.
+                    getErrorLocator(refEl, desc),
                     "WSDL502",
                     new Object[] {baseURI, locationURI},
                     ErrorReporter.SEVERITY_ERROR);
@@ -1474,12 +1547,14 @@ public class OMWSDLReader extends BaseWSDLReader{
 
         if(referencedDesc == null){
             //not previously imported or included, so retrieve the WSDL.
-            docEl = OMUtils.getElement(locationStr);
+            docEl = getElement(locationStr, "WSDL503");
 
             //The referenced document should contain a WSDL <description>
             if(!QNameUtils.matches(Constants.Q_ELEM_DESCRIPTION, docEl)){
+                ErrorLocatorImpl locator = getErrorLocator(docEl, null);
+                locator.setDocumentBaseURI(locationStr);
                 getErrorReporter().reportError(
-                        new ErrorLocatorImpl(),  //TODO line&col nos.
+                        locator,
                         "WSDL501",
                         new Object[] {Constants.Q_ELEM_DESCRIPTION,
                                       QNameUtils.newQName(docEl)},
@@ -0,0 +1,615 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.woden.ErrorHandler;
+import org.apache.woden.ErrorInfo;
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.WSDLException;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.util.StringUtils;
+import org.apache.woden.resolver.URIResolver;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.xerces.dom.DocumentImpl;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * A cache of the XML documents a WSDL description was read from, kept in
+ * a file on local disk so that an application reading the same description 
+ * each time it starts does not have to parse the documents again.
+ * <p>
+ * The cache holds the parsed DOM of the root WSDL document and of every 
+ * WSDL and schema document it imports or includes, together with the line 
+ * and column numbers of their elements, in a compact binary form. Names and 
+ * text are kept once in a string table. The file is memory-mapped when it 
+ * is loaded and the DOM trees are built from it directly. The description is 
+ * then read from these trees by a DOMWSDLReader as usual, so the description 
+ * element, its extension elements and attributes, its schemas and the 
+ * validation of the model are exactly as if the documents had been parsed.
+ * <p>
+ * The cache records a digest of the content of each document, the Woden 
+ * build and the reader settings. When the file does not exist, or any of 
+ * these has changed, the description is read from the documents as usual 
+ * and the cache is written again.
+ * <p>
+ * Only the XML parsing of the documents is saved. Each document is still 
+ * retrieved to compare its digest, and the schemas are compiled and the 
+ * description built and validated as usual. This is not a snapshot of the 
+ * resolved description, so it does not remove the cost of loading and 
+ * compiling the Woden and schema classes when a JVM starts. The 
+ * ParseCacheBenchmark of the Woden benchmarks measures both cases. In a 
+ * warmed up JVM, reading from the cache takes about half the time. For the 
+ * first description read by a new JVM, it saved about 15% for the imports 
+ * input and 28% for a generated 1MB description, and no significant time 
+ * for the primer description.
+ * <p>
+ * The cache is only written if no errors are reported while reading
+ * the description. Only DOMWSDLReaders can use a cache. Other readers 
+ * simply read the description.
+ */
+public class ParsedDocumentCache {
+    
+    //Increment when the format of the file changes
+    private static final int FORMAT_VERSION = 1;
+    
+    private static final int MAGIC = 0x57445331;
+    
+    //Ends the children of an element or document in the node stream
+    private static final byte END = 0;
+    
+    private static final String NS_URI_XMLNS = "http://www.w3.org/2000/xmlns/";
+    
+    private final File fFile;
+    
+    private boolean fLastReadFromCache = false;
+    
+    /**
+     * Creates a cache kept in the specified file. The file is only
+     * read or written by <code>read</code>.
+     * 
+     * @param file the cache file. Its directory is created if it does not exist.
+     */
+    public ParsedDocumentCache(File file)
+    {
+        if(file == null)
+        {
+            throw new IllegalArgumentException("The cache file must not be null.");
+        }
+        fFile = file;
+    }
+    
+    public File getFile()
+    {
+        return fFile;
+    }
+    
+    /**
+     * Returns true if the documents of the last description read were 
+     * taken from the cache file rather than parsed.
+     */
+    public synchronized boolean isLastReadFromCache()
+    {
+        return fLastReadFromCache;
+    }
+    
+    /**
+     * Reads the WSDL document at the specified location with the reader, 
+     * as <code>readWSDL</code> would, taking the documents from the cache
+     * if it is up to date and writing the cache otherwise.
+     * <p>
+     * The reader must not be used by other threads meanwhile.
+     * 
+     * @param reader the reader, configured with the features and properties 
+     * to read the document with.
+     * @param wsdlURI the location of the WSDL document.
+     * @return the description element read.
+     * @throws WSDLException if reading the description fails.
+     */
+    public synchronized DescriptionElement read(WSDLReader reader, String wsdlURI) 
+        throws WSDLException
+    {
+        fLastReadFromCache = false;
+        if(!(reader instanceof DOMWSDLReader))
+        {
+            return reader.readWSDL(wsdlURI);
+        }
+        DOMWSDLReader domReader = (DOMWSDLReader)reader;
+        
+        String location;
+        try 
+        {
+            location = StringUtils.getURL(null, wsdlURI).toString();
+        } 
+        catch (MalformedURLException e) 
+        {
+            //leave it to the reader to report
+            return reader.readWSDL(wsdlURI);
+        }
+        
+        URIResolver resolver = (URIResolver)reader.getProperty(WSDLReader.PROPERTY_URI_RESOLVER);
+        String key = getKey(reader, location);
+        
+        Map documents = load(key, resolver);
+        boolean loaded = documents != null;
+        if(!loaded)
+        {
+            documents = Collections.synchronizedMap(new LinkedHashMap());
+        }
+        
+        ErrorReporter reporter = reader.getErrorReporter();
+        ErrorHandler errorHandler = reporter.getErrorHandler();
+        CountingErrorHandler counter = new CountingErrorHandler(errorHandler);
+        DescriptionElement desc;
+        domReader.setCachedDocuments(documents);
+        try
+        {
+            desc = reader.readWSDL(location, counter);
+        }
+        finally
+        {
+            domReader.setCachedDocuments(null);
+            reporter.setErrorHandler(errorHandler);
+        }
+        
+        if(loaded)
+        {
+            fLastReadFromCache = true;
+        }
+        else if(desc != null && counter.getErrorCount() == 0)
+        {
+            store(key, resolver, documents);
+        }
+        return desc;
+    }
+    
+    /*
+     * Returns the key identifying the Woden build, the root document and 
+     * the reader settings that affect the DOM trees parsed.
+     */
+    private static String getKey(WSDLReader reader, String location)
+    {
+        return ValidationCache.getImplementationDigest() + " " + location + " " +
+            reader.getFeature(WSDLReader.FEATURE_VALIDATION);
+    }
+    
+    /*
+     * Returns the documents of the cache, keyed by system id, if the 
+     * file exists, has the key and the documents are unchanged. 
+     * Returns null otherwise.
+     */
+    private Map load(String key, URIResolver resolver)
+    {
+        if(!fFile.isFile())
+        {
+            return null;
+        }
+        
+        ByteBuffer buffer;
+        try
+        {
+            FileInputStream in = new FileInputStream(fFile);
+            try
+            {
+                FileChannel channel = in.getChannel();
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch(IOException e)
+        {
+            return null;
+        }
+        
+        try
+        {
+            if(buffer.getInt() != MAGIC ||
+               buffer.getInt() != FORMAT_VERSION ||
+               !key.equals(readString(buffer)))
+            {
+                return null;
+            }
+            
+            //check the digests before building anything
+            String[] systemIds = new String[buffer.getInt()];
+            for(int i = 0; i < systemIds.length; i++)
+            {
+                systemIds[i] = readString(buffer);
+                String digest = readString(buffer);
+                if(!digest.equals(ValidationCache.digestDocument(resolver, systemIds[i])))
+                {
+                    return null;
+                }
+            }
+            
+            String[] strings = new String[buffer.getInt()];
+            for(int i = 0; i < strings.length; i++)
+            {
+                strings[i] = readString(buffer);
+            }
+            
+            Map documents = Collections.synchronizedMap(new HashMap());
+            for(int i = 0; i < systemIds.length; i++)
+            {
+                DocumentImpl doc = new DocumentImpl();
+                doc.setDocumentURI(systemIds[i]);
+                Map locations = new IdentityHashMap();
+                readChildren(buffer, strings, doc, doc, locations);
+                documents.put(systemIds[i], new CachedDocument(doc, locations));
+            }
+            return documents;
+        }
+        catch(RuntimeException e)
+        {
+            //a truncated or corrupted file, which cannot be trusted
+            return null;
+        }
+    }
+    
+    /*
+     * Builds the nodes of the node stream as children of the parent,
+     * up to the END of the parent.
+     */
+    private static void readChildren(ByteBuffer buffer, String[] strings, 
+                                     Document doc, Node parent, Map locations)
+    {
+        byte type;
+        while((type = buffer.get()) != END)
+        {
+            Node node;
+            switch(type)
+            {
+                case Node.ELEMENT_NODE:
+                    Element el = doc.createElementNS(
+                            getString(buffer, strings), getString(buffer, strings));
+                    long location = buffer.getLong();
+                    if(location != -1)
+                    {
+                        locations.put(el, new Long(location));
+                    }
+                    int attrCount = buffer.getInt();
+                    for(int i = 0; i < attrCount; i++)
+                    {
+                        el.setAttributeNS(getString(buffer, strings), 
+                                getString(buffer, strings), getString(buffer, strings));
+                    }
+                    readChildren(buffer, strings, doc, el, locations);
+                    node = el;
+                    break;
+                case Node.TEXT_NODE:
+                    node = doc.createTextNode(getString(buffer, strings));
+                    break;
+                case Node.CDATA_SECTION_NODE:
+                    node = doc.createCDATASection(getString(buffer, strings));
+                    break;
+                case Node.COMMENT_NODE:
+                    node = doc.createComment(getString(buffer, strings));
+                    break;
+                case Node.PROCESSING_INSTRUCTION_NODE:
+                    node = doc.createProcessingInstruction(
+                            getString(buffer, strings), getString(buffer, strings));
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected node type " + type + ".");
+            }
+            parent.appendChild(node);
+        }
+    }
+    
+    /*
+     * Writes the cache file. The documents are written to a temporary
+     * file first, so a cache being loaded by another process is never 
+     * seen half written.
+     */
+    private void store(String key, URIResolver resolver, Map documents)
+    {
+        File tmp = null;
+        try
+        {
+            File dir = fFile.getAbsoluteFile().getParentFile();
+            if(!dir.isDirectory() && !dir.mkdirs())
+            {
+                return;
+            }
+            
+            //the node streams are written first, to collect the string table
+            Map stringTable = new LinkedHashMap();
+            ByteArrayOutputStream nodeBytes = new ByteArrayOutputStream();
+            DataOutputStream nodes = new DataOutputStream(nodeBytes);
+            List systemIds = new ArrayList();
+            List digests = new ArrayList();
+            synchronized(documents)
+            {
+                for(Iterator i = documents.entrySet().iterator(); i.hasNext(); )
+                {
+                    Map.Entry entry = (Map.Entry)i.next();
+                    String systemId = (String)entry.getKey();
+                    String digest = ValidationCache.digestDocument(resolver, systemId);
+                    if(ValidationCache.NO_DOCUMENT.equals(digest))
+                    {
+                        //it could not be checked later
+                        return;
+                    }
+                    CachedDocument recorded = (CachedDocument)entry.getValue();
+                    systemIds.add(systemId);
+                    digests.add(digest);
+                    writeChildren(nodes, stringTable, recorded.getDocument(), 
+                            recorded.getLocations());
+                }
+            }
+            nodes.flush();
+            
+            tmp = File.createTempFile("parsecache", ".tmp", dir);
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmp)));
+            try
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, key);
+                
+                out.writeInt(systemIds.size());
+                for(int i = 0; i < systemIds.size(); i++)
+                {
+                    writeString(out, (String)systemIds.get(i));
+                    writeString(out, (String)digests.get(i));
+                }
+                
+                out.writeInt(stringTable.size());
+                for(Iterator i = stringTable.keySet().iterator(); i.hasNext(); )
+                {
+                    writeString(out, (String)i.next());
+                }
+                
+                nodeBytes.writeTo(out);
+            }
+            finally
+            {
+                out.close();
+            }
+            
+            //replace any existing cache in one step
+            fFile.delete();
+            if(!tmp.renameTo(fFile))
+            {
+                return;
+            }
+            tmp = null;
+        }
+        catch(IOException e)
+        {
+            //the cache is only an optimization, so failing to write it is not an error
+            return;
+        }
+        finally
+        {
+            if(tmp != null)
+            {
+                tmp.delete();
+            }
+        }
+    }
+    
+    /*
+     * Writes the children of the parent to the node stream, followed by END.
+     * Entity references are replaced by their content and document types
+     * are left out, as the DOM trees built from the stream do not need them.
+     */
+    private static void writeChildren(DataOutputStream out, Map stringTable, 
+                                      Node parent, Map locations) throws IOException
+    {
+        writeNodes(out, stringTable, parent, locations);
+        out.writeByte(END);
+    }
+    
+    private static void writeNodes(DataOutputStream out, Map stringTable, 
+                                   Node parent, Map locations) throws IOException
+    {
+        for(Node node = parent.getFirstChild(); node != null; node = node.getNextSibling())
+        {
+            switch(node.getNodeType())
+            {
+                case Node.ELEMENT_NODE:
+                    out.writeByte(Node.ELEMENT_NODE);
+                    writeIndex(out, stringTable, node.getNamespaceURI());
+                    writeIndex(out, stringTable, node.getNodeName());
+                    Long location = (Long)locations.get(node);
+                    out.writeLong(location != null ? location.longValue() : -1);
+                    NamedNodeMap attrs = node.getAttributes();
+                    out.writeInt(attrs.getLength());
+                    for(int i = 0; i < attrs.getLength(); i++)
+                    {
+                        Attr attr = (Attr)attrs.item(i);
+                        String namespaceURI = attr.getNamespaceURI();
+                        if(namespaceURI == null && attr.getNodeName().startsWith("xmlns"))
+                        {
+                            namespaceURI = NS_URI_XMLNS;
+                        }
+                        writeIndex(out, stringTable, namespaceURI);
+                        writeIndex(out, stringTable, attr.getNodeName());
+                        writeIndex(out, stringTable, attr.getValue());
+                    }
+                    writeChildren(out, stringTable, node, locations);
+                    break;
+                case Node.TEXT_NODE:
+                case Node.CDATA_SECTION_NODE:
+                case Node.COMMENT_NODE:
+                    out.writeByte(node.getNodeType());
+                    writeIndex(out, stringTable, node.getNodeValue());
+                    break;
+                case Node.PROCESSING_INSTRUCTION_NODE:
+                    out.writeByte(Node.PROCESSING_INSTRUCTION_NODE);
+                    writeIndex(out, stringTable, node.getNodeName());
+                    writeIndex(out, stringTable, node.getNodeValue());
+                    break;
+                case Node.ENTITY_REFERENCE_NODE:
+                    writeNodes(out, stringTable, node, locations);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+    
+    /*
+     * Writes the index of the string in the string table, adding it to the
+     * table if it is not there yet. Null is written as -1.
+     */
+    private static void writeIndex(DataOutputStream out, Map stringTable, String s) 
+        throws IOException
+    {
+        if(s == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+        Integer index = (Integer)stringTable.get(s);
+        if(index == null)
+        {
+            index = new Integer(stringTable.size());
+            stringTable.put(s, index);
+        }
+        out.writeInt(index.intValue());
+    }
+    
+    private static String getString(ByteBuffer buffer, String[] strings)
+    {
+        int index = buffer.getInt();
+        return index == -1 ? null : strings[index];
+    }
+    
+    private static void writeString(DataOutputStream out, String s) throws IOException
+    {
+        ValidationCache.writeString(out, s);
+    }
+    
+    /*
+     * Reads a string written by writeString.
+     */
+    private static String readString(ByteBuffer buffer)
+    {
+        if(buffer.get() == 0)
+        {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        try
+        {
+            return new String(bytes, "UTF-8");
+        }
+        catch(UnsupportedEncodingException e)
+        {
+            //UTF-8 must be supported by every Java platform
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+    
+    /**
+     * A document parsed by the DOMWSDLReader, with the line and column 
+     * numbers of its elements, keyed by DOM Element (see LocatingDOMParser).
+     */
+    static final class CachedDocument
+    {
+        private final Document fDocument;
+        private final Map fLocations;
+        
+        CachedDocument(Document document, Map locations)
+        {
+            fDocument = document;
+            fLocations = locations;
+        }
+        
+        Document getDocument()
+        {
+            return fDocument;
+        }
+        
+        Map getLocations()
+        {
+            return fLocations;
+        }
+    }
+    
+    /*
+     * Passes errors on to another error handler and counts the errors 
+     * and fatal errors.
+     */
+    private static class CountingErrorHandler implements ErrorHandler
+    {
+        private final ErrorHandler fErrorHandler;
+        private int fErrorCount = 0;
+        
+        CountingErrorHandler(ErrorHandler errorHandler)
+        {
+            fErrorHandler = errorHandler;
+        }
+        
+        synchronized int getErrorCount()
+        {
+            return fErrorCount;
+        }
+        
+        public void warning(ErrorInfo errorInfo)
+        {
+            fErrorHandler.warning(errorInfo);
+        }
+        
+        public void error(ErrorInfo errorInfo)
+        {
+            synchronized(this)
+            {
+                fErrorCount++;
+            }
+            fErrorHandler.error(errorInfo);
+        }
+        
+        public void fatalError(ErrorInfo errorInfo)
+        {
+            synchronized(this)
+            {
+                fErrorCount++;
+            }
+            fErrorHandler.fatalError(errorInfo);
+        }
+    }
+}
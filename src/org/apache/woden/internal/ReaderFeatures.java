@@ -40,6 +40,8 @@ public class ReaderFeatures
 	public ReaderFeatures()
 	{
 	  values.put(WSDLReader.FEATURE_VALIDATION, off);
+	  values.put(WSDLReader.FEATURE_PARALLEL_IMPORTS, off);
+	  values.put(WSDLReader.FEATURE_PARALLEL_VALIDATION, off);
 	}
 	
 	/**
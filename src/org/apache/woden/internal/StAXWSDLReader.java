@@ -0,0 +1,2173 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.woden.ErrorHandler;
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.WSDLException;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.WSDLSource;
+import org.apache.woden.internal.schema.ImportedSchemaImpl;
+import org.apache.woden.internal.schema.InlinedSchemaImpl;
+import org.apache.woden.internal.schema.SchemaConstants;
+import org.apache.woden.internal.schema.SchemaDigest;
+import org.apache.woden.internal.schema.SchemaImpl;
+import org.apache.woden.internal.util.StringUtils;
+import org.apache.woden.internal.util.dom.DOMUtils;
+import org.apache.woden.internal.util.dom.QNameUtils;
+import org.apache.woden.internal.util.dom.XPathUtils;
+import org.apache.woden.internal.util.stax.ScopedStreamReader;
+import org.apache.woden.internal.util.stax.StAXUtils;
+import org.apache.woden.internal.wsdl20.Constants;
+import org.apache.woden.internal.wsdl20.WSDLElementImpl;
+import org.apache.woden.internal.wsdl20.validation.WSDLDocumentValidator;
+import org.apache.woden.schema.Schema;
+import org.apache.woden.types.NCName;
+import org.apache.woden.wsdl20.enumeration.Direction;
+import org.apache.woden.wsdl20.enumeration.MessageLabel;
+import org.apache.woden.wsdl20.extensions.ExtensionDeserializer;
+import org.apache.woden.wsdl20.extensions.ExtensionElement;
+import org.apache.woden.wsdl20.extensions.ExtensionRegistry;
+import org.apache.woden.wsdl20.xml.BindingElement;
+import org.apache.woden.wsdl20.xml.BindingFaultElement;
+import org.apache.woden.wsdl20.xml.BindingFaultReferenceElement;
+import org.apache.woden.wsdl20.xml.BindingMessageReferenceElement;
+import org.apache.woden.wsdl20.xml.BindingOperationElement;
+import org.apache.woden.wsdl20.xml.ConfigurableElement;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.woden.wsdl20.xml.DocumentableElement;
+import org.apache.woden.wsdl20.xml.DocumentationElement;
+import org.apache.woden.wsdl20.xml.EndpointElement;
+import org.apache.woden.wsdl20.xml.FeatureElement;
+import org.apache.woden.wsdl20.xml.ImportElement;
+import org.apache.woden.wsdl20.xml.IncludeElement;
+import org.apache.woden.wsdl20.xml.InterfaceElement;
+import org.apache.woden.wsdl20.xml.InterfaceFaultElement;
+import org.apache.woden.wsdl20.xml.InterfaceFaultReferenceElement;
+import org.apache.woden.wsdl20.xml.InterfaceMessageReferenceElement;
+import org.apache.woden.wsdl20.xml.InterfaceOperationElement;
+import org.apache.woden.wsdl20.xml.PropertyElement;
+import org.apache.woden.wsdl20.xml.ServiceElement;
+import org.apache.woden.wsdl20.xml.TypesElement;
+import org.apache.woden.wsdl20.xml.WSDLElement;
+import org.apache.woden.xml.XMLAttr;
+import org.apache.ws.commons.schema.XmlSchema;
+import org.apache.ws.commons.schema.XmlSchemaCollection;
+import org.apache.ws.commons.schema.XmlSchemaException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+import org.xml.sax.InputSource;
+
+/**
+ * Implements the WSDLReader behaviour for StAX-based parsing.
+ * <p>
+ * The WSDL element model is built directly from the events of a
+ * javax.xml.stream.XMLStreamReader, so unlike DOMWSDLReader no DOM tree of
+ * the WSDL document is held in memory while it is parsed. DOM is only
+ * materialized for the parts of the document that the Woden API exposes or
+ * consumes as DOM: &lt;xs:schema&gt; elements and imported schema documents
+ * (required by XmlSchemaCollection), extension elements (required by
+ * ExtensionDeserializer), and the content of &lt;documentation&gt;,
+ * &lt;value&gt; and &lt;constraint&gt; elements.
+ * <p>
+ * Note, StAX parsers do not perform XML Schema validation, so when the
+ * validation feature is enabled this reader runs the Woden document and
+ * component validators but the WSDL document itself is not validated
+ * against the WSDL 2.0 schema by the XML parser.
+ */
+public class StAXWSDLReader extends BaseWSDLReader {
+
+    //StAX factories are expensive to create, so one is kept per reader.
+    private XMLInputFactory fInputFactory = null;
+
+    //The document used to create DOM nodes for the materialized fragments.
+    private Document fNodeFactory = null;
+
+    /**
+     * WSDL document validator. Only one instance is needed.
+     */
+    private WSDLDocumentValidator docValidator = null;
+
+
+    public StAXWSDLReader() throws WSDLException {
+        super();
+    }
+
+    /* ************************************************************
+     *  API public methods
+     * ************************************************************/
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.WSDLReader#createWSDLSource()
+     */
+    public WSDLSource createWSDLSource() {
+        return new StAXWSDLSource(getErrorReporter());
+    }
+
+    /*
+     * @see org.apache.woden.WSDLReader#readWSDL(String)
+     */
+    public DescriptionElement readWSDL(String wsdlURI) throws WSDLException
+    {
+        URL url;
+        try {
+            url = StringUtils.getURL(null, wsdlURI);
+
+        } catch (MalformedURLException e) {
+
+            String msg = getErrorReporter().getFormattedMessage(
+                            "WSDL502", new Object[] {null, wsdlURI});
+            throw new WSDLException(WSDLException.PARSER_ERROR, msg, e);
+        }
+        String wsdlURL = url.toString();
+
+        InputSource inputSource = new InputSource(wsdlURL);
+        return readWSDL(wsdlURL, inputSource);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.WSDLReader#readWSDL(java.lang.String, org.apache.woden.ErrorHandler)
+     */
+    public DescriptionElement readWSDL(String wsdlURI, ErrorHandler errorHandler) throws WSDLException
+    {
+        if(errorHandler != null)
+            getErrorReporter().setErrorHandler(errorHandler);
+
+        return readWSDL(wsdlURI);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.WSDLReader#readWSDL(org.apache.woden.WSDLSource)
+     */
+    public DescriptionElement readWSDL(WSDLSource wsdlSource) throws WSDLException {
+
+        Object source = wsdlSource.getSource();
+        URI baseURI = wsdlSource.getBaseURI();
+
+        String wsdlURL = null;
+        if(baseURI != null)
+        {
+            URL url;
+            try {
+                url = StringUtils.getURL(null, baseURI.toString());
+
+            } catch (MalformedURLException e) {
+
+                String msg = getErrorReporter().getFormattedMessage(
+                        "WSDL502", new Object[] {null, baseURI.toString()});
+                throw new WSDLException(WSDLException.PARSER_ERROR, msg, e);
+            }
+            wsdlURL = url.toString();
+        }
+
+        if(source instanceof XMLStreamReader) {
+            return readWSDL(wsdlURL, (XMLStreamReader)source);
+        }
+        else if(source instanceof InputSource) {
+            return readWSDL(wsdlURL, (InputSource)source);
+        }
+        else {
+            //This exception is checked in WSDLSource.setSource but we check
+            //again here in case the wrong type of WSDLSource has been used
+            //with this type of WSDLReader.
+            String sourceClass = source.getClass().getName();
+            String readerClass = this.getClass().getName();
+            String msg = getErrorReporter().getFormattedMessage(
+                    "WSDL017", new Object[] {sourceClass, readerClass});
+            throw new WSDLException(WSDLException.PARSER_ERROR, msg);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.WSDLReader#readWSDL(org.apache.woden.WSDLSource, org.apache.woden.ErrorHandler)
+     */
+    public DescriptionElement readWSDL(WSDLSource wsdlSource, ErrorHandler errorHandler)
+        throws WSDLException {
+
+        if(errorHandler != null)
+            getErrorReporter().setErrorHandler(errorHandler);
+
+        return readWSDL(wsdlSource);
+    }
+
+    /*
+     * Helper method for readWSDL(WSDLSource)
+     */
+    private DescriptionElement readWSDL(String wsdlURL, XMLStreamReader xmlReader)
+        throws WSDLException {
+
+        ScopedStreamReader reader = (xmlReader instanceof ScopedStreamReader)
+                                    ? (ScopedStreamReader)xmlReader
+                                    : new ScopedStreamReader(xmlReader);
+        DescriptionElement desc = null;
+
+        try
+        {
+            if(reader.getEventType() != XMLStreamConstants.START_ELEMENT)
+            {
+                StAXUtils.nextChildElement(reader);
+            }
+            checkElementName(reader, Constants.Q_ELEM_DESCRIPTION);
+            desc = parseDescription(wsdlURL, reader, null);
+        }
+        catch (XMLStreamException e)
+        {
+            reportStreamError(e, wsdlURL);
+        }
+
+        // Validate the model if validation is enabled.
+        if(features.getValue(WSDLReader.FEATURE_VALIDATION))
+        {
+            if(docValidator == null)
+            {
+                docValidator = new WSDLDocumentValidator();
+            }
+            if(docValidator.validate(desc, getErrorReporter()))
+            {
+                validateComponents(getComponentValidator(), desc.toComponent());
+            }
+        }
+        return desc;
+    }
+
+    /*
+     * Helper method for readWSDL(WSDLSource)
+     */
+    private DescriptionElement readWSDL(String wsdlURL, InputSource inputSource)
+        throws WSDLException {
+
+        InputStream in = null;
+        XMLStreamReader reader = null;
+        try
+        {
+            in = getInputStream(inputSource);
+            reader = getStreamReader(inputSource, in, wsdlURL);
+
+            return readWSDL(wsdlURL, reader);
+
+        } catch (IOException e) {
+
+            String msg = getErrorReporter().getFormattedMessage(
+                    "WSDL503", new Object[] {wsdlURL});
+            throw new WSDLException(WSDLException.PARSER_ERROR, msg, e);
+        }
+        finally
+        {
+            close(reader, in);
+        }
+    }
+
+
+    /* ************************************************************
+     *  Parsing methods - e.g. parseXXXX()
+     *
+     *  Each parse method is called with the reader positioned on the
+     *  START_ELEMENT event of the element to be parsed and returns with
+     *  the reader positioned on the corresponding END_ELEMENT event.
+     * ************************************************************/
+
+    /* Parse the attributes and child elements of the <description> element.
+     * As per the WSDL 2.0 spec, the child elements must be in the
+     * following order if present:
+     * <documentation>
+     * <import> <include> or WSDL extension elements in any order
+     * <types>
+     * <interface> <binding> <service> or WSDL extension elements in any order.
+     * TODO validate that the elements are in correct order
+     */
+    private DescriptionElement parseDescription(String documentBaseURI,
+                                                ScopedStreamReader reader,
+                                                Map wsdlModules)
+                                                throws WSDLException, XMLStreamException
+    {
+        DescriptionElement desc = getFactory().newDescription();
+        setSourceLocation(desc, reader);
+
+        if(wsdlModules == null)
+        {
+            //This is the initial WSDL document. No imports or includes yet.
+            wsdlModules = new HashMap();
+        }
+
+        if(getExtensionRegistry() != null)
+        {
+            desc.setExtensionRegistry(getExtensionRegistry());
+        }
+
+        if(getErrorReporter() != null)
+        {
+            (desc.getExtensionRegistry()).setErrorReporter(getErrorReporter());
+        }
+
+        desc.setDocumentBaseURI(getURI(documentBaseURI, reader, desc));
+
+        String targetNamespace =
+            StAXUtils.getAttribute(reader, Constants.ATTR_TARGET_NAMESPACE);
+
+        if(targetNamespace != null)
+        {
+            desc.setTargetNamespace(getURI(targetNamespace, reader, desc));
+        }
+
+        //parse the namespace declarations
+        int size = reader.getNamespaceCount();
+
+        for (int i = 0; i < size; i++)
+        {
+          String prefix = reader.getNamespacePrefix(i);
+          String value = reader.getNamespaceURI(i);
+
+          if (prefix != null && prefix.length() > 0)
+          {
+            desc.addNamespace(prefix, getURI(value, reader, desc));  //a prefixed namespace
+          }
+          else
+          {
+            desc.addNamespace(null, getURI(value, reader, desc));    //the default namespace
+          }
+        }
+
+        parseExtensionAttributes(reader, DescriptionElement.class, desc, desc);
+
+        //parse the child elements
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, desc);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_IMPORT, reader))
+            {
+                if(documentBaseURI != null && !wsdlModules.containsKey(documentBaseURI))
+                {
+                    wsdlModules.put(documentBaseURI, desc);
+                }
+                parseImport(reader, desc, wsdlModules);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_INCLUDE, reader))
+            {
+                if(documentBaseURI != null && !wsdlModules.containsKey(documentBaseURI))
+                {
+                    wsdlModules.put(documentBaseURI, desc);
+                }
+                parseInclude(reader, desc, wsdlModules);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_TYPES, reader))
+            {
+                parseTypes(reader, desc);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_INTERFACE, reader))
+            {
+                parseInterface(reader, desc);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_BINDING, reader))
+            {
+                parseBinding(reader, desc);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_SERVICE, reader))
+            {
+                parseService(reader, desc);
+            }
+            else
+            {
+                desc.addExtensionElement(
+                    parseExtensionElement(DescriptionElement.class, desc, reader, desc) );
+            }
+        }
+
+        // Parse the schema for schema to include the built in schema types in the Woden model.
+        // See the corresponding comment in DOMWSDLReader.parseDescription.
+        TypesElement types = desc.getTypesElement();
+        if (types.getTypeSystem() == null)
+        {
+          types.setTypeSystem(Constants.TYPE_XSD_2001);
+        }
+        try
+        {
+          desc.getTypesElement().addSchema(parseSchemaImport(
+                  "http://www.w3.org/2001/XMLSchema",
+                  "http://www.w3.org/2001/XMLSchema.xsd",
+                  reader,
+                  desc));
+        }
+        catch(Exception e)
+        {
+          System.out.println("A problem was encountered while creating the build in XML schema types: " + e);
+        }
+
+        return desc;
+    }
+
+    private DocumentationElement parseDocumentation(ScopedStreamReader reader,
+                                                    DescriptionElement desc,
+                                                    DocumentableElement parent)
+                                                    throws WSDLException, XMLStreamException
+    {
+        DocumentationElement documentation = parent.addDocumentationElement();
+        setSourceLocation(documentation, reader);
+
+        parseExtensionAttributes(reader, DocumentationElement.class, documentation, desc);
+
+        //The documentation content is exposed as a DOM element, as per DOMWSDLReader.
+        Element docEl = StAXUtils.buildElement(reader, getNodeFactory());
+        documentation.setContent(docEl);
+
+        //Now parse any extensibility elements
+
+        Element tempEl = DOMUtils.getFirstChildElement(docEl);
+
+        while (tempEl != null)
+        {
+            documentation.addExtensionElement(
+                parseExtensionElement(DocumentationElement.class, documentation, tempEl,
+                                      ErrorLocatorImpl.forElement(documentation), desc) );
+
+            tempEl = DOMUtils.getNextSiblingElement(tempEl);
+        }
+
+        return documentation;
+    }
+
+    private ImportElement parseImport(ScopedStreamReader reader,
+                                      DescriptionElement desc,
+                                      Map wsdlModules)
+                                      throws WSDLException, XMLStreamException
+    {
+        ImportElement imp = desc.addImportElement();
+        setSourceLocation(imp, reader);
+
+        String namespaceURI = StAXUtils.getAttribute(reader, Constants.ATTR_NAMESPACE);
+        String locationURI = StAXUtils.getAttribute(reader, Constants.ATTR_LOCATION);
+
+        parseExtensionAttributes(reader, ImportElement.class, imp, desc);
+        parseExtensionElements(reader, ImportElement.class, imp, desc);
+
+        if(namespaceURI != null)
+        {
+            //TODO handle missing namespace attribute (REQUIRED attr)
+            imp.setNamespace(getURI(namespaceURI, reader, desc));
+        }
+
+        if(locationURI != null)
+        {
+            //TODO handle missing locationURI (OPTIONAL attr)
+            imp.setLocation(getURI(locationURI, reader, desc));
+            DescriptionElement importedDesc =
+                getWSDLFromLocation(locationURI, reader, desc, wsdlModules);
+            imp.setDescriptionElement(importedDesc);
+        }
+
+        return imp;
+    }
+
+    private IncludeElement parseInclude(ScopedStreamReader reader,
+                                        DescriptionElement desc,
+                                        Map wsdlModules)
+                                        throws WSDLException, XMLStreamException
+    {
+        IncludeElement include = desc.addIncludeElement();
+        setSourceLocation(include, reader);
+
+        String locationURI = StAXUtils.getAttribute(reader, Constants.ATTR_LOCATION);
+
+        parseExtensionAttributes(reader, IncludeElement.class, include, desc);
+        parseExtensionElements(reader, IncludeElement.class, include, desc);
+
+        if(locationURI != null)
+        {
+            include.setLocation(getURI(locationURI, reader, desc));
+            DescriptionElement includedDesc =
+                getWSDLFromLocation(locationURI, reader, desc, wsdlModules);
+            include.setDescriptionElement(includedDesc);
+        }
+
+        return include;
+    }
+
+    /*
+     * TODO Initial schema parsing is specific to XML Schema.
+     * Need generic support for other type systems.
+     */
+    private TypesElement parseTypes(ScopedStreamReader reader,
+                                    DescriptionElement desc)
+                                    throws WSDLException, XMLStreamException
+    {
+        TypesElement types = desc.getTypesElement();
+        setSourceLocation(types, reader);
+
+        //TODO for now set to W3 XML Schema. Later, add support for non-XML Schema type systems
+        types.setTypeSystem(Constants.TYPE_XSD_2001);
+
+        parseExtensionAttributes(reader, TypesElement.class, types, desc);
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            QName tempElType = StAXUtils.newQName(reader);
+
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, types);
+            }
+            else if (SchemaConstants.XSD_IMPORT_QNAME_LIST.contains(tempElType))
+            {
+                String ns = StAXUtils.getAttribute(reader, Constants.ATTR_NAMESPACE);
+                String sloc = StAXUtils.getAttribute(reader, SchemaConstants.ATTR_SCHEMA_LOCATION);
+                StAXUtils.skipElement(reader);
+                types.addSchema(parseSchemaImport(ns, sloc, reader, desc));
+            }
+            else if (SchemaConstants.XSD_SCHEMA_QNAME_LIST.contains(tempElType))
+            {
+                types.addSchema(parseSchemaInline(reader, desc));
+            }
+            else
+            {
+                types.addExtensionElement(
+                    parseExtensionElement(TypesElement.class, types, reader, desc) );
+            }
+        }
+
+        return types;
+    }
+
+    private Schema parseSchemaInline(ScopedStreamReader reader,
+                                     DescriptionElement desc)
+                                     throws WSDLException, XMLStreamException
+    {
+        InlinedSchemaImpl schema = new InlinedSchemaImpl();
+
+        schema.setId(StAXUtils.getAttribute(reader, Constants.ATTR_ID));
+
+        String tns = StAXUtils.getAttribute(reader, Constants.ATTR_TARGET_NAMESPACE);
+        if(tns != null) {
+            schema.setNamespace(getURI(tns, reader, desc));
+        }
+
+        //XmlSchemaCollection requires a DOM, so the schema subtree is materialized
+        //together with the namespace declarations in scope from the WSDL.
+        ErrorLocatorImpl locator = getErrorLocator(reader, desc);
+        setSourceLocation(schema, locator);
+        Element schemaEl = StAXUtils.buildElement(reader, getNodeFactory());
+
+        String baseURI = desc.getDocumentBaseURI() != null ?
+                         desc.getDocumentBaseURI().toString() : null;
+
+        //If the same schema content has been compiled before, reuse it.
+        String digest = SchemaDigest.digest(schemaEl);
+        XmlSchema schemaDef = getSchemaCache().getSchema(baseURI, digest);
+
+        if(schemaDef == null)
+        {
+            try {
+                XmlSchemaCollection xsc = createSchemaCollection();
+                schemaDef = xsc.read(schemaEl, baseURI);
+                getSchemaCache().putSchema(baseURI, digest, schemaDef);
+            }
+            catch (XmlSchemaException e)
+            {
+                getErrorReporter().reportError(
+                        locator,
+                        "WSDL521",
+                        new Object[] {baseURI},
+                        ErrorReporter.SEVERITY_WARNING,
+                        e);
+            }
+        }
+
+        if(schemaDef != null) {
+            schema.setSchemaDefinition(schemaDef);
+        } else {
+            schema.setReferenceable(false);
+        }
+
+        return schema;
+    }
+
+    /*
+     * Parse the &lt;xs:import&gt; element and retrieve the imported
+     * schema document if schemaLocation specified. See
+     * DOMWSDLReader.parseSchemaImport for the error handling rules.
+     * The imported schema document is read with StAX and materialized
+     * as DOM for XmlSchemaCollection.
+     */
+    private Schema parseSchemaImport(String ns,
+                                     String sloc,
+                                     XMLStreamReader reader,
+                                     DescriptionElement desc)
+                                     throws WSDLException
+    {
+        ImportedSchemaImpl schema = new ImportedSchemaImpl();
+        setSourceLocation(schema, getErrorLocator(reader, desc));
+
+        if(ns != null) {
+            schema.setNamespace(getURI(ns, reader, desc));
+        }
+
+        if(sloc != null) {
+            schema.setSchemaLocation(getURI(sloc, reader, desc));
+        }
+
+        if(schema.getNamespace() == null)
+        {
+            //The namespace attribute is REQUIRED on xs:import, so don't continue.
+            schema.setReferenceable(false);
+            return schema;
+        }
+
+        if(schema.getSchemaLocation() == null)
+        {
+            //This is a namespace-only import, no schema document to be retrieved so don't continue.
+            return schema;
+        }
+
+        //Now try to retrieve the schema import using schemaLocation
+
+        URI contextURI = null;
+        String schemaLoc = null;
+        URL url = null;
+
+        try
+        {
+            contextURI = desc.getDocumentBaseURI();
+            URL contextURL = (contextURI != null) ? contextURI.toURL() : null;
+            schemaLoc = schema.getSchemaLocation().toString();
+            url = StringUtils.getURL(contextURL, schemaLoc);
+
+        } catch (MalformedURLException e) {
+
+            String baseLoc = contextURI != null ? contextURI.toString() : null;
+            getErrorReporter().reportError(
+                    getErrorLocator(reader, desc),
+                    "WSDL502",
+                    new Object[] {baseLoc, schemaLoc},
+                    ErrorReporter.SEVERITY_ERROR);
+
+            //can't continue schema retrieval with a bad URL.
+            schema.setReferenceable(false);
+            return schema;
+        }
+
+        String schemaURL = url.toString();
+
+        //Retrieve the schema, then reuse it if the same content was already
+        //compiled for this location.
+        Element schemaEl = null;
+        InputSource inputSource = new InputSource(schemaURL);
+        InputStream in = null;
+        ScopedStreamReader schemaReader = null;
+        try {
+            in = getInputStream(inputSource);
+            schemaReader = getStreamReader(inputSource, in, schemaURL);
+            if(StAXUtils.nextChildElement(schemaReader))
+            {
+                schemaEl = StAXUtils.buildElement(schemaReader, getNodeFactory());
+            }
+
+        } catch (IOException e4) {
+
+            //schema retrieval failed (e.g. 'not found')
+            getErrorReporter().reportError(
+                    getErrorLocator(reader, desc),
+                    "WSDL504",
+                    new Object[] {schemaURL},
+                    ErrorReporter.SEVERITY_WARNING,
+                    e4);
+
+            //cannot continue without an imported schema
+            schema.setReferenceable(false);
+            return schema;
+
+        } catch (XMLStreamException e) {
+
+            reportStreamError(e, schemaURL);
+
+        } finally {
+            close(schemaReader, in);
+        }
+
+        if(schemaEl == null)
+        {
+            schema.setReferenceable(false);
+            return schema;
+        }
+
+        String digest = SchemaDigest.digest(schemaEl);
+        XmlSchema schemaDef = getSchemaCache().getSchema(schemaURL, digest);
+
+        if(schemaDef == null)
+        {
+            //not previously compiled, so compile it now.
+            try {
+                String baseLoc = contextURI != null ? contextURI.toString() : null;
+                XmlSchemaCollection xsc = createSchemaCollection();
+                schemaDef = xsc.read(schemaEl, baseLoc);
+                getSchemaCache().putSchema(schemaURL, digest, schemaDef);
+            }
+            catch (XmlSchemaException e)
+            {
+                getErrorReporter().reportError(
+                        getErrorLocator(reader, desc),
+                        "WSDL522",
+                        new Object[] {schemaURL},
+                        ErrorReporter.SEVERITY_WARNING,
+                        e);
+            }
+
+        }
+
+        if(schemaDef != null) {
+            schema.setSchemaDefinition(schemaDef);
+        } else {
+            schema.setReferenceable(false);
+        }
+
+        return schema;
+    }
+
+    private InterfaceElement parseInterface(ScopedStreamReader reader,
+                                            DescriptionElement desc)
+                                            throws WSDLException, XMLStreamException
+    {
+        InterfaceElement intface = desc.addInterfaceElement();
+        setSourceLocation(intface, reader);
+
+        String name = StAXUtils.getAttribute(reader, Constants.ATTR_NAME);
+
+        if(name != null)
+        {
+            intface.setName(new NCName(name));
+        }
+
+        String styleDefault = StAXUtils.getAttribute(reader, Constants.ATTR_STYLE_DEFAULT);
+        if(styleDefault != null)
+        {
+            List stringList = StringUtils.parseNMTokens(styleDefault);
+            String uriString = null;
+            Iterator it = stringList.iterator();
+            while(it.hasNext())
+            {
+                uriString = (String)it.next();
+                intface.addStyleDefaultURI(getURI(uriString, reader, desc));
+            }
+        }
+
+        String extendsAtt = StAXUtils.getAttribute(reader, Constants.ATTR_EXTENDS);
+        if(extendsAtt != null)
+        {
+            List stringList = StringUtils.parseNMTokens(extendsAtt);
+            String qnString = null;
+            Iterator it = stringList.iterator();
+            while(it.hasNext())
+            {
+                qnString = (String)it.next();
+                intface.addExtendedInterfaceName(StAXUtils.getQName(qnString, reader, desc));
+            }
+        }
+
+        parseExtensionAttributes(reader, InterfaceElement.class, intface, desc);
+
+        /* Parse the child elements of <interface>.
+         * As per WSDL 2.0 spec, they must be in the following order if present:
+         * <documentation>
+         * <fault> <operation> <feature> <property> or extension elements in any order
+         * TODO validate that the elements are in correct order
+         */
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, intface);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FAULT, reader))
+            {
+                parseInterfaceFault(reader, desc, intface);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_OPERATION, reader))
+            {
+                parseInterfaceOperation(reader, desc, intface);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, intface);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, intface);
+            }
+            else
+            {
+                intface.addExtensionElement(
+                    parseExtensionElement(InterfaceElement.class, intface, reader, desc) );
+            }
+        }
+
+        return intface;
+    }
+
+    /* Parse the attributes and child elements of interface <fault>.
+     * As per WSDL 2.0 spec, the child elements must be in the following order if present:
+     * <documentation>
+     * <feature> <property> or extension elements in any order
+     *
+     * TODO validate that the elements are in correct order
+     */
+    private InterfaceFaultElement parseInterfaceFault(
+                                             ScopedStreamReader reader,
+                                             DescriptionElement desc,
+                                             InterfaceElement parent)
+                                             throws WSDLException, XMLStreamException
+    {
+        InterfaceFaultElement fault = parent.addInterfaceFaultElement();
+        setSourceLocation(fault, reader);
+        fault.setParentElement(parent);
+
+        String name = StAXUtils.getAttribute(reader, Constants.ATTR_NAME);
+        if(name != null)
+        {
+            fault.setName(new NCName(name));
+        }
+
+        String element = StAXUtils.getAttribute(reader, Constants.ATTR_ELEMENT);
+        if(element != null)
+        {
+            fault.setElementName(getQName(element, reader, desc));
+        }
+
+        parseExtensionAttributes(reader, InterfaceFaultElement.class, fault, desc);
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, fault);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, fault);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, fault);
+            }
+            else
+            {
+                fault.addExtensionElement(
+                    parseExtensionElement(InterfaceFaultElement.class, fault, reader, desc) );
+            }
+        }
+
+        return fault;
+    }
+
+    private InterfaceOperationElement parseInterfaceOperation(
+                                                 ScopedStreamReader reader,
+                                                 DescriptionElement desc,
+                                                 InterfaceElement parent)
+                                                 throws WSDLException, XMLStreamException
+    {
+        InterfaceOperationElement oper = parent.addInterfaceOperationElement();
+        setSourceLocation(oper, reader);
+        oper.setParentElement(parent);
+
+        String name = StAXUtils.getAttribute(reader, Constants.ATTR_NAME);
+        if(name != null)
+        {
+            oper.setName(new NCName(name));
+        }
+
+        String style = StAXUtils.getAttribute(reader, Constants.ATTR_STYLE);
+        if(style != null)
+        {
+            List stringList = StringUtils.parseNMTokens(style);
+            String uriString = null;
+            Iterator it = stringList.iterator();
+            while(it.hasNext())
+            {
+                uriString = (String)it.next();
+                oper.addStyleURI(getURI(uriString, reader, desc));
+            }
+        }
+
+        String pat = StAXUtils.getAttribute(reader, Constants.ATTR_PATTERN);
+        if(pat != null)
+        {
+            oper.setPattern(getURI(pat, reader, desc));
+        }
+
+        parseExtensionAttributes(reader, InterfaceOperationElement.class, oper, desc);
+
+        /* Parse the child elements of interface <operation>.
+         * As per WSDL 2.0 spec, they must be in the following order if present:
+         * <documentation>
+         * <input> <output> <infault> <outfault> <feature> <property> or extension elements in any order
+         * TODO validate that the elements are in correct order
+         */
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_INPUT, reader))
+            {
+                parseInterfaceMessageReference(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_OUTPUT, reader))
+            {
+                parseInterfaceMessageReference(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_INFAULT, reader))
+            {
+                parseInterfaceFaultReference(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_OUTFAULT, reader))
+            {
+                parseInterfaceFaultReference(reader, desc, oper);
+            }
+            else
+            {
+                oper.addExtensionElement(
+                    parseExtensionElement(InterfaceOperationElement.class, oper, reader, desc) );
+            }
+        }
+
+        return oper;
+    }
+
+    private InterfaceFaultReferenceElement parseInterfaceFaultReference(
+                                                 ScopedStreamReader reader,
+                                                 DescriptionElement desc,
+                                                 InterfaceOperationElement parent)
+                                                 throws WSDLException, XMLStreamException
+    {
+        InterfaceFaultReferenceElement faultRef = parent.addInterfaceFaultReferenceElement();
+        setSourceLocation(faultRef, reader);
+        faultRef.setParentElement(parent);
+
+        if(Constants.ELEM_INFAULT.equals(reader.getLocalName())) {
+            faultRef.setDirection(Direction.IN);
+        }
+        else if(Constants.ELEM_OUTFAULT.equals(reader.getLocalName())){
+            faultRef.setDirection(Direction.OUT);
+        }
+
+        String ref = StAXUtils.getAttribute(reader, Constants.ATTR_REF);
+        if(ref != null)
+        {
+            faultRef.setRef(getQName(ref, reader, desc));
+        }
+
+        String msgLabel = StAXUtils.getAttribute(reader, Constants.ATTR_MESSAGE_LABEL);
+        if(msgLabel != null)
+        {
+            faultRef.setMessageLabel(getMessageLabel(msgLabel));
+        }
+
+        parseExtensionAttributes(reader, InterfaceFaultReferenceElement.class, faultRef, desc);
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, faultRef);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, faultRef);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, faultRef);
+            }
+            else
+            {
+                faultRef.addExtensionElement(
+                    parseExtensionElement(InterfaceFaultReferenceElement.class, faultRef, reader, desc) );
+            }
+        }
+
+        return faultRef;
+    }
+
+    private InterfaceMessageReferenceElement parseInterfaceMessageReference(
+                                                 ScopedStreamReader reader,
+                                                 DescriptionElement desc,
+                                                 InterfaceOperationElement parent)
+                                                 throws WSDLException, XMLStreamException
+    {
+        InterfaceMessageReferenceElement message = parent.addInterfaceMessageReferenceElement();
+        setSourceLocation(message, reader);
+        message.setParentElement(parent);
+
+        if(Constants.ELEM_INPUT.equals(reader.getLocalName())) {
+            message.setDirection(Direction.IN);
+        }
+        else if(Constants.ELEM_OUTPUT.equals(reader.getLocalName())) {
+            message.setDirection(Direction.OUT);
+        }
+
+        String msgLabel = StAXUtils.getAttribute(reader, Constants.ATTR_MESSAGE_LABEL);
+        if(msgLabel != null)
+        {
+            message.setMessageLabel(getMessageLabel(msgLabel));
+        }
+        else
+        {
+            //TODO this is a temp fix, correct action to use MEP to determine default
+            if(message.getDirection().equals(Direction.IN))
+            {
+                message.setMessageLabel(MessageLabel.IN);
+            }
+            else
+            {
+                message.setMessageLabel(MessageLabel.OUT);
+            }
+        }
+
+        String element = StAXUtils.getAttribute(reader, Constants.ATTR_ELEMENT);
+        if(element != null)
+        {
+            if(element.equals(Constants.NMTOKEN_ANY) ||
+               element.equals(Constants.NMTOKEN_NONE) ||
+               element.equals(Constants.NMTOKEN_OTHER))
+            {
+                message.setMessageContentModel(element);
+            }
+            else
+            {
+                //element is not #any, #none or #other, so it must be an element qname
+                message.setMessageContentModel(Constants.NMTOKEN_ELEMENT);
+                message.setElementName(getQName(element, reader, desc));
+            }
+        }
+        else
+        {
+            //Per mapping defined in WSDL 2.0 Part 2 spec section 2.5.3,
+            //if element attribute not present, message content model is #other
+            message.setMessageContentModel(Constants.NMTOKEN_OTHER);
+        }
+
+        parseExtensionAttributes(reader, InterfaceMessageReferenceElement.class, message, desc);
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, message);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, message);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, message);
+            }
+            else
+            {
+                message.addExtensionElement(
+                    parseExtensionElement(InterfaceMessageReferenceElement.class, message, reader, desc) );
+            }
+        }
+
+        return message;
+    }
+
+    private BindingElement parseBinding(ScopedStreamReader reader,
+                                        DescriptionElement desc)
+                                        throws WSDLException, XMLStreamException
+    {
+        BindingElement binding = desc.addBindingElement();
+        setSourceLocation(binding, reader);
+
+        String name = StAXUtils.getAttribute(reader, Constants.ATTR_NAME);
+        if(name != null)
+        {
+            binding.setName(new NCName(name));
+        }
+
+        String intface = StAXUtils.getAttribute(reader, Constants.ATTR_INTERFACE);
+        if(intface != null)
+        {
+            binding.setInterfaceName(getQName(intface, reader, desc));
+        }
+
+        String type = StAXUtils.getAttribute(reader, Constants.ATTR_TYPE);
+        if(type != null) {
+            binding.setType(getURI(type, reader, desc));
+        }
+
+        parseExtensionAttributes(reader, BindingElement.class, binding, desc);
+
+        /* Parse the child elements of <binding>.
+         * As per WSDL 2.0 spec, they must be in the following order if present:
+         * <documentation>
+         * <fault> <operation> <feature> <property> or extension elements in any order
+         * TODO validate that the elements are in correct order
+         */
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, binding);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FAULT, reader))
+            {
+                parseBindingFault(reader, desc, binding);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_OPERATION, reader))
+            {
+                parseBindingOperation(reader, desc, binding);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, binding);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, binding);
+            }
+            else
+            {
+                binding.addExtensionElement(
+                    parseExtensionElement(BindingElement.class, binding, reader, desc) );
+            }
+        }
+
+        return binding;
+    }
+
+    private BindingFaultElement parseBindingFault(ScopedStreamReader reader,
+                                                  DescriptionElement desc,
+                                                  BindingElement parent)
+                                                  throws WSDLException, XMLStreamException
+    {
+        BindingFaultElement fault = parent.addBindingFaultElement();
+        setSourceLocation(fault, reader);
+        fault.setParentElement(parent);
+
+        String ref = StAXUtils.getAttribute(reader, Constants.ATTR_REF);
+        if(ref != null)
+        {
+            fault.setRef(getQName(ref, reader, desc));
+        }
+
+        parseExtensionAttributes(reader, BindingFaultElement.class, fault, desc);
+
+        /* Parse the child elements of binding <fault>.
+         * As per WSDL 2.0 spec, they must be in the following order if present:
+         * <documentation>
+         * <feature> <property> or extension elements in any order
+         * TODO validate that the elements are in correct order
+         */
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, fault);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, fault);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, fault);
+            }
+            else
+            {
+                fault.addExtensionElement(
+                    parseExtensionElement(BindingFaultElement.class, fault, reader, desc) );
+            }
+        }
+
+        return fault;
+    }
+
+    private BindingOperationElement parseBindingOperation(
+                                                 ScopedStreamReader reader,
+                                                 DescriptionElement desc,
+                                                 BindingElement parent)
+                                                 throws WSDLException, XMLStreamException
+    {
+        BindingOperationElement oper = parent.addBindingOperationElement();
+        setSourceLocation(oper, reader);
+        oper.setParentElement(parent);
+
+        String ref = StAXUtils.getAttribute(reader, Constants.ATTR_REF);
+        if(ref != null)
+        {
+            oper.setRef(getQName(ref, reader, desc));
+        }
+
+        parseExtensionAttributes(reader, BindingOperationElement.class, oper, desc);
+
+        /* Parse the child elements of binding <operation>.
+         * As per WSDL 2.0 spec, they must be in the following order if present:
+         * <documentation>
+         * <input> <output> <infault> <outfault> <feature> <property> or extension elements in any order
+         * TODO validate that the elements are in correct order
+         */
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_INPUT, reader))
+            {
+                parseBindingMessageReference(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_OUTPUT, reader))
+            {
+                parseBindingMessageReference(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_INFAULT, reader))
+            {
+                parseBindingFaultReference(reader, desc, oper);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_OUTFAULT, reader))
+            {
+                parseBindingFaultReference(reader, desc, oper);
+            }
+            else
+            {
+                oper.addExtensionElement(
+                    parseExtensionElement(BindingOperationElement.class, oper, reader, desc) );
+            }
+        }
+
+        return oper;
+    }
+
+    private BindingFaultReferenceElement parseBindingFaultReference(
+                                                  ScopedStreamReader reader,
+                                                  DescriptionElement desc,
+                                                  BindingOperationElement parent)
+                                                  throws WSDLException, XMLStreamException
+    {
+        BindingFaultReferenceElement faultRef = parent.addBindingFaultReferenceElement();
+        setSourceLocation(faultRef, reader);
+        faultRef.setParentElement(parent);
+
+        String ref = StAXUtils.getAttribute(reader, Constants.ATTR_REF);
+        if(ref != null)
+        {
+            faultRef.setRef(getQName(ref, reader, desc));
+        }
+
+        String msgLabel = StAXUtils.getAttribute(reader, Constants.ATTR_MESSAGE_LABEL);
+        if(msgLabel != null)
+        {
+            faultRef.setMessageLabel(getMessageLabel(msgLabel));
+        }
+
+        parseExtensionAttributes(reader, BindingFaultReferenceElement.class, faultRef, desc);
+
+        /* Parse the child elements of binding operation <infault> or <outfault>.
+         * As per WSDL 2.0 spec, they must be in the following order if present:
+         * <documentation>
+         * <feature> <property> or extension elements in any order
+         * TODO validate that the elements are in correct order
+         */
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, faultRef);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, faultRef);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, faultRef);
+            }
+            else
+            {
+                faultRef.addExtensionElement(
+                    parseExtensionElement(BindingFaultReferenceElement.class, faultRef, reader, desc) );
+            }
+        }
+
+        return faultRef;
+    }
+
+    private BindingMessageReferenceElement parseBindingMessageReference(
+                                                 ScopedStreamReader reader,
+                                                 DescriptionElement desc,
+                                                 BindingOperationElement parent)
+                                                 throws WSDLException, XMLStreamException
+    {
+        BindingMessageReferenceElement message = parent.addBindingMessageReferenceElement();
+        setSourceLocation(message, reader);
+        message.setParentElement(parent);
+
+        if(Constants.ELEM_INPUT.equals(reader.getLocalName())) {
+            message.setDirection(Direction.IN);
+        }
+        else if(Constants.ELEM_OUTPUT.equals(reader.getLocalName())) {
+            message.setDirection(Direction.OUT);
+        }
+
+        String msgLabel = StAXUtils.getAttribute(reader, Constants.ATTR_MESSAGE_LABEL);
+        if(msgLabel != null)
+        {
+            message.setMessageLabel(getMessageLabel(msgLabel));
+        }
+        else
+        {
+            //TODO this is a temp fix, correct action to use MEP to determine default
+            if(message.getDirection().equals(Direction.IN))
+            {
+                message.setMessageLabel(MessageLabel.IN);
+            }
+            else
+            {
+                message.setMessageLabel(MessageLabel.OUT);
+            }
+        }
+
+        parseExtensionAttributes(reader, BindingMessageReferenceElement.class, message, desc);
+
+        /* Parse the child elements of binding operation <input> or <output>.
+         * As per WSDL 2.0 spec, they must be in the following order if present:
+         * <documentation>
+         * <feature> <property> or extension elements in any order
+         * TODO validate that the elements are in correct order
+         */
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, message);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, message);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, message);
+            }
+            else
+            {
+                message.addExtensionElement(
+                    parseExtensionElement(BindingMessageReferenceElement.class, message, reader, desc) );
+            }
+        }
+
+        return message;
+    }
+
+    private ServiceElement parseService(ScopedStreamReader reader,
+                                        DescriptionElement desc)
+                                        throws WSDLException, XMLStreamException
+    {
+        ServiceElement service = desc.addServiceElement();
+        setSourceLocation(service, reader);
+
+        String name = StAXUtils.getAttribute(reader, Constants.ATTR_NAME);
+        if(name != null)
+        {
+            service.setName(new NCName(name));
+        }
+
+        String intface = StAXUtils.getAttribute(reader, Constants.ATTR_INTERFACE);
+        if(intface != null)
+        {
+            service.setInterfaceName(getQName(intface, reader, desc));
+        }
+
+        parseExtensionAttributes(reader, ServiceElement.class, service, desc);
+
+        /* Parse the child elements of <service>.
+         * As per WSDL 2.0 spec, they must be in the following order if present:
+         * <documentation>
+         * <endpoint>
+         * <feature> <property> or extension elements in any order
+         * TODO validate that the elements are in correct order
+         */
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, service);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_ENDPOINT, reader))
+            {
+                parseEndpoint(reader, desc, service);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, service);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, service);
+            }
+            else
+            {
+                service.addExtensionElement(
+                    parseExtensionElement(ServiceElement.class, service, reader, desc) );
+            }
+        }
+
+        return service;
+    }
+
+    private EndpointElement parseEndpoint(ScopedStreamReader reader,
+                                          DescriptionElement desc,
+                                          ServiceElement parent)
+                                          throws WSDLException, XMLStreamException
+    {
+        EndpointElement endpoint = parent.addEndpointElement();
+        setSourceLocation(endpoint, reader);
+        endpoint.setParentElement(parent);
+
+        String name = StAXUtils.getAttribute(reader, Constants.ATTR_NAME);
+        if(name != null)
+        {
+            endpoint.setName(new NCName(name));
+        }
+
+        String binding = StAXUtils.getAttribute(reader, Constants.ATTR_BINDING);
+        if(binding != null)
+        {
+            endpoint.setBindingName(getQName(binding, reader, desc));
+        }
+
+        String address = StAXUtils.getAttribute(reader, Constants.ATTR_ADDRESS);
+
+        if(address != null)
+        {
+            endpoint.setAddress(getURI(address, reader, desc));
+        }
+
+        parseExtensionAttributes(reader, EndpointElement.class, endpoint, desc);
+
+        /* Parse the child elements of <endpoint>.
+         * As per WSDL 2.0 spec, they must be in the following order if present:
+         * <documentation>
+         * <feature> <property> or extension elements in any order
+         * TODO validate that the elements are in correct order
+         */
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, endpoint);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_FEATURE, reader))
+            {
+                parseFeature(reader, desc, endpoint);
+            }
+            else if (StAXUtils.matches(Constants.Q_ELEM_PROPERTY, reader))
+            {
+                parseProperty(reader, desc, endpoint);
+            }
+            else
+            {
+                //TODO DOMWSDLReader registers these against ServiceElement.class, kept for consistency
+                endpoint.addExtensionElement(
+                    parseExtensionElement(ServiceElement.class, endpoint, reader, desc) );
+            }
+        }
+
+        return endpoint;
+    }
+
+    private FeatureElement parseFeature(ScopedStreamReader reader,
+                                        DescriptionElement desc,
+                                        ConfigurableElement parent)
+                                        throws WSDLException, XMLStreamException
+    {
+        FeatureElement feature = parent.addFeatureElement();
+        setSourceLocation(feature, reader);
+        feature.setParentElement(parent);
+
+        String ref = StAXUtils.getAttribute(reader, Constants.ATTR_REF);
+        if(ref != null)
+        {
+            feature.setRef(getURI(ref, reader, desc));
+        }
+
+        String req = StAXUtils.getAttribute(reader, Constants.ATTR_REQUIRED);
+        feature.setRequired(Constants.VALUE_TRUE.equals(req) ? true : false);
+        //TODO t.b.c. what if attr value is not 'true' or 'false'? (eg, missing, mispelt or not lower case.
+
+        parseExtensionAttributes(reader, FeatureElement.class, feature, desc);
+
+        /* Parse the child elements of the <feature> element.
+         * As per WSDL 2.0 spec, they must be in the following order if present:
+         * <documentation>
+         * extension elements.
+         *
+         * TODO validate that the elements are in correct order
+         */
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, feature);
+            }
+            else
+            {
+                feature.addExtensionElement(
+                    parseExtensionElement(FeatureElement.class, feature, reader, desc) );
+            }
+        }
+
+        return feature;
+    }
+
+    /* ******************************************************************
+     * Parse the attributes and child elements of the <property> element.
+     * See DOMWSDLReader.parseProperty for the treatment of <value> and
+     * <constraint>. The content of these two elements is materialized as
+     * DOM because the Woden API exposes the property value as a NodeList.
+     */
+    private PropertyElement parseProperty(ScopedStreamReader reader,
+                                          DescriptionElement desc,
+                                          ConfigurableElement parent)
+                                          throws WSDLException, XMLStreamException
+    {
+        PropertyElement property = parent.addPropertyElement();
+        setSourceLocation(property, reader);
+        property.setParentElement(parent);
+
+        String ref = StAXUtils.getAttribute(reader, Constants.ATTR_REF);
+        if(ref != null)
+        {
+            property.setRef(getURI(ref, reader, desc));
+        }
+
+        parseExtensionAttributes(reader, PropertyElement.class, property, desc);
+
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader))
+            {
+                parseDocumentation(reader, desc, property);
+            }
+            else if(StAXUtils.matches(Constants.Q_ELEM_VALUE, reader))
+            {
+                //the property value consists of the child info items of <value>
+                Element valueEl = StAXUtils.buildElement(reader, getNodeFactory());
+                property.setValue(valueEl.getChildNodes());
+            }
+            else if(StAXUtils.matches(Constants.Q_ELEM_CONSTRAINT, reader))
+            {
+                //TODO t.b.c. assume <constraint> has just '#value' or a qname
+                //and don't check for extraneous text or child elements?
+
+                ErrorLocatorImpl locator = getErrorLocator(reader, desc);
+                Element tempEl = StAXUtils.buildElement(reader, getNodeFactory());
+                Node node = tempEl.getFirstChild();
+                if(node != null && node instanceof Text)
+                {
+                    Text textNode = (Text)node;
+                    String textValue = textNode.getData().trim();
+                    if(textValue.length() > 0)
+                    {
+                        if(textValue.equals(Constants.NMTOKEN_VALUE))
+                        {
+                            property.setHasValueToken(true);
+                        }
+                        else
+                        {
+                            try {
+                                QName qname = DOMUtils.getQName(textValue, tempEl, desc);
+                                property.setConstraintName(qname);
+                            } catch (WSDLException e) {
+                                getErrorReporter().reportError(
+                                        locator,
+                                        "WSDL505",
+                                        new Object[] {textValue, QNameUtils.newQName(tempEl)},
+                                        ErrorReporter.SEVERITY_ERROR,
+                                        e);
+                            }
+                        }
+                    }
+                }
+            }
+            else
+            {
+                property.addExtensionElement(
+                    parseExtensionElement(PropertyElement.class, property, reader, desc) );
+            }
+        }
+
+        return property;
+    }
+
+    /*
+     * Extension attribute values may contain prefixed names, which XMLAttr
+     * implementations resolve against a DOM context element. A childless DOM
+     * element carrying the in-scope namespaces is created on demand for this,
+     * only if the element has extension attributes.
+     */
+    private void parseExtensionAttributes(ScopedStreamReader reader,
+                                          Class wsdlClass,
+                                          WSDLElement wsdlObj,
+                                          DescriptionElement desc)
+                                          throws WSDLException
+    {
+        Element ownerEl = null;
+        int length = reader.getAttributeCount();
+
+        for (int i = 0; i < length; i++)
+        {
+            String localName = reader.getAttributeLocalName(i);
+            String namespaceURI = reader.getAttributeNamespace(i);
+            String prefix = reader.getAttributePrefix(i);
+
+            if (namespaceURI != null && namespaceURI.length() > 0 &&
+                !namespaceURI.equals(Constants.NS_URI_WSDL20))
+            {
+                QName attrType = new QName(namespaceURI, localName, (prefix != null ? prefix : ""));
+
+                if (!namespaceURI.equals(Constants.NS_URI_XSI))  //TODO handle xsi attrs elsewhere, without need to register
+                {
+                    XMLAttr xmlAttr = null;
+                    ExtensionRegistry extReg = desc.getExtensionRegistry();
+                    if (extReg != null)
+                    {
+                        xmlAttr = extReg.createExtAttribute(wsdlClass, attrType);
+                        if(xmlAttr != null) //TODO use an 'UnknownAttr' class in place of null
+                        {
+                            if(ownerEl == null)
+                            {
+                                ownerEl = StAXUtils.createOwnerElement(reader, getNodeFactory());
+                            }
+                            String attrValue = reader.getAttributeValue(i);
+                            xmlAttr.init(ownerEl, attrType, attrValue);
+                            wsdlObj.setExtensionAttribute(attrType, xmlAttr);
+                        }
+                    }
+                    else
+                    {
+                        //This reader cannot handle extensions, so stop.
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Parse any extension elements within an element whose other content
+     * is not processed (e.g. &lt;import&gt; and &lt;include&gt;).
+     */
+    private void parseExtensionElements(ScopedStreamReader reader,
+                                        Class parentType,
+                                        WSDLElement parent,
+                                        DescriptionElement desc)
+                                        throws WSDLException, XMLStreamException
+    {
+        while (StAXUtils.nextChildElement(reader))
+        {
+            if (StAXUtils.matches(Constants.Q_ELEM_DOCUMENTATION, reader) &&
+                parent instanceof DocumentableElement)
+            {
+                parseDocumentation(reader, desc, (DocumentableElement)parent);
+            }
+            else
+            {
+                parent.addExtensionElement(
+                    parseExtensionElement(parentType, parent, reader, desc) );
+            }
+        }
+    }
+
+    /*
+     * ExtensionDeserializers work on DOM, so the extension element subtree
+     * is materialized before it is passed to the deserializer.
+     */
+    private ExtensionElement parseExtensionElement(Class parentType,
+                                                   WSDLElement parent,
+                                                   ScopedStreamReader reader,
+                                                   DescriptionElement desc)
+                                                   throws WSDLException, XMLStreamException
+    {
+        ErrorLocatorImpl locator = getErrorLocator(reader, desc);
+        Element el = StAXUtils.buildElement(reader, getNodeFactory());
+        return parseExtensionElement(parentType, parent, el, locator, desc);
+    }
+
+    private ExtensionElement parseExtensionElement(Class parentType,
+                                                   WSDLElement parent,
+                                                   Element el,
+                                                   ErrorLocatorImpl locator,
+                                                   DescriptionElement desc)
+                                                   throws WSDLException
+    {
+        QName elementType = QNameUtils.newQName(el);
+        String namespaceURI = el.getNamespaceURI();
+
+        try
+        {
+            if (namespaceURI == null || namespaceURI.equals(Constants.NS_URI_WSDL20))
+            {
+                getErrorReporter().reportError(
+                        locator,
+                        "WSDL520",
+                        new Object[] {elementType, parentType.getName()},
+                        ErrorReporter.SEVERITY_ERROR);
+                return null;
+            }
+
+            ExtensionRegistry extReg = desc.getExtensionRegistry();
+
+            if (extReg == null)
+            {
+                getErrorReporter().reportError(
+                        locator,
+                        "WSDL514",
+                        new Object[] {elementType, parentType.getName()},
+                        ErrorReporter.SEVERITY_ERROR);
+                return null;
+            }
+
+            ExtensionDeserializer extDS = extReg.queryDeserializer(parentType,
+                    elementType);
+
+            return extDS.unmarshall(parentType, parent, elementType, el, desc, extReg);
+        }
+        catch (WSDLException e)
+        {
+            if (e.getLocation() == null)
+            {
+                e.setLocation(XPathUtils.getXPathExprFromNode(el));
+            }
+
+            throw e;
+        }
+    }
+
+
+    /* ************************************************************
+     *  Utility/helper methods
+     * ************************************************************/
+
+    /**
+     * Check the actual element encountered against the expected qname
+     *
+     * @param reader positioned on the actual element encountered
+     * @param qname expected element's qname
+     * @throws WSDLException
+     */
+    private void checkElementName(XMLStreamReader reader, QName qname)
+    throws WSDLException
+    {
+        if (reader.getEventType() != XMLStreamConstants.START_ELEMENT ||
+            !StAXUtils.matches(qname, reader))
+        {
+            QName actual = reader.getEventType() == XMLStreamConstants.START_ELEMENT
+                           ? StAXUtils.newQName(reader) : null;
+            getErrorReporter().reportError(
+                getErrorLocator(reader, null),
+                "WSDL501",
+                new Object[] {qname, actual},
+                ErrorReporter.SEVERITY_FATAL_ERROR);
+        }
+    }
+
+    /*
+     * Resolve a prefixed attribute value to a QName, reporting WSDL505
+     * if the prefix cannot be resolved.
+     */
+    private QName getQName(String prefixedValue,
+                           XMLStreamReader reader,
+                           DescriptionElement desc)
+                           throws WSDLException
+    {
+        QName qname = null;
+        try {
+            qname = StAXUtils.getQName(prefixedValue, reader, desc);
+        } catch (WSDLException e) {
+            getErrorReporter().reportError(
+                    getErrorLocator(reader, desc),
+                    "WSDL505",
+                    new Object[] {prefixedValue, StAXUtils.newQName(reader)},
+                    ErrorReporter.SEVERITY_ERROR);
+        }
+        return qname;
+    }
+
+    /*
+     * Give a WSDL element the line and column numbers of the start tag
+     * the reader is positioned on.
+     */
+    private void setSourceLocation(Object wsdlElement, XMLStreamReader reader)
+    {
+        Location location = reader.getLocation();
+        if(location != null && wsdlElement instanceof WSDLElementImpl)
+        {
+            ((WSDLElementImpl)wsdlElement).setSourceLocation(
+                    Math.max(location.getLineNumber(), 0),
+                    Math.max(location.getColumnNumber(), 0));
+        }
+    }
+
+    /*
+     * Record on the schema the document and the position of the &lt;xs:schema&gt;
+     * or &lt;xs:import&gt; start tag it was read from, as given by the locator.
+     */
+    private void setSourceLocation(SchemaImpl schema, ErrorLocatorImpl locator)
+    {
+        schema.setSourceLocation(locator.getDocumentBaseURI(),
+                                 Math.max(locator.getLineNumber(), 0),
+                                 Math.max(locator.getColumnNumber(), 0));
+    }
+
+    /*
+     * Returns an error locator for the current position of the reader, with 
+     * the document base URI of the description being parsed, if any.
+     */
+    private ErrorLocatorImpl getErrorLocator(XMLStreamReader reader, DescriptionElement desc)
+    {
+        ErrorLocatorImpl locator = new ErrorLocatorImpl();
+        if(desc != null && desc.getDocumentBaseURI() != null)
+        {
+            locator.setDocumentBaseURI(desc.getDocumentBaseURI().toString());
+        }
+        Location location = reader.getLocation();
+        if(location != null)
+        {
+            locator.setLineNumber(location.getLineNumber());
+            locator.setColumnNumber(location.getColumnNumber());
+        }
+        return locator;
+    }
+
+    private MessageLabel getMessageLabel(String msgLabel)
+    {
+        if(msgLabel.equals(MessageLabel.IN.toString())) {
+            return MessageLabel.IN;
+        } else if(msgLabel.equals(MessageLabel.OUT.toString())) {
+            return MessageLabel.OUT;
+        } else {
+            //invalid value, but capture it anyway.
+            return MessageLabel.invalidValue(msgLabel);
+        }
+    }
+
+    /*
+     * Report a StAX parsing error as a fatal error, using the parser's
+     * location if available.
+     */
+    private void reportStreamError(XMLStreamException e, String desc) throws WSDLException
+    {
+        ErrorLocatorImpl locator = new ErrorLocatorImpl();
+        locator.setDocumentBaseURI(desc);
+        Location location = e.getLocation();
+        if(location != null)
+        {
+            if(location.getSystemId() != null)
+            {
+                locator.setDocumentBaseURI(location.getSystemId());
+            }
+            locator.setLineNumber(location.getLineNumber());
+            locator.setColumnNumber(location.getColumnNumber());
+        }
+        getErrorReporter().reportError(
+            locator,
+            "WSDL500",
+            new Object[] {"StAX", desc},
+            ErrorReporter.SEVERITY_FATAL_ERROR,
+            e);
+    }
+
+    private XMLInputFactory getInputFactory()
+    {
+        if(fInputFactory == null)
+        {
+            fInputFactory = XMLInputFactory.newInstance();
+            fInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+            fInputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        }
+        return fInputFactory;
+    }
+
+    private Document getNodeFactory() throws WSDLException
+    {
+        if(fNodeFactory == null)
+        {
+            try
+            {
+                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                factory.setNamespaceAware(true);
+                fNodeFactory = factory.newDocumentBuilder().newDocument();
+            }
+            catch (ParserConfigurationException e)
+            {
+                String msg = getErrorReporter().getFormattedMessage("WSDL002", new Object[] {"XML"});
+                throw new WSDLException(WSDLException.CONFIGURATION_ERROR, msg, e);
+            }
+        }
+        return fNodeFactory;
+    }
+
+    /*
+     * Returns the byte stream to be parsed, opening the system id, as mapped
+     * by the URIResolver, if the input source has neither a byte stream nor 
+     * a character stream.
+     * Returns null if the input source has a character stream.
+     */
+    private InputStream getInputStream(InputSource inputSource) throws IOException
+    {
+        if(inputSource.getByteStream() != null)
+        {
+            return inputSource.getByteStream();
+        }
+        if(inputSource.getCharacterStream() != null)
+        {
+            return null;
+        }
+        return new URL(resolveLocation(inputSource.getSystemId())).openStream();
+    }
+
+    private ScopedStreamReader getStreamReader(InputSource inputSource,
+                                               InputStream in,
+                                               String desc)
+                                               throws WSDLException
+    {
+        XMLStreamReader reader = null;
+        try
+        {
+            if(in != null)
+            {
+                reader = getInputFactory().createXMLStreamReader(inputSource.getSystemId(), in);
+            }
+            else
+            {
+                reader = getInputFactory().createXMLStreamReader(
+                        inputSource.getSystemId(), inputSource.getCharacterStream());
+            }
+        }
+        catch (XMLStreamException e)
+        {
+            reportStreamError(e, desc);
+        }
+        return new ScopedStreamReader(reader);
+    }
+
+    private void close(XMLStreamReader reader, InputStream in)
+    {
+        try
+        {
+            if(reader != null)
+            {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException e)
+        {
+            //nothing more to be read, so OK to ignore.
+        }
+        try
+        {
+            if(in != null)
+            {
+                in.close();
+            }
+        }
+        catch (IOException e)
+        {
+            //nothing more to be read, so OK to ignore.
+        }
+    }
+
+    /*
+     * Convert a string of type xs:anyURI to a java.net.URI.
+     * An empty string argument will return an empty string URI.
+     * A null argument will return a null.
+     */
+    private URI getURI(String anyURI,
+                       XMLStreamReader reader,
+                       DescriptionElement desc) throws WSDLException
+    {
+        URI uri = null;
+        if(anyURI != null)
+        {
+            try {
+                uri = new URI(anyURI);
+            } catch (URISyntaxException e) {
+                getErrorReporter().reportError(
+                        getErrorLocator(reader, desc),
+                        "WSDL506",
+                        new Object[] {anyURI},
+                        ErrorReporter.SEVERITY_ERROR,
+                        e);
+            }
+        }
+        return uri;
+    }
+
+    /*
+     * Retrieve a WSDL document by resolving the location URI specified
+     * on a WSDL &lt;import&gt; or &lt;include&gt; element.
+     */
+    private DescriptionElement getWSDLFromLocation(String locationURI,
+                                               XMLStreamReader reader,
+                                               DescriptionElement desc,
+                                               Map wsdlModules)
+                                               throws WSDLException
+    {
+        DescriptionElement referencedDesc = null;
+        URL locationURL = null;
+        URI contextURI = null;
+
+        try
+        {
+            contextURI = desc.getDocumentBaseURI();
+            URL contextURL = (contextURI != null) ? contextURI.toURL() : null;
+            locationURL = StringUtils.getURL(contextURL, locationURI);
+        }
+        catch (MalformedURLException e)
+        {
+            String baseURI = contextURI != null ? contextURI.toString() : null;
+
+            getErrorReporter().reportError(
+                    getErrorLocator(reader, desc),
+                    "WSDL502",
+                    new Object[] {baseURI, locationURI},
+                    ErrorReporter.SEVERITY_ERROR);
+
+            //can't continue import with a bad URL.
+            return null;
+        }
+
+        String locationStr = locationURL.toString();
+
+        //Check if WSDL imported or included previously from this location.
+        referencedDesc = (DescriptionElement)wsdlModules.get(locationStr);
+
+        if(referencedDesc == null)
+        {
+            //not previously imported or included, so retrieve the WSDL.
+            InputSource inputSource = new InputSource(locationStr);
+            InputStream in = null;
+            ScopedStreamReader wsdlReader = null;
+            try
+            {
+                in = getInputStream(inputSource);
+                wsdlReader = getStreamReader(inputSource, in, locationStr);
+                StAXUtils.nextChildElement(wsdlReader);
+
+                //The referenced document should contain a WSDL <description>
+                if(wsdlReader.getEventType() != XMLStreamConstants.START_ELEMENT ||
+                   !StAXUtils.matches(Constants.Q_ELEM_DESCRIPTION, wsdlReader))
+                {
+                    QName actual = wsdlReader.getEventType() == XMLStreamConstants.START_ELEMENT
+                                   ? StAXUtils.newQName(wsdlReader) : null;
+                    ErrorLocatorImpl locator = getErrorLocator(wsdlReader, null);
+                    locator.setDocumentBaseURI(locationStr);
+                    getErrorReporter().reportError(
+                            locator,
+                            "WSDL501",
+                            new Object[] {Constants.Q_ELEM_DESCRIPTION, actual},
+                            ErrorReporter.SEVERITY_ERROR);
+
+                    //cannot continue without a <description> element
+                    return null;
+                }
+
+                referencedDesc = parseDescription(locationStr,
+                                                  wsdlReader,
+                                                  wsdlModules);
+            }
+            catch (IOException e)
+            {
+                //document retrieval failed (e.g. 'not found')
+                getErrorReporter().reportError(
+                        getErrorLocator(reader, desc),
+                        "WSDL503",
+                        new Object[] {locationStr},
+                        ErrorReporter.SEVERITY_WARNING,
+                        e);
+
+                //cannot continue without the referenced document
+                return null;
+            }
+            catch (XMLStreamException e)
+            {
+                reportStreamError(e, locationStr);
+            }
+            finally
+            {
+                close(wsdlReader, in);
+            }
+
+            if(!wsdlModules.containsKey(locationStr))
+            {
+                wsdlModules.put(locationStr, referencedDesc);
+            }
+        }
+
+        return referencedDesc;
+    }
+
+}
@@ -0,0 +1,865 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.woden.ErrorHandler;
+import org.apache.woden.ErrorInfo;
+import org.apache.woden.ErrorLocator;
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.FilteringErrorHandler;
+import org.apache.woden.WSDLException;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.resolver.ResolverUtils;
+import org.apache.woden.internal.util.StringUtils;
+import org.apache.woden.internal.wsdl20.validation.ComponentAssertion;
+import org.apache.woden.internal.wsdl20.validation.WSDLComponentValidator;
+import org.apache.woden.resolver.URIResolver;
+import org.apache.woden.schema.ImportedSchema;
+import org.apache.woden.schema.Schema;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.woden.wsdl20.xml.ImportElement;
+import org.apache.woden.wsdl20.xml.IncludeElement;
+import org.apache.woden.wsdl20.xml.TypesElement;
+import org.apache.ws.commons.schema.XmlSchema;
+import org.apache.ws.commons.schema.XmlSchemaExternal;
+import org.apache.ws.commons.schema.XmlSchemaObjectCollection;
+
+/**
+ * A cache of the errors and warnings reported when reading WSDL documents,
+ * kept in a directory on local disk so that it can be shared by successive
+ * runs of a build, such as the ValidateWSDL20 Ant task.
+ * <p>
+ * An entry is keyed by a digest of the content of the root WSDL document, 
+ * its location, the Woden build, the ids of the assertions registered with
+ * the component validator of the reader and the reader settings that affect 
+ * the errors reported. The entry records the digests of all the other documents the 
+ * description was read from, that is the transitive closure of the WSDL 
+ * documents imported or included and of the schema documents referred to by 
+ * a schemaLocation. When none of these documents has changed, the recorded 
+ * errors are reported again without parsing anything. Otherwise the 
+ * description is read and validated as usual and the entry is replaced.
+ * <p>
+ * The total size of the entries is bounded. When it is exceeded, the least 
+ * recently used entries are deleted. The recency of an entry is kept in the
+ * modification time of its file, so it survives from one run to the next.
+ * Several processes may share a directory, since entries are written to a
+ * temporary file first, but each process only accounts for the entries it 
+ * has seen, so the bound is approximate in that case.
+ * <p>
+ * Exceptions reported with an error are not recorded. Errors reported from 
+ * the cache carry the key, message and location of the original error only.
+ */
+public class ValidationCache {
+    
+    /**
+     * The default bound on the total size of the entries, in bytes.
+     */
+    public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+    
+    private static final String ENTRY_SUFFIX = ".wvc";
+    
+    //Increment when the format of the entries changes
+    private static final int FORMAT_VERSION = 1;
+    
+    private static final int MAGIC = 0x57564331;
+    
+    //The digest of a document that could not be retrieved
+    static final String NO_DOCUMENT = "-";
+    
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    private static String fImplementationDigest = null;
+    
+    private final File fDirectory;
+    private final long fMaxSize;
+    
+    //Entry file name to Long size, in least recently used order. 
+    //Loaded from the directory on first use.
+    private LinkedHashMap fEntries = null;
+    private long fSize = 0;
+    
+    /**
+     * Creates a cache of DEFAULT_MAX_SIZE bytes in the specified directory.
+     * 
+     * @param directory the cache directory, created if it does not exist.
+     */
+    public ValidationCache(File directory)
+    {
+        this(directory, DEFAULT_MAX_SIZE);
+    }
+    
+    /**
+     * Creates a cache in the specified directory.
+     * 
+     * @param directory the cache directory, created if it does not exist.
+     * @param maxSize the bound on the total size of the entries, in bytes.
+     */
+    public ValidationCache(File directory, long maxSize)
+    {
+        if(directory == null)
+        {
+            throw new IllegalArgumentException("The cache directory must not be null.");
+        }
+        if(maxSize <= 0)
+        {
+            throw new IllegalArgumentException("The cache size must be positive.");
+        }
+        fDirectory = directory;
+        fMaxSize = maxSize;
+    }
+    
+    public File getDirectory()
+    {
+        return fDirectory;
+    }
+    
+    public long getMaxSize()
+    {
+        return fMaxSize;
+    }
+    
+    /**
+     * Returns the total size of the entries known to this cache, in bytes.
+     */
+    public synchronized long getSize()
+    {
+        loadEntries();
+        return fSize;
+    }
+    
+    /**
+     * Returns the number of entries known to this cache.
+     */
+    public synchronized int getEntryCount()
+    {
+        loadEntries();
+        return fEntries.size();
+    }
+    
+    /**
+     * Deletes all the entries in the cache directory.
+     */
+    public synchronized void clear()
+    {
+        File[] files = listEntryFiles();
+        for(int i = 0; i < files.length; i++)
+        {
+            files[i].delete();
+        }
+        fEntries = new LinkedHashMap(16, 0.75f, true);
+        fSize = 0;
+    }
+    
+    /**
+     * Reads the WSDL document at the specified location with the reader, 
+     * reporting errors to the error handler as <code>readWSDL</code> would, 
+     * unless the cache holds the errors reported for the same documents, in
+     * which case they are reported to the error handler without reading 
+     * the document.
+     * <p>
+     * The errors are only recorded if the document is read without a
+     * WSDLException being thrown.
+     * 
+     * @param reader the reader, configured with the features and properties 
+     * to read the document with.
+     * @param wsdlURI the location of the WSDL document.
+     * @param errorHandler the error handler, or null to use the error handler
+     * of the reader.
+     * @return the description element read, or null if the errors were 
+     * reported from the cache.
+     * @throws WSDLException if the document is read and reading fails.
+     */
+    public DescriptionElement validate(WSDLReader reader, 
+                                       String wsdlURI, 
+                                       ErrorHandler errorHandler) throws WSDLException
+    {
+        ErrorReporter reporter = reader.getErrorReporter();
+        if(errorHandler == null)
+        {
+            errorHandler = reporter.getErrorHandler();
+        }
+        URIResolver resolver = (URIResolver)reader.getProperty(WSDLReader.PROPERTY_URI_RESOLVER);
+        
+        String location;
+        String key = null;
+        try 
+        {
+            location = StringUtils.getURL(null, wsdlURI).toString();
+            String rootDigest = digestDocument(resolver, location);
+            if(!NO_DOCUMENT.equals(rootDigest))
+            {
+                key = getEntryKey(reader, location, rootDigest, errorHandler);
+            }
+        } 
+        catch (MalformedURLException e) 
+        {
+            //leave it to the reader to report
+            location = wsdlURI;
+        }
+        
+        if(key != null && replayEntry(key, resolver, errorHandler))
+        {
+            return null;
+        }
+        
+        RecordingErrorHandler recorder = new RecordingErrorHandler(errorHandler);
+        DescriptionElement desc;
+        try
+        {
+            desc = reader.readWSDL(location, recorder);
+        }
+        finally
+        {
+            reporter.setErrorHandler(errorHandler);
+        }
+        
+        if(key != null && desc != null)
+        {
+            Set documents = new HashSet();
+            collectDocuments(desc, documents, new HashSet());
+            documents.remove(location);
+            storeEntry(key, resolver, documents, recorder.getErrors());
+        }
+        return desc;
+    }
+    
+    /*
+     * Reports the errors of the entry if there is one and the documents it 
+     * records are unchanged. Returns true if the errors were reported.
+     */
+    private boolean replayEntry(String key, URIResolver resolver, ErrorHandler errorHandler)
+    {
+        File file = new File(fDirectory, key + ENTRY_SUFFIX);
+        if(!file.isFile())
+        {
+            return false;
+        }
+        
+        List errors = new ArrayList();
+        try
+        {
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file)));
+            try
+            {
+                if(in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+                {
+                    throw new IOException("Not a cache entry.");
+                }
+                int documents = in.readInt();
+                for(int i = 0; i < documents; i++)
+                {
+                    String location = readString(in);
+                    String digest = readString(in);
+                    if(!digest.equals(digestDocument(resolver, location)))
+                    {
+                        return false;
+                    }
+                }
+                int count = in.readInt();
+                for(int i = 0; i < count; i++)
+                {
+                    short severity = in.readShort();
+                    ErrorLocatorImpl errLoc = new ErrorLocatorImpl();
+                    errLoc.setDocumentBaseURI(readString(in));
+                    errLoc.setLocationURI(readString(in));
+                    errLoc.setLineNumber(in.readInt());
+                    errLoc.setColumnNumber(in.readInt());
+                    String errorKey = readString(in);
+                    String message = readString(in);
+                    errors.add(new Object[] {new Short(severity), 
+                            new ErrorInfoImpl(errLoc, errorKey, message, null)});
+                }
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch(IOException e)
+        {
+            //a damaged or partly deleted entry is ignored and will be replaced
+            return false;
+        }
+        
+        touchEntry(file);
+        
+        for(Iterator i = errors.iterator(); i.hasNext(); )
+        {
+            Object[] error = (Object[])i.next();
+            report(errorHandler, ((Short)error[0]).shortValue(), (ErrorInfo)error[1]);
+        }
+        return true;
+    }
+    
+    private void storeEntry(String key, URIResolver resolver, Set documents, List errors)
+    {
+        File file = new File(fDirectory, key + ENTRY_SUFFIX);
+        File tmp = null;
+        try
+        {
+            if(!fDirectory.isDirectory() && !fDirectory.mkdirs())
+            {
+                return;
+            }
+            
+            tmp = File.createTempFile("entry", ".tmp", fDirectory);
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmp)));
+            try
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                
+                String[] locations = (String[])documents.toArray(new String[documents.size()]);
+                Arrays.sort(locations);
+                out.writeInt(locations.length);
+                for(int i = 0; i < locations.length; i++)
+                {
+                    writeString(out, locations[i]);
+                    writeString(out, digestDocument(resolver, locations[i]));
+                }
+                
+                out.writeInt(errors.size());
+                for(Iterator i = errors.iterator(); i.hasNext(); )
+                {
+                    Object[] error = (Object[])i.next();
+                    ErrorInfo errorInfo = (ErrorInfo)error[1];
+                    ErrorLocator errLoc = errorInfo.getErrorLocator();
+                    out.writeShort(((Short)error[0]).shortValue());
+                    writeString(out, errLoc != null ? errLoc.getDocumentBaseURI() : null);
+                    writeString(out, errLoc != null ? errLoc.getLocationURI() : null);
+                    out.writeInt(errLoc != null ? errLoc.getLineNumber() : 0);
+                    out.writeInt(errLoc != null ? errLoc.getColumnNumber() : 0);
+                    writeString(out, errorInfo.getKey());
+                    writeString(out, errorInfo.getMessage());
+                }
+            }
+            finally
+            {
+                out.close();
+            }
+            
+            //replace any existing entry in one step
+            file.delete();
+            if(!tmp.renameTo(file))
+            {
+                return;
+            }
+            tmp = null;
+        }
+        catch(IOException e)
+        {
+            //the cache is only an optimization, so failing to write to it is not an error
+            return;
+        }
+        finally
+        {
+            if(tmp != null)
+            {
+                tmp.delete();
+            }
+        }
+        
+        addEntry(file);
+    }
+    
+    /*
+     * Records use of an entry, so that it is evicted last.
+     */
+    private synchronized void touchEntry(File file)
+    {
+        loadEntries();
+        file.setLastModified(System.currentTimeMillis());
+        if(fEntries.get(file.getName()) == null)
+        {
+            Long size = new Long(file.length());
+            fEntries.put(file.getName(), size);
+            fSize += size.longValue();
+        }
+    }
+    
+    private synchronized void addEntry(File file)
+    {
+        loadEntries();
+        Long previous = (Long)fEntries.remove(file.getName());
+        if(previous != null)
+        {
+            fSize -= previous.longValue();
+        }
+        Long size = new Long(file.length());
+        fEntries.put(file.getName(), size);
+        fSize += size.longValue();
+        
+        //evict the least recently used entries, keeping the new one
+        Iterator i = fEntries.entrySet().iterator();
+        while(fSize > fMaxSize && fEntries.size() > 1)
+        {
+            Map.Entry eldest = (Map.Entry)i.next();
+            new File(fDirectory, (String)eldest.getKey()).delete();
+            fSize -= ((Long)eldest.getValue()).longValue();
+            i.remove();
+        }
+    }
+    
+    private void loadEntries()
+    {
+        if(fEntries != null)
+        {
+            return;
+        }
+        
+        File[] files = listEntryFiles();
+        Arrays.sort(files, new Comparator() {
+            public int compare(Object o1, Object o2) {
+                long m1 = ((File)o1).lastModified();
+                long m2 = ((File)o2).lastModified();
+                return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+            }
+        });
+        
+        fEntries = new LinkedHashMap(16, 0.75f, true);
+        fSize = 0;
+        for(int i = 0; i < files.length; i++)
+        {
+            long size = files[i].length();
+            fEntries.put(files[i].getName(), new Long(size));
+            fSize += size;
+        }
+    }
+    
+    private File[] listEntryFiles()
+    {
+        File[] files = fDirectory.listFiles();
+        if(files == null)
+        {
+            return new File[0];
+        }
+        List entries = new ArrayList();
+        for(int i = 0; i < files.length; i++)
+        {
+            if(files[i].getName().endsWith(ENTRY_SUFFIX))
+            {
+                entries.add(files[i]);
+            }
+        }
+        return (File[])entries.toArray(new File[entries.size()]);
+    }
+    
+    /*
+     * Collects the locations of the documents, other than inlined schemas, 
+     * that the description was read from. Also used by WSDLRepository.
+     */
+    static void collectDocuments(DescriptionElement desc, Set documents, Set visited)
+    {
+        if(desc.getDocumentBaseURI() == null)
+        {
+            return;
+        }
+        String base = desc.getDocumentBaseURI().toString();
+        if(!visited.add(base))
+        {
+            return;
+        }
+        documents.add(base);
+        
+        ImportElement[] imports = desc.getImportElements();
+        for(int i = 0; i < imports.length; i++)
+        {
+            if(imports[i].getDescriptionElement() != null)
+            {
+                collectDocuments(imports[i].getDescriptionElement(), documents, visited);
+            }
+            else if(imports[i].getLocation() != null)
+            {
+                //record it anyway, in case it can be retrieved next time
+                addLocation(base, imports[i].getLocation().toString(), documents);
+            }
+        }
+        
+        IncludeElement[] includes = desc.getIncludeElements();
+        for(int i = 0; i < includes.length; i++)
+        {
+            if(includes[i].getDescriptionElement() != null)
+            {
+                collectDocuments(includes[i].getDescriptionElement(), documents, visited);
+            }
+            else if(includes[i].getLocation() != null)
+            {
+                addLocation(base, includes[i].getLocation().toString(), documents);
+            }
+        }
+        
+        TypesElement types = desc.getTypesElement();
+        if(types != null)
+        {
+            Schema[] schemas = types.getSchemas();
+            for(int i = 0; i < schemas.length; i++)
+            {
+                String schemaLoc = null;
+                if(schemas[i] instanceof ImportedSchema && 
+                   ((ImportedSchema)schemas[i]).getSchemaLocation() != null)
+                {
+                    schemaLoc = addLocation(base, 
+                            ((ImportedSchema)schemas[i]).getSchemaLocation().toString(), 
+                            documents);
+                }
+                if(schemas[i].getSchemaDefinition() != null)
+                {
+                    collectSchemaDocuments(schemas[i].getSchemaDefinition(), 
+                            base, schemaLoc, documents, visited);
+                }
+            }
+        }
+    }
+    
+    /*
+     * Collects the locations of the schema documents included or imported by 
+     * a schema. Relative locations are resolved both against the location of 
+     * the schema document and against the WSDL document, which is the base 
+     * the reader gives XmlSchema.
+     */
+    private static void collectSchemaDocuments(XmlSchema schemaDef, String wsdlBase, 
+            String schemaLoc, Set documents, Set visited)
+    {
+        if(!visited.add(new IdentityKey(schemaDef)))
+        {
+            return;
+        }
+        
+        XmlSchemaObjectCollection externals = schemaDef.getIncludes();
+        for(int i = 0; externals != null && i < externals.getCount(); i++)
+        {
+            if(!(externals.getItem(i) instanceof XmlSchemaExternal))
+            {
+                continue;
+            }
+            XmlSchemaExternal external = (XmlSchemaExternal)externals.getItem(i);
+            if(external.getSchemaLocation() == null)
+            {
+                continue;
+            }
+            
+            String location = addLocation(wsdlBase, external.getSchemaLocation(), documents);
+            if(schemaLoc != null)
+            {
+                location = addLocation(schemaLoc, external.getSchemaLocation(), documents);
+            }
+            if(external.getSchema() != null)
+            {
+                collectSchemaDocuments(external.getSchema(), wsdlBase, location, documents, visited);
+            }
+        }
+    }
+    
+    private static String addLocation(String base, String location, Set documents)
+    {
+        try
+        {
+            String url = StringUtils.getURL(new URL(base), location).toString();
+            documents.add(url);
+            return url;
+        }
+        catch(MalformedURLException e)
+        {
+            return null;
+        }
+    }
+    
+    /*
+     * The key of the entry also identifies the severities the error handler
+     * is passed, as an entry only records the errors it was passed.
+     */
+    private String getEntryKey(WSDLReader reader, 
+                               String location, 
+                               String rootDigest, 
+                               ErrorHandler errorHandler)
+    {
+        MessageDigest md = newDigest();
+        update(md, String.valueOf(FORMAT_VERSION));
+        update(md, getImplementationDigest());
+        update(md, reader.getClass().getName());
+        update(md, String.valueOf(reader.getFeature(WSDLReader.FEATURE_VALIDATION)));
+        if(reader.getFeature(WSDLReader.FEATURE_VALIDATION))
+        {
+            update(md, getAssertionsDigest(reader));
+        }
+        update(md, String.valueOf(reader.getErrorReporter().getLocale()));
+        update(md, location);
+        update(md, rootDigest);
+        update(md, isReported(errorHandler, ErrorReporter.SEVERITY_WARNING) + "," +
+                   isReported(errorHandler, ErrorReporter.SEVERITY_ERROR) + "," +
+                   isReported(errorHandler, ErrorReporter.SEVERITY_FATAL_ERROR));
+        return toHex(md.digest());
+    }
+    
+    /*
+     * Returns a digest of the assertions registered with the component
+     * validator of the reader, identified by their assertion ids, so that
+     * entries are not reused once assertions are registered with it.
+     */
+    private static String getAssertionsDigest(WSDLReader reader)
+    {
+        WSDLComponentValidator validator = reader instanceof BaseWSDLReader
+            ? ((BaseWSDLReader)reader).getComponentValidator()
+            : new WSDLComponentValidator();
+        ComponentAssertion[] assertions = validator.getAssertionRegistry().getAssertions();
+        MessageDigest md = newDigest();
+        for(int i = 0; i < assertions.length; i++)
+        {
+            update(md, assertions[i].getTargetType().getName() + "=" + assertions[i].getId());
+        }
+        return toHex(md.digest());
+    }
+    
+    /*
+     * Returns a digest identifying the Woden build, so that entries are not 
+     * reused once Woden is upgraded.
+     */
+    static synchronized String getImplementationDigest()
+    {
+        if(fImplementationDigest == null)
+        {
+            MessageDigest md = newDigest();
+            
+            Package pkg = ValidationCache.class.getPackage();
+            update(md, String.valueOf(pkg != null ? pkg.getImplementationVersion() : null));
+            
+            CodeSource codeSource = ValidationCache.class.getProtectionDomain().getCodeSource();
+            if(codeSource != null && codeSource.getLocation() != null)
+            {
+                URL codeLocation = codeSource.getLocation();
+                update(md, codeLocation.toString());
+                if("file".equals(codeLocation.getProtocol()))
+                {
+                    File codeFile = new File(codeLocation.getPath());
+                    update(md, codeFile.length() + ":" + codeFile.lastModified());
+                }
+            }
+
+            fImplementationDigest = toHex(md.digest());
+        }
+        return fImplementationDigest;
+    }
+    
+    /*
+     * Returns the digest of the content of a document, or NO_DOCUMENT if
+     * it cannot be retrieved.
+     */
+    static String digestDocument(URIResolver resolver, String location)
+    {
+        MessageDigest md = newDigest();
+        try
+        {
+            String resolved = ResolverUtils.resolveLocation(resolver, location);
+            InputStream in = new URL(resolved).openStream();
+            try
+            {
+                byte[] buffer = new byte[8192];
+                int n;
+                while((n = in.read(buffer)) != -1)
+                {
+                    md.update(buffer, 0, n);
+                }
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch(IOException e)
+        {
+            return NO_DOCUMENT;
+        }
+        return toHex(md.digest());
+    }
+    
+    /*
+     * Returns true unless the error handler does not want errors of this severity.
+     */
+    private static boolean isReported(ErrorHandler errorHandler, short severity)
+    {
+        return !(errorHandler instanceof FilteringErrorHandler) ||
+               ((FilteringErrorHandler)errorHandler).isReported(severity);
+    }
+    
+    private static void report(ErrorHandler errorHandler, short severity, ErrorInfo errorInfo)
+    {
+        if(!isReported(errorHandler, severity))
+        {
+            return;
+        }
+        if(severity == ErrorReporter.SEVERITY_WARNING)
+        {
+            errorHandler.warning(errorInfo);
+        }
+        else if(severity == ErrorReporter.SEVERITY_ERROR)
+        {
+            errorHandler.error(errorInfo);
+        }
+        else
+        {
+            errorHandler.fatalError(errorInfo);
+        }
+    }
+    
+    static void writeString(DataOutputStream out, String s) throws IOException
+    {
+        out.writeBoolean(s != null);
+        if(s != null)
+        {
+            byte[] bytes = s.getBytes("UTF-8");
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+    
+    private static String readString(DataInputStream in) throws IOException
+    {
+        if(!in.readBoolean())
+        {
+            return null;
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+    
+    private static MessageDigest newDigest()
+    {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            //SHA-1 must be supported by every Java platform
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+    
+    private static void update(MessageDigest md, String s)
+    {
+        try {
+            md.update(s.getBytes("UTF-8"));
+            md.update((byte)'\n');
+        } catch (UnsupportedEncodingException e) {
+            //UTF-8 must be supported by every Java platform
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+    
+    private static String toHex(byte[] bytes)
+    {
+        char[] chars = new char[bytes.length * 2];
+        for(int i = 0; i < bytes.length; i++)
+        {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+    
+    /*
+     * Passes errors on to another error handler and records them, 
+     * with their severity, in the order they are reported. It filters the 
+     * errors as the other error handler does, so that the reader does not 
+     * report the errors that handler does not want.
+     */
+    private static class RecordingErrorHandler implements FilteringErrorHandler
+    {
+        private final ErrorHandler fErrorHandler;
+        private final List fErrors = new ArrayList();
+        
+        RecordingErrorHandler(ErrorHandler errorHandler)
+        {
+            fErrorHandler = errorHandler;
+        }
+        
+        List getErrors()
+        {
+            return fErrors;
+        }
+        
+        public boolean isReported(short severity)
+        {
+            return ValidationCache.isReported(fErrorHandler, severity);
+        }
+        
+        public void warning(ErrorInfo errorInfo)
+        {
+            fErrors.add(new Object[] {new Short(ErrorReporter.SEVERITY_WARNING), errorInfo});
+            fErrorHandler.warning(errorInfo);
+        }
+        
+        public void error(ErrorInfo errorInfo)
+        {
+            fErrors.add(new Object[] {new Short(ErrorReporter.SEVERITY_ERROR), errorInfo});
+            fErrorHandler.error(errorInfo);
+        }
+        
+        public void fatalError(ErrorInfo errorInfo)
+        {
+            fErrors.add(new Object[] {new Short(ErrorReporter.SEVERITY_FATAL_ERROR), errorInfo});
+            fErrorHandler.fatalError(errorInfo);
+        }
+    }
+    
+    /*
+     * Compares schemas by identity, as XmlSchema may override equals.
+     */
+    private static class IdentityKey
+    {
+        private final Object fObject;
+        
+        IdentityKey(Object object)
+        {
+            fObject = object;
+        }
+        
+        public boolean equals(Object other)
+        {
+            return other instanceof IdentityKey && ((IdentityKey)other).fObject == fObject;
+        }
+        
+        public int hashCode()
+        {
+            return System.identityHashCode(fObject);
+        }
+    }
+}
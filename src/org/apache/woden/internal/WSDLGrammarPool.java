@@ -0,0 +1,171 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.io.IOException;
+import java.net.URL;
+
+import org.apache.xerces.impl.Constants;
+import org.apache.xerces.parsers.XMLGrammarPreparser;
+import org.apache.xerces.util.SymbolTable;
+import org.apache.xerces.util.SynchronizedSymbolTable;
+import org.apache.xerces.util.XMLGrammarPoolImpl;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.apache.xerces.xni.parser.XMLErrorHandler;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.apache.xerces.xni.parser.XMLParseException;
+
+/**
+ * Holds the compiled XML Schema grammars used by the validating Xerces
+ * parsers of the DOMWSDLReader, so that they are compiled once per JVM
+ * rather than once per parsed document.
+ * <p>
+ * The WSDL 2.0 and WSDL 2.0 extensions schemas are loaded from the copies
+ * bundled with Woden, so no network access is needed for them. The schema
+ * for XML Schema is not bundled. It is retrieved once from its w3.org location
+ * when the pool is created and, if that fails, the parsers fall back to
+ * retrieving it for each document as before (see hasSchemaForSchemas).
+ * <p>
+ * The pool is locked once loaded, so grammars encountered while validating
+ * documents are never added to it and it can be shared by all threads.
+ */
+final class WSDLGrammarPool {
+
+    static final String NS_URI_XSD = "http://www.w3.org/2001/XMLSchema";
+
+    static final String XSD_LOCATION = "http://www.w3.org/2001/XMLSchema.xsd";
+
+    //The bundled schemas, relative to this class
+    private static final String[] BUNDLED_SCHEMAS = new String[] {
+        "resources/wsdl20.xsd",
+        "resources/wsdl20-extensions.xsd"};
+
+    private static final String GRAMMAR_POOL =
+        Constants.XERCES_PROPERTY_PREFIX + Constants.XMLGRAMMAR_POOL_PROPERTY;
+
+    private static SymbolTable fSymbolTable = null;
+    private static XMLGrammarPool fGrammarPool = null;
+    private static boolean fHasSchemaForSchemas = false;
+
+    private WSDLGrammarPool()
+    {
+    }
+
+    /**
+     * Returns the shared, locked grammar pool, loading it on first use.
+     */
+    static synchronized XMLGrammarPool getGrammarPool()
+    {
+        if(fGrammarPool == null)
+        {
+            load();
+        }
+        return fGrammarPool;
+    }
+
+    /**
+     * Returns the symbol table the pooled grammars were compiled with.
+     * Parsers using the grammar pool should use it too.
+     */
+    static synchronized SymbolTable getSymbolTable()
+    {
+        if(fGrammarPool == null)
+        {
+            load();
+        }
+        return fSymbolTable;
+    }
+
+    /**
+     * Returns true if the schema for XML Schema could be loaded into the pool.
+     * If not, parsers must still be given its location as a schema location hint.
+     */
+    static synchronized boolean hasSchemaForSchemas()
+    {
+        if(fGrammarPool == null)
+        {
+            load();
+        }
+        return fHasSchemaForSchemas;
+    }
+
+    private static void load()
+    {
+        SymbolTable symbolTable = new SynchronizedSymbolTable(new SymbolTable());
+        XMLGrammarPoolImpl grammarPool = new XMLGrammarPoolImpl();
+
+        XMLGrammarPreparser preparser = new XMLGrammarPreparser(symbolTable);
+        preparser.registerPreparser(XMLGrammarDescription.XML_SCHEMA, null);
+        preparser.setProperty(GRAMMAR_POOL, grammarPool);
+        preparser.setFeature(Constants.SAX_FEATURE_PREFIX + Constants.NAMESPACES_FEATURE, true);
+        preparser.setErrorHandler(new QuietErrorHandler());
+
+        for(int i = 0; i < BUNDLED_SCHEMAS.length; i++)
+        {
+            URL url = WSDLGrammarPool.class.getResource(BUNDLED_SCHEMAS[i]);
+            if(url != null)
+            {
+                preparse(preparser, url.toString());
+            }
+        }
+        fHasSchemaForSchemas = preparse(preparser, XSD_LOCATION);
+
+        grammarPool.lockPool();
+        fSymbolTable = symbolTable;
+        fGrammarPool = grammarPool;
+    }
+
+    private static boolean preparse(XMLGrammarPreparser preparser, String systemId)
+    {
+        try
+        {
+            return preparser.preparseGrammar(XMLGrammarDescription.XML_SCHEMA,
+                    new XMLInputSource(null, systemId, null)) != null;
+        }
+        catch(IOException e)
+        {
+            return false;
+        }
+        catch(XNIException e)
+        {
+            return false;
+        }
+    }
+
+    /*
+     * The pool is loaded on behalf of whichever reader happens to need it first,
+     * so problems with the schemas are not reported to that reader's ErrorReporter.
+     * A schema that cannot be compiled is simply left out of the pool.
+     */
+    private static class QuietErrorHandler implements XMLErrorHandler
+    {
+        public void warning(String domain, String key, XMLParseException exception)
+        {
+        }
+
+        public void error(String domain, String key, XMLParseException exception)
+        {
+        }
+
+        public void fatalError(String domain, String key, XMLParseException exception)
+            throws XNIException
+        {
+            throw exception;
+        }
+    }
+}
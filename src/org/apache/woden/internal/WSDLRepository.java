@@ -0,0 +1,644 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.WSDLException;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.wsdl20.EndpointAddressIndex;
+import org.apache.woden.resolver.URIResolver;
+import org.apache.woden.schema.SchemaCache;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+
+/**
+ * Keeps the descriptions read from a set of root WSDL documents on local 
+ * disk up to date as the documents change.
+ * <p>
+ * The roots are the WSDL documents added with <code>addRoot</code> and the 
+ * files with a ".wsdl" suffix in the directories added with 
+ * <code>addDirectory</code>, including files created there later. The 
+ * directories of the roots and of the local documents they import or include,
+ * directly or indirectly, and of the schema documents they refer to, are 
+ * watched with a WatchService. When a document changes, only the roots that 
+ * depend on it are read again. A change event for a document whose content 
+ * has not changed is ignored.
+ * <p>
+ * With a DOMWSDLReader, the DOM trees of the documents are kept, so reading a 
+ * root again only parses the documents that have changed. Documents that are 
+ * not local files, such as those retrieved over HTTP, are read once and are 
+ * not watched. Schema documents included or imported by other schema 
+ * documents are read again along with their root, as the schema processor 
+ * retrieves them itself. Before the roots depending on a changed document are
+ * read again, the schemas cached for their local documents are removed from 
+ * the schema cache of the reader (see <code>WSDLReader.PROPERTY_SCHEMA_CACHE</code>),
+ * as the cached schemas are not checked against the documents they include or
+ * import. The schemas cached for other roots are kept.
+ * <p>
+ * Each description is frozen (see <code>Description.freeze()</code>) before 
+ * it is published, and the descriptions of all the roots read again after 
+ * a set of changes are published together by replacing a single reference. 
+ * So a thread calling <code>getDescription</code> never sees a partly built 
+ * description or a mixture of old and new descriptions, and is never blocked 
+ * while documents are read. The EndpointAddressIndex returned by 
+ * <code>getEndpointAddressIndex</code> is updated in the same way.
+ * <p>
+ * If a root cannot be read, the error is reported to the ErrorReporter of 
+ * the reader and the description previously read from it, if any, is kept.
+ * <p>
+ * Changes are processed by a daemon thread once <code>start</code> has been 
+ * called, or by the application calling <code>checkForChanges</code>. The 
+ * reader must not be used for anything else while the repository is in use.
+ */
+public class WSDLRepository {
+    
+    private static final String WSDL_SUFFIX = ".wsdl";
+    
+    private static final WatchEvent.Kind[] WATCH_KINDS = new WatchEvent.Kind[] {
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY,
+        StandardWatchEventKinds.ENTRY_DELETE};
+    
+    //How long the watcher thread waits after a change for any related changes,
+    //such as the other documents saved by an editor, in milliseconds
+    private static final long SETTLE_DELAY = 100;
+    
+    private final WSDLReader fReader;
+    private final WatchService fWatchService;
+    
+    //The following fields are guarded by this object.
+    
+    //The root files
+    private final Set fRoots = new TreeSet();
+    
+    //The directories whose WSDL files are roots
+    private final Set fRootDirectories = new HashSet();
+    
+    //The local files each root was read from, keyed by root
+    private final Map fDependencies = new HashMap();
+    
+    //The roots read from each local file, keyed by file
+    private final Map fDependents = new HashMap();
+    
+    //The content digest of each local file when it was last read
+    private final Map fDigests = new HashMap();
+    
+    //The watched directories, keyed by WatchKey
+    private final Map fWatchedDirectories = new HashMap();
+    
+    //The DOM trees of the documents read so far, keyed by system id, given to
+    //the DOMWSDLReader so that unchanged documents are not parsed again. It is
+    //synchronized because the reader may parse documents concurrently.
+    private final Map fDocuments = Collections.synchronizedMap(new HashMap());
+    
+    private Thread fWatcher = null;
+    
+    //The descriptions keyed by root. Never modified once assigned, so it is 
+    //shared with the threads calling getDescription without locking.
+    private volatile Map fDescriptions = Collections.EMPTY_MAP;
+    
+    private final EndpointAddressIndex fEndpointAddressIndex = new EndpointAddressIndex();
+    
+    /**
+     * Creates an empty repository reading documents with the specified reader.
+     * 
+     * @param reader the reader, configured with the features and properties 
+     * to read the documents with.
+     * @throws IOException if the file system cannot be watched.
+     */
+    public WSDLRepository(WSDLReader reader) throws IOException
+    {
+        if(reader == null)
+        {
+            throw new IllegalArgumentException("The reader must not be null.");
+        }
+        fReader = reader;
+        fWatchService = FileSystems.getDefault().newWatchService();
+    }
+    
+    /**
+     * Adds a root WSDL document and reads it, unless it is already a root.
+     * 
+     * @param wsdlFile the WSDL document.
+     */
+    public synchronized void addRoot(File wsdlFile)
+    {
+        File root = wsdlFile.getAbsoluteFile();
+        if(fRoots.add(root))
+        {
+            watch(root.getParentFile());
+            reload(Collections.singleton(root), Collections.EMPTY_SET);
+        }
+    }
+    
+    /**
+     * Adds the WSDL documents in a directory as roots and reads them. Files 
+     * with a ".wsdl" suffix created in the directory later are added as roots 
+     * too, and roots deleted from it are removed.
+     * 
+     * @param directory the directory.
+     */
+    public synchronized void addDirectory(File directory)
+    {
+        File dir = directory.getAbsoluteFile();
+        if(!fRootDirectories.add(dir))
+        {
+            return;
+        }
+        watch(dir);
+        
+        Set added = new TreeSet();
+        File[] files = dir.listFiles();
+        for(int i = 0; files != null && i < files.length; i++)
+        {
+            if(isRootFile(files[i]) && fRoots.add(files[i]))
+            {
+                added.add(files[i]);
+            }
+        }
+        reload(added, Collections.EMPTY_SET);
+    }
+    
+    /**
+     * Returns the description read from a root WSDL document, or null if 
+     * it is not a root or could not be read.
+     * 
+     * @param wsdlFile the root WSDL document.
+     * @return the frozen description, or null.
+     */
+    public Description getDescription(File wsdlFile)
+    {
+        return (Description)fDescriptions.get(wsdlFile.getAbsoluteFile());
+    }
+    
+    /**
+     * Returns the descriptions of all the roots, in the order of their files.
+     * 
+     * @return the frozen descriptions.
+     */
+    public Description[] getDescriptions()
+    {
+        Map descriptions = fDescriptions;
+        return (Description[])descriptions.values().toArray(new Description[descriptions.size()]);
+    }
+    
+    /**
+     * Returns an index of the endpoints of the descriptions of all the roots,
+     * updated whenever the descriptions are.
+     */
+    public EndpointAddressIndex getEndpointAddressIndex()
+    {
+        return fEndpointAddressIndex;
+    }
+    
+    /**
+     * Starts a daemon thread that processes changes to the documents as soon 
+     * as they are made. Does nothing if the thread has already been started.
+     */
+    public synchronized void start()
+    {
+        if(fWatcher != null)
+        {
+            return;
+        }
+        fWatcher = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    while(true)
+                    {
+                        WatchKey key = fWatchService.take();
+                        Thread.sleep(SETTLE_DELAY);
+                        processChanges(key);
+                    }
+                }
+                catch(InterruptedException e)
+                {
+                    //stopped
+                }
+                catch(ClosedWatchServiceException e)
+                {
+                    //the repository was closed
+                }
+            }
+        }, "Woden WSDLRepository");
+        fWatcher.setDaemon(true);
+        fWatcher.start();
+    }
+    
+    /**
+     * Processes the changes made to the documents since changes were last
+     * processed, waiting for a change for up to the specified time if none
+     * has been made yet.
+     * 
+     * @param timeout the longest time to wait for a change, in milliseconds, 
+     * or 0 not to wait.
+     * @return true if any root was affected, that is read again, added or removed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean checkForChanges(long timeout) throws InterruptedException
+    {
+        WatchKey key = timeout > 0 
+            ? fWatchService.poll(timeout, TimeUnit.MILLISECONDS) 
+            : fWatchService.poll();
+        return key != null && processChanges(key);
+    }
+    
+    /**
+     * Stops watching the documents, and stops the thread started by 
+     * <code>start</code>. The descriptions already read remain available.
+     * 
+     * @throws IOException if the WatchService cannot be closed.
+     */
+    public void close() throws IOException
+    {
+        fWatchService.close();
+    }
+    
+    /*
+     * Processes the events of the key and of any other keys already signalled.
+     */
+    private synchronized boolean processChanges(WatchKey firstKey)
+    {
+        Set changed = new HashSet();
+        for(WatchKey key = firstKey; key != null; key = fWatchService.poll())
+        {
+            File dir = (File)fWatchedDirectories.get(key);
+            for(Iterator i = key.pollEvents().iterator(); i.hasNext(); )
+            {
+                WatchEvent event = (WatchEvent)i.next();
+                if(event.kind() == StandardWatchEventKinds.OVERFLOW)
+                {
+                    //events were lost, so check every file in the directory
+                    changed.addAll(getKnownFiles(dir));
+                    File[] files = dir != null ? dir.listFiles() : null;
+                    for(int j = 0; files != null && j < files.length; j++)
+                    {
+                        changed.add(files[j]);
+                    }
+                }
+                else if(dir != null)
+                {
+                    changed.add(new File(dir, ((Path)event.context()).toString()));
+                }
+            }
+            if(!key.reset())
+            {
+                fWatchedDirectories.remove(key);
+            }
+        }
+        
+        Set affected = new TreeSet();
+        Set removed = new TreeSet();
+        Set changedRoots = new HashSet();
+        for(Iterator i = changed.iterator(); i.hasNext(); )
+        {
+            File file = (File)i.next();
+            
+            if(isRootFile(file) && fRootDirectories.contains(file.getParentFile()))
+            {
+                if(!file.isFile())
+                {
+                    if(fRoots.remove(file))
+                    {
+                        removed.add(file);
+                    }
+                }
+                else if(fRoots.add(file))
+                {
+                    affected.add(file);
+                }
+            }
+            
+            Set roots = (Set)fDependents.get(file);
+            if(roots == null)
+            {
+                //no root was read from it
+                continue;
+            }
+            
+            String digest = digest(file);
+            if(digest.equals(fDigests.get(file)))
+            {
+                continue;
+            }
+            fDigests.put(file, digest);
+            removeDocuments(file);
+            affected.addAll(roots);
+            changedRoots.addAll(roots);
+        }
+        
+        affected.removeAll(removed);
+        if(affected.isEmpty() && removed.isEmpty())
+        {
+            return false;
+        }
+        removeSchemas(changedRoots);
+        reload(affected, removed);
+        return true;
+    }
+    
+    /*
+     * Read the roots again, forget the removed ones, and publish the new 
+     * descriptions.
+     */
+    private void reload(Set roots, Set removed)
+    {
+        Map descriptions = new TreeMap(fDescriptions);
+        for(Iterator i = removed.iterator(); i.hasNext(); )
+        {
+            File root = (File)i.next();
+            descriptions.remove(root);
+            setDependencies(root, Collections.EMPTY_SET);
+        }
+        for(Iterator i = roots.iterator(); i.hasNext(); )
+        {
+            File root = (File)i.next();
+            Description desc = read(root);
+            if(desc != null)
+            {
+                descriptions.put(root, desc);
+            }
+        }
+        pruneDocuments();
+        
+        fDescriptions = Collections.unmodifiableMap(descriptions);
+        fEndpointAddressIndex.update(getDescriptions());
+    }
+    
+    /*
+     * Read a root, record the local files it was read from and watch their 
+     * directories. Returns null if the root could not be read.
+     */
+    private Description read(File root)
+    {
+        String location = root.toURI().toString();
+        
+        DOMWSDLReader domReader = fReader instanceof DOMWSDLReader ? (DOMWSDLReader)fReader : null;
+        DescriptionElement descElem = null;
+        if(domReader != null)
+        {
+            domReader.setCachedDocuments(fDocuments);
+        }
+        try
+        {
+            descElem = fReader.readWSDL(location);
+        }
+        catch(WSDLException e)
+        {
+            report("WSDL524", location, e);
+        }
+        finally
+        {
+            if(domReader != null)
+            {
+                domReader.setCachedDocuments(null);
+            }
+        }
+        if(descElem == null)
+        {
+            return null;
+        }
+        
+        Description desc = descElem.toComponent().freeze();
+        
+        Set locations = new HashSet();
+        ValidationCache.collectDocuments(descElem, locations, new HashSet());
+        Set files = new HashSet();
+        files.add(root);
+        for(Iterator i = locations.iterator(); i.hasNext(); )
+        {
+            File file = toFile((String)i.next());
+            if(file != null)
+            {
+                files.add(file);
+            }
+        }
+        setDependencies(root, files);
+        
+        for(Iterator i = files.iterator(); i.hasNext(); )
+        {
+            File file = (File)i.next();
+            watch(file.getParentFile());
+            if(!fDigests.containsKey(file))
+            {
+                fDigests.put(file, digest(file));
+            }
+        }
+        return desc;
+    }
+    
+    private void setDependencies(File root, Set files)
+    {
+        Set oldFiles = (Set)fDependencies.remove(root);
+        if(oldFiles != null)
+        {
+            for(Iterator i = oldFiles.iterator(); i.hasNext(); )
+            {
+                File file = (File)i.next();
+                Set roots = (Set)fDependents.get(file);
+                roots.remove(root);
+                if(roots.isEmpty())
+                {
+                    fDependents.remove(file);
+                    fDigests.remove(file);
+                }
+            }
+        }
+        
+        if(!files.isEmpty())
+        {
+            fDependencies.put(root, files);
+            for(Iterator i = files.iterator(); i.hasNext(); )
+            {
+                File file = (File)i.next();
+                Set roots = (Set)fDependents.get(file);
+                if(roots == null)
+                {
+                    roots = new HashSet();
+                    fDependents.put(file, roots);
+                }
+                roots.add(root);
+            }
+        }
+    }
+    
+    private void watch(File dir)
+    {
+        if(dir == null || fWatchedDirectories.containsValue(dir))
+        {
+            return;
+        }
+        try
+        {
+            WatchKey key = dir.toPath().register(fWatchService, WATCH_KINDS);
+            fWatchedDirectories.put(key, dir);
+        }
+        catch(IOException e)
+        {
+            report("WSDL019", dir.toString(), e);
+        }
+    }
+    
+    /*
+     * Forget the DOM tree of a changed file, so that it is parsed again.
+     */
+    private void removeDocuments(File file)
+    {
+        synchronized(fDocuments)
+        {
+            for(Iterator i = fDocuments.keySet().iterator(); i.hasNext(); )
+            {
+                if(file.equals(toFile((String)i.next())))
+                {
+                    i.remove();
+                }
+            }
+        }
+    }
+    
+    /*
+     * Forget the DOM trees of the local files no root depends on any more.
+     */
+    private void pruneDocuments()
+    {
+        synchronized(fDocuments)
+        {
+            for(Iterator i = fDocuments.keySet().iterator(); i.hasNext(); )
+            {
+                File file = toFile((String)i.next());
+                if(file != null && !fDependents.containsKey(file))
+                {
+                    i.remove();
+                }
+            }
+        }
+    }
+    
+    private Set getKnownFiles(File dir)
+    {
+        Set files = new HashSet();
+        for(Iterator i = fDependents.keySet().iterator(); i.hasNext(); )
+        {
+            File file = (File)i.next();
+            if(dir == null || dir.equals(file.getParentFile()))
+            {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+    
+    /*
+     * Remove the schemas cached for the local files the roots were read from.
+     * The schemas of a changed document are cached under a new digest anyway,
+     * but those of the other documents of its roots may include or import it.
+     */
+    private void removeSchemas(Set roots)
+    {
+        SchemaCache cache = (SchemaCache)fReader.getProperty(WSDLReader.PROPERTY_SCHEMA_CACHE);
+        if(cache == null)
+        {
+            return;
+        }
+        Set files = new HashSet();
+        for(Iterator i = roots.iterator(); i.hasNext(); )
+        {
+            Set rootFiles = (Set)fDependencies.get(i.next());
+            if(rootFiles != null)
+            {
+                files.addAll(rootFiles);
+            }
+        }
+        for(Iterator i = files.iterator(); i.hasNext(); )
+        {
+            cache.removeSchemas(((File)i.next()).toURI().toString());
+        }
+    }
+    
+    private String digest(File file)
+    {
+        URIResolver resolver = (URIResolver)fReader.getProperty(WSDLReader.PROPERTY_URI_RESOLVER);
+        return ValidationCache.digestDocument(resolver, file.toURI().toString());
+    }
+    
+    private void report(String errorId, String arg, Exception e)
+    {
+        ErrorLocatorImpl errLoc = new ErrorLocatorImpl();
+        errLoc.setDocumentBaseURI(arg);
+        try
+        {
+            fReader.getErrorReporter().reportError(errLoc, errorId, 
+                    new Object[] {arg}, ErrorReporter.SEVERITY_ERROR, e);
+        }
+        catch(WSDLException e2)
+        {
+            //the error handler chose to stop, but there is no caller to stop
+        }
+    }
+    
+    private static boolean isRootFile(File file)
+    {
+        return file.getName().endsWith(WSDL_SUFFIX);
+    }
+    
+    /*
+     * Returns the file of a file: URL, or null if the URL is not a file: URL.
+     */
+    private static File toFile(String location)
+    {
+        if(location == null || !location.startsWith("file:"))
+        {
+            return null;
+        }
+        try
+        {
+            return new File(new URI(location)).getAbsoluteFile();
+        }
+        catch(URISyntaxException e)
+        {
+            return null;
+        }
+        catch(IllegalArgumentException e)
+        {
+            //not a hierarchical file URI
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.resolver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+import org.apache.woden.resolver.URIResolver;
+import org.xml.sax.InputSource;
+
+/**
+ * Utility methods for retrieving documents through a URIResolver.
+ */
+public class ResolverUtils {
+
+    /**
+     * Returns the location the document at the specified location should be
+     * retrieved from. This is the location itself if there is no resolver, if
+     * the resolver does not map the location or if the location is not an 
+     * absolute URI.
+     * 
+     * @param resolver the resolver, or null.
+     * @param location the absolute location of the document.
+     * @return the location to retrieve the document from.
+     * @throws IOException if the resolver fails.
+     */
+    public static String resolveLocation(URIResolver resolver, String location) 
+        throws IOException
+    {
+        if(resolver == null || location == null)
+        {
+            return location;
+        }
+        
+        URI uri;
+        try 
+        {
+            uri = new URI(location);
+        } 
+        catch (URISyntaxException e) 
+        {
+            //not something a resolver could map
+            return location;
+        }
+        if(!uri.isAbsolute())
+        {
+            return location;
+        }
+        
+        URI resolved = resolver.resolveURI(uri);
+        return resolved != null ? resolved.toString() : location;
+    }
+    
+    /**
+     * Returns an InputSource for the document at the specified location. 
+     * The system id of the InputSource is always the original location, so 
+     * that relative references in the document are resolved against it. If 
+     * the resolver maps the location, the InputSource has a byte stream opened 
+     * on the resolved location.
+     * 
+     * @param resolver the resolver, or null.
+     * @param location the absolute location of the document.
+     * @return the InputSource.
+     * @throws IOException if the resolver fails or the resolved location
+     * cannot be opened.
+     */
+    public static InputSource getInputSource(URIResolver resolver, String location) 
+        throws IOException
+    {
+        InputSource inputSource = new InputSource(location);
+        String resolved = resolveLocation(resolver, location);
+        if(!resolved.equals(location))
+        {
+            inputSource.setByteStream(new URL(resolved).openStream());
+        }
+        return inputSource;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.resolver;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+
+import org.apache.woden.internal.util.StringUtils;
+import org.apache.woden.resolver.URIResolver;
+import org.apache.ws.commons.schema.XmlSchemaException;
+import org.xml.sax.InputSource;
+
+/**
+ * Adapts a Woden URIResolver to the resolver interface of XmlSchema, so that 
+ * the schemas referenced by &lt;xs:import&gt;, &lt;xs:include&gt; and 
+ * &lt;xs:redefine&gt; within a schema are retrieved through it too.
+ */
+public class SchemaURIResolver 
+    implements org.apache.ws.commons.schema.resolver.URIResolver {
+    
+    private URIResolver fResolver;
+    
+    public SchemaURIResolver(URIResolver resolver)
+    {
+        fResolver = resolver;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.ws.commons.schema.resolver.URIResolver#resolveEntity(java.lang.String, java.lang.String, java.lang.String)
+     */
+    public InputSource resolveEntity(String targetNamespace, 
+                                     String schemaLocation, 
+                                     String baseUri) 
+    {
+        String location;
+        try 
+        {
+            location = StringUtils.getURL(
+                    baseUri != null ? StringUtils.getURL(null, baseUri) : null, 
+                    schemaLocation).toString();
+        } 
+        catch (MalformedURLException e) 
+        {
+            //leave it to XmlSchema to report the bad location
+            return new InputSource(schemaLocation);
+        }
+        
+        try 
+        {
+            return ResolverUtils.getInputSource(fResolver, location);
+        } 
+        catch (IOException e) 
+        {
+            throw new XmlSchemaException(
+                    "Could not resolve the schema location " + location + ".", e);
+        }
+    }
+
+}
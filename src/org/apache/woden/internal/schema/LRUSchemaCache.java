@@ -0,0 +1,131 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.schema;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.woden.schema.SchemaCache;
+import org.apache.ws.commons.schema.XmlSchema;
+
+/**
+ * A thread-safe SchemaCache holding up to a maximum number of schema 
+ * definitions. When the cache is full, the least recently used entry 
+ * is discarded.
+ * <p>
+ * Note, lookups are not serialized with schema compilation, so two threads
+ * that miss on the same schema at the same time may both compile it. The 
+ * last one to be put in the cache is kept.
+ */
+public class LRUSchemaCache implements SchemaCache {
+    
+    /**
+     * The maximum number of entries used by the default constructor.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+    
+    private final int fMaxEntries;
+    private final Map fEntries;
+    
+    public LRUSchemaCache()
+    {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+    
+    /**
+     * @param maxEntries the maximum number of schemas to be cached
+     * @throws IllegalArgumentException if maxEntries is less than 1
+     */
+    public LRUSchemaCache(int maxEntries)
+    {
+        if(maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be greater than zero: " + maxEntries);
+        }
+        fMaxEntries = maxEntries;
+        
+        //an access-ordered map that removes the eldest entry when full 
+        fEntries = new LinkedHashMap(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry eldest) {
+                return size() > fMaxEntries;
+            }
+        };
+    }
+    
+    /* (non-Javadoc)
+     * @see org.apache.woden.schema.SchemaCache#getSchema(java.lang.String, java.lang.String)
+     */
+    public synchronized XmlSchema getSchema(String location, String digest)
+    {
+        return (XmlSchema)fEntries.get(getKey(location, digest));
+    }
+    
+    /* (non-Javadoc)
+     * @see org.apache.woden.schema.SchemaCache#putSchema(java.lang.String, java.lang.String, org.apache.ws.commons.schema.XmlSchema)
+     */
+    public synchronized void putSchema(String location, String digest, XmlSchema schemaDef)
+    {
+        if(schemaDef != null) {
+            fEntries.put(getKey(location, digest), schemaDef);
+        }
+    }
+    
+    /* (non-Javadoc)
+     * @see org.apache.woden.schema.SchemaCache#removeSchemas(java.lang.String)
+     */
+    public synchronized void removeSchemas(String location)
+    {
+        String prefix = getKey(location, null);
+        for(Iterator i = fEntries.keySet().iterator(); i.hasNext(); ) {
+            String key = (String)i.next();
+            //the location itself may contain a '#', but the digest does not
+            if(key.startsWith(prefix) && key.indexOf('#', prefix.length()) == -1) {
+                i.remove();
+            }
+        }
+    }
+    
+    /* (non-Javadoc)
+     * @see org.apache.woden.schema.SchemaCache#clear()
+     */
+    public synchronized void clear()
+    {
+        fEntries.clear();
+    }
+    
+    /**
+     * @return the number of schemas currently cached
+     */
+    public synchronized int size()
+    {
+        return fEntries.size();
+    }
+    
+    /**
+     * @return the maximum number of schemas this cache will hold
+     */
+    public int getMaxEntries()
+    {
+        return fMaxEntries;
+    }
+    
+    private String getKey(String location, String digest)
+    {
+        //'#' cannot appear in a digest, so the two parts cannot be confused
+        return (location != null ? location : "") + "#" + (digest != null ? digest : "");
+    }
+    
+}
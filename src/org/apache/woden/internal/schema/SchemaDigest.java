@@ -0,0 +1,136 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.schema;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.woden.internal.util.dom.DOM2Writer;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Computes the content digests used to key inlined schemas in a SchemaCache.
+ * <p>
+ * The namespace declarations in scope at the schema element are part of 
+ * the digest because prefixed names in the schema, such as the values of
+ * <code>type</code> attributes, may be resolved against declarations made
+ * outside the schema element, typically on &lt;wsdl:description&gt;.
+ */
+public class SchemaDigest {
+    
+    private static final String NS_URI_XMLNS = "http://www.w3.org/2000/xmlns/";
+    
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    /**
+     * Returns a digest of a DOM schema element and of the namespace 
+     * declarations made by its ancestors.
+     * 
+     * @param schemaEl the &lt;xs:schema&gt; element
+     * @return the digest as a hexadecimal string
+     */
+    public static String digest(Element schemaEl)
+    {
+        //inner declarations override outer ones, so walk from the outside in
+        Map namespaces = new TreeMap();
+        collectNamespaces(schemaEl.getParentNode(), namespaces);
+        
+        return digest(DOM2Writer.nodeToString(schemaEl), namespaces);
+    }
+    
+    /**
+     * Returns a digest of serialized schema content and of the namespace
+     * declarations it is to be resolved against.
+     * 
+     * @param content the serialized &lt;xs:schema&gt; element
+     * @param namespaces a map of prefix to namespace (String or URI), or null
+     * @return the digest as a hexadecimal string
+     */
+    public static String digest(String content, Map namespaces)
+    {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            //SHA-1 must be supported by every Java platform
+            throw new IllegalStateException(e.getMessage());
+        }
+        
+        if(namespaces != null)
+        {
+            Map sorted = new TreeMap();
+            for(Iterator i = namespaces.entrySet().iterator(); i.hasNext(); )
+            {
+                Map.Entry entry = (Map.Entry)i.next();
+                String prefix = entry.getKey() != null ? entry.getKey().toString() : "";
+                String ns = entry.getValue() != null ? entry.getValue().toString() : "";
+                sorted.put(prefix, ns);
+            }
+            for(Iterator i = sorted.entrySet().iterator(); i.hasNext(); )
+            {
+                Map.Entry entry = (Map.Entry)i.next();
+                update(md, "xmlns:" + entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+        update(md, content);
+        
+        byte[] bytes = md.digest();
+        char[] chars = new char[bytes.length * 2];
+        for(int i = 0; i < bytes.length; i++)
+        {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+    
+    private static void collectNamespaces(Node node, Map namespaces)
+    {
+        if(node == null || node.getNodeType() != Node.ELEMENT_NODE) {
+            return;
+        }
+        collectNamespaces(node.getParentNode(), namespaces);
+        
+        NamedNodeMap attrs = node.getAttributes();
+        for(int i = 0; i < attrs.getLength(); i++)
+        {
+            Attr attr = (Attr)attrs.item(i);
+            if(NS_URI_XMLNS.equals(attr.getNamespaceURI()))
+            {
+                String prefix = "xmlns".equals(attr.getLocalName()) ? "" : attr.getLocalName();
+                namespaces.put(prefix, attr.getValue());
+            }
+        }
+    }
+    
+    private static void update(MessageDigest md, String s)
+    {
+        try {
+            md.update(s.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            //UTF-8 must be supported by every Java platform
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+    
+}
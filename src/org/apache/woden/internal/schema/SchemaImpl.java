@@ -30,6 +30,12 @@ public abstract class SchemaImpl implements Schema
     private URI fNamespace = null;
     private XmlSchema fSchemaDefinition = null;
     private boolean fIsReferenceable = true;
+    
+    //The document and the position of the start tag this schema was read from,
+    //if known, so that errors about the schema can be located.
+    private String fSourceURI = null;
+    private int fSourceLine = 0;
+    private int fSourceColumn = 0;
 
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.schema.Schema#setNamespace(java.net.URI)
@@ -90,4 +96,30 @@ public abstract class SchemaImpl implements Schema
     {
         return fNamespace != null ? fNamespace.toString() : null;
     }
+    
+    /*
+     * Set by the WSDL reader to the document and the line and column of the 
+     * &lt;xs:schema&gt; or &lt;xs:import&gt; start tag this schema was read from.
+     */
+    public void setSourceLocation(String uri, int line, int column)
+    {
+        fSourceURI = uri;
+        fSourceLine = line;
+        fSourceColumn = column;
+    }
+    
+    public String getSourceURI()
+    {
+        return fSourceURI;
+    }
+    
+    public int getSourceLineNumber()
+    {
+        return fSourceLine;
+    }
+    
+    public int getSourceColumnNumber()
+    {
+        return fSourceColumn;
+    }
 }
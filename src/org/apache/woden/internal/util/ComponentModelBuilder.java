@@ -39,6 +39,7 @@ import org.apache.woden.internal.wsdl20.TypeDefinitionImpl;
 import org.apache.woden.internal.wsdl20.TypesImpl;
 import org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl;
 import org.apache.woden.internal.wsdl20.extensions.rpc.RPCConstants;
+import org.apache.woden.internal.wsdl20.extensions.soap.SOAPConstants;
 import org.apache.woden.wsdl20.Binding;
 import org.apache.woden.wsdl20.BindingFault;
 import org.apache.woden.wsdl20.BindingFaultReference;
@@ -102,10 +103,14 @@ public class ComponentModelBuilder {
     
     private boolean fIsSoapUnderlyingProtocolHttp = false;
     
+    //The ComponentExtensions created, resolved once the component model is built
+    private List fCompExtensions = new Vector();
+    
 	public ComponentModelBuilder(DescriptionImpl desc) {
 		fDesc = desc;
 		// TODO fErrorRpt = errorRpt; see todo in buildElementDeclarations()
 		initComponents(fDesc);
+		resolveComponentExtensions();
 	}
 
 	private void initComponents(DescriptionImpl desc) {
@@ -418,6 +423,7 @@ public class ComponentModelBuilder {
 		 * HTTP or user-defined extensions can be registered in some way and
 		 * interpreted here at run time.
 		 */
+		fIsSoapUnderlyingProtocolHttp = false;
 		if (ComponentExtensions.URI_NS_SOAP.equals(binding.getType())) {
             
             fBindingType = ComponentExtensions.URI_NS_SOAP;
@@ -437,8 +443,9 @@ public class ComponentModelBuilder {
 			SOAPBindingExtensions sbe = (SOAPBindingExtensions) binding
 					.getComponentExtensionsForNamespace(ComponentExtensions.URI_NS_SOAP);
 
-			if (ComponentExtensions.URI_NS_HTTP.equals(sbe
-					.getSoapUnderlyingProtocol())) {
+			if (sbe.getSoapUnderlyingProtocol() != null
+					&& SOAPConstants.PROTOCOL_URI_HTTP.equals(sbe
+							.getSoapUnderlyingProtocol().toString())) {
                 
                 fIsSoapUnderlyingProtocolHttp = true;
                 
@@ -805,6 +812,18 @@ public class ComponentModelBuilder {
         }
 	}
 
+	/*
+	 * Resolve the properties of the ComponentExtensions created by this builder.
+	 * This is done once all the descriptions have been built, so that the
+	 * extension attributes and elements of each component are complete.
+	 */
+	private void resolveComponentExtensions() {
+		for (Iterator i = fCompExtensions.iterator(); i.hasNext();) {
+			((ComponentExtensionsImpl) i.next()).resolveProperties();
+		}
+		fCompExtensions = null;
+	}
+
 	/*
 	 * This helper method factors out common code for creating
 	 * ComponentExtensions registered in the ExtensionRegistry.
@@ -816,6 +835,7 @@ public class ComponentModelBuilder {
 		try {
 			compExt = er.createComponentExtension(parentClass, extNS);
 			((ComponentExtensionsImpl) compExt).init(parentElem, extNS);
+			fCompExtensions.add(compExt);
 		} catch (WSDLException e) {
 			// This exception occurs if there is no Java class registered for
 			// the namespace, but
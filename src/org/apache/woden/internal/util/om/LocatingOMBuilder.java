@@ -0,0 +1,47 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden.internal.util.om;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.OMException;
+import org.apache.axiom.om.OMNode;
+import org.apache.axiom.om.impl.builder.StAXOMBuilder;
+
+/**
+ * A StAXOMBuilder that sets the line number of each element it builds, so
+ * that the OMWSDLReader can report errors at the line they were found on.
+ * The line recorded is that reported by the XMLStreamReader for the start
+ * tag, which is the line the tag starts or ends on depending on the StAX
+ * implementation. OMElement has no column number, so none is recorded.
+ */
+class LocatingOMBuilder extends StAXOMBuilder {
+
+    LocatingOMBuilder(XMLStreamReader parser) {
+        super(parser);
+    }
+
+    protected OMNode createOMElement() throws OMException {
+        OMNode node = super.createOMElement();
+        Location location = parser.getLocation();
+        if (node instanceof OMElement && location != null) {
+            ((OMElement)node).setLineNumber(location.getLineNumber());
+        }
+        return node;
+    }
+}
@@ -18,6 +18,7 @@ package org.apache.woden.internal.util.om;
 import org.apache.axiom.om.OMAttribute;
 import org.apache.axiom.om.OMElement;
 import org.apache.axiom.om.impl.builder.StAXOMBuilder;
+import org.apache.axiom.om.util.StAXUtils;
 import org.apache.woden.ErrorReporter;
 import org.apache.woden.WSDLException;
 import org.apache.woden.internal.ErrorLocatorImpl;
@@ -45,7 +46,8 @@ public class OMUtils {
 
     /**
      * @param strUri The URI where the WSDL can be found
-     * @return A StAXOMBuilder which could be used in obtaining the document object
+     * @return A StAXOMBuilder which could be used in obtaining the document object.
+     * The line number of each element built is set.
      */
     public static StAXOMBuilder getOMBuilder(String strUri) {
         StAXOMBuilder builder = null;
@@ -54,7 +56,7 @@ public class OMUtils {
             URL url = uri.toURL();
 
             InputStream in = url.openStream();
-            builder = new StAXOMBuilder(in);
+            builder = new LocatingOMBuilder(StAXUtils.createXMLStreamReader(in));
         } catch (IOException e) {
             e.printStackTrace();
         } catch (XMLStreamException e) {
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden.internal.util.stax;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Vector;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+/**
+ * An XMLStreamReader wrapper that keeps track of the namespace declarations
+ * made by the ancestors of the current element.
+ * <p>
+ * The StAX API only exposes the namespace declarations of the current element,
+ * but when an element subtree is materialized as DOM (e.g. an inline
+ * &lt;xs:schema&gt; or a WSDL extension element) the namespaces declared on
+ * its ancestors, typically on &lt;wsdl:description&gt;, must be carried over
+ * so that QName-valued content can still be resolved.
+ * <p>
+ * All navigation must go through <code>next()</code>, <code>nextTag()</code> or
+ * <code>getElementText()</code> on this object, not on the wrapped reader,
+ * otherwise the namespace scopes will get out of step with the stream.
+ */
+public class ScopedStreamReader extends StreamReaderDelegate
+{
+    //One entry per open element. Each entry is a String[] of prefix/namespace
+    //pairs, or null if the element declares no namespaces.
+    private Vector fScopes = new Vector();
+
+    //The scope of an element remains visible while positioned on its END_ELEMENT
+    //event, so it is only removed when the reader moves past it.
+    private boolean fPopPending = false;
+
+    public ScopedStreamReader(XMLStreamReader reader)
+    {
+        super(reader);
+
+        //The reader may already be positioned on an element, e.g. the root
+        //element of a document supplied by the application.
+        if(reader.getEventType() == XMLStreamConstants.START_ELEMENT)
+        {
+            pushScope();
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see javax.xml.stream.XMLStreamReader#next()
+     */
+    public int next() throws XMLStreamException
+    {
+        if(fPopPending)
+        {
+            fScopes.remove(fScopes.size() - 1);
+            fPopPending = false;
+        }
+
+        int event = super.next();
+
+        if(event == XMLStreamConstants.START_ELEMENT)
+        {
+            pushScope();
+        }
+        else if(event == XMLStreamConstants.END_ELEMENT)
+        {
+            fPopPending = true;
+        }
+
+        return event;
+    }
+
+    /*
+     * Re-implemented in terms of next() so that the namespace scopes are maintained.
+     *
+     * @see javax.xml.stream.XMLStreamReader#nextTag()
+     */
+    public int nextTag() throws XMLStreamException
+    {
+        int event = next();
+        while((event == XMLStreamConstants.CHARACTERS && isWhiteSpace())
+              || event == XMLStreamConstants.SPACE
+              || event == XMLStreamConstants.COMMENT
+              || event == XMLStreamConstants.PROCESSING_INSTRUCTION)
+        {
+            event = next();
+        }
+
+        if(event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT)
+        {
+            throw new XMLStreamException("Expected a start or end tag.", getLocation());
+        }
+        return event;
+    }
+
+    /*
+     * Re-implemented in terms of next() so that the namespace scopes are maintained.
+     *
+     * @see javax.xml.stream.XMLStreamReader#getElementText()
+     */
+    public String getElementText() throws XMLStreamException
+    {
+        if(getEventType() != XMLStreamConstants.START_ELEMENT)
+        {
+            throw new XMLStreamException("Expected a start tag.", getLocation());
+        }
+
+        StringBuffer text = new StringBuffer();
+        int event = next();
+        while(event != XMLStreamConstants.END_ELEMENT)
+        {
+            if(event == XMLStreamConstants.CHARACTERS
+               || event == XMLStreamConstants.CDATA
+               || event == XMLStreamConstants.SPACE
+               || event == XMLStreamConstants.ENTITY_REFERENCE)
+            {
+                text.append(getText());
+            }
+            else if(event == XMLStreamConstants.START_ELEMENT)
+            {
+                throw new XMLStreamException("Element text must not contain child elements.", getLocation());
+            }
+            else if(event == XMLStreamConstants.END_DOCUMENT)
+            {
+                throw new XMLStreamException("Unexpected end of document.", getLocation());
+            }
+            event = next();
+        }
+        return text.toString();
+    }
+
+    private void pushScope()
+    {
+        String[] decls = null;
+        int count = getNamespaceCount();
+        if(count > 0)
+        {
+            decls = new String[count * 2];
+            for(int i = 0; i < count; i++)
+            {
+                String prefix = getNamespacePrefix(i);
+                String nsURI = getNamespaceURI(i);
+                decls[i * 2] = prefix != null ? prefix : "";
+                decls[i * 2 + 1] = nsURI != null ? nsURI : "";
+            }
+        }
+        fScopes.add(decls);
+    }
+
+    /**
+     * Returns the namespace declarations in scope at the current element,
+     * including those made by the current element itself, as a map of
+     * prefix to namespace URI. The default namespace is keyed by the
+     * empty string.
+     *
+     * @return a Map of in-scope namespace declarations
+     */
+    public Map getInScopeNamespaces()
+    {
+        Map namespaces = new HashMap();
+        int depth = fScopes.size();
+        for(int i = 0; i < depth; i++)
+        {
+            String[] decls = (String[])fScopes.get(i);
+            if(decls != null)
+            {
+                for(int j = 0; j < decls.length; j += 2)
+                {
+                    namespaces.put(decls[j], decls[j + 1]);
+                }
+            }
+        }
+        return namespaces;
+    }
+
+}
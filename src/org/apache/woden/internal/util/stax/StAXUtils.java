@@ -0,0 +1,348 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden.internal.util.stax;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.woden.WSDLException;
+import org.apache.woden.internal.util.dom.DOMUtils;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * This class contains utility methods required for parsing elements
+ * in a WSDL using a StAX XMLStreamReader.
+ * <p>
+ * Unless stated otherwise, methods expect the reader to be positioned on the
+ * START_ELEMENT event of the element of interest.
+ */
+public class StAXUtils {
+
+    private static final String emptyString = "";
+
+    private static final String NS_URI_XMLNS = "http://www.w3.org/2000/xmlns/";
+
+    /**
+     * @param qname The relevant QName to be matched
+     * @param reader a reader positioned on a START_ELEMENT event
+     * @return true if the given QName matches the current element's and false otherwise
+     */
+    public static boolean matches(QName qname, XMLStreamReader reader)
+    {
+        return qname.getLocalPart().equals(reader.getLocalName()) &&
+               qname.getNamespaceURI().equals(getNamespaceURI(reader));
+    }
+
+    /**
+     * @param reader a reader positioned on a START_ELEMENT event
+     * @return a QName for the current element
+     */
+    public static QName newQName(XMLStreamReader reader)
+    {
+        return new QName(getNamespaceURI(reader), reader.getLocalName());
+    }
+
+    /**
+     * Returns the value of an unqualified attribute of the current element,
+     * or null if there is no such attribute. Unlike
+     * <code>XMLStreamReader.getAttributeValue(null, name)</code>, namespace
+     * qualified attributes with the same local name are not matched.
+     *
+     * @param reader a reader positioned on a START_ELEMENT event
+     * @param attrName the local name of the attribute
+     * @return the attribute value or null
+     */
+    public static String getAttribute(XMLStreamReader reader, String attrName)
+    {
+        int count = reader.getAttributeCount();
+        for(int i = 0; i < count; i++)
+        {
+            String ns = reader.getAttributeNamespace(i);
+            if((ns == null || ns.length() == 0) &&
+               attrName.equals(reader.getAttributeLocalName(i)))
+            {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Advance the reader to the next child element of the current element.
+     * The reader must be positioned on the START_ELEMENT event of the parent
+     * or on the END_ELEMENT event of a previous child. Any text, comments or
+     * processing instructions in between are skipped.
+     *
+     * @param reader the stream reader
+     * @return true if the reader is now positioned on the START_ELEMENT of
+     * a child element, false if the END_ELEMENT of the parent was reached
+     * @throws XMLStreamException
+     */
+    public static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException
+    {
+        while(reader.hasNext())
+        {
+            int event = reader.next();
+            if(event == XMLStreamConstants.START_ELEMENT)
+            {
+                return true;
+            }
+            else if(event == XMLStreamConstants.END_ELEMENT ||
+                    event == XMLStreamConstants.END_DOCUMENT)
+            {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Consume the remainder of the current element, including all of its
+     * descendants, leaving the reader positioned on its END_ELEMENT event.
+     *
+     * @param reader a reader positioned on a START_ELEMENT event
+     * @throws XMLStreamException
+     */
+    public static void skipElement(XMLStreamReader reader) throws XMLStreamException
+    {
+        int depth = 1;
+        while(depth > 0 && reader.hasNext())
+        {
+            int event = reader.next();
+            if(event == XMLStreamConstants.START_ELEMENT)
+            {
+                depth++;
+            }
+            else if(event == XMLStreamConstants.END_ELEMENT)
+            {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Resolve a prefixed value such as an xs:QName attribute value against the
+     * namespaces in scope at the current element, registering the namespace
+     * with the description element as per DOMUtils.getQName.
+     *
+     * @param prefixedValue the string to convert
+     * @param reader a reader positioned on the element the value appears in
+     * @param desc the description element
+     * @return the QName
+     * @throws WSDLException if the prefix cannot be resolved
+     */
+    public static QName getQName(String prefixedValue,
+                                 XMLStreamReader reader,
+                                 DescriptionElement desc)
+                                 throws WSDLException
+    {
+        int    index        = prefixedValue.indexOf(':');
+        String prefix       = (index != -1)
+                              ? prefixedValue.substring(0, index)
+                              : null;
+        String localPart    = prefixedValue.substring(index + 1);
+        String namespaceURI = reader.getNamespaceURI(prefix != null ? prefix : emptyString);
+
+        if(namespaceURI != null && namespaceURI.length() == 0)
+        {
+            //StAX implementations may return an empty string for an unbound prefix
+            namespaceURI = null;
+        }
+
+        if (namespaceURI != null)
+        {
+            DOMUtils.registerUniquePrefix(prefix, namespaceURI, desc);
+
+            return new QName(namespaceURI,
+                             localPart,
+                             prefix != null ? prefix : emptyString);
+        }
+        else
+        {
+            String faultCode = (prefix == null)
+                               ? WSDLException.NO_PREFIX_SPECIFIED
+                               : WSDLException.UNBOUND_PREFIX;
+
+            WSDLException wsdlExc = new WSDLException(faultCode,
+                                                      "Unable to determine " +
+                                                      "namespace of '" +
+                                                      prefixedValue + "'.");
+
+            wsdlExc.setLocation(newQName(reader).toString());
+
+            throw wsdlExc;
+        }
+    }
+
+    /**
+     * Create a childless DOM element for the current element, carrying its
+     * attributes and all the namespace declarations in scope. This is used
+     * where an API requires a DOM context element, for example to resolve
+     * prefixes in extension attribute values, without materializing the
+     * content of the element. The reader is not moved.
+     *
+     * @param reader a reader positioned on a START_ELEMENT event
+     * @param doc the document used to create the element
+     * @return the DOM element
+     */
+    public static Element createOwnerElement(ScopedStreamReader reader, Document doc)
+    {
+        Element el = createElement(reader, doc);
+        declareNamespaces(el, reader.getInScopeNamespaces());
+        return el;
+    }
+
+    /**
+     * Materialize the current element and its content as a DOM element.
+     * The namespace declarations in scope at the element are declared on
+     * the returned element so that it can be used on its own. On return, the
+     * reader is positioned on the END_ELEMENT event of the element.
+     *
+     * @param reader a reader positioned on a START_ELEMENT event
+     * @param doc the document used to create the DOM nodes
+     * @return the DOM element
+     * @throws XMLStreamException
+     */
+    public static Element buildElement(ScopedStreamReader reader, Document doc)
+        throws XMLStreamException
+    {
+        Element root = createElement(reader, doc);
+        declareNamespaces(root, reader.getInScopeNamespaces());
+
+        Node current = root;
+        int depth = 1;
+        while(depth > 0 && reader.hasNext())
+        {
+            int event = reader.next();
+            switch(event)
+            {
+                case XMLStreamConstants.START_ELEMENT:
+                {
+                    Element el = createElement(reader, doc);
+                    int count = reader.getNamespaceCount();
+                    for(int i = 0; i < count; i++)
+                    {
+                        declareNamespace(el, reader.getNamespacePrefix(i), reader.getNamespaceURI(i));
+                    }
+                    current.appendChild(el);
+                    current = el;
+                    depth++;
+                    break;
+                }
+                case XMLStreamConstants.END_ELEMENT:
+                {
+                    depth--;
+                    if(depth > 0)
+                    {
+                        current = current.getParentNode();
+                    }
+                    break;
+                }
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                {
+                    current.appendChild(doc.createTextNode(reader.getText()));
+                    break;
+                }
+                case XMLStreamConstants.CDATA:
+                {
+                    current.appendChild(doc.createCDATASection(reader.getText()));
+                    break;
+                }
+                case XMLStreamConstants.COMMENT:
+                {
+                    current.appendChild(doc.createComment(reader.getText()));
+                    break;
+                }
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                {
+                    current.appendChild(doc.createProcessingInstruction(
+                            reader.getPITarget(), reader.getPIData()));
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+        return root;
+    }
+
+    /*
+     * Create a DOM element with the name and attributes of the current element.
+     */
+    private static Element createElement(XMLStreamReader reader, Document doc)
+    {
+        String nsURI = getNamespaceURI(reader);
+        Element el = doc.createElementNS(nsURI.length() > 0 ? nsURI : null,
+                                         qualify(reader.getPrefix(), reader.getLocalName()));
+
+        int count = reader.getAttributeCount();
+        for(int i = 0; i < count; i++)
+        {
+            String attrNS = reader.getAttributeNamespace(i);
+            if(attrNS != null && attrNS.length() == 0)
+            {
+                attrNS = null;
+            }
+            el.setAttributeNS(attrNS,
+                              qualify(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                              reader.getAttributeValue(i));
+        }
+        return el;
+    }
+
+    private static void declareNamespaces(Element el, Map namespaces)
+    {
+        Iterator it = namespaces.entrySet().iterator();
+        while(it.hasNext())
+        {
+            Map.Entry entry = (Map.Entry)it.next();
+            declareNamespace(el, (String)entry.getKey(), (String)entry.getValue());
+        }
+    }
+
+    private static void declareNamespace(Element el, String prefix, String nsURI)
+    {
+        if(prefix == null || prefix.length() == 0)
+        {
+            el.setAttributeNS(NS_URI_XMLNS, "xmlns", nsURI != null ? nsURI : emptyString);
+        }
+        else
+        {
+            el.setAttributeNS(NS_URI_XMLNS, "xmlns:" + prefix, nsURI != null ? nsURI : emptyString);
+        }
+    }
+
+    private static String qualify(String prefix, String localName)
+    {
+        return (prefix != null && prefix.length() > 0) ? prefix + ":" + localName : localName;
+    }
+
+    private static String getNamespaceURI(XMLStreamReader reader)
+    {
+        String nsURI = reader.getNamespaceURI();
+        return nsURI != null ? nsURI : emptyString;
+    }
+}
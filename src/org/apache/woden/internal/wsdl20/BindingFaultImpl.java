@@ -37,6 +37,9 @@ public class BindingFaultImpl extends NestedConfigurableImpl
 {
     private QName fRef = null;
     
+    //Value returned by getInterfaceFault() once frozen
+    private InterfaceFault fFrozenInterfaceFault = null;
+    
     /* ************************************************************
      *  BindingFault interface methods (i.e. WSDL Component model)
      * ************************************************************/
@@ -46,6 +49,7 @@ public class BindingFaultImpl extends NestedConfigurableImpl
      */
     public InterfaceFault getInterfaceFault() 
     {
+        if(isFrozen()) return fFrozenInterfaceFault;
         InterfaceFault fault = null;
         Binding binding = (Binding)getParent();
         Interface interfac = binding.getInterface();
@@ -70,7 +74,9 @@ public class BindingFaultImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingFaultElement#setRef(javax.xml.namespace.QName)
      */
     public void setRef(QName qname) {
+        checkNotFrozen();
         fRef = qname;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -98,5 +104,10 @@ public class BindingFaultImpl extends NestedConfigurableImpl
      *  Non-API implementation methods
      * ************************************************************/
     
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenInterfaceFault = getInterfaceFault();
+    }
 
 }
@@ -42,6 +42,9 @@ public class BindingFaultReferenceImpl extends NestedConfigurableImpl
     private QName fRef = null;
     private Direction fDirection = null;
     private MessageLabel fMessageLabel = null;
+    
+    //Value returned by getInterfaceFaultReference() once frozen
+    private InterfaceFaultReference fFrozenInterfaceFaultReference = null;
 
     /* ************************************************************
      *  BindingFaultReference interface methods (i.e. WSDL Component model)
@@ -68,6 +71,7 @@ public class BindingFaultReferenceImpl extends NestedConfigurableImpl
      */
     public InterfaceFaultReference getInterfaceFaultReference() 
     {
+        if(isFrozen()) return fFrozenInterfaceFaultReference;
         InterfaceFaultReference intFaultRef = null;
         
         if(fRef != null) //if 'ref' is null, we cannot match against an interface fault qname.
@@ -126,7 +130,9 @@ public class BindingFaultReferenceImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingFaultReferenceElement#setRef(javax.xml.namespace.QName)
      */
     public void setRef(QName qname) {
+        checkNotFrozen();
         fRef = qname;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -172,7 +178,9 @@ public class BindingFaultReferenceImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingFaultReferenceElement#setMessageLabel(org.apache.woden.wsdl20.enumeration.MessageLabel)
      */
     public void setMessageLabel(MessageLabel msgLabel) {
+        checkNotFrozen();
         fMessageLabel = msgLabel;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -186,4 +194,9 @@ public class BindingFaultReferenceImpl extends NestedConfigurableImpl
      *  Non-API implementation methods
      * ************************************************************/
     
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenInterfaceFaultReference = getInterfaceFaultReference();
+    }
 }
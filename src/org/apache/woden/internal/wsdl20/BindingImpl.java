@@ -63,6 +63,12 @@ public class BindingImpl extends ConfigurableImpl
     private List fFaults = new Vector();
     private List fOperations = new Vector();
     
+    //Values returned by the component getters once frozen
+    private QName fFrozenName = null;
+    private Interface fFrozenInterface = null;
+    private BindingFault[] fFrozenFaults = null;
+    private BindingOperation[] fFrozenOperations = null;
+    
     /* ************************************************************
      *  Binding interface methods (i.e. WSDL Component model)
      * ************************************************************/
@@ -72,6 +78,7 @@ public class BindingImpl extends ConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingElement#getName()
      */
     public QName getName() {
+        if(isFrozen()) return fFrozenName;
         QName name = null;
         if (fName != null) {
             String tns = DescriptionImpl.getTargetNamespace(this);
@@ -85,6 +92,7 @@ public class BindingImpl extends ConfigurableImpl
      */
     public Interface getInterface() 
     {
+        if(isFrozen()) return fFrozenInterface;
         Interface interfac = fDescriptionComponent.getInterface(fInterfaceName); 
         return interfac;
     }
@@ -102,6 +110,7 @@ public class BindingImpl extends ConfigurableImpl
      */
     public BindingFault[] getBindingFaults() 
     {
+        if(isFrozen()) return fFrozenFaults.clone();
         BindingFault[] array = new BindingFault[fFaults.size()];
         fFaults.toArray(array);
         return array;
@@ -112,6 +121,7 @@ public class BindingImpl extends ConfigurableImpl
      */
     public BindingOperation[] getBindingOperations() 
     {
+        if(isFrozen()) return fFrozenOperations.clone();
         BindingOperation[] array = new BindingOperation[fOperations.size()];
         fOperations.toArray(array);
         return array;
@@ -132,14 +142,18 @@ public class BindingImpl extends ConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingElement#setName(javax.xml.namespace.QName)
      */
     public void setName(NCName name) {
+        checkNotFrozen();
         fName = name;
+        elementModified();
     }
 
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.xml.BindingElement#setInterfaceName(javax.xml.namespace.QName)
      */
     public void setInterfaceName(QName qname) {
+        checkNotFrozen();
         fInterfaceName = qname;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -165,7 +179,9 @@ public class BindingImpl extends ConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingElement#setType(java.net.URI)
      */
     public void setType(URI type) {
+        checkNotFrozen();
         fType = type;
+        elementModified();
     }
 
     /* 
@@ -173,9 +189,11 @@ public class BindingImpl extends ConfigurableImpl
      */
     public BindingFaultElement addBindingFaultElement() 
     {
+        checkNotFrozen();
         BindingFaultElement fault = new BindingFaultImpl();
         fFaults.add(fault);
         fault.setParentElement(this);
+        elementModified();
         return fault;
     }
 
@@ -194,9 +212,11 @@ public class BindingImpl extends ConfigurableImpl
      */
     public BindingOperationElement addBindingOperationElement() 
     {
+        checkNotFrozen();
         BindingOperationElement operation = new BindingOperationImpl();
         fOperations.add(operation);
         operation.setParentElement(this);
+        elementModified();
         return operation;
     }
 
@@ -214,7 +234,9 @@ public class BindingImpl extends ConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.NestedElement#setParentElement(org.apache.woden.wsdl20.xml.WSDL20Element)
      */
     public void setParentElement(WSDLElement parent) {
+        checkNotFrozen();
         fParentElem = parent;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -287,7 +309,8 @@ public class BindingImpl extends ConfigurableImpl
      * so it is declared package private to restrict access to it.
      */
     void setDescriptionComponent(Description desc) {
-        fDescriptionComponent = desc;
+        //A frozen binding stays with the Description it was frozen with.
+        if(!isFrozen()) fDescriptionComponent = desc;
     }
 
     /*
@@ -302,5 +325,14 @@ public class BindingImpl extends ConfigurableImpl
     public Description getDescriptionComponent() {
         return fDescriptionComponent;
     }
+    
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenName = getName();
+        fFrozenInterface = getInterface();
+        fFrozenFaults = getBindingFaults();
+        fFrozenOperations = getBindingOperations();
+    }
 
 }
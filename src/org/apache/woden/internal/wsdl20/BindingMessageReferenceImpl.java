@@ -36,6 +36,9 @@ public class BindingMessageReferenceImpl extends NestedConfigurableImpl
 {
     private Direction fDirection = null;
     private MessageLabel fMessageLabel = null;
+    
+    //Value returned by getInterfaceMessageReference() once frozen
+    private InterfaceMessageReference fFrozenInterfaceMessageReference = null;
 
     /* ************************************************************
      *  BindingMessageReference interface methods (i.e. WSDL Component model)
@@ -61,6 +64,7 @@ public class BindingMessageReferenceImpl extends NestedConfigurableImpl
      */
     public InterfaceMessageReference getInterfaceMessageReference() 
     {
+        if(isFrozen()) return fFrozenInterfaceMessageReference;
         InterfaceMessageReference intMsgRef = null;
         BindingOperation bindOp = (BindingOperation)getParent();
         InterfaceOperation intOp = bindOp.getInterfaceOperation();
@@ -109,7 +113,9 @@ public class BindingMessageReferenceImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingMessageReferenceElement#setDirection(org.apache.woden.wsdl20.enumeration.Direction)
      */
     public void setDirection(Direction dir) {
+        checkNotFrozen();
         fDirection = dir;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -123,7 +129,9 @@ public class BindingMessageReferenceImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingMessageReferenceElement#setMessageLabel(org.apache.woden.wsdl20.enumeration.MessageLabel)
      */
     public void setMessageLabel(MessageLabel msgLabel) {
+        checkNotFrozen();
         fMessageLabel = msgLabel;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -137,4 +145,9 @@ public class BindingMessageReferenceImpl extends NestedConfigurableImpl
      *  Non-API implementation methods
      * ************************************************************/
     
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenInterfaceMessageReference = getInterfaceMessageReference();
+    }
 }
@@ -45,6 +45,11 @@ public class BindingOperationImpl extends NestedConfigurableImpl
     private QName fRef = null;
     private List fMessageRefs = new Vector();
     private List fFaultRefs = new Vector();
+    
+    //Values returned by the component getters once frozen
+    private InterfaceOperation fFrozenInterfaceOperation = null;
+    private BindingMessageReference[] fFrozenMessageRefs = null;
+    private BindingFaultReference[] fFrozenFaultRefs = null;
 
     /* ************************************************************
      *  BindingOperation interface methods (i.e. WSDL Component model)
@@ -55,6 +60,7 @@ public class BindingOperationImpl extends NestedConfigurableImpl
      */
     public InterfaceOperation getInterfaceOperation() 
     {
+        if(isFrozen()) return fFrozenInterfaceOperation;
         InterfaceOperation oper = null;
         Binding binding = (Binding)getParent();
         Interface interfac = binding.getInterface();
@@ -68,6 +74,7 @@ public class BindingOperationImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.BindingOperation#getBindingMessageReferences()
      */
     public BindingMessageReference[] getBindingMessageReferences() {
+        if(isFrozen()) return fFrozenMessageRefs.clone();
         BindingMessageReference[] array = new BindingMessageReference[fMessageRefs.size()];
         fMessageRefs.toArray(array);
         return array;
@@ -77,6 +84,7 @@ public class BindingOperationImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.BindingOperation#getBindingFaultReferences()
      */
     public BindingFaultReference[] getBindingFaultReferences() {
+        if(isFrozen()) return fFrozenFaultRefs.clone();
         BindingFaultReference[] array = new BindingFaultReference[fFaultRefs.size()];
         fFaultRefs.toArray(array);
         return array;
@@ -97,7 +105,9 @@ public class BindingOperationImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingOperationElement#setRef(javax.xml.namespace.QName)
      */
     public void setRef(QName qname) {
+        checkNotFrozen();
         fRef = qname;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -127,9 +137,11 @@ public class BindingOperationImpl extends NestedConfigurableImpl
      */
     public BindingMessageReferenceElement addBindingMessageReferenceElement() 
     {
+        checkNotFrozen();
         BindingMessageReferenceElement msgRef = new BindingMessageReferenceImpl();
         fMessageRefs.add(msgRef);
         msgRef.setParentElement(this);
+        elementModified();
         return msgRef;
     }
 
@@ -137,7 +149,9 @@ public class BindingOperationImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingOperationElement#removeBindingMessageReferenceElement(org.apache.woden.wsdl20.xml.BindingMessageReferenceElement)
      */
     public void removeBindingMessageReferenceElement(BindingMessageReferenceElement msgRef) {
+        checkNotFrozen();
         fMessageRefs.remove(msgRef);
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -154,9 +168,11 @@ public class BindingOperationImpl extends NestedConfigurableImpl
      */
     public BindingFaultReferenceElement addBindingFaultReferenceElement() 
     {
+        checkNotFrozen();
         BindingFaultReferenceElement faultRef = new BindingFaultReferenceImpl();
         fFaultRefs.add(faultRef);
         faultRef.setParentElement(this);
+        elementModified();
         return faultRef;
     }
 
@@ -164,7 +180,9 @@ public class BindingOperationImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.BindingOperationElement#removeBindingFaultReferenceElement(org.apache.woden.wsdl20.xml.BindingFaultReferenceElement)
      */
     public void removeBindingFaultReferenceElement(BindingFaultReferenceElement faultRef) {
+        checkNotFrozen();
         fFaultRefs.remove(faultRef);
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -180,4 +198,11 @@ public class BindingOperationImpl extends NestedConfigurableImpl
      *  Non-API implementation methods
      * ************************************************************/
     
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenInterfaceOperation = getInterfaceOperation();
+        fFrozenMessageRefs = getBindingMessageReferences();
+        fFrozenFaultRefs = getBindingFaultReferences();
+    }
 }
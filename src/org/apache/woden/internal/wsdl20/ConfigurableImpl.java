@@ -39,6 +39,10 @@ public abstract class ConfigurableImpl extends DocumentableImpl
 {
     private List fFeatures = new Vector();
     private List fProperties = new Vector();
+    
+    //Values returned by getFeatures() and getProperties() once frozen
+    private Feature[] fFrozenFeatures = null;
+    private Property[] fFrozenProperties = null;
 
     /* ************************************************************
      *  API methods for Property and Feature components.
@@ -49,6 +53,7 @@ public abstract class ConfigurableImpl extends DocumentableImpl
      */
     public Feature[] getFeatures() 
     {
+        if(isFrozen()) return fFrozenFeatures.clone();
         Feature[] array = new Feature[fFeatures.size()];
         fFeatures.toArray(array);
         return array;
@@ -59,6 +64,7 @@ public abstract class ConfigurableImpl extends DocumentableImpl
      */
     public Property[] getProperties() 
     {
+        if(isFrozen()) return fFrozenProperties.clone();
         Property[] array = new Property[fProperties.size()];
         fProperties.toArray(array);
         return array;
@@ -73,9 +79,11 @@ public abstract class ConfigurableImpl extends DocumentableImpl
      */
     public FeatureElement addFeatureElement() 
     {
+        checkNotFrozen();
         FeatureElement feature = new FeatureImpl();
         fFeatures.add(feature);
         feature.setParentElement(this);
+        elementModified();
         return feature;
     }
 
@@ -94,9 +102,11 @@ public abstract class ConfigurableImpl extends DocumentableImpl
      */
     public PropertyElement addPropertyElement() 
     {
+        checkNotFrozen();
         PropertyElement property = new PropertyImpl();
         fProperties.add(property);
         property.setParentElement(this);
+        elementModified();
         return property;
     }
 
@@ -109,4 +119,15 @@ public abstract class ConfigurableImpl extends DocumentableImpl
         fProperties.toArray(array);
         return array;
     }
+    
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+    
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenFeatures = getFeatures();
+        fFrozenProperties = getProperties();
+    }
 }
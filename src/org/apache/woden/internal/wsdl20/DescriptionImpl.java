@@ -16,10 +16,13 @@
 package org.apache.woden.internal.wsdl20;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
 
 import javax.xml.namespace.QName;
@@ -31,13 +34,28 @@ import org.apache.woden.wsdl20.ElementDeclaration;
 import org.apache.woden.wsdl20.Interface;
 import org.apache.woden.wsdl20.Service;
 import org.apache.woden.wsdl20.TypeDefinition;
+import org.apache.woden.wsdl20.WSDLComponent;
 import org.apache.woden.wsdl20.extensions.ExtensionRegistry;
 import org.apache.woden.wsdl20.xml.BindingElement;
+import org.apache.woden.wsdl20.xml.BindingFaultElement;
+import org.apache.woden.wsdl20.xml.BindingFaultReferenceElement;
+import org.apache.woden.wsdl20.xml.BindingMessageReferenceElement;
+import org.apache.woden.wsdl20.xml.BindingOperationElement;
+import org.apache.woden.wsdl20.xml.ConfigurableElement;
 import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.woden.wsdl20.xml.DocumentableElement;
+import org.apache.woden.wsdl20.xml.DocumentationElement;
+import org.apache.woden.wsdl20.xml.EndpointElement;
+import org.apache.woden.wsdl20.xml.FeatureElement;
 import org.apache.woden.wsdl20.xml.ImportElement;
 import org.apache.woden.wsdl20.xml.IncludeElement;
 import org.apache.woden.wsdl20.xml.InterfaceElement;
+import org.apache.woden.wsdl20.xml.InterfaceFaultElement;
+import org.apache.woden.wsdl20.xml.InterfaceFaultReferenceElement;
+import org.apache.woden.wsdl20.xml.InterfaceMessageReferenceElement;
+import org.apache.woden.wsdl20.xml.InterfaceOperationElement;
 import org.apache.woden.wsdl20.xml.NestedElement;
+import org.apache.woden.wsdl20.xml.PropertyElement;
 import org.apache.woden.wsdl20.xml.ServiceElement;
 import org.apache.woden.wsdl20.xml.TypesElement;
 import org.apache.woden.wsdl20.xml.WSDLElement;
@@ -63,14 +81,35 @@ public class DescriptionImpl extends DocumentableImpl
 {
     /*
      * WSDL Component model data (flattened properties of Description Component)
-     * TODO cache top-level components here with a flush-on-update mechanism
+     * 
+     * The top-level interfaces, bindings and services are cached together with
+     * an index by QName. The caches are built on demand and flushed whenever a
+     * child element is added to this description, or collected again when next
+     * used once this description or a description it takes components from has 
+     * been modified since they were collected, as a component may have been 
+     * renamed or a nested description changed (see getComponentsStamp()).
      */
-    private List fAllInterfaces = null;
-    private List fAllBindings = null;
-    private List fAllServices = null;
+    private volatile TopLevelComponents fInterfaces = null;
+    private volatile TopLevelComponents fBindings = null;
+    private volatile TopLevelComponents fServices = null;
     private List fAllElementDeclarations = new Vector();
     private List fAllTypeDefinitions = new Vector();
     
+    private Map fElementDeclarationIndex = new HashMap();
+    private Map fTypeDefinitionIndex = new HashMap();
+    
+    /*
+     * The values returned by the Description getters once this description 
+     * has been frozen (see freeze()). They are set for the description on 
+     * which freeze() was called and for the imported or included descriptions
+     * frozen with it, and the getters return copies of them.
+     */
+    private Interface[] fFrozenInterfaces = null;
+    private Binding[] fFrozenBindings = null;
+    private Service[] fFrozenServices = null;
+    private ElementDeclaration[] fFrozenElementDeclarations = null;
+    private TypeDefinition[] fFrozenTypeDefinitions = null;
+    
     /*
      * WSDL Element model data
      */
@@ -95,6 +134,20 @@ public class DescriptionImpl extends DocumentableImpl
     private boolean fComponentsInitialized = false;
     private ExtensionRegistry fExtReg = null;
     
+    /*
+     * The top-level elements of this description modified since modifications
+     * were last taken (see takeModifiedElements()), or null if modifications 
+     * are not being recorded.
+     */
+    private volatile Set fModifiedElements = null;
+    
+    /*
+     * Set once any description records its modifications, so that elements
+     * only look for their containing description after that (see 
+     * WSDLElementImpl.elementModified()).
+     */
+    private static volatile boolean fRecordingModifications = false;
+    
     
     /* ************************************************************
      *  Description interface methods (the WSDL Component model)
@@ -102,44 +155,11 @@ public class DescriptionImpl extends DocumentableImpl
     
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.Description#getInterfaces()
-     * 
-     * TODO performance to be addressed in this method. Suggest caching with
-     * some sort of notification-on-update to flush the cash and let lazy init
-     * reset it. But best to deal with performance after wsdl create/update has 
-     * been implemented, as we can then baseline the existing dynamic approach
-     * to test for correct behaviour after performance mods have been made. 
-     * (but see to do comment in getNestedDescriptions method too)
      */
     public Interface[] getInterfaces() 
     {
-        List allInterfaces = new Vector();
-        
-        //declared interfaces
-        for(Iterator i=fInterfaceElements.iterator(); i.hasNext(); )
-        {
-            Interface intface = (Interface)i.next();
-            if(!containsComponent(intface, allInterfaces)) {
-                ((InterfaceImpl)intface).setDescriptionComponent(this);
-                allInterfaces.add(intface);
-            }
-        }
-        
-        //nested interfaces
-        List nestedDescs = new Vector(getNestedDescriptions());
-        for(Iterator i=nestedDescs.iterator(); i.hasNext(); )
-        {
-            DescriptionElement desc = (DescriptionElement)i.next();
-            InterfaceElement[] interfaces = desc.getInterfaceElements();
-            for(int j=0; j<interfaces.length; j++)
-            {
-                Interface intface = (Interface)interfaces[j];
-                if(!containsComponent(intface, allInterfaces)) {
-                    ((InterfaceImpl)intface).setDescriptionComponent(this);
-                    allInterfaces.add(intface);
-                }
-            }
-        }
-        
+        if(isFrozen()) return fFrozenInterfaces.clone();
+        List allInterfaces = getInterfaceComponents().fComponents;
         Interface[] array = new Interface[allInterfaces.size()];
         allInterfaces.toArray(array);
         return array;
@@ -150,60 +170,17 @@ public class DescriptionImpl extends DocumentableImpl
      */
     public Interface getInterface(QName name) 
     {
-        Interface intface = null;
-        
-        if(name != null) 
-        {
-            Interface[] interfaces = getInterfaces();
-            
-            for(int i=0; i<interfaces.length; i++)
-            {
-                if(name.equals(interfaces[i].getName()))
-                {
-                    intface = interfaces[i];
-                    break;
-                }
-            }
-        }
-        
-        return intface;
+        if(name == null) return null;
+        return (Interface)getInterfaceComponents().fIndex.get(name);
     }
     
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.Description#getBindings()
-     * 
-     * TODO performance to be addressed in this method - see ToDo in getInterface()
      */
     public Binding[] getBindings() 
     {
-        List allBindings = new Vector();
-        
-        //declared bindings
-        for(Iterator i=fBindingElements.iterator(); i.hasNext(); )
-        {
-            Binding binding = (Binding)i.next();
-            if(!containsComponent(binding, allBindings)) {
-                ((BindingImpl)binding).setDescriptionComponent(this);
-                allBindings.add(binding);
-            }
-        }
-        
-        //nested bindings
-        List nestedDescs = new Vector(getNestedDescriptions());
-        for(Iterator i=nestedDescs.iterator(); i.hasNext(); )
-        {
-            DescriptionElement desc = (DescriptionElement)i.next();
-            BindingElement[] bindings = desc.getBindingElements();
-            for(int j=0; j<bindings.length; j++)
-            {
-                Binding binding = (Binding)bindings[j];
-                if(!containsComponent(binding, allBindings)) {
-                    ((BindingImpl)binding).setDescriptionComponent(this);
-                    allBindings.add(binding);
-                }
-            }
-        }
-        
+        if(isFrozen()) return fFrozenBindings.clone();
+        List allBindings = getBindingComponents().fComponents;
         Binding[] array = new Binding[allBindings.size()];
         allBindings.toArray(array);
         return array;
@@ -214,60 +191,17 @@ public class DescriptionImpl extends DocumentableImpl
      */
     public Binding getBinding(QName name) 
     {
-        Binding binding = null;
-        
-        if(name != null) 
-        {
-            Binding[] bindings = getBindings();
-            
-            for(int i=0; i<bindings.length; i++)
-            {
-                if(name.equals(bindings[i].getName()))
-                {
-                    binding = bindings[i];
-                    break;
-                }
-            }
-        }
-        
-        return binding;
+        if(name == null) return null;
+        return (Binding)getBindingComponents().fIndex.get(name);
     }
     
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.Description#getServices()
-     * 
-     * TODO performance to be addressed in this method - see ToDo in getInterface()
      */
     public Service[] getServices() 
     {
-        List allServices = new Vector();
-        
-        //declared services
-        for(Iterator i=fServiceElements.iterator(); i.hasNext(); )
-        {
-            Service service = (Service)i.next();
-            if(!containsComponent(service, allServices)) {
-                ((ServiceImpl)service).setDescriptionComponent(this);
-                allServices.add(service);
-            }
-        }
-        
-        //nested services
-        List nestedDescs = new Vector(getNestedDescriptions());
-        for(Iterator i=nestedDescs.iterator(); i.hasNext(); )
-        {
-            DescriptionElement desc = (DescriptionElement)i.next();
-            ServiceElement[] services = desc.getServiceElements();
-            for(int j=0; j<services.length; j++)
-            {
-                Service service = (Service)services[j];
-                if(!containsComponent(service, allServices)) {
-                    ((ServiceImpl)service).setDescriptionComponent(this);
-                    allServices.add(service);
-                }
-            }
-        }
-        
+        if(isFrozen()) return fFrozenServices.clone();
+        List allServices = getServiceComponents().fComponents;
         Service[] array = new Service[allServices.size()];
         allServices.toArray(array);
         return array;
@@ -278,23 +212,8 @@ public class DescriptionImpl extends DocumentableImpl
      */
     public Service getService(QName name) 
     {
-        Service service = null;
-        
-        if(name != null) 
-        {
-            Service[] services = getServices();
-            
-            for(int i=0; i<services.length; i++)
-            {
-                if(name.equals(services[i].getName()))
-                {
-                    service = services[i];
-                    break;
-                }
-            }
-        }
-        
-        return service;
+        if(name == null) return null;
+        return (Service)getServiceComponents().fIndex.get(name);
     }
     
     /* (non-Javadoc)
@@ -302,6 +221,7 @@ public class DescriptionImpl extends DocumentableImpl
      */
     public ElementDeclaration[] getElementDeclarations() 
     {
+        if(isFrozen()) return fFrozenElementDeclarations.clone();
         if(!fComponentsInitialized) initComponents();
         ElementDeclaration[] array = new ElementDeclaration[fAllElementDeclarations.size()];
         fAllElementDeclarations.toArray(array);
@@ -313,22 +233,8 @@ public class DescriptionImpl extends DocumentableImpl
      */
     public ElementDeclaration getElementDeclaration(QName qname)
     {
-        if(!fComponentsInitialized) initComponents();
-        ElementDeclaration elDec = null;
-        if(qname != null)
-        {
-            Iterator i = fAllElementDeclarations.iterator();
-            while(i.hasNext())
-            {
-                ElementDeclaration ed = (ElementDeclaration)i.next();
-                if(qname.equals(ed.getName())) 
-                {
-                    elDec = ed;
-                    break;
-                }
-            }
-        }
-        return elDec;
+        if(!isFrozen() && !fComponentsInitialized) initComponents();
+        return qname != null ? (ElementDeclaration)fElementDeclarationIndex.get(qname) : null;
     }
     
     /* (non-Javadoc)
@@ -336,6 +242,7 @@ public class DescriptionImpl extends DocumentableImpl
      */
     public TypeDefinition[] getTypeDefinitions() 
     {
+        if(isFrozen()) return fFrozenTypeDefinitions.clone();
         if(!fComponentsInitialized) initComponents();
         TypeDefinition[] array = new TypeDefinition[fAllTypeDefinitions.size()];
         fAllTypeDefinitions.toArray(array);
@@ -344,26 +251,86 @@ public class DescriptionImpl extends DocumentableImpl
     
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.Description#getTypeDefinition(javax.xml.namespace.QName)
-     * TODO consider using Map instead of List
      */
     public TypeDefinition getTypeDefinition(QName qname)
     {
-        if(!fComponentsInitialized) initComponents();
-        TypeDefinition typeDef = null;
-        if(qname != null)
+        if(!isFrozen() && !fComponentsInitialized) initComponents();
+        return qname != null ? (TypeDefinition)fTypeDefinitionIndex.get(qname) : null;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.wsdl20.Description#freeze()
+     */
+    public synchronized Description freeze()
+    {
+        if(isFrozen()) return this;
+        
+        List descs = new Vector();
+        List elements = new Vector();
+        collectElements(this, descs, elements);
+        
+        //The imported and included descriptions are frozen with this one, so their
+        //component models are built now rather than when first requested. This is
+        //done first, as it resolves their components against them.
+        for(int i=1; i<descs.size(); i++)
         {
-            Iterator i = fAllTypeDefinitions.iterator();
-            while(i.hasNext())
-            {
-                TypeDefinition td = (TypeDefinition)i.next();
-                if(qname.equals(td.getName())) 
-                {
-                    typeDef = td;
-                    break;
-                }
+            Object desc = descs.get(i);
+            if(desc instanceof DescriptionImpl && !((DescriptionImpl)desc).isFrozen()) {
+                ((DescriptionImpl)desc).prepareComponents();
             }
         }
-        return typeDef;
+        
+        //Build the component model and collect the top-level components again, 
+        //so that they all refer to this Description component.
+        toComponent();
+        flushTopLevelComponents();
+        toComponent();
+        
+        //Components which are not in the {interfaces}, {bindings} or {services}
+        //of this description, such as duplicates or those of a description imported
+        //by an imported description, are resolved against this description too.
+        for(Iterator i=elements.iterator(); i.hasNext(); )
+        {
+            Object elem = i.next();
+            if(elem instanceof InterfaceImpl) {
+                ((InterfaceImpl)elem).setDescriptionComponent(this);
+            } else if(elem instanceof BindingImpl) {
+                ((BindingImpl)elem).setDescriptionComponent(this);
+            } else if(elem instanceof ServiceImpl) {
+                ((ServiceImpl)elem).setDescriptionComponent(this);
+            }
+        }
+        
+        prepareComponents();
+        
+        for(Iterator i=elements.iterator(); i.hasNext(); )
+        {
+            ((WSDLElementImpl)i.next()).prepareFreeze();
+        }
+        
+        //This description is first in the list and is marked last, so a thread
+        //which sees it frozen sees every other element frozen too.
+        for(int i=elements.size()-1; i>=0; i--)
+        {
+            ((WSDLElementImpl)elements.get(i)).markFrozen();
+        }
+        return this;
+    }
+
+    /*
+     * Build the component model of this description, if not already built, and
+     * keep the values its Description getters return once frozen, so that none 
+     * of them builds anything after freeze() has completed.
+     */
+    private void prepareComponents()
+    {
+        toComponent();
+        fFrozenInterfaces = getInterfaces();
+        fFrozenBindings = getBindings();
+        fFrozenServices = getServices();
+        fFrozenElementDeclarations = getElementDeclarations();
+        fFrozenTypeDefinitions = getTypeDefinitions();
+        fNamespaces = Collections.unmodifiableMap(fNamespaces);
     }
 
     /* (non-Javadoc)
@@ -379,7 +346,9 @@ public class DescriptionImpl extends DocumentableImpl
      * ************************************************************/
     
     public void setDocumentBaseURI(URI documentBaseURI) {
+        checkNotFrozen();
         fDocumentBaseURI = documentBaseURI;
+        elementModified();
     }
     
     public URI getDocumentBaseURI() {
@@ -387,7 +356,9 @@ public class DescriptionImpl extends DocumentableImpl
     }
     
     public void setTargetNamespace(URI namespace) {
+        checkNotFrozen();
         fTargetNamespace = namespace;    
+        elementModified();
     }
     
     public URI getTargetNamespace() {
@@ -396,18 +367,22 @@ public class DescriptionImpl extends DocumentableImpl
 
     public void addNamespace(String prefix, URI namespace) 
     {
+        checkNotFrozen();
         String pfx = (prefix != null) ? prefix : "";
         if (namespace != null) {
             fNamespaces.put(pfx,namespace);
         } else {
             removeNamespace(pfx);
         }
+        elementModified();
     }
     
     public void removeNamespace(String prefix) 
     {
+        checkNotFrozen();
         String pfx = (prefix != null) ? prefix : "";
         fNamespaces.remove(pfx);
+        elementModified();
     }
     
     public URI getNamespace(String prefix) 
@@ -468,42 +443,61 @@ public class DescriptionImpl extends DocumentableImpl
     //creator methods
     
     public ImportElement addImportElement() {
-        ImportElement importEl = new ImportImpl();
+        checkNotFrozen();
+        ImportImpl importEl = new ImportImpl();
+        importEl.setContainingElement(this);
         fImportElements.add(importEl);
+        flushTopLevelComponents();
+        elementModified();
         return importEl;
     }
     
     public IncludeElement addIncludeElement() {
-        IncludeElement include = new IncludeImpl();
+        checkNotFrozen();
+        IncludeImpl include = new IncludeImpl();
+        include.setContainingElement(this);
         fIncludeElements.add(include);
+        flushTopLevelComponents();
+        elementModified();
         return include;
     }
     
     public InterfaceElement addInterfaceElement() {
+        checkNotFrozen();
         InterfaceElement intface = new InterfaceImpl();
         fInterfaceElements.add(intface);
+        flushTopLevelComponents();
         intface.setParentElement(this);
+        elementModified();
 
         return intface; 
     }
     
     public BindingElement addBindingElement() {
+        checkNotFrozen();
         BindingElement binding = new BindingImpl();
         fBindingElements.add(binding);
+        flushTopLevelComponents();
         binding.setParentElement(this);
+        elementModified();
         return binding;
     }
     
     public ServiceElement addServiceElement() {
+        checkNotFrozen();
         ServiceElement service = new ServiceImpl();
         fServiceElements.add(service);
+        flushTopLevelComponents();
         service.setParentElement(this);
+        elementModified();
         return service;
     }
     
     public void setExtensionRegistry(ExtensionRegistry extReg)
     {
+        checkNotFrozen();
         fExtReg = extReg;
+        elementModified();
     }
     
     public ExtensionRegistry getExtensionRegistry()
@@ -517,9 +511,13 @@ public class DescriptionImpl extends DocumentableImpl
     public Description toComponent()
     {
         //TODO synchronizing the Component data when Element model is modified
+        if(isFrozen()) return this;
         if(!fComponentsInitialized) {
             initComponents();
         }
+        getInterfaceComponents();
+        getBindingComponents();
+        getServiceComponents();
         return this;
     }
     
@@ -527,18 +525,108 @@ public class DescriptionImpl extends DocumentableImpl
      *  Non-API implementation methods
      * ************************************************************/
 
+    /**
+     * Returns the top-level elements modified since this method was last called,
+     * in this description and in the descriptions it imports or includes, and 
+     * records further modifications until it is next called. A top-level element 
+     * is an interface, binding or service element, or a description element for 
+     * changes to the description itself, its imports, includes or types. A change
+     * to an element nested in an interface, binding or service is returned as a 
+     * change to that interface, binding or service. 
+     * <p>
+     * Modifications are only recorded once this method has been called, so the 
+     * first call returns null.
+     * 
+     * @return the modified top-level elements, or null if modifications were not recorded.
+     */
+    public Set takeModifiedElements()
+    {
+        Set modified = takeOwnModifiedElements();
+        
+        List nestedDescs = getNestedDescriptions();
+        for(Iterator i=nestedDescs.iterator(); i.hasNext(); )
+        {
+            Object desc = i.next();
+            if(desc instanceof DescriptionImpl)
+            {
+                Set nestedModified = ((DescriptionImpl)desc).takeOwnModifiedElements();
+                if(modified != null)
+                {
+                    if(nestedModified != null) 
+                    {
+                        modified.addAll(nestedModified);
+                    }
+                    else 
+                    {
+                        //modifications of the description were not all recorded
+                        modified = null;
+                    }
+                }
+            }
+        }
+        return modified;
+    }
+    
+    /*
+     * Returns true if any description records its modifications.
+     */
+    static boolean isRecordingModifications()
+    {
+        return fRecordingModifications;
+    }
+    
+    /*
+     * Called by WSDLElementImpl when an element of this description is modified,
+     * with the child element of this description that contains it.
+     */
+    void recordModification(WSDLElement topLevelElement)
+    {
+        if(fModifiedElements != null) {
+            if(!(topLevelElement instanceof InterfaceElement) &&
+               !(topLevelElement instanceof BindingElement) &&
+               !(topLevelElement instanceof ServiceElement)) {
+                topLevelElement = this;
+            }
+            synchronized(this) {
+                if(fModifiedElements != null) {
+                    fModifiedElements.add(topLevelElement);
+                }
+            }
+        }
+    }
+    
+    private synchronized Set takeOwnModifiedElements()
+    {
+        Set modified = fModifiedElements;
+        fModifiedElements = new HashSet();
+        fRecordingModifications = true;
+        return modified;
+    }
+
     public void addElementDeclaration(ElementDeclaration elDec) 
     {
+        checkNotFrozen();
         if(elDec != null) {
             fAllElementDeclarations.add(elDec);
+            QName name = elDec.getName();
+            if(name != null && !fElementDeclarationIndex.containsKey(name)) {
+                fElementDeclarationIndex.put(name, elDec);
+            }
         }
+        elementModified();
     }
 
     public void addTypeDefinition(TypeDefinition typeDef) 
     {
+        checkNotFrozen();
         if(typeDef != null) {
             fAllTypeDefinitions.add(typeDef);
+            QName name = typeDef.getName();
+            if(name != null && !fTypeDefinitionIndex.containsKey(name)) {
+                fTypeDefinitionIndex.put(name, typeDef);
+            }
         }
+        elementModified();
     }
     
     private void initComponents() 
@@ -548,6 +636,335 @@ public class DescriptionImpl extends DocumentableImpl
         new ComponentModelBuilder(this);
     }
     
+    /*
+     * Collect the interfaces declared in this description and in its nested
+     * descriptions, de-duplicating logically equivalent interfaces, and index
+     * them by QName. If several interfaces have the same name, the first one
+     * found is indexed, which is the one the previous linear search returned.
+     */
+    private TopLevelComponents initInterfaces()
+    {
+        long stamp = getComponentsStamp();
+        List allInterfaces = new Vector();
+        Map index = new HashMap();
+        Map sameNames = new HashMap();
+        
+        //declared interfaces
+        for(Iterator i=fInterfaceElements.iterator(); i.hasNext(); )
+        {
+            Interface intface = (Interface)i.next();
+            if(addComponent(intface, intface.getName(), allInterfaces, index, sameNames)) {
+                ((InterfaceImpl)intface).setDescriptionComponent(this);
+            }
+        }
+        
+        //nested interfaces
+        List nestedDescs = getNestedDescriptions();
+        for(Iterator i=nestedDescs.iterator(); i.hasNext(); )
+        {
+            DescriptionElement desc = (DescriptionElement)i.next();
+            InterfaceElement[] interfaces = desc.getInterfaceElements();
+            for(int j=0; j<interfaces.length; j++)
+            {
+                Interface intface = (Interface)interfaces[j];
+                if(addComponent(intface, intface.getName(), allInterfaces, index, sameNames)) {
+                    ((InterfaceImpl)intface).setDescriptionComponent(this);
+                }
+            }
+        }
+        
+        return new TopLevelComponents(allInterfaces, index, stamp);
+    }
+    
+    /*
+     * Collect and index the bindings. See initInterfaces().
+     */
+    private TopLevelComponents initBindings()
+    {
+        long stamp = getComponentsStamp();
+        List allBindings = new Vector();
+        Map index = new HashMap();
+        Map sameNames = new HashMap();
+        
+        //declared bindings
+        for(Iterator i=fBindingElements.iterator(); i.hasNext(); )
+        {
+            Binding binding = (Binding)i.next();
+            if(addComponent(binding, binding.getName(), allBindings, index, sameNames)) {
+                ((BindingImpl)binding).setDescriptionComponent(this);
+            }
+        }
+        
+        //nested bindings
+        List nestedDescs = getNestedDescriptions();
+        for(Iterator i=nestedDescs.iterator(); i.hasNext(); )
+        {
+            DescriptionElement desc = (DescriptionElement)i.next();
+            BindingElement[] bindings = desc.getBindingElements();
+            for(int j=0; j<bindings.length; j++)
+            {
+                Binding binding = (Binding)bindings[j];
+                if(addComponent(binding, binding.getName(), allBindings, index, sameNames)) {
+                    ((BindingImpl)binding).setDescriptionComponent(this);
+                }
+            }
+        }
+        
+        return new TopLevelComponents(allBindings, index, stamp);
+    }
+    
+    /*
+     * Collect and index the services. See initInterfaces().
+     */
+    private TopLevelComponents initServices()
+    {
+        long stamp = getComponentsStamp();
+        List allServices = new Vector();
+        Map index = new HashMap();
+        Map sameNames = new HashMap();
+        
+        //declared services
+        for(Iterator i=fServiceElements.iterator(); i.hasNext(); )
+        {
+            Service service = (Service)i.next();
+            if(addComponent(service, service.getName(), allServices, index, sameNames)) {
+                ((ServiceImpl)service).setDescriptionComponent(this);
+            }
+        }
+        
+        //nested services
+        List nestedDescs = getNestedDescriptions();
+        for(Iterator i=nestedDescs.iterator(); i.hasNext(); )
+        {
+            DescriptionElement desc = (DescriptionElement)i.next();
+            ServiceElement[] services = desc.getServiceElements();
+            for(int j=0; j<services.length; j++)
+            {
+                Service service = (Service)services[j];
+                if(addComponent(service, service.getName(), allServices, index, sameNames)) {
+                    ((ServiceImpl)service).setDescriptionComponent(this);
+                }
+            }
+        }
+        
+        return new TopLevelComponents(allServices, index, stamp);
+    }
+    
+    /*
+     * Add a component to the list of components unless a logically equivalent
+     * component is already present, and index it by name if it is the first
+     * component with that name. Equivalent components have the same name, so
+     * only the components with the same name are compared. This avoids the
+     * quadratic cost of checking the whole list with containsComponent().
+     * Returns true if the component was added.
+     */
+    private boolean addComponent(WSDLComponent comp, QName name, 
+                                 List components, Map index, Map sameNames)
+    {
+        List candidates = (List)sameNames.get(name);
+        if(candidates == null) {
+            candidates = new Vector();
+            sameNames.put(name, candidates);
+        } else if(containsComponent(comp, candidates)) {
+            return false;
+        }
+        candidates.add(comp);
+        components.add(comp);
+        if(name != null && !index.containsKey(name)) {
+            index.put(name, comp);
+        }
+        return true;
+    }
+    
+    /*
+     * Add the description and all the elements it contains to the list of
+     * elements, then do the same for the imported and included descriptions
+     * which are not already in the list of descriptions.
+     */
+    private void collectElements(DescriptionElement desc, List descs, List elements)
+    {
+        if(descs.contains(desc)) return;
+        descs.add(desc);
+        addDocumentable(desc, elements);
+        
+        ImportElement[] imports = desc.getImportElements();
+        for(int i=0; i<imports.length; i++) {
+            addDocumentable(imports[i], elements);
+        }
+        IncludeElement[] includes = desc.getIncludeElements();
+        for(int i=0; i<includes.length; i++) {
+            addDocumentable(includes[i], elements);
+        }
+        addDocumentable(desc.getTypesElement(), elements);
+        
+        InterfaceElement[] interfaces = desc.getInterfaceElements();
+        for(int i=0; i<interfaces.length; i++)
+        {
+            addConfigurable(interfaces[i], elements);
+            InterfaceFaultElement[] faults = interfaces[i].getInterfaceFaultElements();
+            for(int j=0; j<faults.length; j++) {
+                addConfigurable(faults[j], elements);
+            }
+            InterfaceOperationElement[] opers = interfaces[i].getInterfaceOperationElements();
+            for(int j=0; j<opers.length; j++)
+            {
+                addConfigurable(opers[j], elements);
+                InterfaceMessageReferenceElement[] msgRefs = opers[j].getInterfaceMessageReferenceElements();
+                for(int k=0; k<msgRefs.length; k++) {
+                    addConfigurable(msgRefs[k], elements);
+                }
+                InterfaceFaultReferenceElement[] faultRefs = opers[j].getInterfaceFaultReferenceElements();
+                for(int k=0; k<faultRefs.length; k++) {
+                    addConfigurable(faultRefs[k], elements);
+                }
+            }
+        }
+        
+        BindingElement[] bindings = desc.getBindingElements();
+        for(int i=0; i<bindings.length; i++)
+        {
+            addConfigurable(bindings[i], elements);
+            BindingFaultElement[] faults = bindings[i].getBindingFaultElements();
+            for(int j=0; j<faults.length; j++) {
+                addConfigurable(faults[j], elements);
+            }
+            BindingOperationElement[] opers = bindings[i].getBindingOperationElements();
+            for(int j=0; j<opers.length; j++)
+            {
+                addConfigurable(opers[j], elements);
+                BindingMessageReferenceElement[] msgRefs = opers[j].getBindingMessageReferenceElements();
+                for(int k=0; k<msgRefs.length; k++) {
+                    addConfigurable(msgRefs[k], elements);
+                }
+                BindingFaultReferenceElement[] faultRefs = opers[j].getBindingFaultReferenceElements();
+                for(int k=0; k<faultRefs.length; k++) {
+                    addConfigurable(faultRefs[k], elements);
+                }
+            }
+        }
+        
+        ServiceElement[] services = desc.getServiceElements();
+        for(int i=0; i<services.length; i++)
+        {
+            addConfigurable(services[i], elements);
+            EndpointElement[] endpoints = services[i].getEndpointElements();
+            for(int j=0; j<endpoints.length; j++) {
+                addConfigurable(endpoints[j], elements);
+            }
+        }
+        
+        for(int i=0; i<imports.length; i++) 
+        {
+            DescriptionElement impDesc = imports[i].getDescriptionElement();
+            if(impDesc != null) collectElements(impDesc, descs, elements);
+        }
+        for(int i=0; i<includes.length; i++) 
+        {
+            DescriptionElement inclDesc = includes[i].getDescriptionElement();
+            if(inclDesc != null) collectElements(inclDesc, descs, elements);
+        }
+    }
+    
+    private void addConfigurable(ConfigurableElement elem, List elements)
+    {
+        addDocumentable((DocumentableElement)elem, elements);
+        FeatureElement[] features = elem.getFeatureElements();
+        for(int i=0; i<features.length; i++) {
+            addDocumentable(features[i], elements);
+        }
+        PropertyElement[] properties = elem.getPropertyElements();
+        for(int i=0; i<properties.length; i++) {
+            addDocumentable(properties[i], elements);
+        }
+    }
+    
+    private void addDocumentable(DocumentableElement elem, List elements)
+    {
+        if(elem instanceof WSDLElementImpl) elements.add(elem);
+        DocumentationElement[] docs = elem.getDocumentationElements();
+        for(int i=0; i<docs.length; i++) {
+            if(docs[i] instanceof WSDLElementImpl) elements.add(docs[i]);
+        }
+    }
+    
+    /*
+     * Return the cached interfaces, collecting them again if they are out of
+     * date. The new cache is built before it is published, so a thread using
+     * the cache meanwhile still sees the complete previous one. Nothing can be 
+     * modified once this description is frozen, so the cache is then kept.
+     */
+    private TopLevelComponents getInterfaceComponents()
+    {
+        TopLevelComponents interfaces = fInterfaces;
+        if(interfaces == null || !isCurrent(interfaces)) {
+            interfaces = initInterfaces();
+            fInterfaces = interfaces;
+        }
+        return interfaces;
+    }
+    
+    /*
+     * Return the cached bindings. See getInterfaceComponents().
+     */
+    private TopLevelComponents getBindingComponents()
+    {
+        TopLevelComponents bindings = fBindings;
+        if(bindings == null || !isCurrent(bindings)) {
+            bindings = initBindings();
+            fBindings = bindings;
+        }
+        return bindings;
+    }
+    
+    /*
+     * Return the cached services. See getInterfaceComponents().
+     */
+    private TopLevelComponents getServiceComponents()
+    {
+        TopLevelComponents services = fServices;
+        if(services == null || !isCurrent(services)) {
+            services = initServices();
+            fServices = services;
+        }
+        return services;
+    }
+    
+    private boolean isCurrent(TopLevelComponents components)
+    {
+        return isFrozen() || components.fStamp == getComponentsStamp();
+    }
+    
+    /*
+     * Returns the latest modification stamp (see WSDLElementImpl.getModificationStamp())
+     * of this description and of the descriptions its top-level components are
+     * collected from. It changes whenever an element of any of them is modified,
+     * but not when other descriptions are.
+     */
+    private long getComponentsStamp()
+    {
+        long stamp = getModificationStamp();
+        List nestedDescs = getNestedDescriptions();
+        for(int i=0; i<nestedDescs.size(); i++)
+        {
+            Object desc = nestedDescs.get(i);
+            if(desc instanceof WSDLElementImpl) {
+                stamp = Math.max(stamp, ((WSDLElementImpl)desc).getModificationStamp());
+            }
+        }
+        return stamp;
+    }
+    
+    /*
+     * Discard the cached top-level components, so they are collected again
+     * when next requested.
+     */
+    private void flushTopLevelComponents()
+    {
+        fInterfaces = null;
+        fBindings = null;
+        fServices = null;
+    }
+    
     /*
      * This method returns the descriptions included by this description (using transitive closure)
      * and the descriptions for any namespaces imported directly by this description (i.e. not transitive).
@@ -555,8 +972,6 @@ public class DescriptionImpl extends DocumentableImpl
      * flattened collection of wsdl components available to this description.
      * 
      * TODO imports should be pervasive, components not limited to a single location attribute.
-     * TODO consider performance here (e.g. caching with flush-on-update notification) because this method
-     * will be used by getters for the top-level components (interfaces, bindings, services). 
      */
     private List getNestedDescriptions()
     {
@@ -571,8 +986,10 @@ public class DescriptionImpl extends DocumentableImpl
         for(int i = 0; i < imports.length; i++)
         {
             DescriptionElement desc = imports[i].getDescriptionElement();
-            if(desc != null) descs.add(desc);
-            collectIncludedDescriptions(descs, desc);
+            if(desc != null) {
+                descs.add(desc);
+                collectIncludedDescriptions(descs, desc);
+            }
         }
         
         return descs;
@@ -587,8 +1004,8 @@ public class DescriptionImpl extends DocumentableImpl
             if(includedDesc != null && !descs.contains(includedDesc)) 
             {
                 descs.add(includedDesc);
+                collectIncludedDescriptions(descs, includedDesc);
             }
-            collectIncludedDescriptions(descs, includedDesc);
         }
     }
     
@@ -624,4 +1041,24 @@ public class DescriptionImpl extends DocumentableImpl
     }
 
     
+    /*
+     * The top-level components of one kind, with an index by QName of the first
+     * component of each name, and the stamp (see getComponentsStamp()) they were
+     * collected at. They are not changed once collected, and are replaced as a 
+     * whole when collected again.
+     */
+    private static final class TopLevelComponents
+    {
+        final List fComponents;
+        final Map fIndex;
+        final long fStamp;
+        
+        TopLevelComponents(List components, Map index, long stamp)
+        {
+            fComponents = components;
+            fIndex = index;
+            fStamp = stamp;
+        }
+    }
+    
 }
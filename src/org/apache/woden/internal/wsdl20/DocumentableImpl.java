@@ -38,8 +38,11 @@ public abstract class DocumentableImpl extends WSDLObjectImpl
      */
     public DocumentationElement addDocumentationElement() 
     {
-        DocumentationElement docEl = new DocumentationImpl();
+        checkNotFrozen();
+        DocumentationImpl docEl = new DocumentationImpl();
+        docEl.setContainingElement(this);
         fDocumentationElements.add(docEl);
+        elementModified();
         return docEl;
     }
 
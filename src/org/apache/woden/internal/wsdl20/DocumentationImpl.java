@@ -39,7 +39,9 @@ public class DocumentationImpl extends WSDLElementImpl implements DocumentationE
      * @see org.apache.woden.wsdl20.xml.DocumentationElement#setContentModel(java.lang.Object)
      */
     public void setContent(Object docEl) {
+        checkNotFrozen();
         fContent = docEl;
+        elementModified();
     }
 
     /* (non-Javadoc)
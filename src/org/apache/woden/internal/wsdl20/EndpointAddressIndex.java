@@ -0,0 +1,315 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.woden.wsdl20.Binding;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.Endpoint;
+import org.apache.woden.wsdl20.Service;
+
+/**
+ * Maps request URLs to the endpoints of the services of one or more 
+ * Descriptions, so that a listener hosting many endpoints can find the
+ * endpoint for a request without comparing its URL with every endpoint 
+ * address.
+ * <p>
+ * Endpoint addresses are keyed by scheme, host and port, compared case 
+ * insensitively and with the default port of the http and https schemes 
+ * filled in, and then by the segments of their normalized path. A request 
+ * URL is mapped to the endpoint whose address is the longest path prefix 
+ * of the request path, matching whole segments only, so the cost of a 
+ * lookup depends on the number of segments in the request path rather than 
+ * on the number of endpoints. Empty path segments, the query and the 
+ * fragment are ignored. 
+ * <p>
+ * Endpoints with no address, or with a relative address, are not indexed.
+ * If several endpoints have the same address, the first one found is 
+ * indexed.
+ * <p>
+ * The endpoints can be replaced with those of a new set of descriptions
+ * by calling <code>update</code>, for example when the descriptions are 
+ * read again. The new index is built before it replaces the old one, so 
+ * lookups running concurrently see either the old or the new endpoints,
+ * never a mixture, and are never blocked. The index does not reflect later
+ * changes to the Descriptions until it is next updated.
+ */
+public class EndpointAddressIndex {
+    
+    //Keyed by scheme://host:port. Never modified once assigned, so it is
+    //shared with concurrent lookups without locking.
+    private volatile Map fAuthorities = new HashMap();
+    
+    /**
+     * Creates an empty index.
+     */
+    public EndpointAddressIndex()
+    {
+    }
+    
+    /**
+     * Creates an index of the endpoints of the services of a description.
+     * 
+     * @param desc the description.
+     */
+    public EndpointAddressIndex(Description desc)
+    {
+        update(new Description[] {desc});
+    }
+    
+    /**
+     * Creates an index of the endpoints of the services of several descriptions.
+     * 
+     * @param descs the descriptions.
+     */
+    public EndpointAddressIndex(Description[] descs)
+    {
+        update(descs);
+    }
+    
+    /**
+     * Replaces the indexed endpoints with those of the services of the 
+     * specified descriptions. Where several descriptions have endpoints with
+     * the same address, the one of the first description is indexed.
+     * 
+     * @param descs the descriptions.
+     */
+    public synchronized void update(Description[] descs)
+    {
+        Map authorities = new HashMap();
+        for(int i = 0; i < descs.length; i++)
+        {
+            Service[] services = descs[i].getServices();
+            for(int j = 0; j < services.length; j++)
+            {
+                Endpoint[] endpoints = services[j].getEndpoints();
+                for(int k = 0; k < endpoints.length; k++)
+                {
+                    addEndpoint(authorities, services[j], endpoints[k]);
+                }
+            }
+        }
+        fAuthorities = authorities;
+    }
+    
+    /**
+     * Returns the endpoint for a request URL, or null if the URL is not 
+     * within the address of any endpoint.
+     * 
+     * @param requestURI the absolute URL of the request.
+     * @return the matching endpoint, or null.
+     */
+    public Target getTarget(URI requestURI)
+    {
+        if(requestURI == null || requestURI.getScheme() == null || requestURI.getHost() == null)
+        {
+            return null;
+        }
+        return getTarget(requestURI.getScheme(), requestURI.getHost(), 
+                requestURI.getPort(), requestURI.normalize().getRawPath());
+    }
+    
+    /**
+     * Returns the endpoint for a request URL, or null if the URL is not 
+     * a valid absolute URI or is not within the address of any endpoint.
+     * 
+     * @param requestURL the absolute URL of the request.
+     * @return the matching endpoint, or null.
+     */
+    public Target getTarget(String requestURL)
+    {
+        try
+        {
+            return getTarget(new URI(requestURL));
+        }
+        catch(URISyntaxException e)
+        {
+            return null;
+        }
+    }
+    
+    /**
+     * Returns the endpoint for a request, given the parts of its URL as 
+     * reported by the HTTP listener, or null if the request is not within 
+     * the address of any endpoint.
+     * 
+     * @param scheme the scheme, such as "http".
+     * @param host the host name or address.
+     * @param port the port, or -1 for the default port of the scheme.
+     * @param path the path, still percent-encoded and without the query. 
+     * @return the matching endpoint, or null.
+     */
+    public Target getTarget(String scheme, String host, int port, String path)
+    {
+        PathNode node = (PathNode)fAuthorities.get(authorityKey(scheme, host, port));
+        if(node == null)
+        {
+            return null;
+        }
+        
+        Target target = node.fTarget;
+        int len = path != null ? path.length() : 0;
+        int start = 0;
+        while(start < len)
+        {
+            int end = path.indexOf('/', start);
+            if(end < 0)
+            {
+                end = len;
+            }
+            if(end > start)
+            {
+                node = (PathNode)node.fChildren.get(path.substring(start, end));
+                if(node == null)
+                {
+                    break;
+                }
+                if(node.fTarget != null)
+                {
+                    target = node.fTarget;
+                }
+            }
+            start = end + 1;
+        }
+        return target;
+    }
+    
+    /*
+     * Add an endpoint to the path tree of its scheme, host and port.
+     */
+    private void addEndpoint(Map authorities, Service service, Endpoint endpoint)
+    {
+        URI address = endpoint.getAddress();
+        if(address == null || !address.isAbsolute() || address.getHost() == null)
+        {
+            return;
+        }
+        
+        String key = authorityKey(address.getScheme(), address.getHost(), address.getPort());
+        PathNode node = (PathNode)authorities.get(key);
+        if(node == null)
+        {
+            node = new PathNode();
+            authorities.put(key, node);
+        }
+        
+        address = address.normalize();
+        String path = address.getRawPath();
+        String[] segments = path != null ? path.split("/") : new String[0];
+        for(int i = 0; i < segments.length; i++)
+        {
+            if(segments[i].length() == 0)
+            {
+                continue;
+            }
+            PathNode child = (PathNode)node.fChildren.get(segments[i]);
+            if(child == null)
+            {
+                child = new PathNode();
+                node.fChildren.put(segments[i], child);
+            }
+            node = child;
+        }
+        
+        if(node.fTarget == null)
+        {
+            node.fTarget = new Target(service, endpoint, address);
+        }
+    }
+    
+    private static String authorityKey(String scheme, String host, int port)
+    {
+        scheme = scheme.toLowerCase();
+        if(port < 0)
+        {
+            if("http".equals(scheme))
+            {
+                port = 80;
+            }
+            else if("https".equals(scheme))
+            {
+                port = 443;
+            }
+        }
+        return scheme + "://" + host.toLowerCase() + ":" + port;
+    }
+    
+    /*
+     * A node of the path tree, for one path segment.
+     */
+    private static final class PathNode
+    {
+        private final Map fChildren = new HashMap();
+        private Target fTarget = null;
+    }
+    
+    /**
+     * An endpoint found for a request URL.
+     */
+    public static final class Target
+    {
+        private final Service fService;
+        private final Endpoint fEndpoint;
+        private final Binding fBinding;
+        private final URI fAddress;
+        
+        Target(Service service, Endpoint endpoint, URI address)
+        {
+            fService = service;
+            fEndpoint = endpoint;
+            fBinding = endpoint.getBinding();
+            fAddress = address;
+        }
+        
+        /**
+         * Returns the service of the endpoint.
+         */
+        public Service getService()
+        {
+            return fService;
+        }
+        
+        /**
+         * Returns the endpoint.
+         */
+        public Endpoint getEndpoint()
+        {
+            return fEndpoint;
+        }
+        
+        /**
+         * Returns the binding of the endpoint, or null if it could not be resolved.
+         */
+        public Binding getBinding()
+        {
+            return fBinding;
+        }
+        
+        /**
+         * Returns the {address} of the endpoint, normalized. The part of a request path 
+         * following its path is the location of the request within the 
+         * endpoint, as used by HTTPLocationRouter.
+         */
+        public URI getAddress()
+        {
+            return fAddress;
+        }
+    }
+}
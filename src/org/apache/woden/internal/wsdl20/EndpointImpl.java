@@ -38,6 +38,9 @@ public class EndpointImpl extends NestedConfigurableImpl
     private NCName fName = null;
     private QName fBindingName = null;
     private URI fAddress = null;
+    
+    //Value returned by getBinding() once frozen
+    private Binding fFrozenBinding = null;
 
     /* ************************************************************
      *  Endpoint interface methods (the WSDL Component model)
@@ -56,6 +59,7 @@ public class EndpointImpl extends NestedConfigurableImpl
      */
     public Binding getBinding() 
     {
+        if(isFrozen()) return fFrozenBinding;
         ServiceImpl service = (ServiceImpl)getParent();
         Description desc = service.getDescriptionComponent();
         Binding binding = desc.getBinding(fBindingName);
@@ -85,14 +89,18 @@ public class EndpointImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.EndpointElement#setName(org.apache.woden.types.NCName)
      */
     public void setName(NCName name) {
+        checkNotFrozen();
         fName = name;
+        elementModified();
     }
 
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.xml.EndpointElement#setBindingName(javax.xml.namespace.QName)
      */
     public void setBindingName(QName qname) {
+        checkNotFrozen();
         fBindingName = qname;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -121,11 +129,18 @@ public class EndpointImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.EndpointElement#setAddress(java.net.URI)
      */
     public void setAddress(URI uri) {
+        checkNotFrozen();
         fAddress = uri;
+        elementModified();
     }
 
     /* ************************************************************
      *  Non-API implementation methods
      * ************************************************************/
     
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenBinding = getBinding();
+    }
 }
@@ -77,21 +77,27 @@ public class FeatureImpl extends DocumentableImpl
      * @see org.apache.woden.wsdl20.xml.FeatureElement#setRequired(boolean)
      */
     public void setRequired(boolean required) {
+        checkNotFrozen();
         fRequired = required;
+        elementModified();
     }
     
     /*
      * @see org.apache.woden.wsdl20.xml.FeatureElement#setRef(URI)
      */
     public void setRef(URI ref) {
+        checkNotFrozen();
         fRef = ref;
+        elementModified();
     }
     
     /* 
      * @see org.apache.woden.wsdl20.xml.NestedElement#setParentElement(WSDL20Element)
      */
     public void setParentElement(WSDLElement parent) {
+        checkNotFrozen();
         fParent = parent;
+        elementModified();
     }
 
     /* 
@@ -33,7 +33,9 @@ public class ImportImpl extends WSDLReferenceImpl implements ImportElement
      */
     public void setNamespace(URI nsURI) 
     {
+        checkNotFrozen();
         fNamespace = nsURI;
+        elementModified();
     }
 
     /* (non-Javadoc)
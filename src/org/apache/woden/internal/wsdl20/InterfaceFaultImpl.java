@@ -45,6 +45,10 @@ public class InterfaceFaultImpl extends NestedConfigurableImpl
     //XML Element model data
     private QName fElementName = null;
     
+    //Values returned by the component getters once frozen
+    private QName fFrozenName = null;
+    private ElementDeclaration fFrozenElementDeclaration = null;
+    
     /* ************************************************************
      *  InterfaceFault methods (i.e. WSDL Component model)
      * ************************************************************/
@@ -55,6 +59,7 @@ public class InterfaceFaultImpl extends NestedConfigurableImpl
      */
     public QName getName() 
     {
+        if(isFrozen()) return fFrozenName;
         QName name = null;
         if (fName != null) {
             String tns = DescriptionImpl.getTargetNamespace(this);
@@ -68,6 +73,7 @@ public class InterfaceFaultImpl extends NestedConfigurableImpl
      */
     public ElementDeclaration getElementDeclaration() 
     {
+        if(isFrozen()) return fFrozenElementDeclaration;
         Interface interfac = (Interface)getParent();
         Description desc = ((InterfaceImpl)interfac).getDescriptionComponent();
         return desc.getElementDeclaration(fElementName);
@@ -89,7 +95,9 @@ public class InterfaceFaultImpl extends NestedConfigurableImpl
      */
     public void setName(NCName name)
     {
+        checkNotFrozen();
         fName = name;
+        elementModified();
     }
     
     /* 
@@ -97,7 +105,9 @@ public class InterfaceFaultImpl extends NestedConfigurableImpl
      */
     public void setElementName(QName qname)
     {
+        checkNotFrozen();
         fElementName = qname;
+        elementModified();
     }
     
     /*
@@ -127,4 +137,10 @@ public class InterfaceFaultImpl extends NestedConfigurableImpl
      *  Non-API implementation methods
      * ************************************************************/
     
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenName = getName();
+        fFrozenElementDeclaration = getElementDeclaration();
+    }
 }
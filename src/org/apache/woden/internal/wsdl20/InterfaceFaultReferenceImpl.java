@@ -42,6 +42,9 @@ public class InterfaceFaultReferenceImpl extends NestedConfigurableImpl
     private MessageLabel fMessageLabel = null;
     private Direction fDirection = null;
     private QName fRef = null;
+    
+    //Value returned by getInterfaceFault() once frozen
+    private InterfaceFault fFrozenInterfaceFault = null;
 
     /* ************************************************************
      *  InterfaceFaultReference methods (i.e. WSDL Component model)
@@ -52,6 +55,7 @@ public class InterfaceFaultReferenceImpl extends NestedConfigurableImpl
      */
     public InterfaceFault getInterfaceFault() 
     {
+        if(isFrozen()) return fFrozenInterfaceFault;
         InterfaceOperation oper = (InterfaceOperation)getParent();
         Interface interfac = (Interface)oper.getParent();
         InterfaceFault intFault = ((InterfaceImpl)interfac).getInScopeInterfaceFault(fRef);
@@ -89,7 +93,9 @@ public class InterfaceFaultReferenceImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.InterfaceFaultReferenceElement#setRef(javax.xml.namespace.QName)
      */
     public void setRef(QName faultQName) {
+        checkNotFrozen();
         fRef = faultQName;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -113,18 +119,27 @@ public class InterfaceFaultReferenceImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.FaultReferenceElement#setMessageLabel(org.apache.woden.wsdl20.enumeration.MessageLabel)
      */
     public void setMessageLabel(MessageLabel msgLabel) {
+        checkNotFrozen();
         fMessageLabel = msgLabel;
+        elementModified();
     }
 
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.xml.FaultReferenceElement#setDirection(org.apache.woden.wsdl20.enumeration.Direction)
      */
     public void setDirection(Direction dir) {
+        checkNotFrozen();
         fDirection = dir;
+        elementModified();
     }
 
     /* ************************************************************
      *  Non-API implementation methods
      * ************************************************************/
     
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenInterfaceFault = getInterfaceFault();
+    }
 }
@@ -16,9 +16,11 @@
 package org.apache.woden.internal.wsdl20;
 
 import java.net.URI;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
 
@@ -65,6 +67,26 @@ public class InterfaceImpl extends ConfigurableImpl
     private List fStyleDefault = new Vector();
     private List fInterfaceFaultElements = new Vector();
     private List fInterfaceOperationElements = new Vector();
+    
+    //Values returned by the component getters once frozen, see prepareFreeze()
+    private QName fFrozenName = null;
+    private Interface[] fFrozenExtendedInterfaces = null;
+    private InterfaceFault[] fFrozenFaults = null;
+    private InterfaceOperation[] fFrozenOperations = null;
+    private Map fFrozenFaultIndex = null;
+    private Map fFrozenOperationIndex = null;
+    
+    /*
+     * The interfaces this interface extends, directly or indirectly, and the
+     * faults and operations in-scope to it, indexed by QName. They are built on 
+     * demand and flushed whenever the extended interface names, faults or 
+     * operations of this interface are modified, or the Description component 
+     * changes. They are also collected again when next used once this interface
+     * or an interface it extends has been modified, as an extended interface 
+     * may have gained a fault or operation, or once an extended interface name
+     * refers to a different interface (see getInScopeComponents()).
+     */
+    private volatile InScopeComponents fInScopeComponents = null;
 
     /* ************************************************************
      *  Interface interface methods (the WSDL Component model)
@@ -76,6 +98,7 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public QName getName() 
     {
+        if(isFrozen()) return fFrozenName;
         QName name = null;
         if (fName != null) {
             String tns = DescriptionImpl.getTargetNamespace(this);
@@ -98,6 +121,7 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public Interface[] getExtendedInterfaces() 
     {
+        if(isFrozen()) return fFrozenExtendedInterfaces.clone();
         List interfaces = new Vector();
         for(Iterator it = fExtends.iterator(); it.hasNext();)
         {
@@ -116,6 +140,7 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public InterfaceFault[] getInterfaceFaults() 
     {
+        if(isFrozen()) return fFrozenFaults.clone();
         InterfaceFault[] array = new InterfaceFault[fInterfaceFaultElements.size()];
         fInterfaceFaultElements.toArray(array);
         return array;
@@ -134,6 +159,7 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public InterfaceOperation[] getInterfaceOperations() 
     {
+        if(isFrozen()) return fFrozenOperations.clone();
         InterfaceOperation[] array = new InterfaceOperation[fInterfaceOperationElements.size()];
         fInterfaceOperationElements.toArray(array);
         return array;
@@ -213,7 +239,9 @@ public class InterfaceImpl extends ConfigurableImpl
     // to create an InterfaceImpl and set the name without first having added
     // the interfaceimpl to the DescriptionElement.
     public void setName(NCName name) {
+        checkNotFrozen();
         fName = name;
+        elementModified();
     }
     
     /* 
@@ -221,9 +249,11 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public void addStyleDefaultURI(URI uri)
     {
+        checkNotFrozen();
         if(uri != null) {
             fStyleDefault.add(uri);
         }
+        elementModified();
     }
     
     /* 
@@ -241,9 +271,12 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public void addExtendedInterfaceName(QName qname)
     {
+        checkNotFrozen();
         if(qname != null) {
             fExtends.add(qname);
+            flushInScopeComponents();
         }
+        elementModified();
     }
     
     /* 
@@ -251,9 +284,12 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public void removeExtendedInterfaceName(QName qname)
     {
+        checkNotFrozen();
         if(qname != null) {
             fExtends.remove(qname);
+            flushInScopeComponents();
         }
+        elementModified();
     }
     
     /* 
@@ -301,9 +337,12 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public InterfaceFaultElement addInterfaceFaultElement()
     {
+        checkNotFrozen();
         InterfaceFaultElement fault = new InterfaceFaultImpl();
         fInterfaceFaultElements.add(fault);
+        flushInScopeComponents();
         fault.setParentElement(this);
+        elementModified();
         return fault;
     }
 
@@ -312,6 +351,10 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public InterfaceFaultElement getInterfaceFaultElement(QName qname)
     {
+        if(isFrozen()) {
+            return qname != null ? (InterfaceFaultElement)fFrozenFaultIndex.get(qname) : null;
+        }
+        
         InterfaceFaultElement fault = null;
         
         if(qname != null)
@@ -346,9 +389,12 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public InterfaceOperationElement addInterfaceOperationElement()
     {
+        checkNotFrozen();
         InterfaceOperationElement operation = new InterfaceOperationImpl();
         fInterfaceOperationElements.add(operation);
+        flushInScopeComponents();
         operation.setParentElement(this);
+        elementModified();
         return operation;
     }
     
@@ -357,6 +403,10 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     public InterfaceOperationElement getInterfaceOperationElement(QName qname)
     {
+        if(isFrozen()) {
+            return qname != null ? (InterfaceOperationElement)fFrozenOperationIndex.get(qname) : null;
+        }
+        
         InterfaceOperationElement oper = null;
         
         if(qname != null)
@@ -390,7 +440,9 @@ public class InterfaceImpl extends ConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.NestedElement#setParentElement(org.apache.woden.wsdl20.xml.WSDL20Element)
      */
     public void setParentElement(WSDLElement parent) {
+        checkNotFrozen();
         fParentElem = parent;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -407,117 +459,182 @@ public class InterfaceImpl extends ConfigurableImpl
     /*
      * This method searches for the QName-specified operation across all operations
      * available (or in-scope) to this interface. i.e. it searches the directly declared
-     * operations and the operations derived from any extended interfaces.
+     * operations and the operations derived from the interfaces this interface
+     * extends, directly or indirectly.
      * 
      * TODO consider whether this is needed on the API (currently just used by validator)
      * TODO also consider whether getInScopeInterfaceOperations() is needed. 
      */
     public InterfaceOperation getInScopeInterfaceOperation(QName qname) 
     {
-        InterfaceOperation oper = null;
-        
-        if(qname != null)
+        if(qname == null) return null;
+        return (InterfaceOperation)getInScopeComponents().fOperationIndex.get(qname);
+    }
+    
+    /*
+     * This method searches for the QName-specified fault across all faults
+     * available (or in-scope) to this interface. i.e. it searches the directly declared
+     * faults and the faults derived from the interfaces this interface extends, 
+     * directly or indirectly.
+     * 
+     * TODO consider whether this is needed on the API (currently just used by validator) 
+     * TODO also consider whether getInScopeInterfaceFaults() is needed. 
+     */
+    public InterfaceFault getInScopeInterfaceFault(QName qname) 
+    {
+        if(qname == null) return null;
+        return (InterfaceFault)getInScopeComponents().fFaultIndex.get(qname);
+    }
+    
+    /*
+     * Return the interfaces this interface extends, directly or indirectly,
+     * nearest first. This interface is not included, even if the extended
+     * interfaces form a cycle back to it.
+     */
+    public Interface[] getInheritedInterfaces()
+    {
+        List inherited = getInScopeComponents().fInheritedInterfaces;
+        Interface[] array = new Interface[inherited.size()];
+        inherited.toArray(array);
+        return array;
+    }
+    
+    /*
+     * Collect the interfaces this interface extends, directly or indirectly,
+     * breadth first so that nearer interfaces come first. Each interface is 
+     * visited once, so cycles in the extended interfaces end the search. Then 
+     * index the in-scope faults and operations by QName: those declared in this 
+     * interface first, then those of the extended interfaces. If several have 
+     * the same name, the first one found is indexed. Each extended interface
+     * name looked up is recorded with the interface it refers to.
+     */
+    private InScopeComponents initInScopeComponents()
+    {
+        List inherited = new Vector();
+        List names = new Vector();
+        List resolved = new Vector();
+        if(fDescriptionComponent != null)
         {
-            //First, try the operations declared directly in this interface
-            oper = getInterfaceOperation(qname);
-            
-            //Next, try any operations derived from extended interfaces
-            if(oper == null)
+            Set visited = new HashSet();
+            visited.add(this);
+            for(int i=-1; i<inherited.size(); i++)
             {
-                List derivedOperations = getDerivedInterfaceOperations();
-                InterfaceOperation tempOper = null;
-                for(Iterator j=derivedOperations.iterator(); j.hasNext(); )
+                InterfaceElement intface = (i < 0) ? this : (InterfaceElement)inherited.get(i);
+                QName[] extendedNames = intface.getExtendedInterfaceNames();
+                for(int j=0; j<extendedNames.length; j++)
                 {
-                    tempOper = (InterfaceOperation)j.next();
-                    if(qname.equals(tempOper.getName()))
-                    {
-                        oper = tempOper;
-                        break;
+                    Interface extended = fDescriptionComponent.getInterface(extendedNames[j]);
+                    names.add(extendedNames[j]);
+                    resolved.add(extended);
+                    if(extended != null && visited.add(extended)) {
+                        inherited.add(extended);
                     }
                 }
             }
         }
-        return oper;
+        
+        //The stamp is taken before the faults and operations are indexed, so a
+        //later modification of them is seen.
+        long stamp = getInScopeStamp(inherited);
+        Map faults = new HashMap();
+        Map opers = new HashMap();
+        indexComponents(getInterfaceFaults(), faults);
+        indexComponents(getInterfaceOperations(), opers);
+        for(Iterator i=inherited.iterator(); i.hasNext(); )
+        {
+            Interface intface = (Interface)i.next();
+            indexComponents(intface.getInterfaceFaults(), faults);
+            indexComponents(intface.getInterfaceOperations(), opers);
+        }
+        
+        return new InScopeComponents(inherited, faults, opers, stamp,
+                (QName[])names.toArray(new QName[names.size()]),
+                (Interface[])resolved.toArray(new Interface[resolved.size()]));
     }
     
-    /*
-     * Return the interface operations derived from extended interfaces. 
-     */
-    private List getDerivedInterfaceOperations()
+    private void indexComponents(InterfaceFault[] faults, Map index)
     {
-        List derivedOperations = new Vector();
-        Interface[] interfaces = getExtendedInterfaces();
-        for(int i=0; i<interfaces.length; i++)
+        for(int i=0; i<faults.length; i++)
         {
-            Interface interfac = (Interface)interfaces[i];
-            InterfaceOperation[] opers = interfac.getInterfaceOperations();
-            for(int j=0; j<opers.length; j++)
-            {
-                InterfaceOperation oper = opers[j];
-                if(!containsComponent(oper, derivedOperations)) {
-                    derivedOperations.add(oper);
-                }
+            QName name = faults[i].getName();
+            if(name != null && !index.containsKey(name)) {
+                index.put(name, faults[i]);
+            }
+        }
+    }
+    
+    private void indexComponents(InterfaceOperation[] opers, Map index)
+    {
+        for(int i=0; i<opers.length; i++)
+        {
+            QName name = opers[i].getName();
+            if(name != null && !index.containsKey(name)) {
+                index.put(name, opers[i]);
             }
         }
-        return derivedOperations;
     }
     
     /*
-     * This method searches for the QName-specified fault across all faults
-     * available (or in-scope) to this interface. i.e. it searches the directly declared
-     * faults and the faults derived from any extended interfaces.
-     * 
-     * TODO consider whether this is needed on the API (currently just used by validator) 
-     * TODO also consider whether getInScopeInterfaceFaults() is needed. 
+     * Return the in-scope components, collecting them again if they are out of
+     * date. They are collected before they are published, so a thread using them
+     * meanwhile still sees the complete previous ones. Nothing can be modified 
+     * once this interface is frozen, so they are then kept.
      */
-    public InterfaceFault getInScopeInterfaceFault(QName qname) 
+    private InScopeComponents getInScopeComponents()
     {
-        InterfaceFault fault = null;
-        
-        if(qname != null)
+        InScopeComponents inScope = fInScopeComponents;
+        if(inScope == null || !isCurrent(inScope)) {
+            inScope = initInScopeComponents();
+            fInScopeComponents = inScope;
+        }
+        return inScope;
+    }
+    
+    /*
+     * The in-scope components are current if neither this interface nor an 
+     * interface it extends has been modified since they were collected, and
+     * each extended interface name still refers to the same interface. 
+     * Modifications of other components do not affect them.
+     */
+    private boolean isCurrent(InScopeComponents inScope)
+    {
+        if(isFrozen()) return true;
+        if(inScope.fStamp != getInScopeStamp(inScope.fInheritedInterfaces)) {
+            return false;
+        }
+        for(int i=0; i<inScope.fNames.length; i++)
         {
-            //First, try the faults declared directly in this interface
-            fault = getInterfaceFault(qname);
-            
-            //Next, try any faults derived from extended interfaces
-            if(fault == null)
-            {
-                List derivedFaults = getDerivedInterfaceFaults();
-                InterfaceFault tempFault = null;
-                for(Iterator j=derivedFaults.iterator(); j.hasNext(); )
-                {
-                    tempFault = (InterfaceFault)j.next();
-                    if(qname.equals(tempFault.getName()))
-                    {
-                        fault = tempFault;
-                        break;
-                    }
-                }
+            if(fDescriptionComponent.getInterface(inScope.fNames[i]) != inScope.fResolved[i]) {
+                return false;
             }
         }
-        return fault;
+        return true;
     }
     
     /*
-     * Return the interface faults derived from extended interfaces. 
+     * Returns the latest modification stamp (see WSDLElementImpl.getModificationStamp())
+     * of this interface and of the inherited interfaces.
      */
-    private List getDerivedInterfaceFaults()
+    private long getInScopeStamp(List inherited)
     {
-        List derivedFaults = new Vector();
-        Interface[] interfaces = getExtendedInterfaces();
-        for(int i=0; i<interfaces.length; i++)
+        long stamp = getModificationStamp();
+        for(int i=0; i<inherited.size(); i++)
         {
-            Interface interfac = (Interface)interfaces[i];
-            InterfaceFault[] faults = interfac.getInterfaceFaults();
-            for(int j=0; j<faults.length; j++)
-            {
-                InterfaceFault fault = faults[j];
-                if(!containsComponent(fault, derivedFaults)) {
-                    derivedFaults.add(fault);
-                }
+            Object intface = inherited.get(i);
+            if(intface instanceof WSDLElementImpl) {
+                stamp = Math.max(stamp, ((WSDLElementImpl)intface).getModificationStamp());
             }
         }
-        return derivedFaults;
+        return stamp;
+    }
+    
+    /*
+     * Discard the in-scope components, so they are collected again when next
+     * requested.
+     */
+    private void flushInScopeComponents()
+    {
+        fInScopeComponents = null;
     }
     
     /*
@@ -528,11 +645,66 @@ public class InterfaceImpl extends ConfigurableImpl
      */
     void setDescriptionComponent(Description desc)
     {
-        fDescriptionComponent = desc;
+        //A frozen interface stays with the Description it was frozen with.
+        if(!isFrozen() && desc != fDescriptionComponent) {
+            fDescriptionComponent = desc;
+            flushInScopeComponents();
+        }
     }
     
     Description getDescriptionComponent() {
         return fDescriptionComponent;
     }
     
+    /*
+     * Compute the name, the extended interfaces and the faults and operations
+     * of this interface, and the in-scope components. The faults and operations 
+     * are indexed by QName. If several have the same name, the first one is 
+     * indexed, as found by the linear searches.
+     */
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenName = getName();
+        fFrozenExtendedInterfaces = getExtendedInterfaces();
+        fFrozenFaults = getInterfaceFaults();
+        fFrozenOperations = getInterfaceOperations();
+        
+        
+        fFrozenFaultIndex = new HashMap();
+        indexComponents(fFrozenFaults, fFrozenFaultIndex);
+        fFrozenOperationIndex = new HashMap();
+        indexComponents(fFrozenOperations, fFrozenOperationIndex);
+        
+        getInScopeComponents();
+    }
+    
+    /*
+     * The interfaces this interface extends, its in-scope faults and operations
+     * indexed by QName, the stamp (see getInScopeStamp()) they were collected at
+     * and the extended interface names looked up, with the interface each one 
+     * referred to. They are not changed once collected, and are replaced as a 
+     * whole when collected again.
+     */
+    private static final class InScopeComponents
+    {
+        final List fInheritedInterfaces;
+        final Map fFaultIndex;
+        final Map fOperationIndex;
+        final long fStamp;
+        final QName[] fNames;
+        final Interface[] fResolved;
+        
+        InScopeComponents(List inheritedInterfaces, Map faultIndex, Map operationIndex,
+                          long stamp, QName[] names, Interface[] resolved)
+        {
+            fInheritedInterfaces = inheritedInterfaces;
+            fFaultIndex = faultIndex;
+            fOperationIndex = operationIndex;
+            fStamp = stamp;
+            fNames = names;
+            fResolved = resolved;
+        }
+    }
+    
 }
@@ -49,6 +49,9 @@ public class InterfaceMessageReferenceImpl extends NestedConfigurableImpl
     //XML Element model data
     private QName fElementName = null;
     
+    //Value returned by getElementDeclaration() once frozen
+    private ElementDeclaration fFrozenElementDeclaration = null;
+    
     
     /* ************************************************************
      *  InterfaceMessageReference methods (the WSDL Component model)
@@ -83,6 +86,7 @@ public class InterfaceMessageReferenceImpl extends NestedConfigurableImpl
      */
     public ElementDeclaration getElementDeclaration() 
     {
+        if(isFrozen()) return fFrozenElementDeclaration;
         InterfaceOperation oper = (InterfaceOperation)getParent();
         Interface interfac = (Interface)oper.getParent();
         Description desc = ((InterfaceImpl)interfac).getDescriptionComponent();
@@ -105,21 +109,27 @@ public class InterfaceMessageReferenceImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.InterfaceMessageReferenceElement#setMessageLabel(org.apache.woden.wsdl20.enumeration.MessageLabel)
      */
     public void setMessageLabel(MessageLabel msgLabel) {
+        checkNotFrozen();
         fMessageLabel = msgLabel;
+        elementModified();
     }
 
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.xml.InterfaceMessageReferenceElement#setMessageContentModel(java.lang.String)
      */
     public void setMessageContentModel(String nmToken) {
+        checkNotFrozen();
         fMessageContentModel = nmToken;
+        elementModified();
     }
 
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.xml.InterfaceMessageReferenceElement#setElementName(javax.xml.namespace.QName)
      */
     public void setElementName(QName element) {
+        checkNotFrozen();
         fElementName = element;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -152,11 +162,18 @@ public class InterfaceMessageReferenceImpl extends NestedConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.InterfaceMessageReferenceElement#setDirection(org.apache.woden.wsdl20.enumeration.Direction)
      */
     public void setDirection(Direction dir) {
+        checkNotFrozen();
         fDirection = dir;
+        elementModified();
     }
 
     /* ************************************************************
      *  Non-API implementation methods
      * ************************************************************/
     
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenElementDeclaration = getElementDeclaration();
+    }
 }
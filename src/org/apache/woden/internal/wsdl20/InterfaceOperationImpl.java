@@ -47,6 +47,12 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
     //XML data
     private List fMessageRefs = new Vector();
     private List fFaultRefs = new Vector();
+    
+    //Values returned by the component getters once frozen
+    private QName fFrozenName = null;
+    private InterfaceMessageReference[] fFrozenMessageRefs = null;
+    private InterfaceFaultReference[] fFrozenFaultRefs = null;
+    private URI[] fFrozenStyle = null;
 
     /* ************************************************************
      *  InterfaceOperation methods (the WSDL Component model)
@@ -58,6 +64,7 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public QName getName() 
     {
+        if(isFrozen()) return fFrozenName;
         QName name = null;
         if (fName != null) {
             String tns = DescriptionImpl.getTargetNamespace(this);
@@ -79,6 +86,7 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public InterfaceMessageReference[] getInterfaceMessageReferences() 
     {
+        if(isFrozen()) return fFrozenMessageRefs.clone();
         InterfaceMessageReference[] array = new InterfaceMessageReference[fMessageRefs.size()];
         fMessageRefs.toArray(array);
         return array;
@@ -89,6 +97,7 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public InterfaceFaultReference[] getInterfaceFaultReferences() 
     {
+        if(isFrozen()) return fFrozenFaultRefs.clone();
         InterfaceFaultReference[] array = new InterfaceFaultReference[fFaultRefs.size()];
         fFaultRefs.toArray(array);
         return array;
@@ -100,6 +109,7 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public URI[] getStyle() 
     {
+        if(isFrozen()) return fFrozenStyle.clone();
         URI[] array = new URI[fStyle.size()];
         fStyle.toArray(array);
         return array;
@@ -121,7 +131,9 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public void setName(NCName name) 
     {
+        checkNotFrozen();
         fName = name;
+        elementModified();
     }
     
     /*
@@ -129,7 +141,9 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public void setPattern(URI uri)
     {
+        checkNotFrozen();
         fMessageExchangePattern = uri;
+        elementModified();
     }
     
     /*
@@ -145,9 +159,11 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public void addStyleURI(URI uri)
     {
+        checkNotFrozen();
         if(uri != null) {
             fStyle.add(uri);
         }
+        elementModified();
     }
     
     /*
@@ -155,7 +171,9 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public void removeStyleURI(URI uri)
     {
+        checkNotFrozen();
         fStyle.remove(uri);
+        elementModified();
     }
     
     /*
@@ -163,9 +181,11 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public InterfaceMessageReferenceElement addInterfaceMessageReferenceElement()
     {
+        checkNotFrozen();
         InterfaceMessageReferenceElement msgRef = new InterfaceMessageReferenceImpl();
         fMessageRefs.add(msgRef);
         msgRef.setParentElement(this);
+        elementModified();
         return msgRef;
     }
     
@@ -174,7 +194,9 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public void removeInterfaceMessageReferenceElement(InterfaceMessageReferenceElement msgRef)
     {
+        checkNotFrozen();
         fMessageRefs.remove(msgRef);
+        elementModified();
     }
     
     /*
@@ -192,9 +214,11 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public InterfaceFaultReferenceElement addInterfaceFaultReferenceElement()
     {
+        checkNotFrozen();
         InterfaceFaultReferenceElement faultRef = new InterfaceFaultReferenceImpl();
         fFaultRefs.add(faultRef);
         faultRef.setParentElement(this);
+        elementModified();
         return faultRef;
     }
     
@@ -203,7 +227,9 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
      */
     public void removeInterfaceFaultReferenceElement(InterfaceFaultReferenceElement faultRef)
     {
+        checkNotFrozen();
         fFaultRefs.remove(faultRef);
+        elementModified();
     }
     
     /*
@@ -216,4 +242,17 @@ public class InterfaceOperationImpl extends NestedConfigurableImpl
         return array;
     }
     
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+    
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenName = getName();
+        fFrozenMessageRefs = getInterfaceMessageReferences();
+        fFrozenFaultRefs = getInterfaceFaultReferences();
+        fFrozenStyle = getStyle();
+    }
+    
 }
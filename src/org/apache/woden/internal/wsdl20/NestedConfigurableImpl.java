@@ -45,7 +45,9 @@ public abstract class NestedConfigurableImpl extends ConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.NestedElement#setParentElement(org.apache.woden.wsdl20.xml.WSDL20Element)
      */
     public void setParentElement(WSDLElement parent) {
+        checkNotFrozen();
         fParentElem = parent;
+        elementModified();
     }
 
     /* (non-Javadoc)
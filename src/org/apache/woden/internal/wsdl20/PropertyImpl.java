@@ -48,6 +48,9 @@ public class PropertyImpl extends DocumentableImpl
     private QName fConstraintName = null;
     private boolean fHasValueToken = false; //true if property specifies a value, not a constraint.
     
+    //Value returned by getValueConstraint() once frozen
+    private TypeDefinition fFrozenValueConstraint = null;
+    
     /* ************************************************************
      *  Property interface methods (the WSDL Component model)
      * ************************************************************/
@@ -73,6 +76,7 @@ public class PropertyImpl extends DocumentableImpl
      */
     public TypeDefinition getValueConstraint() 
     {
+        if(isFrozen()) return fFrozenValueConstraint;
         TypeDefinition typeDef = null;
         Description desc = (Description)getDescriptionComponent(this);
         typeDef = desc.getTypeDefinition(fConstraintName);
@@ -118,21 +122,27 @@ public class PropertyImpl extends DocumentableImpl
      * @see org.apache.woden.wsdl20.xml.PropertyElement#setRef(URI)
      */
     public void setRef(URI ref) {
+        checkNotFrozen();
         fRef = ref;
+        elementModified();
     }
     
     /*
      * @see org.apache.woden.wsdl20.xml.PropertyElement#setValue(Object)
      */
     public void setValue(Object value) {
+        checkNotFrozen();
         fValue = value;
+        elementModified();
     }
     
     /*
      * @see org.apache.woden.wsdl20.xml.PropertyElement#setConstraintName(QName)
      */
     public void setConstraintName(QName constraint) {
+        checkNotFrozen();
         fConstraintName = constraint;
+        elementModified();
     }
     
     /*
@@ -175,7 +185,9 @@ public class PropertyImpl extends DocumentableImpl
      * @see org.apache.woden.wsdl20.xml.PropertyElement#setHasValueToken(boolean)
      */
     public void setHasValueToken(boolean b) {
+        checkNotFrozen();
         fHasValueToken = b;
+        elementModified();
     }
     
     /*
@@ -189,7 +201,9 @@ public class PropertyImpl extends DocumentableImpl
      * @see org.apache.woden.wsdl20.xml.NestedElement#setParentElement(WSDL20Element)
      */
     public void setParentElement(WSDLElement parent) {
+        checkNotFrozen();
         fParent = parent;
+        elementModified();
     }
     
     /*
@@ -203,4 +217,9 @@ public class PropertyImpl extends DocumentableImpl
      *  Non-API implementation methods
      * ************************************************************/
 
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenValueConstraint = getValueConstraint();
+    }
 }
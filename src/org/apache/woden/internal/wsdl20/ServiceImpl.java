@@ -15,8 +15,10 @@
  */
 package org.apache.woden.internal.wsdl20;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
 import javax.xml.namespace.QName;
@@ -57,6 +59,12 @@ public class ServiceImpl extends ConfigurableImpl
     private NCName fName = null;
     private QName fInterfaceName = null;
     private List fEndpoints = new Vector();
+    
+    //Values returned by the component getters once frozen
+    private QName fFrozenName = null;
+    private Interface fFrozenInterface = null;
+    private Endpoint[] fFrozenEndpoints = null;
+    private Map fFrozenEndpointIndex = null;
 
     /* ************************************************************
      *  Service interface methods (the WSDL Component model)
@@ -67,6 +75,7 @@ public class ServiceImpl extends ConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.ServiceElement#getName()
      */
     public QName getName() {
+        if(isFrozen()) return fFrozenName;
         QName name = null;
         if (fName != null) {
             String tns = DescriptionImpl.getTargetNamespace(this);
@@ -80,6 +89,7 @@ public class ServiceImpl extends ConfigurableImpl
      */
     public Interface getInterface() 
     {
+        if(isFrozen()) return fFrozenInterface;
         Description desc = fDescriptionComponent;
         Interface interfac = desc.getInterface(fInterfaceName);
         return interfac;
@@ -92,6 +102,10 @@ public class ServiceImpl extends ConfigurableImpl
      */
     public Endpoint getEndpoint(NCName name) 
     {
+        if(isFrozen()) {
+            return name != null ? (Endpoint)fFrozenEndpointIndex.get(name.toString()) : null;
+        }
+        
         Endpoint endpoint = null;
         if(name != null)
         {
@@ -114,6 +128,7 @@ public class ServiceImpl extends ConfigurableImpl
      * @see org.apache.woden.wsdl20.Service#getEndpoints()
      */
     public Endpoint[] getEndpoints() {
+        if(isFrozen()) return fFrozenEndpoints.clone();
         Endpoint[] array = new Endpoint[fEndpoints.size()];
         fEndpoints.toArray(array);
         return array;
@@ -134,14 +149,18 @@ public class ServiceImpl extends ConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.ServiceElement#setName(NCName)
      */
     public void setName(NCName name) {
+        checkNotFrozen();
         fName = name;
+        elementModified();
     }
 
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.xml.ServiceElement#setInterfaceName(javax.xml.namespace.QName)
      */
     public void setInterfaceName(QName qname) {
+        checkNotFrozen();
         fInterfaceName = qname;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -170,9 +189,11 @@ public class ServiceImpl extends ConfigurableImpl
      */
     public EndpointElement addEndpointElement() 
     {
+        checkNotFrozen();
         EndpointElement endpoint = new EndpointImpl();
         fEndpoints.add(endpoint);
         endpoint.setParentElement(this);
+        elementModified();
         return endpoint;
     }
 
@@ -189,7 +210,9 @@ public class ServiceImpl extends ConfigurableImpl
      * @see org.apache.woden.wsdl20.xml.NestedElement#setParentElement(org.apache.woden.wsdl20.xml.WSDL20Element)
      */
     public void setParentElement(WSDLElement parent) {
+        checkNotFrozen();
         fParentElem = parent;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -210,11 +233,33 @@ public class ServiceImpl extends ConfigurableImpl
      * Woden implementation without exposing them to the API (i.e. by DescriptionImpl)
      */
     void setDescriptionComponent(Description desc) {
-        fDescriptionComponent = desc;
+        //A frozen service stays with the Description it was frozen with.
+        if(!isFrozen()) fDescriptionComponent = desc;
     }
 
     Description getDescriptionComponent() {
         return fDescriptionComponent;
     }
+    
+    /*
+     * Compute the values returned by the component getters once frozen, 
+     * indexing the endpoints by name. If several endpoints have the same name, 
+     * the first one is indexed, as found by the linear search.
+     */
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        fFrozenName = getName();
+        fFrozenInterface = getInterface();
+        fFrozenEndpoints = getEndpoints();
+        fFrozenEndpointIndex = new HashMap();
+        for(int i=0; i<fFrozenEndpoints.length; i++)
+        {
+            NCName name = fFrozenEndpoints[i].getName();
+            if(name != null && !fFrozenEndpointIndex.containsKey(name.toString())) {
+                fFrozenEndpointIndex.put(name.toString(), fFrozenEndpoints[i]);
+            }
+        }
+    }
 
 }
@@ -53,7 +53,9 @@ public class TypesImpl extends DocumentableImpl
      */
     public void setTypeSystem(String typeSystem)
     {
+        checkNotFrozen();
         fTypeSystem = typeSystem;
+        elementModified();
     }
     
     /*
@@ -69,9 +71,11 @@ public class TypesImpl extends DocumentableImpl
      */
     public void addSchema(Schema schema)
     {
+        checkNotFrozen();
         if(schema != null) {
             fSchemas.add(schema);
         }
+        elementModified();
     }
     
     /*
@@ -79,7 +83,9 @@ public class TypesImpl extends DocumentableImpl
      */
     public void removeSchema(Schema schema)
     {
+        checkNotFrozen();
         fSchemas.remove(schema);
+        elementModified();
     }
     
     /*
@@ -167,7 +173,9 @@ public class TypesImpl extends DocumentableImpl
      * @see org.apache.woden.wsdl20.xml.NestedElement#setParentElement(org.apache.woden.wsdl20.xml.WSDL20Element)
      */
     public void setParentElement(WSDLElement parent) {
+        checkNotFrozen();
         fParentElem = parent;
+        elementModified();
     }
 
     /* (non-Javadoc)
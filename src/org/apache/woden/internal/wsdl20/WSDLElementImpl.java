@@ -16,12 +16,15 @@
 package org.apache.woden.internal.wsdl20;
 
 import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.namespace.QName;
 
+import org.apache.woden.internal.MessageFormatter;
 import org.apache.woden.internal.wsdl20.extensions.AttributeExtensibleImpl;
 import org.apache.woden.internal.wsdl20.extensions.ElementExtensibleImpl;
 import org.apache.woden.wsdl20.extensions.ExtensionElement;
+import org.apache.woden.wsdl20.xml.NestedElement;
 import org.apache.woden.wsdl20.xml.WSDLElement;
 import org.apache.woden.xml.XMLAttr;
 
@@ -38,12 +41,38 @@ public class WSDLElementImpl implements WSDLElement
     private AttributeExtensibleImpl fAttrExt = new AttributeExtensibleImpl();
     private ElementExtensibleImpl fElemExt = new ElementExtensibleImpl();
     
+    //Set by DescriptionImpl.freeze(). It is volatile and set after the values
+    //cached by prepareFreeze(), so a thread that sees this element as frozen
+    //also sees those values.
+    private volatile boolean fFrozen = false;
+    
+    //Where the element was read from, or 0 if not known. The document is 
+    //that of the description containing the element (see getSourceURI).
+    private int fSourceLine = 0;
+    private int fSourceColumn = 0;
+    
+    //The stamp of the last modification of this element or of an element it
+    //contains, or 0 if none has been modified (see elementModified()).
+    private volatile long fModificationStamp = 0;
+    
+    //The element containing this element, for elements which are not nested
+    //elements, such as imports, includes and documentation elements.
+    private WSDLElement fContainingElement = null;
+    
+    //Each modification takes a new stamp from this sequence, greater than every 
+    //stamp taken before it, so the latest stamp of any set of elements changes 
+    //whenever one of them is modified. Only the sequence is shared; the stamps 
+    //are compared per element.
+    private static final AtomicLong fModificationStamps = new AtomicLong();
+    
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.extensions.AttributeExtensible#setExtensionAttribute(javax.xml.namespace.QName, org.apache.woden.xml.XMLAttr)
      */
     public void setExtensionAttribute(QName attrType, XMLAttr attr) 
     {
+        checkNotFrozen();
         fAttrExt.setExtensionAttribute(attrType, attr);
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -83,7 +112,9 @@ public class WSDLElementImpl implements WSDLElement
      */
     public void addExtensionElement(ExtensionElement extEl) 
     {
+        checkNotFrozen();
         fElemExt.addExtensionElement(extEl);
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -91,7 +122,9 @@ public class WSDLElementImpl implements WSDLElement
      */
     public void removeExtensionElement(ExtensionElement extEl) 
     {
+        checkNotFrozen();
         fElemExt.removeExtensionElement(extEl);
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -117,5 +150,168 @@ public class WSDLElementImpl implements WSDLElement
     {
         return fElemExt.hasExtensionElementsForNamespace(namespace);
     }
+    
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+    
+    /**
+     * Returns true if this element belongs to a frozen description,
+     * in which case it cannot be modified.
+     * 
+     * @see org.apache.woden.wsdl20.Description#freeze()
+     */
+    public boolean isFrozen()
+    {
+        return fFrozen;
+    }
+    
+    /**
+     * Records the position of the start tag this element was read from. 
+     * The DOM reader records the end of the start tag, which is what the XML 
+     * parser reports, and the StAX reader records the position the stream 
+     * reader reports for the tag. This is not a modification of the element, so it is allowed once the 
+     * description is frozen.
+     * 
+     * @param line the line number, starting at 1.
+     * @param column the column number, starting at 1.
+     */
+    public void setSourceLocation(int line, int column)
+    {
+        fSourceLine = line;
+        fSourceColumn = column;
+    }
+    
+    /**
+     * Returns the line number of the start tag this element was read from, 
+     * or 0 if not known.
+     */
+    public int getSourceLineNumber()
+    {
+        return fSourceLine;
+    }
+    
+    /**
+     * Returns the column number of the start tag this element was read from, 
+     * or 0 if not known.
+     */
+    public int getSourceColumnNumber()
+    {
+        return fSourceColumn;
+    }
+    
+    /**
+     * Returns the URI of the document this element was read from, which is 
+     * the document base URI of the description element containing it, or 
+     * null if not known.
+     */
+    public String getSourceURI()
+    {
+        WSDLElement element = this;
+        while(element instanceof NestedElement && !(element instanceof DescriptionImpl)) {
+            element = ((NestedElement)element).getParentElement();
+        }
+        if(element instanceof DescriptionImpl) {
+            URI uri = ((DescriptionImpl)element).getDocumentBaseURI();
+            return uri != null ? uri.toString() : null;
+        }
+        return null;
+    }
+    
+    /*
+     * Called by DescriptionImpl.freeze() on every element of the description 
+     * before any of them is marked frozen. Subclasses override this method to 
+     * compute the values their component getters return once frozen, and must 
+     * call super.prepareFreeze().
+     */
+    void prepareFreeze()
+    {
+    }
+    
+    /*
+     * Called by DescriptionImpl.freeze() once every element has been prepared.
+     */
+    void markFrozen()
+    {
+        fFrozen = true;
+    }
+    
+    /*
+     * Called by the methods which modify the element, before making the change,
+     * to reject any change once the description has been frozen.
+     */
+    protected void checkNotFrozen()
+    {
+        if(fFrozen) {
+            throw new IllegalStateException(
+                    new MessageFormatter().formatMessage(null, "WSDL020", null));
+        }
+    }
+    
+    /*
+     * Returns the stamp of the last modification of this element or of an 
+     * element it contains, or 0 if none has been modified. A cache built from
+     * the elements is out of date once the latest stamp of those elements has
+     * changed since it was built.
+     */
+    long getModificationStamp()
+    {
+        return fModificationStamp;
+    }
+    
+    /*
+     * Sets the element containing this element, for an element which is not
+     * a nested element, so that its modifications stamp its container too.
+     */
+    void setContainingElement(WSDLElement containingElement)
+    {
+        fContainingElement = containingElement;
+    }
+    
+    /*
+     * Called by the methods which modify the element, once the change is made.
+     * It stamps the element and the elements containing it up to its description
+     * with a new modification stamp (see getModificationStamp()) and, if a
+     * description records its modifications (see 
+     * DescriptionImpl.takeModifiedElements()), records the change with the description containing the element.
+     */
+    protected void elementModified()
+    {
+        //Stamp the element and its containers, and find the top-level element 
+        //containing this element and its description.
+        long stamp = fModificationStamps.incrementAndGet();
+        fModificationStamp = stamp;
+        WSDLElement topLevelElement = this;
+        WSDLElement parent = getContainingElement(this);
+        while(parent != null && !(parent instanceof DescriptionImpl)) {
+            if(parent instanceof WSDLElementImpl) {
+                ((WSDLElementImpl)parent).fModificationStamp = stamp;
+            }
+            topLevelElement = parent;
+            parent = getContainingElement(parent);
+        }
+        if(parent != null) {
+            ((WSDLElementImpl)parent).fModificationStamp = stamp;
+        }
+        
+        if(!DescriptionImpl.isRecordingModifications()) {
+            return;
+        }
+        if(parent != null) {
+            ((DescriptionImpl)parent).recordModification(topLevelElement);
+        } else if(this instanceof DescriptionImpl) {
+            ((DescriptionImpl)this).recordModification(this);
+        }
+    }
+    
+    private static WSDLElement getContainingElement(WSDLElement elem)
+    {
+        if(elem instanceof NestedElement) {
+            return ((NestedElement)elem).getParentElement();
+        } else if(elem instanceof WSDLElementImpl) {
+            return ((WSDLElementImpl)elem).fContainingElement;
+        }
+        return null;
+    }
 
 }
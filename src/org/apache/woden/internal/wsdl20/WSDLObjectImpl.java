@@ -21,6 +21,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl;
 import org.apache.woden.wsdl20.WSDLComponent;
 import org.apache.woden.wsdl20.extensions.ComponentExtensions;
 
@@ -84,6 +85,23 @@ public abstract class WSDLObjectImpl extends WSDLElementImpl
     }
     
     
+    /*
+     * Store the property values of any component extensions which have not been
+     * resolved, so that their getters do not look them up once the description
+     * is frozen.
+     */
+    void prepareFreeze()
+    {
+        super.prepareFreeze();
+        for(Iterator i=fCompExtensions.values().iterator(); i.hasNext(); )
+        {
+            Object extensions = i.next();
+            if(extensions instanceof ComponentExtensionsImpl) {
+                ((ComponentExtensionsImpl)extensions).freeze();
+            }
+        }
+    }
+    
     /*
      * Store the extensions in a map using the namespace string as the key.
      * If the extensions value is null, delete any existing entry in the map
@@ -92,6 +110,7 @@ public abstract class WSDLObjectImpl extends WSDLElementImpl
      */
     public void setComponentExtensions(URI namespace, ComponentExtensions extensions)
     {
+        checkNotFrozen();
         if(namespace != null)
         {
             if(extensions != null) {
@@ -100,5 +119,22 @@ public abstract class WSDLObjectImpl extends WSDLElementImpl
                 fCompExtensions.remove(namespace);
             }
         }
+        elementModified();
+    }
+    
+    /*
+     * Store the property values of the component extensions again, as they are
+     * taken from the extension attributes and elements of this component.
+     */
+    protected void elementModified()
+    {
+        super.elementModified();
+        for(Iterator i=fCompExtensions.values().iterator(); i.hasNext(); )
+        {
+            Object extensions = i.next();
+            if(extensions instanceof ComponentExtensionsImpl) {
+                ((ComponentExtensionsImpl)extensions).invalidate();
+            }
+        }
     }
 }
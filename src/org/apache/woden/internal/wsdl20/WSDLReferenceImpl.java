@@ -42,7 +42,9 @@ public abstract class WSDLReferenceImpl extends DocumentableImpl
      * @see org.apache.woden.wsdl20.xml.ImportElement#setLocation(java.net.URI)
      */
     public void setLocation(URI locURI) {
+        checkNotFrozen();
         fLocation = locURI;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -56,7 +58,9 @@ public abstract class WSDLReferenceImpl extends DocumentableImpl
      * @see org.apache.woden.wsdl20.xml.ImportElement#setDescriptionElement(org.apache.woden.wsdl20.xml.DescriptionElement)
      */
     public void setDescriptionElement(DescriptionElement desc) {
+        checkNotFrozen();
         fDescriptionElement = desc;
+        elementModified();
     }
 
     /* (non-Javadoc)
@@ -71,9 +75,14 @@ public abstract class WSDLReferenceImpl extends DocumentableImpl
      */
     public void addDocumentationElement(DocumentationElement docEl) 
     {
+        checkNotFrozen();
         if(docEl != null) {
             fDocumentationElements.add(docEl);
+            if(docEl instanceof WSDLElementImpl) {
+                ((WSDLElementImpl)docEl).setContainingElement(this);
+            }
         }
+        elementModified();
     }
 
     /* (non-Javadoc)
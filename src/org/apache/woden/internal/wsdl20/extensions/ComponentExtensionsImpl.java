@@ -38,7 +38,12 @@ public abstract class ComponentExtensionsImpl implements ComponentExtensions
     protected WSDLComponent fParent = null;
     
     private URI fNamespace = null;
-
+    
+    //Set once resolveProperties() has stored the property values, after the 
+    //subclass has stored them, so a thread that sees the extensions as resolved
+    //also sees those values. Cleared while the values are being stored again.
+    private volatile boolean fResolved = false;
+    
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.extensions.ComponentExtensions#getNamespace()
      */
@@ -56,4 +61,70 @@ public abstract class ComponentExtensionsImpl implements ComponentExtensions
         fParent = (WSDLComponent)fParentElement; //TODO see todo above about refactoring fParentElement to fParent
         fNamespace = namespace;
     }
+    
+    /**
+     * Resolves the extension properties, including any defaults, and stores 
+     * their values so that the property getters do not need to look up and 
+     * convert the extension attributes and elements on each call. 
+     * <p>
+     * ComponentModelBuilder calls this method on the extensions it creates, once
+     * the component model has been built. The stored values are taken only from
+     * the extension attributes and elements of the parent component, so they are
+     * stored again only when that component is modified (see invalidate()).
+     * Defaults taken from other components are computed by the getters.
+     * <p>
+     * Subclasses store their property values by overriding storeProperties(), 
+     * and return the stored values from their getters once isResolved() returns
+     * true.
+     */
+    public synchronized void resolveProperties()
+    {
+        //Clear the flag first, so that the getters called by storeProperties(),
+        //and by other threads meanwhile, compute the values.
+        fResolved = false;
+        storeProperties();
+        fResolved = true;
+    }
+    
+    /**
+     * Stores the property values again if they have been resolved, as the parent
+     * component has been modified. WSDLObjectImpl calls this method on the 
+     * extensions of a component whenever that component is modified.
+     */
+    public synchronized void invalidate()
+    {
+        if(fResolved) {
+            resolveProperties();
+        }
+    }
+    
+    /**
+     * Resolves the extension properties, if they have not been resolved yet, 
+     * before the description is frozen. DescriptionImpl.freeze() calls this 
+     * method on the extensions of each component.
+     */
+    public synchronized void freeze()
+    {
+        if(!fResolved) {
+            resolveProperties();
+        }
+    }
+    
+    /*
+     * Called by resolveProperties() to store the property values. Subclasses 
+     * override this method to compute each value by calling its getter.
+     */
+    protected void storeProperties()
+    {
+    }
+    
+    /*
+     * Returns true if the getters can return the property values stored by 
+     * resolveProperties(). Returns false if they have never been stored, or 
+     * while they are being stored, so that the getters compute them instead.
+     */
+    protected boolean isResolved()
+    {
+        return fResolved;
+    }
 }
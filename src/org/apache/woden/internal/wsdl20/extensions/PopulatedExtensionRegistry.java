@@ -51,6 +51,7 @@ import org.apache.woden.wsdl20.BindingOperation;
 import org.apache.woden.wsdl20.Endpoint;
 import org.apache.woden.wsdl20.InterfaceOperation;
 import org.apache.woden.wsdl20.extensions.ComponentExtensions;
+import org.apache.woden.wsdl20.extensions.ExtensionFactory;
 import org.apache.woden.wsdl20.extensions.ExtensionRegistry;
 import org.apache.woden.wsdl20.xml.BindingElement;
 import org.apache.woden.wsdl20.xml.BindingFaultElement;
@@ -65,6 +66,9 @@ import org.apache.woden.wsdl20.xml.InterfaceOperationElement;
  * serializers/deserializers for the SOAP, HTTP and MIME extensions. Java impl
  * types are also registered for all the SOAP and HTTP extensions defined in the
  * WSDL 2.0 Spec.
+ * <p>
+ * Each Java impl type is registered with an ExtensionFactory, so that the
+ * extensions are not instantiated by reflection.
  * 
  * This class was copied from WSDL4J and modified for Woden.
  * 
@@ -76,6 +80,147 @@ import org.apache.woden.wsdl20.xml.InterfaceOperationElement;
  */
 public class PopulatedExtensionRegistry extends ExtensionRegistry {
 
+	// ------------ Factories for the Java impl types registered below
+	// ------------
+
+	private static final ExtensionFactory BOOLEAN_ATTR = new ExtensionFactory() {
+		public Object newInstance() {
+			return new BooleanAttrImpl();
+		}
+	};
+
+	private static final ExtensionFactory INTERFACE_OPERATION_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new InterfaceOperationExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory ARGUMENT_ARRAY_ATTR = new ExtensionFactory() {
+		public Object newInstance() {
+			return new ArgumentArrayAttrImpl();
+		}
+	};
+
+	private static final ExtensionFactory RPC_INTERFACE_OPERATION_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new RPCInterfaceOperationExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory STRING_ATTR = new ExtensionFactory() {
+		public Object newInstance() {
+			return new StringAttrImpl();
+		}
+	};
+
+	private static final ExtensionFactory URI_ATTR = new ExtensionFactory() {
+		public Object newInstance() {
+			return new URIAttrImpl();
+		}
+	};
+
+	private static final ExtensionFactory QNAME_OR_TOKEN_ANY_ATTR = new ExtensionFactory() {
+		public Object newInstance() {
+			return new QNameOrTokenAnyAttrImpl();
+		}
+	};
+
+	private static final ExtensionFactory QNAME_LIST_OR_TOKEN_ANY_ATTR = new ExtensionFactory() {
+		public Object newInstance() {
+			return new QNameListOrTokenAnyAttrImpl();
+		}
+	};
+
+	private static final ExtensionFactory SOAP_MODULE = new ExtensionFactory() {
+		public Object newInstance() {
+			return new SOAPModuleImpl();
+		}
+	};
+
+	private static final ExtensionFactory SOAP_HEADER_BLOCK = new ExtensionFactory() {
+		public Object newInstance() {
+			return new SOAPHeaderBlockImpl();
+		}
+	};
+
+	private static final ExtensionFactory SOAP_BINDING_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new SOAPBindingExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory SOAP_BINDING_FAULT_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new SOAPBindingFaultExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory SOAP_BINDING_OPERATION_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new SOAPBindingOperationExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory SOAP_BINDING_MESSAGE_REFERENCE_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new SOAPBindingMessageReferenceExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory SOAP_BINDING_FAULT_REFERENCE_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new SOAPBindingFaultReferenceExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory INT_OR_TOKEN_ANY_ATTR = new ExtensionFactory() {
+		public Object newInstance() {
+			return new IntOrTokenAnyAttrImpl();
+		}
+	};
+
+	private static final ExtensionFactory HTTP_AUTHENTICATION_SCHEME_ATTR = new ExtensionFactory() {
+		public Object newInstance() {
+			return new HTTPAuthenicationSchemeAttrImpl();
+		}
+	};
+
+	private static final ExtensionFactory HTTP_HEADER = new ExtensionFactory() {
+		public Object newInstance() {
+			return new HTTPHeaderImpl();
+		}
+	};
+
+	private static final ExtensionFactory HTTP_BINDING_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new HTTPBindingExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory HTTP_BINDING_FAULT_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new HTTPBindingFaultExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory HTTP_BINDING_OPERATION_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new HTTPBindingOperationExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory HTTP_BINDING_MESSAGE_REFERENCE_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new HTTPBindingMessageReferenceExtensionsImpl();
+		}
+	};
+
+	private static final ExtensionFactory HTTP_ENDPOINT_EXTENSIONS = new ExtensionFactory() {
+		public Object newInstance() {
+			return new HTTPEndpointExtensionsImpl();
+		}
+	};
+
 	public PopulatedExtensionRegistry() {
 		// ------------ Default type for unregistered extension attributes
 		// ------------
@@ -90,47 +235,47 @@ public class PopulatedExtensionRegistry extends ExtensionRegistry {
 
 		// ------------ WSDL extension attributes ------------
 		registerExtAttributeType(InterfaceOperationElement.class,
-				ExtensionConstants.Q_ATTR_SAFE, BooleanAttrImpl.class);
+				ExtensionConstants.Q_ATTR_SAFE, BooleanAttrImpl.class, BOOLEAN_ATTR);
 
 		// ------------ WSDL Component Extensions ------------
 
 		registerComponentExtension(InterfaceOperation.class,
 				ComponentExtensions.URI_NS_EXTENSIONS,
-				InterfaceOperationExtensionsImpl.class);
+				InterfaceOperationExtensionsImpl.class, INTERFACE_OPERATION_EXTENSIONS);
 
 		// ------------ RPC extension attributes ------------
 
 		registerExtAttributeType(InterfaceOperationElement.class,
-				RPCConstants.Q_ATTR_RPC_SIGNATURE, ArgumentArrayAttrImpl.class);
+				RPCConstants.Q_ATTR_RPC_SIGNATURE, ArgumentArrayAttrImpl.class, ARGUMENT_ARRAY_ATTR);
 
 		// ------------ RPC Component Extensions ------------
 		registerComponentExtension(InterfaceOperation.class,
 				ComponentExtensions.URI_NS_RPC,
-				RPCInterfaceOperationExtensionsImpl.class);
+				RPCInterfaceOperationExtensionsImpl.class, RPC_INTERFACE_OPERATION_EXTENSIONS);
 
 		// ------------ SOAP extension attributes ------------
 
 		registerExtAttributeType(BindingElement.class,
-				SOAPConstants.Q_ATTR_SOAP_VERSION, StringAttrImpl.class);
+				SOAPConstants.Q_ATTR_SOAP_VERSION, StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingElement.class,
-				SOAPConstants.Q_ATTR_SOAP_PROTOCOL, URIAttrImpl.class);
+				SOAPConstants.Q_ATTR_SOAP_PROTOCOL, URIAttrImpl.class, URI_ATTR);
 
 		registerExtAttributeType(BindingElement.class,
-				SOAPConstants.Q_ATTR_SOAP_MEPDEFAULT, URIAttrImpl.class);
+				SOAPConstants.Q_ATTR_SOAP_MEPDEFAULT, URIAttrImpl.class, URI_ATTR);
 
 		registerExtAttributeType(BindingFaultElement.class,
-				SOAPConstants.Q_ATTR_SOAP_CODE, QNameOrTokenAnyAttrImpl.class);
+				SOAPConstants.Q_ATTR_SOAP_CODE, QNameOrTokenAnyAttrImpl.class, QNAME_OR_TOKEN_ANY_ATTR);
 
 		registerExtAttributeType(BindingFaultElement.class,
 				SOAPConstants.Q_ATTR_SOAP_SUBCODES,
-				QNameListOrTokenAnyAttrImpl.class);
+				QNameListOrTokenAnyAttrImpl.class, QNAME_LIST_OR_TOKEN_ANY_ATTR);
 
 		registerExtAttributeType(BindingOperationElement.class,
-				SOAPConstants.Q_ATTR_SOAP_MEP, URIAttrImpl.class);
+				SOAPConstants.Q_ATTR_SOAP_MEP, URIAttrImpl.class, URI_ATTR);
 
 		registerExtAttributeType(BindingOperationElement.class,
-				SOAPConstants.Q_ATTR_SOAP_ACTION, URIAttrImpl.class);
+				SOAPConstants.Q_ATTR_SOAP_ACTION, URIAttrImpl.class, URI_ATTR);
 
 		// ------------ SOAPModule extension elements ------------
 
@@ -142,27 +287,27 @@ public class PopulatedExtensionRegistry extends ExtensionRegistry {
 		registerDeserializer(BindingElement.class,
 				SOAPConstants.Q_ELEM_SOAP_MODULE, soapModuleDeser);
 		registerExtElementType(BindingElement.class,
-				SOAPConstants.Q_ELEM_SOAP_MODULE, SOAPModuleImpl.class);
+				SOAPConstants.Q_ELEM_SOAP_MODULE, SOAPModuleImpl.class, SOAP_MODULE);
 
 		registerDeserializer(BindingFaultElement.class,
 				SOAPConstants.Q_ELEM_SOAP_MODULE, soapModuleDeser);
 		registerExtElementType(BindingFaultElement.class,
-				SOAPConstants.Q_ELEM_SOAP_MODULE, SOAPModuleImpl.class);
+				SOAPConstants.Q_ELEM_SOAP_MODULE, SOAPModuleImpl.class, SOAP_MODULE);
 
 		registerDeserializer(BindingOperationElement.class,
 				SOAPConstants.Q_ELEM_SOAP_MODULE, soapModuleDeser);
 		registerExtElementType(BindingOperationElement.class,
-				SOAPConstants.Q_ELEM_SOAP_MODULE, SOAPModuleImpl.class);
+				SOAPConstants.Q_ELEM_SOAP_MODULE, SOAPModuleImpl.class, SOAP_MODULE);
 
 		registerDeserializer(BindingMessageReferenceElement.class,
 				SOAPConstants.Q_ELEM_SOAP_MODULE, soapModuleDeser);
 		registerExtElementType(BindingMessageReferenceElement.class,
-				SOAPConstants.Q_ELEM_SOAP_MODULE, SOAPModuleImpl.class);
+				SOAPConstants.Q_ELEM_SOAP_MODULE, SOAPModuleImpl.class, SOAP_MODULE);
 
 		registerDeserializer(BindingFaultReferenceElement.class,
 				SOAPConstants.Q_ELEM_SOAP_MODULE, soapModuleDeser);
 		registerExtElementType(BindingFaultReferenceElement.class,
-				SOAPConstants.Q_ELEM_SOAP_MODULE, SOAPModuleImpl.class);
+				SOAPConstants.Q_ELEM_SOAP_MODULE, SOAPModuleImpl.class, SOAP_MODULE);
 
 		// ------------ SOAPHeaderBlock extension elements ------------
 
@@ -174,7 +319,7 @@ public class PopulatedExtensionRegistry extends ExtensionRegistry {
 		registerDeserializer(BindingFaultElement.class,
 				SOAPConstants.Q_ELEM_SOAP_HEADER, soapHeaderBlockDeser);
 		registerExtElementType(BindingFaultElement.class,
-				SOAPConstants.Q_ELEM_SOAP_HEADER, SOAPHeaderBlockImpl.class);
+				SOAPConstants.Q_ELEM_SOAP_HEADER, SOAPHeaderBlockImpl.class, SOAP_HEADER_BLOCK);
 
 		// registerSerializer(BindingMessageReferenceElement.class,
 		// SOAPConstants.Q_ELEM_SOAP_HEADER,
@@ -182,87 +327,87 @@ public class PopulatedExtensionRegistry extends ExtensionRegistry {
 		registerDeserializer(BindingMessageReferenceElement.class,
 				SOAPConstants.Q_ELEM_SOAP_HEADER, soapHeaderBlockDeser);
 		registerExtElementType(BindingMessageReferenceElement.class,
-				SOAPConstants.Q_ELEM_SOAP_HEADER, SOAPHeaderBlockImpl.class);
+				SOAPConstants.Q_ELEM_SOAP_HEADER, SOAPHeaderBlockImpl.class, SOAP_HEADER_BLOCK);
 
 		// ------------ SOAP Component Extensions ------------
 
 		registerComponentExtension(Binding.class,
 				ComponentExtensions.URI_NS_SOAP,
-				SOAPBindingExtensionsImpl.class);
+				SOAPBindingExtensionsImpl.class, SOAP_BINDING_EXTENSIONS);
 
 		registerComponentExtension(BindingFault.class,
 				ComponentExtensions.URI_NS_SOAP,
-				SOAPBindingFaultExtensionsImpl.class);
+				SOAPBindingFaultExtensionsImpl.class, SOAP_BINDING_FAULT_EXTENSIONS);
 
 		registerComponentExtension(BindingOperation.class,
 				ComponentExtensions.URI_NS_SOAP,
-				SOAPBindingOperationExtensionsImpl.class);
+				SOAPBindingOperationExtensionsImpl.class, SOAP_BINDING_OPERATION_EXTENSIONS);
 
 		registerComponentExtension(BindingMessageReference.class,
 				ComponentExtensions.URI_NS_SOAP,
-				SOAPBindingMessageReferenceExtensionsImpl.class);
+				SOAPBindingMessageReferenceExtensionsImpl.class, SOAP_BINDING_MESSAGE_REFERENCE_EXTENSIONS);
 
 		registerComponentExtension(BindingFaultReference.class,
 				ComponentExtensions.URI_NS_SOAP,
-				SOAPBindingFaultReferenceExtensionsImpl.class);
+				SOAPBindingFaultReferenceExtensionsImpl.class, SOAP_BINDING_FAULT_REFERENCE_EXTENSIONS);
 
 		// ------------ HTTP extension attributes ------------
 
 		registerExtAttributeType(BindingElement.class,
-				HTTPConstants.Q_ATTR_METHOD_DEFAULT, StringAttrImpl.class);
+				HTTPConstants.Q_ATTR_METHOD_DEFAULT, StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingElement.class,
 				HTTPConstants.Q_ATTR_QUERY_PARAMETER_SEPARATOR_DEFAULT,
-				StringAttrImpl.class);
+				StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingElement.class,
-				HTTPConstants.Q_ATTR_COOKIES, BooleanAttrImpl.class);
+				HTTPConstants.Q_ATTR_COOKIES, BooleanAttrImpl.class, BOOLEAN_ATTR);
 
 		registerExtAttributeType(BindingElement.class,
 				HTTPConstants.Q_ATTR_TRANSFER_CODING_DEFAULT,
-				StringAttrImpl.class);
+				StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingFaultElement.class,
-				HTTPConstants.Q_ATTR_CODE, IntOrTokenAnyAttrImpl.class);
+				HTTPConstants.Q_ATTR_CODE, IntOrTokenAnyAttrImpl.class, INT_OR_TOKEN_ANY_ATTR);
 
 		registerExtAttributeType(BindingFaultElement.class,
-				HTTPConstants.Q_ATTR_TRANSFER_CODING, StringAttrImpl.class);
+				HTTPConstants.Q_ATTR_TRANSFER_CODING, StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingOperationElement.class,
-				HTTPConstants.Q_ATTR_LOCATION, URIAttrImpl.class);
+				HTTPConstants.Q_ATTR_LOCATION, URIAttrImpl.class, URI_ATTR);
 
 		registerExtAttributeType(BindingOperationElement.class,
-				HTTPConstants.Q_ATTR_IGNORE_UNCITED, BooleanAttrImpl.class);
+				HTTPConstants.Q_ATTR_IGNORE_UNCITED, BooleanAttrImpl.class, BOOLEAN_ATTR);
 
 		registerExtAttributeType(BindingOperationElement.class,
-				HTTPConstants.Q_ATTR_METHOD, StringAttrImpl.class);
+				HTTPConstants.Q_ATTR_METHOD, StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingOperationElement.class,
-				HTTPConstants.Q_ATTR_INPUT_SERIALIZATION, StringAttrImpl.class);
+				HTTPConstants.Q_ATTR_INPUT_SERIALIZATION, StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingOperationElement.class,
-				HTTPConstants.Q_ATTR_OUTPUT_SERIALIZATION, StringAttrImpl.class);
+				HTTPConstants.Q_ATTR_OUTPUT_SERIALIZATION, StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingOperationElement.class,
-				HTTPConstants.Q_ATTR_FAULT_SERIALIZATION, StringAttrImpl.class);
+				HTTPConstants.Q_ATTR_FAULT_SERIALIZATION, StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingOperationElement.class,
 				HTTPConstants.Q_ATTR_QUERY_PARAMETER_SEPARATOR,
-				StringAttrImpl.class);
+				StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingOperationElement.class,
 				HTTPConstants.Q_ATTR_TRANSFER_CODING_DEFAULT,
-				StringAttrImpl.class);
+				StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(BindingMessageReferenceElement.class,
-				HTTPConstants.Q_ATTR_TRANSFER_CODING, StringAttrImpl.class);
+				HTTPConstants.Q_ATTR_TRANSFER_CODING, StringAttrImpl.class, STRING_ATTR);
 
 		registerExtAttributeType(EndpointElement.class,
 				HTTPConstants.Q_ATTR_AUTHENTICATION_TYPE,
-				HTTPAuthenicationSchemeAttrImpl.class);
+				HTTPAuthenicationSchemeAttrImpl.class, HTTP_AUTHENTICATION_SCHEME_ATTR);
 
 		registerExtAttributeType(EndpointElement.class,
-				HTTPConstants.Q_ATTR_AUTHENTICATION_REALM, StringAttrImpl.class);
+				HTTPConstants.Q_ATTR_AUTHENTICATION_REALM, StringAttrImpl.class, STRING_ATTR);
 
 		// ------------ HTTPHeader extension elements ------------
 
@@ -274,7 +419,7 @@ public class PopulatedExtensionRegistry extends ExtensionRegistry {
 		registerDeserializer(BindingFaultElement.class,
 				HTTPConstants.Q_ELEM_HTTP_HEADER, httpHeaderDeser);
 		registerExtElementType(BindingFaultElement.class,
-				HTTPConstants.Q_ELEM_HTTP_HEADER, HTTPHeaderImpl.class);
+				HTTPConstants.Q_ELEM_HTTP_HEADER, HTTPHeaderImpl.class, HTTP_HEADER);
 
         // registerSerializer(BindingMessageReferenceElement.class,
         // HTTPConstants.Q_ELEM_HTTP_HEADER,
@@ -282,29 +427,29 @@ public class PopulatedExtensionRegistry extends ExtensionRegistry {
         registerDeserializer(BindingMessageReferenceElement.class,
                 HTTPConstants.Q_ELEM_HTTP_HEADER, httpHeaderDeser);
         registerExtElementType(BindingMessageReferenceElement.class,
-                HTTPConstants.Q_ELEM_HTTP_HEADER, HTTPHeaderImpl.class);
+                HTTPConstants.Q_ELEM_HTTP_HEADER, HTTPHeaderImpl.class, HTTP_HEADER);
 
 		// ------------ HTTP Component Extensions ------------
 
 		registerComponentExtension(Binding.class,
 				ComponentExtensions.URI_NS_HTTP,
-				HTTPBindingExtensionsImpl.class);
+				HTTPBindingExtensionsImpl.class, HTTP_BINDING_EXTENSIONS);
 
 		registerComponentExtension(BindingFault.class,
 				ComponentExtensions.URI_NS_HTTP,
-				HTTPBindingFaultExtensionsImpl.class);
+				HTTPBindingFaultExtensionsImpl.class, HTTP_BINDING_FAULT_EXTENSIONS);
 
 		registerComponentExtension(BindingOperation.class,
 				ComponentExtensions.URI_NS_HTTP,
-				HTTPBindingOperationExtensionsImpl.class);
+				HTTPBindingOperationExtensionsImpl.class, HTTP_BINDING_OPERATION_EXTENSIONS);
 
 		registerComponentExtension(BindingMessageReference.class,
 				ComponentExtensions.URI_NS_HTTP,
-				HTTPBindingMessageReferenceExtensionsImpl.class);
+				HTTPBindingMessageReferenceExtensionsImpl.class, HTTP_BINDING_MESSAGE_REFERENCE_EXTENSIONS);
 
 		registerComponentExtension(Endpoint.class,
 				ComponentExtensions.URI_NS_HTTP,
-				HTTPEndpointExtensionsImpl.class);
+				HTTPEndpointExtensionsImpl.class, HTTP_ENDPOINT_EXTENSIONS);
 
 	}
 }
\ No newline at end of file
@@ -32,11 +32,17 @@ public class HTTPBindingExtensionsImpl extends ComponentExtensionsImpl
                                        implements HTTPBindingExtensions 
 {
 
+    private String fHttpMethodDefault = null;
+    private String fHttpQueryParameterSeparatorDefault = null;
+    private Boolean fHttpCookies = null;
+    private String fHttpTransferCodingDefault = null;
+
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.extensions.http.HTTPBindingExtensions#getHttpMethodDefault()
      */
     public String getHttpMethodDefault() 
     {
+        if(isResolved()) return fHttpMethodDefault;
         StringAttr methodDef = (StringAttr) ((WSDLElement)fParent)
             .getExtensionAttribute(HTTPConstants.Q_ATTR_METHOD_DEFAULT);
         return methodDef != null ? methodDef.getString() : null;
@@ -47,6 +53,7 @@ public class HTTPBindingExtensionsImpl extends ComponentExtensionsImpl
      */
     public String getHttpQueryParameterSeparatorDefault() 
     {
+        if(isResolved()) return fHttpQueryParameterSeparatorDefault;
         //TODO monitor ws-desc proposal 19May06 on changing handling of defaults in spec Part 2
         StringAttr qpsDef = (StringAttr) ((WSDLElement)fParent)
             .getExtensionAttribute(HTTPConstants.Q_ATTR_QUERY_PARAMETER_SEPARATOR_DEFAULT);
@@ -58,6 +65,7 @@ public class HTTPBindingExtensionsImpl extends ComponentExtensionsImpl
      */
     public Boolean isHttpCookies() 
     {
+        if(isResolved()) return fHttpCookies;
         BooleanAttr cookiesUsed = (BooleanAttr) ((WSDLElement)fParent)
             .getExtensionAttribute(HTTPConstants.Q_ATTR_COOKIES);
         return cookiesUsed != null ? cookiesUsed.getBoolean() : new Boolean(false); //defaults to false if omitted
@@ -68,9 +76,25 @@ public class HTTPBindingExtensionsImpl extends ComponentExtensionsImpl
      */
     public String getHttpTransferCodingDefault() 
     {
+        if(isResolved()) return fHttpTransferCodingDefault;
         StringAttr tcDef = (StringAttr) ((WSDLElement)fParent)
             .getExtensionAttribute(HTTPConstants.Q_ATTR_TRANSFER_CODING_DEFAULT);
         return tcDef != null ? tcDef.getString() : null;
     }
 
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl#storeProperties()
+     */
+    protected void storeProperties()
+    {
+        fHttpMethodDefault = getHttpMethodDefault();
+        fHttpQueryParameterSeparatorDefault = getHttpQueryParameterSeparatorDefault();
+        fHttpCookies = isHttpCookies();
+        fHttpTransferCodingDefault = getHttpTransferCodingDefault();
+    }
+
 }
@@ -35,11 +35,16 @@ public class HTTPBindingFaultExtensionsImpl extends ComponentExtensionsImpl
                                             implements HTTPBindingFaultExtensions 
 {
 
+    private HTTPErrorStatusCode fHttpErrorStatusCode = null;
+    private String fHttpTransferCoding = null;
+    private HTTPHeader[] fHttpHeaders = null;
+
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.extensions.http.HTTPBindingFaultExtensions#getHttpErrorStatusCode()
      */
     public HTTPErrorStatusCode getHttpErrorStatusCode() 
     {
+        if(isResolved()) return fHttpErrorStatusCode;
         /* IntOrTokenAnyAttrImpl is the class registered for this extension attribute. Use this type 
          * here, rather than the IntOrTokenAttr interface, to guarantee that if the code contains an 
          * xs:token it is of type #any.
@@ -75,6 +80,7 @@ public class HTTPBindingFaultExtensionsImpl extends ComponentExtensionsImpl
      */
     public String getHttpTransferCoding() 
     {
+        if(isResolved()) return fHttpTransferCoding;
         StringAttr tfrCoding = (StringAttr) ((WSDLElement)fParent)
             .getExtensionAttribute(HTTPConstants.Q_ATTR_TRANSFER_CODING);
         if(tfrCoding != null) {
@@ -105,6 +111,7 @@ public class HTTPBindingFaultExtensionsImpl extends ComponentExtensionsImpl
      */
     public HTTPHeader[] getHttpHeaders() 
     {
+        if(isResolved()) return fHttpHeaders.clone();
         ExtensionElement[] extEls =  ((WSDLElement)fParent)
             .getExtensionElementsOfType(HTTPConstants.Q_ELEM_HTTP_HEADER);
         int len = extEls.length;
@@ -113,4 +120,18 @@ public class HTTPBindingFaultExtensionsImpl extends ComponentExtensionsImpl
         return httpHeaders;
     }
 
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl#storeProperties()
+     */
+    protected void storeProperties()
+    {
+        fHttpErrorStatusCode = getHttpErrorStatusCode();
+        fHttpTransferCoding = getHttpTransferCoding();
+        fHttpHeaders = getHttpHeaders();
+    }
+
 }
@@ -36,16 +36,27 @@ public class HTTPBindingMessageReferenceExtensionsImpl extends ComponentExtensio
                                           implements HTTPBindingMessageReferenceExtensions 
 {
 
+    private String fHttpTransferCoding = null;
+    private HTTPHeader[] fHttpHeaders = null;
+
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.extensions.http.HTTPBindingMessageReferenceExtensions#getHttpTransferCoding()
      * 
      */
     public String getHttpTransferCoding() 
     {
-        StringAttr tfrCoding = (StringAttr) ((WSDLElement)fParent)
-            .getExtensionAttribute(HTTPConstants.Q_ATTR_TRANSFER_CODING);
-        if(tfrCoding != null) {
-            return tfrCoding.getString();
+        //Only the whttp:transferCoding attribute is stored, as the default is
+        //taken from the binding operation.
+        if(isResolved()) {
+            if(fHttpTransferCoding != null) {
+                return fHttpTransferCoding;
+            }
+        } else {
+            StringAttr tfrCoding = (StringAttr) ((WSDLElement)fParent)
+                .getExtensionAttribute(HTTPConstants.Q_ATTR_TRANSFER_CODING);
+            if(tfrCoding != null) {
+                return tfrCoding.getString();
+            }
         }
         
         //Part 2, 6.8.2 Relationship to WSDL Component Model, default to
@@ -66,6 +77,7 @@ public class HTTPBindingMessageReferenceExtensionsImpl extends ComponentExtensio
      */
     public HTTPHeader[] getHttpHeaders() 
     {
+        if(isResolved()) return fHttpHeaders.clone();
         ExtensionElement[] extEls =  ((WSDLElement)fParent)
             .getExtensionElementsOfType(HTTPConstants.Q_ELEM_HTTP_HEADER);
         int len = extEls.length;
@@ -74,4 +86,19 @@ public class HTTPBindingMessageReferenceExtensionsImpl extends ComponentExtensio
         return httpHeaders;
     }
 
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl#storeProperties()
+     */
+    protected void storeProperties()
+    {
+        StringAttr tfrCoding = (StringAttr) ((WSDLElement)fParent)
+            .getExtensionAttribute(HTTPConstants.Q_ATTR_TRANSFER_CODING);
+        fHttpTransferCoding = tfrCoding != null ? tfrCoding.getString() : null;
+        fHttpHeaders = getHttpHeaders();
+    }
+
 }
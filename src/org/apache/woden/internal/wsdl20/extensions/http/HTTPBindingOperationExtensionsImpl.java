@@ -41,17 +41,40 @@ import org.apache.woden.xml.URIAttr;
  */
 public class HTTPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
 		implements HTTPBindingOperationExtensions {
+
+	private URI fHttpLocation = null;
+	private Boolean fHttpLocationIgnoreUncited = null;
+	private String fHttpMethod = null;
+	private String fHttpInputSerialization = null;
+	private String fHttpOutputSerialization = null;
+	private String fHttpFaultSerialization = null;
+	private String fHttpQueryParameterSeparator = null;
+	private String fHttpTransferCodingDefault = null;
+
 	/*
 	 * (non-Javadoc)
 	 * 
 	 * @see org.apache.woden.wsdl20.extensions.http.HTTPBindingOperationExtensions#getHttpLocation()
 	 */
 	public URI getHttpLocation() {
+		if (isResolved())
+			return fHttpLocation;
 		URIAttr httpLoc = (URIAttr) ((WSDLElement) fParent)
 				.getExtensionAttribute(HTTPConstants.Q_ATTR_LOCATION);
 		return httpLoc != null ? httpLoc.getURI() : null;
 	}
 
+	/*
+	 * Returns the whttp:location attribute as written, or null if absent.
+	 * Used by HTTPLocationRouter, as a template containing {field} references
+	 * is not a valid URI, so getHttpLocation() returns null for it.
+	 */
+	String getHttpLocationTemplate() {
+		URIAttr httpLoc = (URIAttr) ((WSDLElement) fParent)
+				.getExtensionAttribute(HTTPConstants.Q_ATTR_LOCATION);
+		return httpLoc != null ? httpLoc.toExternalForm() : null;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -61,6 +84,8 @@ public class HTTPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
 	 * if present. Otherwise, "false".
 	 */
 	public Boolean isHttpLocationIgnoreUncited() {
+		if (isResolved())
+			return fHttpLocationIgnoreUncited;
 
 		BooleanAttr ignoreUncited = (BooleanAttr) ((WSDLElement) fParent)
 				.getExtensionAttribute(HTTPConstants.Q_ATTR_IGNORE_UNCITED);
@@ -86,6 +111,8 @@ public class HTTPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
      * 4. Otherwise, return "POST"
 	 */
 	public String getHttpMethod() {
+		if (isResolved())
+			return fHttpMethod;
 
 		// 1. try whttp:method
 		StringAttr methodAttr = (StringAttr) ((WSDLElement) fParent)
@@ -145,15 +172,22 @@ public class HTTPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
      * any other value.
 	 */
 	public String getHttpInputSerialization() {
-        
-		StringAttr serialization = (StringAttr) ((WSDLElement) fParent)
-				.getExtensionAttribute(HTTPConstants.Q_ATTR_INPUT_SERIALIZATION);
-		if (serialization != null) {
-			return serialization.getString();
+		// Only the whttp:inputSerialization attribute is stored, as the default
+		// depends on the binding and on the {safety} of the interface operation.
+		String inputSerialization = null;
+		if (isResolved()) {
+			inputSerialization = fHttpInputSerialization;
+		} else {
+			StringAttr serialization = (StringAttr) ((WSDLElement) fParent)
+					.getExtensionAttribute(HTTPConstants.Q_ATTR_INPUT_SERIALIZATION);
+			if (serialization != null)
+				inputSerialization = serialization.getString();
 		}
-
-        //TODO replace determineHttpMethod() with getHttpMethod() if spec is
-        //modified to define {http method} defaults in the component model
+		if (inputSerialization != null)
+			return inputSerialization;
+        
+		//TODO replace determineHttpMethod() with getHttpMethod() if spec is
+		//modified to define {http method} defaults in the component model
 		String method = determineHttpMethod();
         
 		if (method.equals(HTTPConstants.METHOD_GET)
@@ -175,6 +209,8 @@ public class HTTPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
      * value.
 	 */
 	public String getHttpOutputSerialization() {
+		if (isResolved())
+			return fHttpOutputSerialization;
 		StringAttr serialization = (StringAttr) ((WSDLElement) fParent)
 				.getExtensionAttribute(HTTPConstants.Q_ATTR_OUTPUT_SERIALIZATION);
 		return serialization != null ? serialization.getString()
@@ -189,6 +225,8 @@ public class HTTPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
      * Per Part 2, sect 6.4.5, if attribute omitted default to application/xml.
 	 */
 	public String getHttpFaultSerialization() {
+		if (isResolved())
+			return fHttpFaultSerialization;
 		StringAttr serialization = (StringAttr) ((WSDLElement) fParent)
 				.getExtensionAttribute(HTTPConstants.Q_ATTR_FAULT_SERIALIZATION);
 		return serialization != null ? serialization.getString()
@@ -201,6 +239,8 @@ public class HTTPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
 	 * @see org.apache.woden.wsdl20.extensions.http.HTTPBindingOperationExtensions#getHttpQueryParameterSeparator()
 	 */
 	public String getHttpQueryParameterSeparator() {
+		if (isResolved())
+			return fHttpQueryParameterSeparator;
         
 		StringAttr separator = (StringAttr) ((WSDLElement) fParent)
 				.getExtensionAttribute(HTTPConstants.Q_ATTR_QUERY_PARAMETER_SEPARATOR);
@@ -213,6 +253,8 @@ public class HTTPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
 	 * @see org.apache.woden.wsdl20.extensions.http.HTTPBindingOperationExtensions#getHttpTransferCodingDefault()
 	 */
 	public String getHttpTransferCodingDefault() {
+		if (isResolved())
+			return fHttpTransferCodingDefault;
 		StringAttr tfrCodingDef = (StringAttr) ((WSDLElement) fParent)
 				.getExtensionAttribute(HTTPConstants.Q_ATTR_TRANSFER_CODING_DEFAULT);
 		return tfrCodingDef != null ? tfrCodingDef.getString() : null;
@@ -224,23 +266,18 @@ public class HTTPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
      * serialization in the component model extensions (i.e. 6.3.3 refers
      * to 6.3.1). If spec is changed to define this default behaviour directly
      * for the {http method} property, this behaviour will move to the 
-     * getHttpMethod() method and this private method can be removed.
+     * getHttpMethod() method and this method can be removed. It is also
+     * used by HTTPLocationRouter and by SOAPDispatchIndex, to default the
+     * {soap mep} of the SOAP HTTP binding, so it is a non-API public method.
      */
-    private String determineHttpMethod() {
+    public String determineHttpMethod() {
         
         // 1. try whttp:method
         String method = getHttpMethod();
         if(method != null) return method;
         
         // 2. try whttp:methodDefault
-        Binding binding = (Binding) ((BindingOperation) fParent).getParent();
-        
-        HTTPBindingExtensions httpBindExts = (HTTPBindingExtensions) binding
-                .getComponentExtensionsForNamespace(HTTPConstants.NS_URI_HTTP);
-        
-        // no need to check for a null httpBindExts because Binding has REQUIRED
-        // http extension properties
-        String methodDef = httpBindExts.getHttpMethodDefault();
+        String methodDef = determineHttpMethodDefault();
         if (methodDef != null) return methodDef;
                
         // 3. try {safety} equals True
@@ -258,5 +295,37 @@ public class HTTPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
         // 4. default to POST.
         return HTTPConstants.METHOD_POST;
     }
+    
+    /*
+     * Returns the {http method default} of the parent binding, or null.
+     */
+    private String determineHttpMethodDefault() {
+        Binding binding = (Binding) ((BindingOperation) fParent).getParent();
+        
+        HTTPBindingExtensions httpBindExts = (HTTPBindingExtensions) binding
+                .getComponentExtensionsForNamespace(HTTPConstants.NS_URI_HTTP);
+        
+        // httpBindExts is null if the binding is not an HTTP binding, such as
+        // a SOAP binding using whttp:location
+        return httpBindExts != null ? httpBindExts.getHttpMethodDefault() : null;
+    }
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl#storeProperties()
+	 */
+	protected void storeProperties() {
+		fHttpLocation = getHttpLocation();
+		fHttpLocationIgnoreUncited = isHttpLocationIgnoreUncited();
+		fHttpMethod = getHttpMethod();
+		fHttpOutputSerialization = getHttpOutputSerialization();
+		fHttpFaultSerialization = getHttpFaultSerialization();
+		fHttpQueryParameterSeparator = getHttpQueryParameterSeparator();
+		fHttpTransferCodingDefault = getHttpTransferCodingDefault();
+		StringAttr serialization = (StringAttr) ((WSDLElement) fParent)
+				.getExtensionAttribute(HTTPConstants.Q_ATTR_INPUT_SERIALIZATION);
+		fHttpInputSerialization = serialization != null ? serialization.getString() : null;
+	}
 
 }
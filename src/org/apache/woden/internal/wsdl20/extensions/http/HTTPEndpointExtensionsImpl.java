@@ -33,12 +33,17 @@ import org.apache.woden.xml.StringAttr;
 public class HTTPEndpointExtensionsImpl extends ComponentExtensionsImpl
 		implements HTTPEndpointExtensions {
 
+	private HTTPAuthenticationScheme fHttpAuthenticationScheme = null;
+	private String fHttpAuthenticationRealm = null;
+
 	/*
 	 * (non-Javadoc)
 	 * 
 	 * @see org.apache.woden.wsdl20.extensions.http.HTTPEndpointExtensions#getHttpAuthenicationScheme()
 	 */
 	public HTTPAuthenticationScheme getHttpAuthenicationScheme() {
+		if (isResolved())
+			return fHttpAuthenticationScheme;
 
 		HTTPAuthenticationSchemeAttr scheme = (HTTPAuthenticationSchemeAttr) ((WSDLElement) fParent)
 				.getExtensionAttribute(HTTPConstants.Q_ATTR_AUTHENTICATION_TYPE);
@@ -52,6 +57,8 @@ public class HTTPEndpointExtensionsImpl extends ComponentExtensionsImpl
 	 * @see org.apache.woden.wsdl20.extensions.http.HTTPEndpointExtensions#getHttpAuthenticationRealm()
 	 */
 	public String getHttpAuthenticationRealm() {
+		if (isResolved())
+			return fHttpAuthenticationRealm;
 
 		StringAttr realm = (StringAttr) ((WSDLElement) fParent)
 				.getExtensionAttribute(HTTPConstants.Q_ATTR_AUTHENTICATION_REALM);
@@ -59,4 +66,14 @@ public class HTTPEndpointExtensionsImpl extends ComponentExtensionsImpl
 		return realm != null ? realm.getString() : null;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl#storeProperties()
+	 */
+	protected void storeProperties() {
+		fHttpAuthenticationScheme = getHttpAuthenicationScheme();
+		fHttpAuthenticationRealm = getHttpAuthenticationRealm();
+	}
+
 }
@@ -0,0 +1,684 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.extensions.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.woden.wsdl20.Binding;
+import org.apache.woden.wsdl20.BindingOperation;
+import org.apache.woden.wsdl20.extensions.http.HTTPBindingExtensions;
+
+/**
+ * Routes HTTP requests to the operations of an HTTP binding by their 
+ * method and location, using the {http location} templates of the 
+ * binding operations.
+ * <p>
+ * The templates are compiled once into a trie of path segments. A segment 
+ * without field references is matched by a hash lookup, so a request is 
+ * routed in a single pass over its path, extracting the values of the 
+ * fields as it goes. Segments that are literal take precedence over 
+ * segments with field references, and among those, segments with more 
+ * literal text take precedence.
+ * <p>
+ * The method of an operation is its {http method}, or the default worked 
+ * out from the whttp:methodDefault of the binding and the {safety} of the 
+ * interface operation, as for its serialization. The query part of a 
+ * template, and the query of a request, are split into parameters at the 
+ * {http query parameter separator} of the operation, or the default of the 
+ * binding. A request must have every parameter cited in the query part of 
+ * the template. Parameters it has in addition are returned as field values
+ * unless {http location ignore uncited} is true, in which case they are 
+ * ignored.
+ * <p>
+ * Field values are percent-decoded as UTF-8, except for those of fields
+ * referred to as {!field}. A field matches part of a single path segment, 
+ * up to the literal text that follows it in the template. When two 
+ * templates match a request, the one with more query parameters, or else
+ * the one of the first binding operation, is chosen.
+ * <p>
+ * The router is not modified once built, so it can be shared by any number 
+ * of threads.
+ */
+public class HTTPLocationRouter {
+    
+    private final Node fRoot = new Node();
+    
+    /**
+     * Compiles the {http location} templates of the operations of the binding.
+     * 
+     * @param binding an HTTP binding.
+     */
+    public HTTPLocationRouter(Binding binding)
+    {
+        HTTPBindingExtensions bindingExts = (HTTPBindingExtensions)
+            binding.getComponentExtensionsForNamespace(HTTPConstants.NS_URI_HTTP);
+        String separatorDefault = bindingExts != null 
+            ? bindingExts.getHttpQueryParameterSeparatorDefault() 
+            : HTTPConstants.QUERY_SEP_AMPERSAND;
+        
+        BindingOperation[] bindOpers = binding.getBindingOperations();
+        for(int i = 0; i < bindOpers.length; i++)
+        {
+            Object operExts = bindOpers[i].getComponentExtensionsForNamespace(
+                    HTTPConstants.NS_URI_HTTP);
+            if(!(operExts instanceof HTTPBindingOperationExtensionsImpl))
+            {
+                continue;
+            }
+            HTTPBindingOperationExtensionsImpl httpOperExts = 
+                (HTTPBindingOperationExtensionsImpl)operExts;
+            
+            String template = httpOperExts.getHttpLocationTemplate();
+            String separator = httpOperExts.getHttpQueryParameterSeparator();
+            addRoute(new Route(bindOpers[i], 
+                               httpOperExts.determineHttpMethod(),
+                               separator != null ? separator : separatorDefault,
+                               Boolean.TRUE.equals(httpOperExts.isHttpLocationIgnoreUncited())),
+                     template != null ? template : "");
+        }
+    }
+    
+    /**
+     * Returns the operation for an HTTP request, with the values of the
+     * fields of its template, or null if no operation matches the request.
+     * 
+     * @param method the HTTP method of the request.
+     * @param location the location of the request relative to the endpoint 
+     * address, with its query if any.
+     */
+    public Match route(String method, String location)
+    {
+        int queryStart = location.indexOf('?');
+        String path = queryStart == -1 ? location : location.substring(0, queryStart);
+        String query = queryStart == -1 ? null : location.substring(queryStart + 1);
+        
+        return match(fRoot, split(stripSlash(path), '/'), 0, method, query, new Values());
+    }
+    
+    private void addRoute(Route route, String template)
+    {
+        int queryStart = indexOfQuery(template);
+        String path = queryStart == -1 ? template : template.substring(0, queryStart);
+        if(queryStart != -1)
+        {
+            route.setQuery(template.substring(queryStart + 1));
+        }
+        
+        Node node = fRoot;
+        String[] segments = split(stripSlash(path), '/');
+        for(int i = 0; i < segments.length; i++)
+        {
+            Token[] tokens = parseTokens(segments[i]);
+            if(tokens.length == 0 || (tokens.length == 1 && tokens[0].fField == null))
+            {
+                String literal = tokens.length == 0 ? "" : tokens[0].fLiteral;
+                Node child = (Node)node.fLiterals.get(literal);
+                if(child == null)
+                {
+                    child = new Node();
+                    node.fLiterals.put(literal, child);
+                }
+                node = child;
+            }
+            else
+            {
+                node = node.getPatternChild(segments[i], tokens);
+            }
+        }
+        node.addRoute(route);
+    }
+    
+    private static Match match(Node node, String[] segments, int index, 
+                               String method, String query, Values values)
+    {
+        if(index == segments.length)
+        {
+            List routes = (List)node.fRoutes.get(method);
+            for(int i = 0; routes != null && i < routes.size(); i++)
+            {
+                Route route = (Route)routes.get(i);
+                int mark = values.size();
+                if(route.matchQuery(query, values))
+                {
+                    return new Match(route.fBindingOperation, values);
+                }
+                values.truncate(mark);
+            }
+            return null;
+        }
+        
+        Node child = (Node)node.fLiterals.get(segments[index]);
+        if(child != null)
+        {
+            Match match = match(child, segments, index + 1, method, query, values);
+            if(match != null)
+            {
+                return match;
+            }
+        }
+        
+        for(int i = 0; i < node.fPatterns.size(); i++)
+        {
+            Pattern pattern = (Pattern)node.fPatterns.get(i);
+            int mark = values.size();
+            if(matchTokens(pattern.fTokens, segments[index], false, values))
+            {
+                Match match = match(pattern.fNode, segments, index + 1, method, query, values);
+                if(match != null)
+                {
+                    return match;
+                }
+            }
+            values.truncate(mark);
+        }
+        return null;
+    }
+    
+    /*
+     * Matches the text against the tokens, adding the values of the fields.
+     * Returns false if they do not match, leaving any values added.
+     */
+    private static boolean matchTokens(Token[] tokens, String text, boolean isQuery, Values values)
+    {
+        int pos = 0;
+        for(int i = 0; i < tokens.length; i++)
+        {
+            Token token = tokens[i];
+            if(token.fField == null)
+            {
+                if(!text.startsWith(token.fLiteral, pos))
+                {
+                    return false;
+                }
+                pos += token.fLiteral.length();
+                continue;
+            }
+            
+            int end;
+            if(i + 1 == tokens.length)
+            {
+                end = text.length();
+            }
+            else if(tokens[i + 1].fField == null)
+            {
+                end = text.indexOf(tokens[i + 1].fLiteral, pos);
+                if(end == -1)
+                {
+                    return false;
+                }
+            }
+            else
+            {
+                //adjacent fields cannot be told apart, so the first is empty
+                end = pos;
+            }
+            
+            String value = text.substring(pos, end);
+            if(!token.fRaw)
+            {
+                value = decode(value, isQuery);
+                if(value == null)
+                {
+                    return false;
+                }
+            }
+            values.add(token.fField, value);
+            pos = end;
+        }
+        return pos == text.length();
+    }
+    
+    /*
+     * Parses template text into literal and field tokens. "{{" and "}}" 
+     * stand for literal braces.
+     */
+    private static Token[] parseTokens(String text)
+    {
+        List tokens = new ArrayList();
+        StringBuffer literal = new StringBuffer();
+        int i = 0;
+        while(i < text.length())
+        {
+            char c = text.charAt(i);
+            if((c == '{' || c == '}') && i + 1 < text.length() && text.charAt(i + 1) == c)
+            {
+                literal.append(c);
+                i += 2;
+            }
+            else if(c == '{' && text.indexOf('}', i) != -1)
+            {
+                if(literal.length() > 0)
+                {
+                    tokens.add(new Token(literal.toString(), null, false));
+                    literal.setLength(0);
+                }
+                int end = text.indexOf('}', i);
+                String field = text.substring(i + 1, end);
+                boolean raw = field.startsWith("!");
+                tokens.add(new Token(null, raw ? field.substring(1) : field, raw));
+                i = end + 1;
+            }
+            else
+            {
+                literal.append(c);
+                i++;
+            }
+        }
+        if(literal.length() > 0)
+        {
+            tokens.add(new Token(literal.toString(), null, false));
+        }
+        return (Token[])tokens.toArray(new Token[tokens.size()]);
+    }
+    
+    /*
+     * Returns the index of the '?' starting the query part of a template,
+     * ignoring any within a field reference, or -1 if there is none.
+     */
+    private static int indexOfQuery(String template)
+    {
+        boolean inField = false;
+        for(int i = 0; i < template.length(); i++)
+        {
+            char c = template.charAt(i);
+            boolean doubled = i + 1 < template.length() && template.charAt(i + 1) == c;
+            if(!inField && (c == '{' || c == '}') && doubled)
+            {
+                i++;
+            }
+            else if(c == '{')
+            {
+                inField = true;
+            }
+            else if(c == '}')
+            {
+                inField = false;
+            }
+            else if(c == '?' && !inField)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static String stripSlash(String path)
+    {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+    
+    /*
+     * Splits the text at each occurrence of the separator, keeping empty parts.
+     */
+    private static String[] split(String text, char separator)
+    {
+        List parts = new ArrayList();
+        int start = 0;
+        int end;
+        while((end = text.indexOf(separator, start)) != -1)
+        {
+            parts.add(text.substring(start, end));
+            start = end + 1;
+        }
+        parts.add(text.substring(start));
+        return (String[])parts.toArray(new String[parts.size()]);
+    }
+    
+    private static String[] split(String text, String separator)
+    {
+        if(separator.length() == 1)
+        {
+            return split(text, separator.charAt(0));
+        }
+        List parts = new ArrayList();
+        int start = 0;
+        int end;
+        while((end = text.indexOf(separator, start)) != -1)
+        {
+            parts.add(text.substring(start, end));
+            start = end + separator.length();
+        }
+        parts.add(text.substring(start));
+        return (String[])parts.toArray(new String[parts.size()]);
+    }
+    
+    /*
+     * Percent-decodes the text as UTF-8, and '+' as a space in a query.
+     * Returns null if the text is not correctly encoded.
+     */
+    private static String decode(String text, boolean isQuery)
+    {
+        if(text.indexOf('%') == -1 && (!isQuery || text.indexOf('+') == -1))
+        {
+            return text;
+        }
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(text.length());
+        StringBuffer result = new StringBuffer(text.length());
+        try
+        {
+            for(int i = 0; i < text.length(); i++)
+            {
+                char c = text.charAt(i);
+                if(c == '%')
+                {
+                    if(i + 2 >= text.length())
+                    {
+                        return null;
+                    }
+                    int high = Character.digit(text.charAt(i + 1), 16);
+                    int low = Character.digit(text.charAt(i + 2), 16);
+                    if(high == -1 || low == -1)
+                    {
+                        return null;
+                    }
+                    bytes.write((high << 4) + low);
+                    i += 2;
+                    continue;
+                }
+                if(bytes.size() > 0)
+                {
+                    result.append(bytes.toString("UTF-8"));
+                    bytes.reset();
+                }
+                result.append(isQuery && c == '+' ? ' ' : c);
+            }
+            if(bytes.size() > 0)
+            {
+                result.append(bytes.toString("UTF-8"));
+            }
+        }
+        catch(UnsupportedEncodingException e)
+        {
+            //UTF-8 must be supported by every Java platform
+            throw new IllegalStateException(e.getMessage());
+        }
+        return result.toString();
+    }
+    
+    /**
+     * The operation a request is routed to, with the values of the fields
+     * of its template.
+     */
+    public static final class Match
+    {
+        private final BindingOperation fBindingOperation;
+        private final String[] fNames;
+        private final String[] fValues;
+        
+        Match(BindingOperation bindOper, Values values)
+        {
+            fBindingOperation = bindOper;
+            fNames = new String[values.size()];
+            fValues = new String[values.size()];
+            System.arraycopy(values.fNames, 0, fNames, 0, fNames.length);
+            System.arraycopy(values.fValues, 0, fValues, 0, fValues.length);
+        }
+        
+        public BindingOperation getBindingOperation()
+        {
+            return fBindingOperation;
+        }
+        
+        /**
+         * Returns the names of the fields with values, in the order they 
+         * appear in the request.
+         */
+        public String[] getNames()
+        {
+            return fNames.clone();
+        }
+        
+        /**
+         * Returns the first value of the named field, or null if it has none.
+         */
+        public String getValue(String name)
+        {
+            for(int i = 0; i < fNames.length; i++)
+            {
+                if(fNames[i].equals(name))
+                {
+                    return fValues[i];
+                }
+            }
+            return null;
+        }
+    }
+    
+    /*
+     * A node of the trie, for the path segments leading to it.
+     */
+    private static final class Node
+    {
+        //literal segment to Node
+        private final Map fLiterals = new HashMap();
+        
+        //Patterns, for segments with field references
+        private final List fPatterns = new ArrayList();
+        
+        //HTTP method to the List of Routes whose path ends here
+        private final Map fRoutes = new HashMap();
+        
+        Node getPatternChild(String segment, Token[] tokens)
+        {
+            for(int i = 0; i < fPatterns.size(); i++)
+            {
+                Pattern pattern = (Pattern)fPatterns.get(i);
+                if(pattern.fSegment.equals(segment))
+                {
+                    return pattern.fNode;
+                }
+            }
+            //patterns with more literal text are tried first
+            Pattern pattern = new Pattern(segment, tokens);
+            int i = 0;
+            while(i < fPatterns.size() && 
+                  ((Pattern)fPatterns.get(i)).fLiteralLength >= pattern.fLiteralLength)
+            {
+                i++;
+            }
+            fPatterns.add(i, pattern);
+            return pattern.fNode;
+        }
+        
+        void addRoute(Route route)
+        {
+            List routes = (List)fRoutes.get(route.fMethod);
+            if(routes == null)
+            {
+                routes = new ArrayList();
+                fRoutes.put(route.fMethod, routes);
+            }
+            //routes with more query parameters are tried first
+            int i = 0;
+            while(i < routes.size() && 
+                  ((Route)routes.get(i)).fQueryNames.length >= route.fQueryNames.length)
+            {
+                i++;
+            }
+            routes.add(i, route);
+        }
+    }
+    
+    private static final class Pattern
+    {
+        private final String fSegment;
+        private final Token[] fTokens;
+        private final int fLiteralLength;
+        private final Node fNode = new Node();
+        
+        Pattern(String segment, Token[] tokens)
+        {
+            fSegment = segment;
+            fTokens = tokens;
+            int length = 0;
+            for(int i = 0; i < tokens.length; i++)
+            {
+                if(tokens[i].fField == null)
+                {
+                    length += tokens[i].fLiteral.length();
+                }
+            }
+            fLiteralLength = length;
+        }
+    }
+    
+    /*
+     * Literal text, or a reference to a field.
+     */
+    private static final class Token
+    {
+        private final String fLiteral;
+        private final String fField;
+        private final boolean fRaw;
+        
+        Token(String literal, String field, boolean raw)
+        {
+            fLiteral = literal;
+            fField = field;
+            fRaw = raw;
+        }
+    }
+    
+    private static final class Route
+    {
+        private final BindingOperation fBindingOperation;
+        private final String fMethod;
+        private final String fSeparator;
+        private final boolean fIgnoreUncited;
+        
+        //The parameters of the query part of the template
+        private String[] fQueryNames = new String[0];
+        private Token[][] fQueryValues = new Token[0][];
+        
+        Route(BindingOperation bindOper, String method, String separator, boolean ignoreUncited)
+        {
+            fBindingOperation = bindOper;
+            fMethod = method;
+            fSeparator = separator;
+            fIgnoreUncited = ignoreUncited;
+        }
+        
+        void setQuery(String query)
+        {
+            String[] params = split(query, fSeparator);
+            fQueryNames = new String[params.length];
+            fQueryValues = new Token[params.length][];
+            for(int i = 0; i < params.length; i++)
+            {
+                int eq = params[i].indexOf('=');
+                fQueryNames[i] = eq == -1 ? params[i] : params[i].substring(0, eq);
+                fQueryValues[i] = parseTokens(eq == -1 ? "" : params[i].substring(eq + 1));
+            }
+        }
+        
+        /*
+         * Matches the query of a request, adding the values of the fields. 
+         */
+        boolean matchQuery(String query, Values values)
+        {
+            String[] params = query == null || query.length() == 0 
+                ? new String[0] : split(query, fSeparator);
+            boolean[] cited = new boolean[params.length];
+            
+            for(int i = 0; i < fQueryNames.length; i++)
+            {
+                boolean found = false;
+                for(int j = 0; j < params.length && !found; j++)
+                {
+                    int eq = params[j].indexOf('=');
+                    String name = eq == -1 ? params[j] : params[j].substring(0, eq);
+                    if(!cited[j] && fQueryNames[i].equals(decode(name, true)))
+                    {
+                        String value = eq == -1 ? "" : params[j].substring(eq + 1);
+                        if(!matchTokens(fQueryValues[i], value, true, values))
+                        {
+                            return false;
+                        }
+                        cited[j] = true;
+                        found = true;
+                    }
+                }
+                if(!found)
+                {
+                    return false;
+                }
+            }
+            
+            if(!fIgnoreUncited)
+            {
+                for(int j = 0; j < params.length; j++)
+                {
+                    if(cited[j] || params[j].length() == 0)
+                    {
+                        continue;
+                    }
+                    int eq = params[j].indexOf('=');
+                    String name = decode(eq == -1 ? params[j] : params[j].substring(0, eq), true);
+                    String value = decode(eq == -1 ? "" : params[j].substring(eq + 1), true);
+                    if(name == null || value == null)
+                    {
+                        return false;
+                    }
+                    values.add(name, value);
+                }
+            }
+            return true;
+        }
+    }
+    
+    /*
+     * The field values extracted so far while matching a request, 
+     * truncated when backtracking.
+     */
+    private static final class Values
+    {
+        private String[] fNames = new String[8];
+        private String[] fValues = new String[8];
+        private int fSize = 0;
+        
+        int size()
+        {
+            return fSize;
+        }
+        
+        void add(String name, String value)
+        {
+            if(fSize == fNames.length)
+            {
+                String[] names = new String[fSize * 2];
+                String[] vals = new String[fSize * 2];
+                System.arraycopy(fNames, 0, names, 0, fSize);
+                System.arraycopy(fValues, 0, vals, 0, fSize);
+                fNames = names;
+                fValues = vals;
+            }
+            fNames[fSize] = name;
+            fValues[fSize] = value;
+            fSize++;
+        }
+        
+        void truncate(int size)
+        {
+            fSize = size;
+        }
+    }
+}
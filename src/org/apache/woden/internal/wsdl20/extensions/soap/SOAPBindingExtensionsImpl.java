@@ -35,11 +35,17 @@ public class SOAPBindingExtensionsImpl extends ComponentExtensionsImpl
                                        implements SOAPBindingExtensions 
 {
 
+    private String fSoapVersion = null;
+    private URI fSoapUnderlyingProtocol = null;
+    private URI fSoapMepDefault = null;
+    private SOAPModule[] fSoapModules = null;
+
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.extensions.soap.SOAPBindingExtensions#getSoapVersion()
      */
     public String getSoapVersion() 
     {
+        if(isResolved()) return fSoapVersion;
         StringAttr version = 
             (StringAttr)fParentElement.getExtensionAttribute(SOAPConstants.Q_ATTR_SOAP_VERSION);
         return version != null ? version.getString() : null;
@@ -50,6 +56,7 @@ public class SOAPBindingExtensionsImpl extends ComponentExtensionsImpl
      */
     public URI getSoapUnderlyingProtocol() 
     {
+        if(isResolved()) return fSoapUnderlyingProtocol;
         URIAttr protocol = 
             (URIAttr)fParentElement.getExtensionAttribute(SOAPConstants.Q_ATTR_SOAP_PROTOCOL);
         return protocol != null ? protocol.getURI() : null;
@@ -60,6 +67,7 @@ public class SOAPBindingExtensionsImpl extends ComponentExtensionsImpl
      */
     public URI getSoapMepDefault() 
     {
+        if(isResolved()) return fSoapMepDefault;
         URIAttr mepDefault = 
             (URIAttr)fParentElement.getExtensionAttribute(SOAPConstants.Q_ATTR_SOAP_MEPDEFAULT);
         return mepDefault != null ? mepDefault.getURI() : null;
@@ -70,11 +78,27 @@ public class SOAPBindingExtensionsImpl extends ComponentExtensionsImpl
      */
     public SOAPModule[] getSoapModules() 
     {
+        if(isResolved()) return fSoapModules.clone();
         ExtensionElement[] extEls = fParentElement.getExtensionElementsOfType(SOAPConstants.Q_ELEM_SOAP_MODULE);
         int len = extEls.length;
         SOAPModule[] soapMods = new SOAPModule[len];
         System.arraycopy(extEls, 0, soapMods, 0, len);
         return soapMods;
     }
-    
+
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl#storeProperties()
+     */
+    protected void storeProperties()
+    {
+        fSoapVersion = getSoapVersion();
+        fSoapUnderlyingProtocol = getSoapUnderlyingProtocol();
+        fSoapMepDefault = getSoapMepDefault();
+        fSoapModules = getSoapModules();
+    }
+
 }
@@ -36,11 +36,17 @@ public class SOAPBindingFaultExtensionsImpl extends ComponentExtensionsImpl
                                             implements SOAPBindingFaultExtensions 
 {
 
+    private SOAPFaultCode fSoapFaultCode = null;
+    private SOAPFaultSubcodes fSoapFaultSubcodes = null;
+    private SOAPModule[] fSoapModules = null;
+    private SOAPHeaderBlock[] fSoapHeaders = null;
+
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.extensions.soap.SOAPBindingFaultExtensions#getSoapFaultCode()
      */
     public SOAPFaultCode getSoapFaultCode() 
     {
+        if(isResolved()) return fSoapFaultCode;
         /* QNameOrTokenAnyAttrImpl is the class registered for this extension attribute. Use this type 
          * here, rather than the QNameOrTokenAttr interface, to guarantee that if the code contains an 
          * xs:token it is of type #any.
@@ -75,6 +81,7 @@ public class SOAPBindingFaultExtensionsImpl extends ComponentExtensionsImpl
      */
     public SOAPFaultSubcodes getSoapFaultSubcodes() 
     {
+        if(isResolved()) return fSoapFaultSubcodes;
         /* QNameListOrTokenAnyAttrImpl is the class registered for this extension attribute. Use this type 
          * here, rather than the QNameListOrTokenAttr interface, to gaurantee that if the code contains an 
          * xs:token it is of type #any.
@@ -109,6 +116,7 @@ public class SOAPBindingFaultExtensionsImpl extends ComponentExtensionsImpl
      */
     public SOAPModule[] getSoapModules() 
     {
+        if(isResolved()) return fSoapModules.clone();
         ExtensionElement[] extEls = fParentElement.getExtensionElementsOfType(SOAPConstants.Q_ELEM_SOAP_MODULE);
         int len = extEls.length;
         SOAPModule[] soapMods = new SOAPModule[len];
@@ -121,6 +129,7 @@ public class SOAPBindingFaultExtensionsImpl extends ComponentExtensionsImpl
      */
     public SOAPHeaderBlock[] getSoapHeaders() 
     {
+        if(isResolved()) return fSoapHeaders.clone();
         ExtensionElement[] extEls = fParentElement.getExtensionElementsOfType(SOAPConstants.Q_ELEM_SOAP_HEADER);
         int len = extEls.length;
         SOAPHeaderBlock[] soapHeaders = new SOAPHeaderBlock[len];
@@ -128,4 +137,19 @@ public class SOAPBindingFaultExtensionsImpl extends ComponentExtensionsImpl
         return soapHeaders;
     }
 
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl#storeProperties()
+     */
+    protected void storeProperties()
+    {
+        fSoapFaultCode = getSoapFaultCode();
+        fSoapFaultSubcodes = getSoapFaultSubcodes();
+        fSoapModules = getSoapModules();
+        fSoapHeaders = getSoapHeaders();
+    }
+
 }
@@ -31,11 +31,14 @@ public class SOAPBindingFaultReferenceExtensionsImpl extends ComponentExtensions
                                                      implements SOAPBindingFaultReferenceExtensions 
 {
 
+    private SOAPModule[] fSoapModules = null;
+
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.extensions.soap.SOAPBindingFaultReferenceExtensions#getSoapModules()
      */
     public SOAPModule[] getSoapModules() 
     {
+        if(isResolved()) return fSoapModules.clone();
         ExtensionElement[] extEls = fParentElement.getExtensionElementsOfType(SOAPConstants.Q_ELEM_SOAP_MODULE);
         int len = extEls.length;
         SOAPModule[] soapMods = new SOAPModule[len];
@@ -43,4 +46,16 @@ public class SOAPBindingFaultReferenceExtensionsImpl extends ComponentExtensions
         return soapMods;
     }
 
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl#storeProperties()
+     */
+    protected void storeProperties()
+    {
+        fSoapModules = getSoapModules();
+    }
+
 }
@@ -32,11 +32,15 @@ public class SOAPBindingMessageReferenceExtensionsImpl extends ComponentExtensio
                                                        implements SOAPBindingMessageReferenceExtensions 
 {
 
+    private SOAPModule[] fSoapModules = null;
+    private SOAPHeaderBlock[] fSoapHeaders = null;
+
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.extensions.soap.SOAPBindingMessageReferenceExtensions#getSoapModules()
      */
     public SOAPModule[] getSoapModules() 
     {
+        if(isResolved()) return fSoapModules.clone();
         ExtensionElement[] extEls = fParentElement.getExtensionElementsOfType(SOAPConstants.Q_ELEM_SOAP_MODULE);
         int len = extEls.length;
         SOAPModule[] soapMods = new SOAPModule[len];
@@ -49,6 +53,7 @@ public class SOAPBindingMessageReferenceExtensionsImpl extends ComponentExtensio
      */
     public SOAPHeaderBlock[] getSoapHeaders() 
     {
+        if(isResolved()) return fSoapHeaders.clone();
         ExtensionElement[] extEls = fParentElement.getExtensionElementsOfType(SOAPConstants.Q_ELEM_SOAP_HEADER);
         int len = extEls.length;
         SOAPHeaderBlock[] soapHeaders = new SOAPHeaderBlock[len];
@@ -56,4 +61,17 @@ public class SOAPBindingMessageReferenceExtensionsImpl extends ComponentExtensio
         return soapHeaders;
     }
 
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl#storeProperties()
+     */
+    protected void storeProperties()
+    {
+        fSoapModules = getSoapModules();
+        fSoapHeaders = getSoapHeaders();
+    }
+
 }
@@ -34,11 +34,16 @@ public class SOAPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
                                                 implements SOAPBindingOperationExtensions 
 {
 
+    private URI fSoapMep = null;
+    private URI fSoapAction = null;
+    private SOAPModule[] fSoapModules = null;
+
     /* (non-Javadoc)
      * @see org.apache.woden.wsdl20.extensions.soap.SOAPBindingOperationExtensions#getSoapMep()
      */
     public URI getSoapMep() 
     {
+        if(isResolved()) return fSoapMep;
         URIAttr mep = 
             (URIAttr)fParentElement.getExtensionAttribute(SOAPConstants.Q_ATTR_SOAP_MEP);
         return mep != null ? mep.getURI() : null;
@@ -49,6 +54,7 @@ public class SOAPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
      */
     public URI getSoapAction() 
     {
+        if(isResolved()) return fSoapAction;
         URIAttr action = 
             (URIAttr)fParentElement.getExtensionAttribute(SOAPConstants.Q_ATTR_SOAP_ACTION);
         return action != null ? action.getURI() : null;
@@ -59,6 +65,7 @@ public class SOAPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
      */
     public SOAPModule[] getSoapModules() 
     {
+        if(isResolved()) return fSoapModules.clone();
         ExtensionElement[] extEls = fParentElement.getExtensionElementsOfType(SOAPConstants.Q_ELEM_SOAP_MODULE);
         int len = extEls.length;
         SOAPModule[] soapMods = new SOAPModule[len];
@@ -66,4 +73,18 @@ public class SOAPBindingOperationExtensionsImpl extends ComponentExtensionsImpl
         return soapMods;
     }
 
+    /* ************************************************************
+     *  Non-API implementation methods
+     * ************************************************************/
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.internal.wsdl20.extensions.ComponentExtensionsImpl#storeProperties()
+     */
+    protected void storeProperties()
+    {
+        fSoapMep = getSoapMep();
+        fSoapAction = getSoapAction();
+        fSoapModules = getSoapModules();
+    }
+
 }
@@ -29,6 +29,12 @@ public class SOAPConstants
     // Protocol URIs.
     public static final String PROTOCOL_URI_HTTP =
         "http://www.w3.org/2003/05/soap/bindings/HTTP/";
+    
+    // SOAP MEP URIs.
+    public static final String MEP_URI_REQUEST_RESPONSE =
+        "http://www.w3.org/2003/05/soap/mep/request-response/";
+    public static final String MEP_URI_SOAP_RESPONSE =
+        "http://www.w3.org/2003/05/soap/mep/soap-response/";
 
     // Element names.
     public static final String ELEM_MODULE = "module";
@@ -0,0 +1,433 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.extensions.soap;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.WSDLException;
+import org.apache.woden.internal.ErrorLocatorImpl;
+import org.apache.woden.internal.wsdl20.Constants;
+import org.apache.woden.internal.wsdl20.extensions.http.HTTPBindingOperationExtensionsImpl;
+import org.apache.woden.internal.wsdl20.extensions.http.HTTPConstants;
+import org.apache.woden.wsdl20.Binding;
+import org.apache.woden.wsdl20.BindingMessageReference;
+import org.apache.woden.wsdl20.BindingOperation;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.Endpoint;
+import org.apache.woden.wsdl20.InterfaceMessageReference;
+import org.apache.woden.wsdl20.InterfaceOperation;
+import org.apache.woden.wsdl20.Service;
+import org.apache.woden.wsdl20.enumeration.Direction;
+import org.apache.woden.wsdl20.extensions.ComponentExtensions;
+import org.apache.woden.wsdl20.extensions.soap.SOAPBindingExtensions;
+import org.apache.woden.wsdl20.extensions.soap.SOAPBindingMessageReferenceExtensions;
+import org.apache.woden.wsdl20.extensions.soap.SOAPBindingOperationExtensions;
+import org.apache.woden.wsdl20.extensions.soap.SOAPHeaderBlock;
+import org.apache.woden.xml.XMLAttr;
+
+/**
+ * Maps the messages received at the SOAP endpoints of a Description to the 
+ * operations they are for, so that a SOAP runtime can dispatch a message 
+ * with a single hash lookup rather than by walking the component model.
+ * <p>
+ * A message is identified either by its action or by the QName of the first
+ * child of its SOAP body. The actions of a Binding Operation are its 
+ * {soap action} and the WS-Addressing <code>wsaw:Action</code> of the input 
+ * message of its Interface Operation. The body element is the element 
+ * declaration of that input message, if its message content model is 
+ * #element. 
+ * <p>
+ * An action or body element that identifies more than one operation of the
+ * same SOAP binding cannot be used for dispatching. It is left out of the 
+ * index and reported as a warning when the index is built.
+ * <p>
+ * The index is not modified once built, so it can be shared by any number
+ * of threads. It does not reflect later changes to the Description.
+ */
+public class SOAPDispatchIndex {
+    
+    /**
+     * The namespace of the WS-Addressing WSDL binding.
+     */
+    public static final String NS_URI_WSAW = "http://www.w3.org/2006/05/addressing/wsdl";
+    
+    private static final QName Q_ATTR_WSAW_ACTION = new QName(NS_URI_WSAW, "Action");
+    
+    //Marks a key that identifies more than one operation of a binding
+    private static final Object AMBIGUOUS = new Object();
+    
+    private final Map fByAction = new HashMap();
+    private final Map fByBodyElement = new HashMap();
+    
+    /**
+     * Builds the index for the endpoints of all the services of the 
+     * description that use a SOAP binding.
+     * 
+     * @param desc the description.
+     * @param errorReporter reports actions and body elements that identify
+     * more than one operation of a binding.
+     * @throws WSDLException if the error reporter throws it.
+     */
+    public SOAPDispatchIndex(Description desc, ErrorReporter errorReporter) throws WSDLException
+    {
+        this(desc, null, errorReporter);
+    }
+    
+    /**
+     * Builds the index for the endpoints of all the services of the 
+     * description that use the specified SOAP binding.
+     * 
+     * @param desc the description.
+     * @param binding the binding, or null for all SOAP bindings.
+     * @param errorReporter reports actions and body elements that identify
+     * more than one operation of a binding.
+     * @throws WSDLException if the error reporter throws it.
+     */
+    public SOAPDispatchIndex(Description desc, Binding binding, ErrorReporter errorReporter) 
+        throws WSDLException
+    {
+        //the tables of each binding, built once however many endpoints use it
+        Map bindingTables = new IdentityHashMap();
+        
+        Service[] services = desc.getServices();
+        for(int i = 0; i < services.length; i++)
+        {
+            Endpoint[] endpoints = services[i].getEndpoints();
+            for(int j = 0; j < endpoints.length; j++)
+            {
+                Binding endpointBinding = endpoints[j].getBinding();
+                if(endpointBinding == null || 
+                   (binding != null && endpointBinding != binding) ||
+                   !ComponentExtensions.URI_NS_SOAP.equals(endpointBinding.getType()))
+                {
+                    continue;
+                }
+                
+                Map[] tables = (Map[])bindingTables.get(endpointBinding);
+                if(tables == null)
+                {
+                    tables = buildTables(endpointBinding, errorReporter);
+                    bindingTables.put(endpointBinding, tables);
+                }
+                addEntries(fByAction, endpoints[j], tables[0]);
+                addEntries(fByBodyElement, endpoints[j], tables[1]);
+            }
+        }
+    }
+    
+    /**
+     * Returns the operation identified by the action of a message received 
+     * at the endpoint, or null if there is none.
+     * 
+     * @param endpoint an endpoint of the description the index was built from.
+     * @param action the SOAP action or WS-Addressing action of the message.
+     */
+    public Target getTargetByAction(Endpoint endpoint, String action)
+    {
+        return (Target)fByAction.get(new DispatchKey(endpoint, action));
+    }
+    
+    /**
+     * Returns the operation identified by the first child of the SOAP body
+     * of a message received at the endpoint, or null if there is none.
+     * 
+     * @param endpoint an endpoint of the description the index was built from.
+     * @param bodyElement the QName of the first child of the SOAP body.
+     */
+    public Target getTargetByBodyElement(Endpoint endpoint, QName bodyElement)
+    {
+        return (Target)fByBodyElement.get(new DispatchKey(endpoint, bodyElement));
+    }
+    
+    /*
+     * Returns the tables of action to Target and body element QName to 
+     * Target for the operations of the binding.
+     */
+    private static Map[] buildTables(Binding binding, ErrorReporter errorReporter) 
+        throws WSDLException
+    {
+        Map byAction = new HashMap();
+        Map byBodyElement = new HashMap();
+        
+        SOAPBindingExtensions bindingExts = (SOAPBindingExtensions)
+            binding.getComponentExtensionsForNamespace(ComponentExtensions.URI_NS_SOAP);
+        
+        BindingOperation[] bindOpers = binding.getBindingOperations();
+        for(int i = 0; i < bindOpers.length; i++)
+        {
+            Target target = new Target(bindOpers[i], bindingExts);
+            InterfaceOperation oper = target.getInterfaceOperation();
+            InterfaceMessageReference input = getInput(oper);
+            
+            if(target.getSoapAction() != null)
+            {
+                add(byAction, target.getSoapAction().toString(), target, 
+                        binding, "WSDL600", errorReporter);
+            }
+            if(input != null)
+            {
+                XMLAttr wsaAction = input.toElement().getExtensionAttribute(Q_ATTR_WSAW_ACTION);
+                if(wsaAction != null)
+                {
+                    add(byAction, wsaAction.toExternalForm(), target, 
+                            binding, "WSDL600", errorReporter);
+                }
+                
+                QName bodyElement = getElementName(input);
+                if(bodyElement != null)
+                {
+                    add(byBodyElement, bodyElement, target, 
+                            binding, "WSDL601", errorReporter);
+                }
+            }
+        }
+        return new Map[] {byAction, byBodyElement};
+    }
+    
+    /*
+     * Add the target to the table, unless another target has the same key,
+     * in which case the key is marked as ambiguous and reported.
+     */
+    private static void add(Map table, Object key, Target target, Binding binding, 
+                            String errorId, ErrorReporter errorReporter) 
+        throws WSDLException
+    {
+        Object existing = table.get(key);
+        if(existing == null)
+        {
+            table.put(key, target);
+        }
+        else if(existing != AMBIGUOUS && existing != target)
+        {
+            table.put(key, AMBIGUOUS);
+            errorReporter.reportError(
+                    ErrorLocatorImpl.forElement(target.getBindingOperation().toElement()),
+                    errorId, 
+                    new Object[] {key, binding.getName(), 
+                            getOperationName((Target)existing), getOperationName(target)},
+                    ErrorReporter.SEVERITY_WARNING);
+        }
+    }
+    
+    private static void addEntries(Map index, Endpoint endpoint, Map table)
+    {
+        for(Iterator i = table.entrySet().iterator(); i.hasNext(); )
+        {
+            Map.Entry entry = (Map.Entry)i.next();
+            if(entry.getValue() != AMBIGUOUS)
+            {
+                index.put(new DispatchKey(endpoint, entry.getKey()), entry.getValue());
+            }
+        }
+    }
+    
+    /*
+     * Returns the first message the operation receives, if it starts by
+     * receiving a message.
+     */
+    private static InterfaceMessageReference getInput(InterfaceOperation oper)
+    {
+        if(oper == null)
+        {
+            return null;
+        }
+        InterfaceMessageReference[] messages = oper.getInterfaceMessageReferences();
+        for(int i = 0; i < messages.length; i++)
+        {
+            if(Direction.IN == messages[i].getDirection())
+            {
+                return messages[i];
+            }
+        }
+        return null;
+    }
+    
+    private static QName getElementName(InterfaceMessageReference message)
+    {
+        if(!Constants.NMTOKEN_ELEMENT.equals(message.getMessageContentModel()))
+        {
+            return null;
+        }
+        if(message.getElementDeclaration() != null)
+        {
+            return message.getElementDeclaration().getName();
+        }
+        return message.toElement().getElementName();
+    }
+    
+    private static QName getOperationName(Target target)
+    {
+        InterfaceOperation oper = target.getInterfaceOperation();
+        return oper != null ? oper.getName() : null;
+    }
+    
+    /**
+     * The operation a message is dispatched to, with the SOAP binding 
+     * details needed to process it.
+     */
+    public static final class Target
+    {
+        private final BindingOperation fBindingOperation;
+        private final URI fSoapAction;
+        private final URI fSoapMep;
+        private final SOAPHeaderBlock[] fInputHeaders;
+        private final SOAPHeaderBlock[] fOutputHeaders;
+        
+        Target(BindingOperation bindOper, SOAPBindingExtensions bindingExts)
+        {
+            fBindingOperation = bindOper;
+            
+            SOAPBindingOperationExtensions operExts = (SOAPBindingOperationExtensions)
+                bindOper.getComponentExtensionsForNamespace(ComponentExtensions.URI_NS_SOAP);
+            fSoapAction = operExts != null ? operExts.getSoapAction() : null;
+            
+            //{soap mep} defaults to {soap mep default} of the binding and, 
+            //for the SOAP HTTP binding, to the soap-response MEP if the 
+            //{http method} is GET or else to the request-response MEP
+            URI soapMep = operExts != null ? operExts.getSoapMep() : null;
+            if(soapMep == null && bindingExts != null)
+            {
+                soapMep = bindingExts.getSoapMepDefault();
+                if(soapMep == null && bindingExts.getSoapUnderlyingProtocol() != null &&
+                   SOAPConstants.PROTOCOL_URI_HTTP.equals(
+                           bindingExts.getSoapUnderlyingProtocol().toString()))
+                {
+                    Object httpOperExts = bindOper.getComponentExtensionsForNamespace(
+                            ComponentExtensions.URI_NS_HTTP);
+                    if(httpOperExts instanceof HTTPBindingOperationExtensionsImpl &&
+                       HTTPConstants.METHOD_GET.equals(
+                               ((HTTPBindingOperationExtensionsImpl)httpOperExts).determineHttpMethod()))
+                    {
+                        soapMep = URI.create(SOAPConstants.MEP_URI_SOAP_RESPONSE);
+                    }
+                    else
+                    {
+                        soapMep = URI.create(SOAPConstants.MEP_URI_REQUEST_RESPONSE);
+                    }
+                }
+            }
+            fSoapMep = soapMep;
+            
+            List inputHeaders = new ArrayList();
+            List outputHeaders = new ArrayList();
+            BindingMessageReference[] messages = bindOper.getBindingMessageReferences();
+            for(int i = 0; i < messages.length; i++)
+            {
+                SOAPBindingMessageReferenceExtensions messageExts = 
+                    (SOAPBindingMessageReferenceExtensions)messages[i]
+                        .getComponentExtensionsForNamespace(ComponentExtensions.URI_NS_SOAP);
+                InterfaceMessageReference intMessage = messages[i].getInterfaceMessageReference();
+                if(messageExts == null || intMessage == null)
+                {
+                    continue;
+                }
+                SOAPHeaderBlock[] headers = messageExts.getSoapHeaders();
+                List list = Direction.IN == intMessage.getDirection() ? inputHeaders : outputHeaders;
+                for(int j = 0; j < headers.length; j++)
+                {
+                    list.add(headers[j]);
+                }
+            }
+            fInputHeaders = (SOAPHeaderBlock[])inputHeaders.toArray(
+                    new SOAPHeaderBlock[inputHeaders.size()]);
+            fOutputHeaders = (SOAPHeaderBlock[])outputHeaders.toArray(
+                    new SOAPHeaderBlock[outputHeaders.size()]);
+        }
+        
+        public BindingOperation getBindingOperation()
+        {
+            return fBindingOperation;
+        }
+        
+        public InterfaceOperation getInterfaceOperation()
+        {
+            return fBindingOperation.getInterfaceOperation();
+        }
+        
+        /**
+         * Returns the {soap action} of the binding operation, or null.
+         */
+        public URI getSoapAction()
+        {
+            return fSoapAction;
+        }
+        
+        /**
+         * Returns the {soap mep} of the binding operation, defaulted as
+         * described in the WSDL 2.0 SOAP binding, or null if it has no value.
+         */
+        public URI getSoapMep()
+        {
+            return fSoapMep;
+        }
+        
+        /**
+         * Returns the SOAP header blocks of the messages the operation receives.
+         */
+        public SOAPHeaderBlock[] getInputHeaders()
+        {
+            return fInputHeaders.clone();
+        }
+        
+        /**
+         * Returns the SOAP header blocks of the messages the operation sends.
+         */
+        public SOAPHeaderBlock[] getOutputHeaders()
+        {
+            return fOutputHeaders.clone();
+        }
+    }
+    
+    /*
+     * Pairs an endpoint, compared by identity, with an action or body element.
+     */
+    private static final class DispatchKey
+    {
+        private final Endpoint fEndpoint;
+        private final Object fKey;
+        
+        DispatchKey(Endpoint endpoint, Object key)
+        {
+            fEndpoint = endpoint;
+            fKey = key;
+        }
+        
+        public boolean equals(Object other)
+        {
+            if(!(other instanceof DispatchKey))
+            {
+                return false;
+            }
+            DispatchKey otherKey = (DispatchKey)other;
+            return fEndpoint == otherKey.fEndpoint && 
+                (fKey == null ? otherKey.fKey == null : fKey.equals(otherKey.fKey));
+        }
+        
+        public int hashCode()
+        {
+            return System.identityHashCode(fEndpoint) * 31 + (fKey != null ? fKey.hashCode() : 0);
+        }
+    }
+}
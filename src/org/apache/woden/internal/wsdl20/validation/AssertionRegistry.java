@@ -0,0 +1,90 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.validation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the assertions checked by a WSDLComponentValidator, keyed by the type 
+ * of component they target. The assertions for a type are checked in the order
+ * they were registered.
+ */
+public class AssertionRegistry 
+{
+  private static final ComponentAssertion[] NO_ASSERTIONS = new ComponentAssertion[0];
+  
+  //Lists of ComponentAssertions keyed by target type
+  private final Map fAssertions = new HashMap();
+  
+  //All the registered assertions, in order of registration
+  private final List fAllAssertions = new ArrayList();
+  
+  //Arrays of the registered assertions keyed by target type, 
+  //rebuilt when an assertion is registered
+  private volatile Map fAssertionArrays = new HashMap();
+  
+  /**
+   * Register an assertion for the type of component it targets.
+   * 
+   * @param assertion The assertion to register.
+   */
+  public synchronized void registerAssertion(ComponentAssertion assertion)
+  {
+    Class targetType = assertion.getTargetType();
+    List assertions = (List)fAssertions.get(targetType);
+    if(assertions == null)
+    {
+      assertions = new ArrayList();
+      fAssertions.put(targetType, assertions);
+    }
+    assertions.add(assertion);
+    fAllAssertions.add(assertion);
+    
+    Map arrays = new HashMap(fAssertionArrays);
+    ComponentAssertion[] array = new ComponentAssertion[assertions.size()];
+    assertions.toArray(array);
+    arrays.put(targetType, array);
+    fAssertionArrays = arrays;
+  }
+  
+  /**
+   * Get the assertions registered for a type of component. The array returned
+   * may be shared and must not be modified.
+   * 
+   * @param targetType The component interface or array class.
+   * @return The assertions registered for the type, in order of registration.
+   */
+  public ComponentAssertion[] getAssertions(Class targetType)
+  {
+    ComponentAssertion[] array = (ComponentAssertion[])fAssertionArrays.get(targetType);
+    return array != null ? array : NO_ASSERTIONS;
+  }
+  
+  /**
+   * Get all the registered assertions, whatever type of component they target.
+   * 
+   * @return The registered assertions, in order of registration.
+   */
+  public synchronized ComponentAssertion[] getAssertions()
+  {
+    ComponentAssertion[] array = new ComponentAssertion[fAllAssertions.size()];
+    fAllAssertions.toArray(array);
+    return array;
+  }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.validation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.woden.ErrorHandler;
+import org.apache.woden.ErrorLocator;
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.WSDLException;
+import org.apache.woden.wsdl20.WSDLComponent;
+
+/**
+ * An error reporter that keeps the errors reported to it, so that errors found
+ * on different threads can be reported to the real error reporter afterwards, in a
+ * fixed order, and so that the errors found by the assertions that are not checked 
+ * again by incremental validation can be reported again. The real error reporter 
+ * only formats and handles the errors when they are replayed to it.
+ */
+class BufferedErrorReporter implements ErrorReporter 
+{
+  private final ErrorReporter fErrorReporter;
+  
+  //The reported errors, as Object[] {errLoc, errorId, arguments or message, severity, exception}
+  private final List fErrors = new ArrayList();
+  
+  //The dependencies of the assertions checked, or null if they are not recorded
+  private final Set fDependencies;
+  
+  /**
+   * @param errorReporter The error reporter used to format messages.
+   */
+  BufferedErrorReporter(ErrorReporter errorReporter)
+  {
+    this(errorReporter, false);
+  }
+  
+  /**
+   * @param errorReporter The error reporter used to format messages.
+   * @param recordDependencies True if the dependencies of the assertions checked should be recorded.
+   */
+  BufferedErrorReporter(ErrorReporter errorReporter, boolean recordDependencies)
+  {
+    fErrorReporter = errorReporter;
+    fDependencies = recordDependencies ? new HashSet() : null;
+  }
+  
+  /**
+   * @return True if the dependencies of the assertions checked are recorded.
+   */
+  boolean isRecordingDependencies()
+  {
+    return fDependencies != null;
+  }
+  
+  /**
+   * Record the dependencies of an assertion checked.
+   * 
+   * @param dependencies The components read by the assertion.
+   */
+  void addDependencies(WSDLComponent[] dependencies)
+  {
+    for(int i = 0; i < dependencies.length; i++)
+    {
+      fDependencies.add(dependencies[i]);
+    }
+  }
+  
+  /**
+   * @return The dependencies recorded, or null if they are not recorded.
+   */
+  Set getDependencies()
+  {
+    return fDependencies;
+  }
+  
+  public void reportError(ErrorLocator errLoc, String errorId, Object[] arguments, short severity) 
+  {
+    reportError(errLoc, errorId, arguments, severity, null);
+  }
+  
+  public void reportError(ErrorLocator errLoc, String errorId, Object[] arguments, short severity, Exception exception) 
+  {
+    fErrors.add(new Object[] {errLoc, errorId, arguments, new Short(severity), exception});
+  }
+  
+  public void reportError(ErrorLocator errLoc, String errorId, String message, short severity) 
+  {
+    reportError(errLoc, errorId, message, severity, null);
+  }
+  
+  public void reportError(ErrorLocator errLoc, String errorId, String message, short severity, Exception exception) 
+  {
+    fErrors.add(new Object[] {errLoc, errorId, message, new Short(severity), exception});
+  }
+  
+  /**
+   * Report the kept errors to an error reporter, in the order they were reported.
+   * The errors are kept, so they can be replayed again.
+   * 
+   * @param errorReporter The error reporter to report the errors to.
+   * @throws WSDLException if the error reporter throws one.
+   */
+  void replay(ErrorReporter errorReporter) throws WSDLException
+  {
+    int numErrors = fErrors.size();
+    for(int i = 0; i < numErrors; i++)
+    {
+      Object[] error = (Object[])fErrors.get(i);
+      ErrorLocator errLoc = (ErrorLocator)error[0];
+      String errorId = (String)error[1];
+      short severity = ((Short)error[3]).shortValue();
+      Exception exception = (Exception)error[4];
+      if(error[2] instanceof String)
+      {
+        errorReporter.reportError(errLoc, errorId, (String)error[2], severity, exception);
+      }
+      else
+      {
+        errorReporter.reportError(errLoc, errorId, (Object[])error[2], severity, exception);
+      }
+    }
+  }
+  
+  /*
+   * The error handler and locale belong to the real error reporter and
+   * cannot be changed from here.
+   */
+  
+  public void setErrorHandler(ErrorHandler errorHandler) 
+  {
+    throw new UnsupportedOperationException();
+  }
+  
+  public ErrorHandler getErrorHandler() 
+  {
+    return fErrorReporter.getErrorHandler();
+  }
+  
+  public void setLocale(Locale locale) 
+  {
+    throw new UnsupportedOperationException();
+  }
+  
+  public Locale getLocale() 
+  {
+    return fErrorReporter.getLocale();
+  }
+  
+  public String getFormattedMessage(String errorId, Object[] arguments) 
+  {
+    return fErrorReporter.getFormattedMessage(errorId, arguments);
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.validation;
+
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.WSDLException;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.WSDLComponent;
+
+/**
+ * An assertion of the WSDL 2.0 specification that is checked against the
+ * component model by the WSDLComponentValidator. 
+ * <p>
+ * Each assertion targets one type of component. The target type is either a
+ * component interface, such as <code>Binding.class</code>, for an assertion about 
+ * each component of that type, or an array of a component interface, such as
+ * <code>Binding[].class</code>, for an assertion about all the components of that
+ * type in the same Description or parent component (for example, that their names
+ * are unique).
+ * <p>
+ * Assertions may be checked on several threads at once, for different components,
+ * so they must not keep any state between calls to <code>validate</code>.
+ * <p>
+ * An assertion also declares the components it reads, other than its target, so 
+ * that incremental validation can check it again when one of them is modified
+ * (see IncrementalValidator).
+ */
+public interface ComponentAssertion 
+{
+  /**
+   * Get the identifier of this assertion. The WSDL 2.0 component assertions
+   * are identified by the assertion ids of the specification, such as 
+   * <code>Binding-0054</code>. Other assertions should use an identifier that
+   * changes when what they check changes, as it identifies the assertion in 
+   * the keys of the ValidationCache.
+   * 
+   * @return The identifier of the assertion.
+   */
+  public String getId();
+  
+  /**
+   * Get the type of component this assertion is checked against.
+   * 
+   * @return A WSDL component interface, or an array class of one.
+   */
+  public Class getTargetType();
+  
+  /**
+   * Check the assertion against a component, or an array of components, of
+   * the target type.
+   * 
+   * @param target The component or the array of components to check.
+   * @param desc The description component being validated.
+   * @param errorReporter The error reporter to report the assertion failures to.
+   * @return True if the assertion passes, false otherwise.
+   * @throws WSDLException A WSDLException is thrown if the error reporter throws one.
+   */
+  public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException;
+  
+  /**
+   * Get the components whose properties the assertion reads when checked against
+   * the target, other than the target itself, the components nested in it and
+   * their parents. For example, an assertion that compares a binding with its
+   * interface depends on the interface.
+   * 
+   * @param target The component or the array of components the assertion is checked against.
+   * @param desc The description component being validated.
+   * @return The components read, or an empty array.
+   */
+  public WSDLComponent[] getDependencies(Object target, Description desc);
+}
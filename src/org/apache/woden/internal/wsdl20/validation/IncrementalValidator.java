@@ -0,0 +1,471 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.validation;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.WSDLException;
+import org.apache.woden.internal.wsdl20.DescriptionImpl;
+import org.apache.woden.wsdl20.Binding;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.Interface;
+import org.apache.woden.wsdl20.NestedComponent;
+import org.apache.woden.wsdl20.Service;
+import org.apache.woden.wsdl20.WSDLComponent;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.woden.wsdl20.xml.InterfaceElement;
+
+/**
+ * Validates a WSDL 2.0 description again after it has been modified through
+ * the element API, checking again only the component assertions affected by
+ * the modifications.
+ * <p>
+ * The first validation checks all the assertions. For each interface, binding
+ * and service, the validator keeps the errors found by the assertions about it
+ * and the components nested in it, and the other interfaces, bindings and services
+ * those assertions read (see ComponentAssertion.getDependencies()). The description
+ * then records the elements modified (see DescriptionImpl.takeModifiedElements()).
+ * An incremental validation checks again the assertions about the modified 
+ * interfaces, bindings and services and about the ones that depend on them, and
+ * reports again the errors kept for the others. Either way, the errors reported 
+ * are the same, in the same order, as with WSDLComponentValidator.validate().
+ * <p>
+ * The WSDL document assertions of WSDLDocumentValidator are checked in the same
+ * way, the assertions about an interface element being checked again when it is
+ * modified. The component assertions are only checked if the document assertions
+ * pass, as when a WSDLReader validates a description.
+ * <p>
+ * Modifications which change the set of components or the names other components
+ * refer to them by cause all the assertions to be checked again. They are changes 
+ * to the description element itself, such as adding an interface, binding or
+ * service, or changing the imports, includes or types, and changes to the name of
+ * an interface, binding or service.
+ * <p>
+ * The description must not be modified while it is being validated.
+ */
+public class IncrementalValidator 
+{
+  private final DescriptionImpl fDesc;
+  private final WSDLDocumentValidator fDocValidator;
+  private final WSDLComponentValidator fCompValidator;
+  
+  //The Unit for each interface, binding and service, or null if the component 
+  //assertions must all be checked on the next validation
+  private Map fUnits = null;
+  
+  //Sets of the interfaces, bindings and services whose assertions read a 
+  //component, keyed by that component
+  private Map fDependents = new IdentityHashMap();
+  
+  //The errors found by the document assertions about the description and its types,
+  //and whether they passed
+  private BufferedErrorReporter fDescriptionDocErrors = null;
+  private boolean fDescriptionDocValid = false;
+  
+  //The DocumentUnit for each interface element of the description
+  private Map fInterfaceDocUnits = null;
+  
+  //The errors found by the assertions about all the interfaces, bindings or services
+  private BufferedErrorReporter fInterfacesErrors = null;
+  private BufferedErrorReporter fBindingsErrors = null;
+  private BufferedErrorReporter fServicesErrors = null;
+  
+  /**
+   * Create an incremental validator for a description.
+   * 
+   * @param desc The description element to validate, as created by Woden.
+   */
+  public IncrementalValidator(DescriptionElement desc)
+  {
+    this(desc, new WSDLDocumentValidator(), new WSDLComponentValidator());
+  }
+  
+  /**
+   * Create an incremental validator for a description, which checks the assertions
+   * of the specified validators.
+   * 
+   * @param desc The description element to validate, as created by Woden.
+   * @param docValidator The validator for the WSDL document assertions.
+   * @param compValidator The validator for the WSDL component assertions.
+   */
+  public IncrementalValidator(DescriptionElement desc, WSDLDocumentValidator docValidator, WSDLComponentValidator compValidator)
+  {
+    fDesc = (DescriptionImpl)desc;
+    fDocValidator = docValidator;
+    fCompValidator = compValidator;
+  }
+  
+  /**
+   * Validate the description, checking all the assertions.
+   * 
+   * @param errorReporter An error reporter to be used for reporting errors.
+   * @throws WSDLException A WSDLException is thrown if a problem occurs while validating the description.
+   */
+  public void validate(ErrorReporter errorReporter) throws WSDLException
+  {
+    fUnits = null;
+    validateIncremental(errorReporter);
+  }
+  
+  /**
+   * Validate the description, checking only the component assertions affected 
+   * by the modifications since it was last validated. All the errors found in the 
+   * description are reported, including those found by earlier validations and 
+   * not affected by the modifications.
+   * 
+   * @param errorReporter An error reporter to be used for reporting errors.
+   * @throws WSDLException A WSDLException is thrown if a problem occurs while validating the description.
+   */
+  public void validateIncremental(ErrorReporter errorReporter) throws WSDLException
+  {
+    Set modified = fDesc.takeModifiedElements();
+    if(fUnits == null || modified == null || isStructuralModification(modified))
+    {
+      modified = null;
+    }
+    
+    boolean complete = false;
+    try
+    {
+      if(validateDocument(modified, errorReporter))
+      {
+        Description desc = fDesc.toComponent();
+        if(modified == null)
+        {
+          validateAll(desc, errorReporter);
+        }
+        else
+        {
+          validateModified(desc, modified, errorReporter);
+        }
+        replay(desc, errorReporter);
+        complete = true;
+      }
+    }
+    finally
+    {
+      if(!complete)
+      {
+        fUnits = null;
+      }
+      
+      //Ignore the changes made by building the component model.
+      fDesc.takeModifiedElements();
+    }
+  }
+  
+  /*
+   * Returns true if a modification may have changed the components in the model, 
+   * or the components that references by name resolve to.
+   */
+  private boolean isStructuralModification(Set modified)
+  {
+    for(Iterator i = modified.iterator(); i.hasNext(); )
+    {
+      Object element = i.next();
+      if(element instanceof DescriptionElement)
+      {
+        return true;
+      }
+      
+      Unit unit = (Unit)fUnits.get(element);
+      if(unit == null)
+      {
+        return true;
+      }
+      QName name = getName(element);
+      if(name == null ? unit.fName != null : !name.equals(unit.fName))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+  
+  /*
+   * Check the document assertions about the description and its types and about
+   * each interface element if modified is null, or else only about the modified
+   * interface elements, and report the errors. Returns true if the assertions pass. 
+   * The assertions are checked as in WSDLDocumentValidator.validate().
+   */
+  private boolean validateDocument(Set modified, ErrorReporter errorReporter) throws WSDLException
+  {
+    InterfaceElement[] interfaces = fDesc.getInterfaceElements();
+    if(modified == null)
+    {
+      fDescriptionDocErrors = new BufferedErrorReporter(errorReporter);
+      fDescriptionDocValid = fDocValidator.testAssertionDescription0025(fDesc, fDescriptionDocErrors);
+      if(!fDocValidator.validateTypes(fDesc.getTypesElement(), fDescriptionDocErrors))
+      {
+        fDescriptionDocValid = false;
+      }
+      
+      fInterfaceDocUnits = new IdentityHashMap();
+      for(int i = 0; i < interfaces.length; i++)
+      {
+        validateInterfaceDocument(interfaces[i], errorReporter);
+      }
+    }
+    else
+    {
+      for(Iterator i = modified.iterator(); i.hasNext(); )
+      {
+        Object element = i.next();
+        if(fInterfaceDocUnits.containsKey(element))
+        {
+          validateInterfaceDocument((InterfaceElement)element, errorReporter);
+        }
+      }
+    }
+    
+    boolean isValid = fDescriptionDocValid;
+    fDescriptionDocErrors.replay(errorReporter);
+    for(int i = 0; i < interfaces.length; i++)
+    {
+      DocumentUnit unit = (DocumentUnit)fInterfaceDocUnits.get(interfaces[i]);
+      unit.fErrors.replay(errorReporter);
+      if(!unit.fValid)
+      {
+        isValid = false;
+      }
+    }
+    return isValid;
+  }
+  
+  private void validateInterfaceDocument(InterfaceElement interfac, ErrorReporter errorReporter) throws WSDLException
+  {
+    BufferedErrorReporter errors = new BufferedErrorReporter(errorReporter);
+    boolean isValid = fDocValidator.validateInterfaces(fDesc, new InterfaceElement[] {interfac}, errors);
+    fInterfaceDocUnits.put(interfac, new DocumentUnit(isValid, errors));
+  }
+  
+  private void validateAll(Description desc, ErrorReporter errorReporter) throws WSDLException
+  {
+    fUnits = new IdentityHashMap();
+    fDependents = new IdentityHashMap();
+    
+    Interface[] interfaces = desc.getInterfaces();
+    fInterfacesErrors = checkAssertions(Interface[].class, interfaces, desc, errorReporter);
+    for(int i = 0; i < interfaces.length; i++)
+    {
+      validateUnit(interfaces[i], desc, errorReporter);
+    }
+    
+    Binding[] bindings = desc.getBindings();
+    fBindingsErrors = checkAssertions(Binding[].class, bindings, desc, errorReporter);
+    for(int i = 0; i < bindings.length; i++)
+    {
+      validateUnit(bindings[i], desc, errorReporter);
+    }
+    
+    Service[] services = desc.getServices();
+    fServicesErrors = checkAssertions(Service[].class, services, desc, errorReporter);
+    for(int i = 0; i < services.length; i++)
+    {
+      validateUnit(services[i], desc, errorReporter);
+    }
+  }
+  
+  private void validateModified(Description desc, Set modified, ErrorReporter errorReporter) throws WSDLException
+  {
+    Map affected = new IdentityHashMap();
+    boolean interfacesModified = false;
+    boolean bindingsModified = false;
+    boolean servicesModified = false;
+    
+    for(Iterator i = modified.iterator(); i.hasNext(); )
+    {
+      Object component = i.next();
+      interfacesModified |= component instanceof Interface;
+      bindingsModified |= component instanceof Binding;
+      servicesModified |= component instanceof Service;
+      
+      affected.put(component, component);
+      Map dependents = (Map)fDependents.get(component);
+      if(dependents != null)
+      {
+        affected.putAll(dependents);
+      }
+    }
+    
+    if(interfacesModified)
+    {
+      fInterfacesErrors = checkAssertions(Interface[].class, desc.getInterfaces(), desc, errorReporter);
+    }
+    if(bindingsModified)
+    {
+      fBindingsErrors = checkAssertions(Binding[].class, desc.getBindings(), desc, errorReporter);
+    }
+    if(servicesModified)
+    {
+      fServicesErrors = checkAssertions(Service[].class, desc.getServices(), desc, errorReporter);
+    }
+    
+    for(Iterator i = affected.keySet().iterator(); i.hasNext(); )
+    {
+      validateUnit((WSDLComponent)i.next(), desc, errorReporter);
+    }
+  }
+  
+  private BufferedErrorReporter checkAssertions(Class targetType, Object target, Description desc, ErrorReporter errorReporter) throws WSDLException
+  {
+    BufferedErrorReporter errors = new BufferedErrorReporter(errorReporter);
+    fCompValidator.checkAssertions(targetType, target, desc, errors);
+    return errors;
+  }
+  
+  /*
+   * Check the assertions about an interface, binding or service and the components
+   * nested in it, and record the components they depend on.
+   */
+  private void validateUnit(WSDLComponent component, Description desc, ErrorReporter errorReporter) throws WSDLException
+  {
+    Unit unit = (Unit)fUnits.get(component);
+    if(unit != null)
+    {
+      for(Iterator i = unit.fDependencies.iterator(); i.hasNext(); )
+      {
+        Map dependents = (Map)fDependents.get(i.next());
+        if(dependents != null)
+        {
+          dependents.remove(component);
+        }
+      }
+    }
+    
+    BufferedErrorReporter errors = new BufferedErrorReporter(errorReporter, true);
+    if(component instanceof Interface)
+    {
+      fCompValidator.validateInterface((Interface)component, desc, errors);
+    }
+    else if(component instanceof Binding)
+    {
+      fCompValidator.validateBinding((Binding)component, desc, errors);
+    }
+    else
+    {
+      fCompValidator.validateService((Service)component, desc, errors);
+    }
+    
+    //The dependencies on components nested in other interfaces, bindings or 
+    //services are kept as dependencies on those interfaces, bindings or services.
+    Map dependencies = new IdentityHashMap();
+    for(Iterator i = errors.getDependencies().iterator(); i.hasNext(); )
+    {
+      Object dependency = i.next();
+      while(dependency instanceof NestedComponent)
+      {
+        dependency = ((NestedComponent)dependency).getParent();
+      }
+      if(dependency != null && dependency != component)
+      {
+        dependencies.put(dependency, dependency);
+        Map dependents = (Map)fDependents.get(dependency);
+        if(dependents == null)
+        {
+          dependents = new IdentityHashMap();
+          fDependents.put(dependency, dependents);
+        }
+        dependents.put(component, component);
+      }
+    }
+    
+    fUnits.put(component, new Unit(getName(component), errors, dependencies.keySet()));
+  }
+  
+  /*
+   * Report the errors kept for the description, in the order WSDLComponentValidator
+   * reports them.
+   */
+  private void replay(Description desc, ErrorReporter errorReporter) throws WSDLException
+  {
+    fInterfacesErrors.replay(errorReporter);
+    Interface[] interfaces = desc.getInterfaces();
+    for(int i = 0; i < interfaces.length; i++)
+    {
+      ((Unit)fUnits.get(interfaces[i])).fErrors.replay(errorReporter);
+    }
+    
+    fBindingsErrors.replay(errorReporter);
+    Binding[] bindings = desc.getBindings();
+    for(int i = 0; i < bindings.length; i++)
+    {
+      ((Unit)fUnits.get(bindings[i])).fErrors.replay(errorReporter);
+    }
+    
+    fServicesErrors.replay(errorReporter);
+    Service[] services = desc.getServices();
+    for(int i = 0; i < services.length; i++)
+    {
+      ((Unit)fUnits.get(services[i])).fErrors.replay(errorReporter);
+    }
+  }
+  
+  private static QName getName(Object component)
+  {
+    if(component instanceof Interface)
+    {
+      return ((Interface)component).getName();
+    }
+    if(component instanceof Binding)
+    {
+      return ((Binding)component).getName();
+    }
+    if(component instanceof Service)
+    {
+      return ((Service)component).getName();
+    }
+    return null;
+  }
+  
+  /*
+   * The result of the document assertions about an interface element.
+   */
+  private static class DocumentUnit
+  {
+    final boolean fValid;
+    final BufferedErrorReporter fErrors;
+    
+    DocumentUnit(boolean valid, BufferedErrorReporter errors)
+    {
+      fValid = valid;
+      fErrors = errors;
+    }
+  }
+  
+  /*
+   * The validation state of an interface, binding or service.
+   */
+  private static class Unit
+  {
+    final QName fName;
+    final BufferedErrorReporter fErrors;
+    final Set fDependencies;
+    
+    Unit(QName name, BufferedErrorReporter errors, Set dependencies)
+    {
+      fName = name;
+      fErrors = errors;
+      fDependencies = dependencies;
+    }
+  }
+}
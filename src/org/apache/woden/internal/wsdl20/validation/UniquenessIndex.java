@@ -0,0 +1,109 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.validation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the keys seen by a uniqueness assertion, such as the names of the 
+ * interfaces of a description or the interface operations bound by the 
+ * operations of a binding. The keys are hashed, so checking n keys for 
+ * duplicates takes time linear in n rather than the quadratic time of 
+ * searching a list.
+ * <p>
+ * Keys are compared with equals, so names such as QNames and URIs are equal 
+ * by value and components by identity. A combination of values, such as an 
+ * interface fault and a message label, is indexed with the key returned by 
+ * key(Object, Object).
+ */
+final class UniquenessIndex 
+{
+  //Occurrences of each key, as int[1]
+  private final Map fCounts = new HashMap();
+  
+  /**
+   * Add a key to the index.
+   * 
+   * @param key The key, which may be null.
+   * @return True if the key had not been added before, false if it is a duplicate.
+   */
+  boolean add(Object key)
+  {
+    int[] count = (int[])fCounts.get(key);
+    if(count == null)
+    {
+      fCounts.put(key, new int[] {1});
+      return true;
+    }
+    count[0]++;
+    return false;
+  }
+  
+  /**
+   * Get the number of times a key has been added to the index.
+   * 
+   * @param key The key, which may be null.
+   * @return The number of times the key has been added.
+   */
+  int count(Object key)
+  {
+    int[] count = (int[])fCounts.get(key);
+    return count != null ? count[0] : 0;
+  }
+  
+  /**
+   * Get a key for a combination of two values. Keys are equal when both 
+   * their values are equal.
+   * 
+   * @param first The first value, which may be null.
+   * @param second The second value, which may be null.
+   * @return The key.
+   */
+  static Object key(Object first, Object second)
+  {
+    return new Pair(first, second);
+  }
+  
+  private static class Pair
+  {
+    private final Object fFirst;
+    private final Object fSecond;
+    
+    Pair(Object first, Object second)
+    {
+      fFirst = first;
+      fSecond = second;
+    }
+    
+    public boolean equals(Object other)
+    {
+      if(!(other instanceof Pair))
+      {
+        return false;
+      }
+      Pair pair = (Pair)other;
+      return (fFirst == null ? pair.fFirst == null : fFirst.equals(pair.fFirst)) &&
+             (fSecond == null ? pair.fSecond == null : fSecond.equals(pair.fSecond));
+    }
+    
+    public int hashCode()
+    {
+      return (fFirst == null ? 0 : fFirst.hashCode()) * 31 + 
+             (fSecond == null ? 0 : fSecond.hashCode());
+    }
+  }
+}
@@ -17,8 +17,12 @@ package org.apache.woden.internal.wsdl20.validation;
 
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.xml.namespace.QName;
 
@@ -26,6 +30,7 @@ import org.apache.woden.ErrorReporter;
 import org.apache.woden.WSDLException;
 import org.apache.woden.internal.ErrorLocatorImpl;
 import org.apache.woden.internal.wsdl20.Constants;
+import org.apache.woden.internal.wsdl20.InterfaceImpl;
 import org.apache.woden.types.NCName;
 import org.apache.woden.wsdl20.Binding;
 import org.apache.woden.wsdl20.BindingFault;
@@ -51,9 +56,63 @@ import org.apache.woden.wsdl20.enumeration.MessageLabel;
  * WSDL 2.0 component assertions are currently available in the
  * non-normative version of the WSDL 2.0 specification and can be viewed at
  * http://dev.w3.org/cvsweb/~checkout~/2002/ws/desc/wsdl20/wsdl20.html?content-type=text/html;%20charset=utf-8#assertionsummary
+ * <p>
+ * The assertions are held in an AssertionRegistry, keyed by the type of component
+ * they target, and further assertions can be registered with it. If an executor is
+ * set, the interfaces, bindings and services are validated concurrently.
  */
 public class WSDLComponentValidator 
 {
+  private static final WSDLComponent[] NO_DEPENDENCIES = new WSDLComponent[0];
+  
+  private final AssertionRegistry fAssertionRegistry = new AssertionRegistry();
+  
+  private Executor fExecutor = null;
+  
+  /**
+   * Create a component validator with the WSDL 2.0 component assertions
+   * registered in its assertion registry.
+   */
+  public WSDLComponentValidator()
+  {
+    registerAssertions();
+  }
+  
+  /**
+   * Get the registry of the assertions checked by this validator. Further
+   * assertions registered with it are checked after the WSDL 2.0 component 
+   * assertions of the same target type.
+   * 
+   * @return The assertion registry of this validator.
+   */
+  public AssertionRegistry getAssertionRegistry()
+  {
+    return fAssertionRegistry;
+  }
+  
+  /**
+   * Set the executor used to validate the interfaces, bindings and services
+   * concurrently. If the executor is null, which is the default, the components
+   * are validated on the calling thread. Either way the errors are reported to 
+   * the error reporter on the calling thread, in the same order.
+   * 
+   * @param executor The executor to validate the components with, or null.
+   */
+  public void setExecutor(Executor executor)
+  {
+    fExecutor = executor;
+  }
+  
+  /**
+   * Get the executor used to validate the components concurrently.
+   * 
+   * @return The executor, or null if the components are validated on the calling thread.
+   */
+  public Executor getExecutor()
+  {
+    return fExecutor;
+  }
+  
   /**
    * Validate the WSDL 2.0 component model described by the
    * description component.
@@ -64,9 +123,17 @@ public class WSDLComponentValidator
    */
   public void validate(Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-    validateInterfaces(desc.getInterfaces(), desc, errorReporter);
-    validateBindings(desc.getBindings(), desc, errorReporter);
-    validateServices(desc.getServices(), desc, errorReporter);	
+    Executor executor = fExecutor;
+    if(executor == null)
+    {
+      validateInterfaces(desc.getInterfaces(), desc, errorReporter);
+      validateBindings(desc.getBindings(), desc, errorReporter);
+      validateServices(desc.getServices(), desc, errorReporter);
+    }
+    else
+    {
+      validateConcurrently(desc, errorReporter, executor);
+    }
   }
 	
   /**
@@ -79,75 +146,88 @@ public class WSDLComponentValidator
    */
   protected void validateInterfaces(Interface[] interfaces, Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-	testAssertionInterface0030(interfaces, errorReporter);
+	checkAssertions(Interface[].class, interfaces, desc, errorReporter);
 	  
 	int numInterfaces = interfaces.length;
 	for(int i = 0; i < numInterfaces; i++)
 	{
-      Interface interfac = interfaces[i];
-      
-	  testAssertionInterface0027(interfac, errorReporter);
+	  validateInterface(interfaces[i], desc, errorReporter);
+	}
+  }
+  
+  /**
+   * Validate an interface in the WSDL component model, along with its
+   * operations and faults.
+   * 
+   * @param interfac The interface to validate.
+   * @param desc The WSDL 2.0 description component.
+   * @param errorReporter An error reporter to be used for reporting errors.
+   * @throws WSDLException A WSDLException is thrown if a problem occurs while validating the interface component.
+   */
+  protected void validateInterface(Interface interfac, Description desc, ErrorReporter errorReporter) throws WSDLException
+  {
+	checkAssertions(Interface.class, interfac, desc, errorReporter);
 	  
-	  InterfaceOperation[] interfaceOperations = interfac.getInterfaceOperations();
-	  testAssertionInterfaceOperation0035(interfaceOperations, errorReporter);
+	InterfaceOperation[] interfaceOperations = interfac.getInterfaceOperations();
+	checkAssertions(InterfaceOperation[].class, interfaceOperations, desc, errorReporter);
 	  
-	  int numInterfaceOperations = interfaceOperations.length;
-	  for(int j = 0; j < numInterfaceOperations; j++)
-	  {
-		InterfaceOperation interfaceOperation = interfaceOperations[j];
+	int numInterfaceOperations = interfaceOperations.length;
+	for(int j = 0; j < numInterfaceOperations; j++)
+	{
+	  InterfaceOperation interfaceOperation = interfaceOperations[j];
 		
-		testAssertionMEP0037(interfaceOperation.getMessageExchangePattern(), errorReporter);
-		testAssertionInterfaceOperation0029(interfaceOperation, interfac, errorReporter);
+	  checkAssertions(InterfaceOperation.class, interfaceOperation, desc, errorReporter);
 		
-		InterfaceMessageReference[] messageReferences = interfaceOperation.getInterfaceMessageReferences();
+	  InterfaceMessageReference[] messageReferences = interfaceOperation.getInterfaceMessageReferences();
 		
-		testAssertionInterfaceMessageReference0042(messageReferences, errorReporter);
+	  checkAssertions(InterfaceMessageReference[].class, messageReferences, desc, errorReporter);
 		
-		int numMessageReferences = messageReferences.length;
-		for(int k = 0; k < numMessageReferences; k++)
-		{
-		  InterfaceMessageReference messageReference = messageReferences[k];
+	  int numMessageReferences = messageReferences.length;
+	  for(int k = 0; k < numMessageReferences; k++)
+	  {
+		InterfaceMessageReference messageReference = messageReferences[k];
 		  
-		  testAssertionInterfaceMessageReference0041(messageReference, errorReporter);
+		checkAssertions(InterfaceMessageReference.class, messageReference, desc, errorReporter);
 		  
-		  validateFeatures(messageReference.getFeatures(), errorReporter);
-		  validateProperties(messageReference.getProperties(), desc, errorReporter);
-		}
+		validateFeatures(messageReference.getFeatures(), desc, errorReporter);
+		validateProperties(messageReference.getProperties(), desc, errorReporter);
+	  }
 		
-		InterfaceFaultReference[] faultReferences = interfaceOperation.getInterfaceFaultReferences();
+	  InterfaceFaultReference[] faultReferences = interfaceOperation.getInterfaceFaultReferences();
 		
-		testAssertionInterfaceFaultReference0045(faultReferences, errorReporter);
+	  checkAssertions(InterfaceFaultReference[].class, faultReferences, desc, errorReporter);
 		
-		int numFaultReferences = faultReferences.length;
-		for(int k = 0; k < numFaultReferences; k++)
-		{
-		  InterfaceFaultReference faultReference = faultReferences[k];
+	  int numFaultReferences = faultReferences.length;
+	  for(int k = 0; k < numFaultReferences; k++)
+	  {
+		InterfaceFaultReference faultReference = faultReferences[k];
 		  
-		  validateFeatures(faultReference.getFeatures(), errorReporter);
-		  validateProperties(faultReference.getProperties(), desc, errorReporter);
-		}
-		
-		validateFeatures(interfaceOperation.getFeatures(), errorReporter);
-		validateProperties(interfaceOperation.getProperties(), desc, errorReporter);
+		checkAssertions(InterfaceFaultReference.class, faultReference, desc, errorReporter);
+		  
+		validateFeatures(faultReference.getFeatures(), desc, errorReporter);
+		validateProperties(faultReference.getProperties(), desc, errorReporter);
 	  }
+		
+	  validateFeatures(interfaceOperation.getFeatures(), desc, errorReporter);
+	  validateProperties(interfaceOperation.getProperties(), desc, errorReporter);
+	}
 	  
-	  InterfaceFault[] interfaceFaults = interfac.getInterfaceFaults();
-	  testAssertionInterfaceFault0032(interfaceFaults, errorReporter);
+	InterfaceFault[] interfaceFaults = interfac.getInterfaceFaults();
+	checkAssertions(InterfaceFault[].class, interfaceFaults, desc, errorReporter);
 	  
-	  int numInterfaceFaults = interfaceFaults.length;
-	  for(int j = 0; j < numInterfaceFaults; j++)
-	  {
-		InterfaceFault interfaceFault = interfaceFaults[j];
+	int numInterfaceFaults = interfaceFaults.length;
+	for(int j = 0; j < numInterfaceFaults; j++)
+	{
+	  InterfaceFault interfaceFault = interfaceFaults[j];
 		
-		testAssertionInterfaceFault0028(interfaceFault, interfac, errorReporter);
+	  checkAssertions(InterfaceFault.class, interfaceFault, desc, errorReporter);
 		
-		validateFeatures(interfaceFault.getFeatures(), errorReporter);
-		validateProperties(interfaceFault.getProperties(), desc, errorReporter);
-	  }
-	  
-	  validateFeatures(interfac.getFeatures(), errorReporter);
-	  validateProperties(interfac.getProperties(), desc, errorReporter);
+	  validateFeatures(interfaceFault.getFeatures(), desc, errorReporter);
+	  validateProperties(interfaceFault.getProperties(), desc, errorReporter);
 	}
+	  
+	validateFeatures(interfac.getFeatures(), desc, errorReporter);
+	validateProperties(interfac.getProperties(), desc, errorReporter);
 
 //		
 //		# test for equivalence of two fault definitions. Should the equivalence code be in the InterfaceFault class.
@@ -192,25 +272,36 @@ public class WSDLComponentValidator
    */
   protected void validateBindings(Binding[] bindings, Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-	  testAssertionBinding0057(bindings, errorReporter);
+	  checkAssertions(Binding[].class, bindings, desc, errorReporter);
 	  
 	  int numBindings = bindings.length;
 	  for(int i = 0; i < numBindings; i++)
 	  {
-		  Binding binding = bindings[i];
-		  testAssertionBinding0054(binding, errorReporter);
-		  testAssertionBinding0055(binding, errorReporter);
-		  testAssertionBinding0056(binding, errorReporter);
-		  
-		  validateBindingOperations(binding.getBindingOperations(), desc, errorReporter);
-		  
-		  validateBindingFault(binding.getBindingFaults(), desc, errorReporter);
-		  
-		  validateFeatures(binding.getFeatures(), errorReporter);
-		  validateProperties(binding.getProperties(), desc, errorReporter);
+		  validateBinding(bindings[i], desc, errorReporter);
 	  }
   }
   
+  /**
+   * Validate a binding in the WSDL component model, along with its
+   * operations and faults.
+   * 
+   * @param binding The binding to validate.
+   * @param desc The WSDL 2.0 description component.
+   * @param errorReporter An error reporter to be used for reporting errors.
+   * @throws WSDLException A WSDLException is thrown if a problem occurs while validating the binding component.
+   */
+  protected void validateBinding(Binding binding, Description desc, ErrorReporter errorReporter) throws WSDLException
+  {
+	  checkAssertions(Binding.class, binding, desc, errorReporter);
+	  
+	  validateBindingOperations(binding.getBindingOperations(), desc, errorReporter);
+	  
+	  validateBindingFault(binding.getBindingFaults(), desc, errorReporter);
+	  
+	  validateFeatures(binding.getFeatures(), desc, errorReporter);
+	  validateProperties(binding.getProperties(), desc, errorReporter);
+  }
+  
   /**
    * Validate the binding operations in the WSDL component model.
    *  
@@ -221,16 +312,18 @@ public class WSDLComponentValidator
    */
   protected void validateBindingOperations(BindingOperation[] bindingOperations, Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-	  testAssertionBindingOperation0059(bindingOperations, errorReporter);
+	  checkAssertions(BindingOperation[].class, bindingOperations, desc, errorReporter);
 	  
 	  int numBindingOperations = bindingOperations.length;
 	  for(int i = 0; i < numBindingOperations; i++)
 	  {
 		  BindingOperation bindingOperation = bindingOperations[i];
+		  checkAssertions(BindingOperation.class, bindingOperation, desc, errorReporter);
+		  
 		  validateBindingMessageReferences(bindingOperation.getBindingMessageReferences(), desc, errorReporter);
 		  validateBindingFaultReferences(bindingOperation.getBindingFaultReferences(), desc, errorReporter);
 		  
-		  validateFeatures(bindingOperation.getFeatures(), errorReporter);
+		  validateFeatures(bindingOperation.getFeatures(), desc, errorReporter);
 		  validateProperties(bindingOperation.getProperties(), desc, errorReporter);
 	  }
 	  
@@ -246,7 +339,7 @@ public class WSDLComponentValidator
    */
   protected void validateBindingMessageReferences(BindingMessageReference[] bindingMessageReferences, Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-	  testAssertionBindingMessageReference0060(bindingMessageReferences, errorReporter);
+	  checkAssertions(BindingMessageReference[].class, bindingMessageReferences, desc, errorReporter);
 	  
 	  int numBindingMessageReferences = bindingMessageReferences.length;
 	  
@@ -254,7 +347,9 @@ public class WSDLComponentValidator
 	  {
 		BindingMessageReference bindingMessageReference = bindingMessageReferences[i];
 		
-		validateFeatures(bindingMessageReference.getFeatures(), errorReporter);
+		checkAssertions(BindingMessageReference.class, bindingMessageReference, desc, errorReporter);
+		
+		validateFeatures(bindingMessageReference.getFeatures(), desc, errorReporter);
 		validateProperties(bindingMessageReference.getProperties(), desc, errorReporter);
 	  }
   }
@@ -269,15 +364,15 @@ public class WSDLComponentValidator
    */
   protected void validateBindingFaultReferences(BindingFaultReference[] bindingFaultReferences, Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-	  testAssertionBindingFaultReference0061(bindingFaultReferences, errorReporter);
+	  checkAssertions(BindingFaultReference[].class, bindingFaultReferences, desc, errorReporter);
 	  
 	  int numBindingFaultReferences = bindingFaultReferences.length;
 	  for(int i = 0; i < numBindingFaultReferences; i++)
 	  {
 		BindingFaultReference bindingFaultReference = bindingFaultReferences[i];
-	    testAssertionBindingFaultReference0062(bindingFaultReference, errorReporter);
+	    checkAssertions(BindingFaultReference.class, bindingFaultReference, desc, errorReporter);
 	    
-	    validateFeatures(bindingFaultReference.getFeatures(), errorReporter);
+	    validateFeatures(bindingFaultReference.getFeatures(), desc, errorReporter);
 	    validateProperties(bindingFaultReference.getProperties(), desc, errorReporter);
 	  }
   }
@@ -292,7 +387,7 @@ public class WSDLComponentValidator
    */
   protected void validateBindingFault(BindingFault[] bindingFaults, Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-	testAssertionBindingFault0058(bindingFaults, errorReporter);
+	checkAssertions(BindingFault[].class, bindingFaults, desc, errorReporter);
 	
 	int numBindingFaults = bindingFaults.length;
 	
@@ -300,7 +395,9 @@ public class WSDLComponentValidator
 	{
 	  BindingFault bindingFault = bindingFaults[i];
 	  
-	  validateFeatures(bindingFault.getFeatures(), errorReporter);
+	  checkAssertions(BindingFault.class, bindingFault, desc, errorReporter);
+	  
+	  validateFeatures(bindingFault.getFeatures(), desc, errorReporter);
 	  validateProperties(bindingFault.getProperties(), desc, errorReporter);
 	}
   }
@@ -315,20 +412,33 @@ public class WSDLComponentValidator
    */
   protected void validateServices(Service[] services, Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-	  testAssertionService0063(services, errorReporter);
+	  checkAssertions(Service[].class, services, desc, errorReporter);
 	  
 	  int numServices = services.length;
 	  for(int i = 0; i < numServices; i++)
 	  {
-		  Service service = services[i];
-		  
-		  validateEndpoints(service.getEndpoints(), desc, errorReporter);
-		  
-		  validateFeatures(service.getFeatures(), errorReporter);
-		  validateProperties(service.getProperties(), desc, errorReporter);
+		  validateService(services[i], desc, errorReporter);
 	  }
   }
   
+  /**
+   * Validate a service in the WSDL component model, along with its endpoints.
+   * 
+   * @param service The service to validate.
+   * @param desc The WSDL 2.0 description component.
+   * @param errorReporter An error reporter to be used for reporting errors.
+   * @throws WSDLException A WSDLException is thrown if a problem occurs while validating the service component.
+   */
+  protected void validateService(Service service, Description desc, ErrorReporter errorReporter) throws WSDLException
+  {
+	  checkAssertions(Service.class, service, desc, errorReporter);
+	  
+	  validateEndpoints(service.getEndpoints(), desc, errorReporter);
+	  
+	  validateFeatures(service.getFeatures(), desc, errorReporter);
+	  validateProperties(service.getProperties(), desc, errorReporter);
+  }
+  
   /**
    * Validate the endpoints in a service component in the WSDL component model.
    * 
@@ -339,16 +449,15 @@ public class WSDLComponentValidator
    */
   protected void  validateEndpoints(Endpoint[] endpoints, Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-	  testAssertionEndpoint0065(endpoints, errorReporter);
+	  checkAssertions(Endpoint[].class, endpoints, desc, errorReporter);
 
 	  int numEndpoints = endpoints.length;
 	  for(int i = 0; i < numEndpoints; i++)
 	  {
 		  Endpoint endpoint = endpoints[i];
-		  testAssertionEndpoint0064(endpoint, errorReporter);
-		  testAssertionEndpoint0066(endpoint, errorReporter);
+		  checkAssertions(Endpoint.class, endpoint, desc, errorReporter);
 		  
-		  validateFeatures(endpoint.getFeatures(), errorReporter);
+		  validateFeatures(endpoint.getFeatures(), desc, errorReporter);
 		  validateProperties(endpoint.getProperties(), desc, errorReporter);
 	  }
   }
@@ -363,17 +472,13 @@ public class WSDLComponentValidator
    */
   protected void validateProperties(Property[] properties, Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-	testAssertionProperty0050(properties, errorReporter);
+	checkAssertions(Property[].class, properties, desc, errorReporter);
 	
 	int numProperties = properties.length;
 	
 	for(int i = 0; i < numProperties; i++)
 	{
-	  Property property = properties[i];
-	  
-	  testAssertionPropertyRef0048(property, errorReporter);
-	  testAssertionProperty0049(property, desc, errorReporter);
-	  testAssertionProperty0049b(property, errorReporter);
+	  checkAssertions(Property.class, properties[i], desc, errorReporter);
 	}
   }
   
@@ -381,19 +486,424 @@ public class WSDLComponentValidator
    * Validate the features in the WSDL component model.
    * 
    * @param features The features in the WSDL component model.
+   * @param desc The WSDL 2.0 description component.
    * @param errorReporter An error reporter to be used for reporting errors.
    * @throws WSDLException A WSDLException is thrown if a problem occurs while validating the feature components.
    */
-  protected void validateFeatures(Feature[] features, ErrorReporter errorReporter) throws WSDLException
+  protected void validateFeatures(Feature[] features, Description desc, ErrorReporter errorReporter) throws WSDLException
   {
-	testAssertionFeatureRef0047(features, errorReporter);
+	checkAssertions(Feature[].class, features, desc, errorReporter);
 		
 	int numFeatures = features.length;
 	for(int i = 0; i < numFeatures; i++)
 	{
-      testAssertionFeatureRef0046(features[i], errorReporter);
+	  checkAssertions(Feature.class, features[i], desc, errorReporter);
 	}
   }
+  
+  /*
+   * Check the assertions registered for a type of component against a 
+   * component, or an array of components, of that type. The dependencies of
+   * the assertions are recorded if the error reporter is recording them for
+   * incremental validation.
+   */
+  void checkAssertions(Class targetType, Object target, Description desc, ErrorReporter errorReporter) throws WSDLException
+  {
+    ComponentAssertion[] assertions = fAssertionRegistry.getAssertions(targetType);
+    for(int i = 0; i < assertions.length; i++)
+    {
+      assertions[i].validate(target, desc, errorReporter);
+    }
+    
+    if(errorReporter instanceof BufferedErrorReporter && 
+       ((BufferedErrorReporter)errorReporter).isRecordingDependencies())
+    {
+      for(int i = 0; i < assertions.length; i++)
+      {
+        ((BufferedErrorReporter)errorReporter).addDependencies(assertions[i].getDependencies(target, desc));
+      }
+    }
+  }
+  
+  /*
+   * Validate each interface, binding and service as a separate task on the executor. 
+   * The assertions about all the interfaces, bindings or services together are checked 
+   * on this thread. Each task reports its errors to its own buffer and the buffers are 
+   * replayed to the error reporter in the order the components would have been validated
+   * in on this thread, so the errors reported do not depend on the scheduling of the tasks.
+   */
+  private void validateConcurrently(Description desc, ErrorReporter errorReporter, Executor executor) throws WSDLException
+  {
+    Interface[] interfaces = desc.getInterfaces();
+    Binding[] bindings = desc.getBindings();
+    Service[] services = desc.getServices();
+    
+    prepareComponentModel(desc, interfaces);
+    
+    FutureTask[] interfaceTasks = submitTasks(interfaces, desc, errorReporter, executor);
+    FutureTask[] bindingTasks = submitTasks(bindings, desc, errorReporter, executor);
+    FutureTask[] serviceTasks = submitTasks(services, desc, errorReporter, executor);
+    
+    try
+    {
+      checkAssertions(Interface[].class, interfaces, desc, errorReporter);
+      replayTasks(interfaceTasks, errorReporter);
+      checkAssertions(Binding[].class, bindings, desc, errorReporter);
+      replayTasks(bindingTasks, errorReporter);
+      checkAssertions(Service[].class, services, desc, errorReporter);
+      replayTasks(serviceTasks, errorReporter);
+    }
+    finally
+    {
+      //If the error reporter stopped the validation, the remaining tasks are not needed.
+      cancelTasks(interfaceTasks);
+      cancelTasks(bindingTasks);
+      cancelTasks(serviceTasks);
+    }
+  }
+  
+  /*
+   * Some parts of the component model, such as the component indexes of the description
+   * and the interfaces an interface extends, are computed when first requested. Request 
+   * them on this thread before the tasks are submitted, so the tasks only read the model.
+   */
+  private void prepareComponentModel(Description desc, Interface[] interfaces)
+  {
+    desc.getElementDeclarations();
+    desc.getTypeDefinitions();
+    
+    for(int i = 0; i < interfaces.length; i++)
+    {
+      if(interfaces[i] instanceof InterfaceImpl)
+      {
+        ((InterfaceImpl)interfaces[i]).getInheritedInterfaces();
+      }
+    }
+  }
+  
+  private FutureTask[] submitTasks(WSDLComponent[] components, Description desc, ErrorReporter errorReporter, Executor executor)
+  {
+    FutureTask[] tasks = new FutureTask[components.length];
+    for(int i = 0; i < components.length; i++)
+    {
+      tasks[i] = new FutureTask(new ComponentValidation(components[i], desc, errorReporter));
+      try
+      {
+        executor.execute(tasks[i]);
+      }
+      catch(RejectedExecutionException e)
+      {
+        //The task is run on this thread when its errors are replayed.
+      }
+    }
+    return tasks;
+  }
+  
+  private void replayTasks(FutureTask[] tasks, ErrorReporter errorReporter) throws WSDLException
+  {
+    for(int i = 0; i < tasks.length; i++)
+    {
+      //Run the task on this thread if the executor has not started it yet.
+      tasks[i].run();
+      
+      BufferedErrorReporter reporter;
+      try
+      {
+        reporter = (BufferedErrorReporter)tasks[i].get();
+      }
+      catch(InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new WSDLException(WSDLException.OTHER_ERROR,
+            "Interrupted while validating the component model.", e);
+      }
+      catch(ExecutionException e)
+      {
+        Throwable cause = e.getCause();
+        if(cause instanceof WSDLException)
+        {
+          throw (WSDLException)cause;
+        }
+        if(cause instanceof RuntimeException)
+        {
+          throw (RuntimeException)cause;
+        }
+        if(cause instanceof Error)
+        {
+          throw (Error)cause;
+        }
+        throw new WSDLException(WSDLException.OTHER_ERROR, cause.getMessage(), cause);
+      }
+      reporter.replay(errorReporter);
+    }
+  }
+  
+  private void cancelTasks(FutureTask[] tasks)
+  {
+    for(int i = 0; i < tasks.length; i++)
+    {
+      tasks[i].cancel(false);
+    }
+  }
+  
+  /*
+   * Validates one interface, binding or service, reporting the errors found to 
+   * a BufferedErrorReporter which is the result of the task.
+   */
+  private class ComponentValidation implements Callable
+  {
+    private final WSDLComponent fComponent;
+    private final Description fDesc;
+    private final ErrorReporter fErrorReporter;
+    
+    ComponentValidation(WSDLComponent component, Description desc, ErrorReporter errorReporter)
+    {
+      fComponent = component;
+      fDesc = desc;
+      fErrorReporter = errorReporter;
+    }
+    
+    public Object call() throws Exception
+    {
+      BufferedErrorReporter reporter = new BufferedErrorReporter(fErrorReporter);
+      if(fComponent instanceof Interface)
+      {
+        validateInterface((Interface)fComponent, fDesc, reporter);
+      }
+      else if(fComponent instanceof Binding)
+      {
+        validateBinding((Binding)fComponent, fDesc, reporter);
+      }
+      else if(fComponent instanceof Service)
+      {
+        validateService((Service)fComponent, fDesc, reporter);
+      }
+      return reporter;
+    }
+  }
+  
+  /*
+   * Register the WSDL 2.0 component assertions, in the order they were
+   * checked in before the assertion registry was introduced.
+   */
+  private void registerAssertions()
+  {
+    fAssertionRegistry.registerAssertion(new Assertion("Interface-0030", Interface[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionInterface0030((Interface[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("Interface-0027", Interface.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionInterface0027((Interface)target, errorReporter);
+      }
+      public WSDLComponent[] getDependencies(Object target, Description desc) {
+        return getInterfaceDependencies(((Interface)target).getExtendedInterfaces());
+      }
+      });
+    fAssertionRegistry.registerAssertion(new Assertion("InterfaceOperation-0035", InterfaceOperation[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionInterfaceOperation0035((InterfaceOperation[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("MEP-0037", InterfaceOperation.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionMEP0037(((InterfaceOperation)target).getMessageExchangePattern(), errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("InterfaceOperation-0029", InterfaceOperation.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        InterfaceOperation interfaceOperation = (InterfaceOperation)target;
+        return testAssertionInterfaceOperation0029(interfaceOperation, (Interface)interfaceOperation.getParent(), errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("InterfaceMessageReference-0042", InterfaceMessageReference[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionInterfaceMessageReference0042((InterfaceMessageReference[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("InterfaceMessageReference-0041", InterfaceMessageReference.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionInterfaceMessageReference0041((InterfaceMessageReference)target, errorReporter);
+      }
+      public WSDLComponent[] getDependencies(Object target, Description desc) {
+        return new WSDLComponent[] {desc};
+      }
+      });
+    fAssertionRegistry.registerAssertion(new Assertion("InterfaceFaultReference-0045", InterfaceFaultReference[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionInterfaceFaultReference0045((InterfaceFaultReference[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("InterfaceFault-0032", InterfaceFault[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionInterfaceFault0032((InterfaceFault[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("InterfaceFault-0028", InterfaceFault.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        InterfaceFault interfaceFault = (InterfaceFault)target;
+        return testAssertionInterfaceFault0028(interfaceFault, (Interface)interfaceFault.getParent(), errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("Binding-0057", Binding[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionBinding0057((Binding[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("Binding-0054", Binding.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionBinding0054((Binding)target, errorReporter);
+      }
+      public WSDLComponent[] getDependencies(Object target, Description desc) {
+        Interface bindingInterface = ((Binding)target).getInterface();
+        return bindingInterface != null ? new WSDLComponent[] {bindingInterface} : NO_DEPENDENCIES;
+      }
+      });
+    fAssertionRegistry.registerAssertion(new Assertion("Binding-0055", Binding.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionBinding0055((Binding)target, errorReporter);
+      }
+      public WSDLComponent[] getDependencies(Object target, Description desc) {
+        return getInterfaceDependencies(new Interface[] {((Binding)target).getInterface()});
+      }
+      });
+    fAssertionRegistry.registerAssertion(new Assertion("Binding-0056", Binding.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionBinding0056((Binding)target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("BindingOperation-0059", BindingOperation[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionBindingOperation0059((BindingOperation[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("BindingMessageReference-0060", BindingMessageReference[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionBindingMessageReference0060((BindingMessageReference[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("BindingFaultReference-0061", BindingFaultReference[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionBindingFaultReference0061((BindingFaultReference[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("BindingFaultReference-0062", BindingFaultReference.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionBindingFaultReference0062((BindingFaultReference)target, errorReporter);
+      }
+      public WSDLComponent[] getDependencies(Object target, Description desc) {
+        BindingOperation bindingOperation = (BindingOperation)((BindingFaultReference)target).getParent();
+        Binding binding = (Binding)bindingOperation.getParent();
+        return getInterfaceDependencies(new Interface[] {binding.getInterface()});
+      }
+      });
+    fAssertionRegistry.registerAssertion(new Assertion("BindingFault-0058", BindingFault[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionBindingFault0058((BindingFault[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("Service-0063", Service[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionService0063((Service[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("Endpoint-0065", Endpoint[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionEndpoint0065((Endpoint[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("Endpoint-0064", Endpoint.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionEndpoint0064((Endpoint)target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("Endpoint-0066", Endpoint.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionEndpoint0066((Endpoint)target, errorReporter);
+      }
+      public WSDLComponent[] getDependencies(Object target, Description desc) {
+        Binding binding = ((Endpoint)target).getBinding();
+        if(binding == null)
+        {
+          return NO_DEPENDENCIES;
+        }
+        Interface bindingInterface = binding.getInterface();
+        return bindingInterface != null ? new WSDLComponent[] {binding, bindingInterface} : new WSDLComponent[] {binding};
+      }
+      });
+    fAssertionRegistry.registerAssertion(new Assertion("FeatureRef-0047", Feature[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionFeatureRef0047((Feature[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("FeatureRef-0046", Feature.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionFeatureRef0046((Feature)target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("Property-0050", Property[].class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionProperty0050((Property[])target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("PropertyRef-0048", Property.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionPropertyRef0048((Property)target, errorReporter);
+      }});
+    fAssertionRegistry.registerAssertion(new Assertion("Property-0049", Property.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionProperty0049((Property)target, desc, errorReporter);
+      }
+      public WSDLComponent[] getDependencies(Object target, Description desc) {
+        return new WSDLComponent[] {desc};
+      }
+      });
+    fAssertionRegistry.registerAssertion(new Assertion("Property-0049b", Property.class) {
+      public boolean validate(Object target, Description desc, ErrorReporter errorReporter) throws WSDLException {
+        return testAssertionProperty0049b((Property)target, errorReporter);
+      }});
+  }
+  
+  /*
+   * Returns the interfaces, and the interfaces they extend directly or indirectly,
+   * as the dependencies of an assertion. Null interfaces are ignored.
+   */
+  private static WSDLComponent[] getInterfaceDependencies(Interface[] interfaces)
+  {
+    List dependencies = new ArrayList();
+    collectInterfaces(interfaces, dependencies, new UniquenessIndex());
+    WSDLComponent[] array = new WSDLComponent[dependencies.size()];
+    dependencies.toArray(array);
+    return array;
+  }
+  
+  private static void collectInterfaces(Interface[] interfaces, List collected, UniquenessIndex seen)
+  {
+    if(interfaces == null)
+    {
+      return;
+    }
+    for(int i = 0; i < interfaces.length; i++)
+    {
+      if(interfaces[i] != null && seen.add(interfaces[i]))
+      {
+        collected.add(interfaces[i]);
+        collectInterfaces(interfaces[i].getExtendedInterfaces(), collected, seen);
+      }
+    }
+  }
+  
+  /*
+   * A component assertion that delegates to one of the testAssertion methods.
+   * Unless overridden, the assertion does not depend on any other components.
+   */
+  private abstract static class Assertion implements ComponentAssertion
+  {
+    private final String fId;
+    private final Class fTargetType;
+    
+    Assertion(String id, Class targetType)
+    {
+      fId = id;
+      fTargetType = targetType;
+    }
+    
+    public String getId()
+    {
+      return fId;
+    }
+    
+    public Class getTargetType()
+    {
+      return fTargetType;
+    }
+    
+    public WSDLComponent[] getDependencies(Object target, Description desc)
+    {
+      return NO_DEPENDENCIES;
+    }
+  }
 	
   /**
    * Test assertion Interface-0027. An interface cannot appear, either directly or indirectly,
@@ -410,7 +920,7 @@ public class WSDLComponentValidator
 	Interface extendedInterface = containsInterface(interfac, extendedInterfaces);
 	if(extendedInterface != null)
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "Interface-0027", new Object[]{extendedInterface.getName()}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(interfac), "Interface-0027", new Object[]{extendedInterface.getName()}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
 	}
 	return true;
@@ -450,20 +960,16 @@ public class WSDLComponentValidator
   protected boolean testAssertionInterface0030(Interface[] interfaces, ErrorReporter errorReporter) throws WSDLException
   {
 	boolean duplicateFound = false;
-	List names = new ArrayList();
+	UniquenessIndex names = new UniquenessIndex();
 	int numInterfaces = interfaces.length;
 	for(int i = 0; i < numInterfaces; i++)
 	{
 	  QName name = interfaces[i].getName();
-	  if(names.contains(name))
+	  if(!names.add(name))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "Interface-0030", new Object[]{name}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(interfaces[i]), "Interface-0030", new Object[]{name}, ErrorReporter.SEVERITY_ERROR);
 		duplicateFound = true;
 	  }
-	  else
-	  {
-		names.add(name);
-	  }
 	}
 	return !duplicateFound;
   }
@@ -500,7 +1006,7 @@ public class WSDLComponentValidator
   {
 	if(!interfaceOperation.getName().getNamespaceURI().equals(interfac.getName().getNamespaceURI())) //TODO null checks
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "InterfaceOperation-0029", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(interfaceOperation), "InterfaceOperation-0029", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
 	}
 	return true;
@@ -517,20 +1023,16 @@ public class WSDLComponentValidator
    */
   protected boolean testAssertionInterfaceOperation0035(InterfaceOperation[] interfaceOperations, ErrorReporter errorReporter) throws WSDLException
   {
-	List names = new ArrayList();
+	UniquenessIndex names = new UniquenessIndex();
 	int numInterfaces = interfaceOperations.length;
 	for(int i = 0; i < numInterfaces; i++)
 	{
 	  QName name = interfaceOperations[i].getName();
-	  if(names.contains(name))
+	  if(!names.add(name))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "InterfaceOperation-0035", new Object[]{name}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(interfaceOperations[i]), "InterfaceOperation-0035", new Object[]{name}, ErrorReporter.SEVERITY_ERROR);
 		return false;
 	  }
-	  else
-	  {
-		names.add(name);
-	  }
 	}
 	return true;
   }
@@ -546,20 +1048,16 @@ public class WSDLComponentValidator
    */
   protected boolean testAssertionInterfaceFault0032(InterfaceFault[] interfaceFaults, ErrorReporter errorReporter) throws WSDLException
   {
-	List names = new ArrayList();
+	UniquenessIndex names = new UniquenessIndex();
 	int numInterfaceFaults = interfaceFaults.length;
 	for(int i = 0; i < numInterfaceFaults; i++)
 	{
 	  QName name = interfaceFaults[i].getName();
-	  if(names.contains(name))
+	  if(!names.add(name))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "InterfaceFault-0032", new Object[]{name}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(interfaceFaults[i]), "InterfaceFault-0032", new Object[]{name}, ErrorReporter.SEVERITY_ERROR);
 		return false;
 	  }
-	  else
-	  {
-		names.add(name);
-	  }
 	}
 	return true;
   }
@@ -578,7 +1076,7 @@ public class WSDLComponentValidator
   {
 	if(!interfaceFault.getName().getNamespaceURI().equals(interfac.getName().getNamespaceURI())) //TODO null checks
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "InterfaceFault-0028", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(interfaceFault), "InterfaceFault-0028", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
 	}
 	return true;
@@ -599,7 +1097,7 @@ public class WSDLComponentValidator
 	if((messContentModel.equals(Constants.NMTOKEN_ANY) || messContentModel.equals(Constants.NMTOKEN_NONE)) 
 		&& messageReference.getElementDeclaration() != null)
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "InterfaceMessageReference-0041", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(messageReference), "InterfaceMessageReference-0041", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
 	}
 	return true;
@@ -617,20 +1115,16 @@ public class WSDLComponentValidator
    */
   protected boolean testAssertionInterfaceMessageReference0042(InterfaceMessageReference[] messageReferences, ErrorReporter errorReporter) throws WSDLException
   {
-	List messageLabels = new ArrayList();
+	UniquenessIndex messageLabels = new UniquenessIndex();
 	int numMessageReferences = messageReferences.length;
 	for(int i = 0; i < numMessageReferences; i++)
 	{
 	  MessageLabel messageLabel = messageReferences[i].getMessageLabel();
-	  if(messageLabels.contains(messageLabel))
+	  if(!messageLabels.add(messageLabel))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "InterfaceMessageReference-0042", new Object[]{messageLabel}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(messageReferences[i]), "InterfaceMessageReference-0042", new Object[]{messageLabel}, ErrorReporter.SEVERITY_ERROR);
 		return false;
 	  }
-	  else
-	  {
-		messageLabels.add(messageLabel);
-	  }
 	}
 	return true;
   }
@@ -648,7 +1142,7 @@ public class WSDLComponentValidator
    */
   protected boolean testAssertionInterfaceFaultReference0045(InterfaceFaultReference[] faultReferences, ErrorReporter errorReporter) throws WSDLException
   {
-	Hashtable identifiers = new Hashtable();
+	UniquenessIndex identifiers = new UniquenessIndex();
 	
 	int numFaultReferences = faultReferences.length;
 	for(int i = 0; i < numFaultReferences; i++)
@@ -657,19 +1151,11 @@ public class WSDLComponentValidator
 	  MessageLabel messageLabel = faultReferences[i].getMessageLabel();
       if(fault == null || messageLabel == null)
     	continue;
-	  List messageLabels = (List)identifiers.get(fault);
-	  if(messageLabels != null && messageLabels.contains(messageLabel))
+	  if(!identifiers.add(UniquenessIndex.key(fault, messageLabel)))
 	  {
-	    errorReporter.reportError(new ErrorLocatorImpl(), "InterfaceFaultReference-0045", new Object[]{fault, messageLabel}, ErrorReporter.SEVERITY_ERROR);
+	    errorReporter.reportError(ErrorLocatorImpl.forElement(faultReferences[i]), "InterfaceFaultReference-0045", new Object[]{fault, messageLabel}, ErrorReporter.SEVERITY_ERROR);
 		return false;
       }
-	  else
-	  {
-		if(messageLabels == null)
-		  messageLabels = new ArrayList();
-		messageLabels.add(messageLabel);
-		identifiers.put(fault, messageLabels);
-	  }
 	}
 	return true;
   }
@@ -688,7 +1174,7 @@ public class WSDLComponentValidator
 	URI ref = feature.getRef();
     if(ref != null && !ref.isAbsolute())
     {
-      errorReporter.reportError(new ErrorLocatorImpl(), "FeatureRef-0046", new Object[]{ref}, ErrorReporter.SEVERITY_ERROR);
+      errorReporter.reportError(ErrorLocatorImpl.forElement(feature), "FeatureRef-0046", new Object[]{ref}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
     }
     return true;
@@ -710,21 +1196,17 @@ public class WSDLComponentValidator
   protected boolean testAssertionFeatureRef0047(Feature[] features, ErrorReporter errorReporter) throws WSDLException
   {
 	boolean isValid = true;
-	List refs = new ArrayList();
+	UniquenessIndex refs = new UniquenessIndex();
 	int numFeatures = features.length;
 	for(int i = 0; i < numFeatures; i++)
 	{
 	  URI ref = features[i].getRef();
 	  if(ref == null)
 		continue;
-      if(refs.contains(ref))
+      if(!refs.add(ref))
       {
-        errorReporter.reportError(new ErrorLocatorImpl(), "FeatureRef-0047", new Object[]{ref}, ErrorReporter.SEVERITY_ERROR);
+        errorReporter.reportError(ErrorLocatorImpl.forElement(features[i]), "FeatureRef-0047", new Object[]{ref}, ErrorReporter.SEVERITY_ERROR);
 	    isValid = false;
-      }
-      else
-      {
-    	refs.add(ref);
       }
 	}
     return isValid;
@@ -744,7 +1226,7 @@ public class WSDLComponentValidator
 	URI ref = property.getRef();
     if(ref != null && !ref.isAbsolute())
     {
-      errorReporter.reportError(new ErrorLocatorImpl(), "PropertyRef-0048", new Object[]{ref}, ErrorReporter.SEVERITY_ERROR);
+      errorReporter.reportError(ErrorLocatorImpl.forElement(property), "PropertyRef-0048", new Object[]{ref}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
     }
     return true;
@@ -766,21 +1248,17 @@ public class WSDLComponentValidator
   protected boolean testAssertionProperty0050(Property[] properties, ErrorReporter errorReporter) throws WSDLException
   {
 	boolean isValid = true;
-	List refs = new ArrayList();
+	UniquenessIndex refs = new UniquenessIndex();
 	int numProperties = properties.length;
 	for(int i = 0; i < numProperties; i++)
 	{
 	  URI ref = properties[i].getRef();
 	  if(ref == null)
 		continue;
-      if(refs.contains(ref))
+      if(!refs.add(ref))
       {
-        errorReporter.reportError(new ErrorLocatorImpl(), "Property-0050", new Object[]{ref}, ErrorReporter.SEVERITY_ERROR);
+        errorReporter.reportError(ErrorLocatorImpl.forElement(properties[i]), "Property-0050", new Object[]{ref}, ErrorReporter.SEVERITY_ERROR);
 	    isValid = false;
-      }
-      else
-      {
-    	refs.add(ref);
       }
 	}
     return isValid;
@@ -806,7 +1284,7 @@ public class WSDLComponentValidator
 	QName constraint = property.toElement().getConstraintName();
 	if(constraint != null && desc.getTypeDefinition(constraint) == null)
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "Property-0049", new Object[]{constraint}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(property), "Property-0049", new Object[]{constraint}, ErrorReporter.SEVERITY_ERROR);
   	  return false;
 	}
     return true;
@@ -830,7 +1308,7 @@ public class WSDLComponentValidator
   {
 	if(property.getValue() != null && !property.toElement().hasValueToken())
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "Property-0049", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(property), "Property-0049", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
 	}
     return true;
@@ -857,7 +1335,7 @@ public class WSDLComponentValidator
 		(bindingFaults != null && bindingFaults.length > 0)) && 
 		 bindingInterface == null)
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "Binding-0054", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(binding), "Binding-0054", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
 	}
     return true;
@@ -885,15 +1363,15 @@ public class WSDLComponentValidator
 	
 	BindingOperation[] bindingOperations = binding.getBindingOperations();
 	int numBindingOperations = bindingOperations.length;
-	List usedInterfaceOperationList = new ArrayList();
+	UniquenessIndex usedInterfaceOperations = new UniquenessIndex();
 	for(int i = 0; i < numBindingOperations; i++)
 	{
 	  InterfaceOperation io = bindingOperations[i].getInterfaceOperation();
 	  if(io != null)
-		usedInterfaceOperationList.add(io);
+		usedInterfaceOperations.add(io);
 	}
     // Check the interface operations.
-	if(!checkAllInterfaceOperationsHaveBinding(bindingName, interfac, usedInterfaceOperationList, errorReporter))
+	if(!checkAllInterfaceOperationsHaveBinding(bindingName, interfac, usedInterfaceOperations, errorReporter))
 	  allInterfaceOperationsHaveBinding = false;
 	
 	Interface[] extendedInterfaces = interfac.getExtendedInterfaces();
@@ -902,7 +1380,7 @@ public class WSDLComponentValidator
 	  int numExtendedInterfaces = extendedInterfaces.length;
 	  for(int i = 0; i < numExtendedInterfaces; i++)
   	  {
-	    if(!checkAllInterfaceOperationsHaveBinding(bindingName, extendedInterfaces[i], usedInterfaceOperationList, errorReporter))
+	    if(!checkAllInterfaceOperationsHaveBinding(bindingName, extendedInterfaces[i], usedInterfaceOperations, errorReporter))
 	      allInterfaceOperationsHaveBinding = false;
 	  }
 	}
@@ -917,12 +1395,12 @@ public class WSDLComponentValidator
    * 
    * @param bindingName The name of the binding. Used in error reporting.
    * @param interfac The interface of which to check the operations.
-   * @param usedInterfaceOperations A list of interface operations that have bindings specified.
+   * @param usedInterfaceOperations An index of the interface operations that have bindings specified.
    * @param errorReporter The error reporter.
    * @return True if all the interface operations have bindings defined, false otherwise.
    * @throws WSDLException
    */
-  private boolean checkAllInterfaceOperationsHaveBinding(String bindingName, Interface interfac, List usedInterfaceOperations, ErrorReporter errorReporter) throws WSDLException
+  private boolean checkAllInterfaceOperationsHaveBinding(String bindingName, Interface interfac, UniquenessIndex usedInterfaceOperations, ErrorReporter errorReporter) throws WSDLException
   {
 	boolean allInterfaceOperationsHaveBinding = true;
 	InterfaceOperation[] interfaceOperations = interfac.getInterfaceOperations();
@@ -934,9 +1412,9 @@ public class WSDLComponentValidator
 	// Check the interface operations.
 	for(int i = 0; i < numInterfaceOperations; i++)
 	{
-	  if(!usedInterfaceOperations.contains(interfaceOperations[i]))
+	  if(usedInterfaceOperations.count(interfaceOperations[i]) == 0)
 	  {
-	    errorReporter.reportError(new ErrorLocatorImpl(), "Binding-0055", new Object[]{bindingName, interfaceOperations[i].getName()}, ErrorReporter.SEVERITY_ERROR);
+	    errorReporter.reportError(ErrorLocatorImpl.forElement(interfaceOperations[i]), "Binding-0055", new Object[]{bindingName, interfaceOperations[i].getName()}, ErrorReporter.SEVERITY_ERROR);
 		allInterfaceOperationsHaveBinding = false;
 	  }
     }
@@ -957,7 +1435,7 @@ public class WSDLComponentValidator
 	URI type = binding.getType();
     if(type != null && !type.isAbsolute())
     {
-      errorReporter.reportError(new ErrorLocatorImpl(), "Binding-0056", new Object[]{type}, ErrorReporter.SEVERITY_ERROR);
+      errorReporter.reportError(ErrorLocatorImpl.forElement(binding), "Binding-0056", new Object[]{type}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
     }
     return true;
@@ -975,20 +1453,16 @@ public class WSDLComponentValidator
   protected boolean testAssertionBinding0057(Binding[] bindings, ErrorReporter errorReporter) throws WSDLException
   {
 	boolean duplicateFound = false;
-	List names = new ArrayList();
+	UniquenessIndex names = new UniquenessIndex();
 	int numBindings = bindings.length;
 	for(int i = 0; i < numBindings; i++)
 	{
 	  QName name = bindings[i].getName();
-	  if(names.contains(name))
+	  if(!names.add(name))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "Binding-0057", new Object[]{name}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(bindings[i]), "Binding-0057", new Object[]{name}, ErrorReporter.SEVERITY_ERROR);
 		duplicateFound = true;
 	  }
-	  else
-	  {
-		names.add(name);
-	  }
 	}
 	return !duplicateFound;
   }
@@ -1006,20 +1480,16 @@ public class WSDLComponentValidator
   protected boolean testAssertionBindingFault0058(BindingFault[] bindingFaults, ErrorReporter errorReporter) throws WSDLException
   {
 	boolean duplicateFound = false;
-	List usedInterfaceFaults = new ArrayList();
+	UniquenessIndex usedInterfaceFaults = new UniquenessIndex();
 	int numBindingFaults = bindingFaults.length;
 	for(int i = 0; i < numBindingFaults; i++)
 	{
 	  InterfaceFault interfaceFault = bindingFaults[i].getInterfaceFault();
-	  if(usedInterfaceFaults.contains(interfaceFault))
+	  if(!usedInterfaceFaults.add(interfaceFault))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "BindingFault-0058", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(bindingFaults[i]), "BindingFault-0058", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
 		duplicateFound = true;
 	  }
-	  else
-	  {
-		usedInterfaceFaults.add(interfaceFault);
-	  }
 	}
 	return !duplicateFound;
   }
@@ -1037,20 +1507,16 @@ public class WSDLComponentValidator
   protected boolean testAssertionBindingOperation0059(BindingOperation[] bindingOperations, ErrorReporter errorReporter) throws WSDLException
   {
 	boolean duplicateFound = false;
-	List specifiedInterfaceOperations = new ArrayList();
+	UniquenessIndex specifiedInterfaceOperations = new UniquenessIndex();
 	int numBindingOperations = bindingOperations.length;
 	for(int i = 0; i < numBindingOperations; i++)
 	{
 	  InterfaceOperation interfaceOperation = bindingOperations[i].getInterfaceOperation();
-	  if(specifiedInterfaceOperations.contains(interfaceOperation))
+	  if(!specifiedInterfaceOperations.add(interfaceOperation))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "BindingOperation-0059", new Object[]{interfaceOperation.getName()}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(bindingOperations[i]), "BindingOperation-0059", new Object[]{interfaceOperation.getName()}, ErrorReporter.SEVERITY_ERROR);
 		duplicateFound = true;
 	  }
-	  else
-	  {
-		specifiedInterfaceOperations.add(interfaceOperation);
-	  }
 	}
 	return !duplicateFound;
   }
@@ -1069,20 +1535,16 @@ public class WSDLComponentValidator
   protected boolean testAssertionBindingMessageReference0060(BindingMessageReference[] bindingMessageReferences, ErrorReporter errorReporter) throws WSDLException
   {
 	boolean duplicateFound = false;
-	List specifiedInterfaceMessageReferences = new ArrayList();
+	UniquenessIndex specifiedInterfaceMessageReferences = new UniquenessIndex();
 	int numBindingMessageReferences = bindingMessageReferences.length;
 	for(int i = 0; i < numBindingMessageReferences; i++)
 	{
 	  InterfaceMessageReference interfaceMessageReference = bindingMessageReferences[i].getInterfaceMessageReference();
-	  if(specifiedInterfaceMessageReferences.contains(interfaceMessageReference))
+	  if(!specifiedInterfaceMessageReferences.add(interfaceMessageReference))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "BindingMessageReference-0060", new Object[]{interfaceMessageReference.getMessageLabel()}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(bindingMessageReferences[i]), "BindingMessageReference-0060", new Object[]{interfaceMessageReference.getMessageLabel()}, ErrorReporter.SEVERITY_ERROR);
 		duplicateFound = true;
 	  }
-	  else
-	  {
-		specifiedInterfaceMessageReferences.add(interfaceMessageReference);
-	  }
 	}
 	return !duplicateFound;
   }
@@ -1100,20 +1562,16 @@ public class WSDLComponentValidator
   protected boolean testAssertionBindingFaultReference0061(BindingFaultReference[] bindingFaultReferences, ErrorReporter errorReporter) throws WSDLException
   {
 	boolean duplicateFound = false;
-	List specifiedInterfaceFaultReferences = new ArrayList();
+	UniquenessIndex specifiedInterfaceFaultReferences = new UniquenessIndex();
 	int numBindingFaultReferences = bindingFaultReferences.length;
 	for(int i = 0; i < numBindingFaultReferences; i++)
 	{
 	  InterfaceFaultReference interfaceFaultReference = bindingFaultReferences[i].getInterfaceFaultReference();
-	  if(specifiedInterfaceFaultReferences.contains(interfaceFaultReference))
+	  if(!specifiedInterfaceFaultReferences.add(interfaceFaultReference))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "BindingFaultReference-0061", new Object[]{interfaceFaultReference.getMessageLabel()}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(bindingFaultReferences[i]), "BindingFaultReference-0061", new Object[]{interfaceFaultReference.getMessageLabel()}, ErrorReporter.SEVERITY_ERROR);
 		duplicateFound = true;
 	  }
-	  else
-	  {
-		specifiedInterfaceFaultReferences.add(interfaceFaultReference);
-	  }
 	}
 	return !duplicateFound;
   }
@@ -1135,7 +1593,7 @@ public class WSDLComponentValidator
 	InterfaceFaultReference interfaceFaultReference = bindingFaultReference.getInterfaceFaultReference();
 	if(interfaceFaultReference == null)
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "BindingFaultReference-0062", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(bindingFaultReference), "BindingFaultReference-0062", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
       return false;
 	}
 	return true;
@@ -1152,20 +1610,16 @@ public class WSDLComponentValidator
    */
   protected boolean testAssertionService0063(Service[] services, ErrorReporter errorReporter) throws WSDLException
   {
-	List names = new ArrayList();
+	UniquenessIndex names = new UniquenessIndex();
 	int numServices = services.length;
 	for(int i = 0; i < numServices; i++)
 	{
 	  QName name = services[i].getName();
-	  if(names.contains(name))
+	  if(!names.add(name))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "Service-0063", new Object[]{name}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(services[i]), "Service-0063", new Object[]{name}, ErrorReporter.SEVERITY_ERROR);
 		return false;
 	  }
-	  else
-	  {
-		names.add(name);
-	  }
 	}
 	return true;
   }
@@ -1181,7 +1635,7 @@ public class WSDLComponentValidator
    */
   protected boolean  testAssertionEndpoint0065(Endpoint[] endpoints, ErrorReporter errorReporter) throws WSDLException
   {
-	List names = new ArrayList();
+	UniquenessIndex names = new UniquenessIndex();
 	int numEndpoints = endpoints.length;
 	for(int i = 0; i < numEndpoints; i++)
 	{
@@ -1189,15 +1643,11 @@ public class WSDLComponentValidator
 	  if(name == null)
 		continue;
 	  String sName = name.toString();
-	  if(names.contains(sName))
+	  if(!names.add(sName))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "Endpoint-0065", new Object[]{sName}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(endpoints[i]), "Endpoint-0065", new Object[]{sName}, ErrorReporter.SEVERITY_ERROR);
 		return false;
 	  }
-	  else
-	  {
-		names.add(sName);
-	  }
 	}
 	return true;
   }
@@ -1216,7 +1666,7 @@ public class WSDLComponentValidator
 	URI address = endpoint.getAddress();
     if(address != null && !address.isAbsolute())
     {
-      errorReporter.reportError(new ErrorLocatorImpl(), "Endpoint-0064", new Object[]{address}, ErrorReporter.SEVERITY_ERROR);
+      errorReporter.reportError(ErrorLocatorImpl.forElement(endpoint), "Endpoint-0064", new Object[]{address}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
     }
     return true;
@@ -1251,7 +1701,7 @@ public class WSDLComponentValidator
 	  // If the binding interface is null this assertion passes.
 	  if(serviceInterface != null && bindingInterface != null && !serviceInterface.equals(bindingInterface))
 	  {
-		errorReporter.reportError(new ErrorLocatorImpl(), "Endpoint-0066", new Object[]{binding, bindingInterface, serviceInterface}, ErrorReporter.SEVERITY_ERROR);
+		errorReporter.reportError(ErrorLocatorImpl.forElement(endpoint), "Endpoint-0066", new Object[]{binding, bindingInterface, serviceInterface}, ErrorReporter.SEVERITY_ERROR);
 		return false;  
 	  }
 	}
@@ -16,10 +16,7 @@
 package org.apache.woden.internal.wsdl20.validation;
 
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.Iterator;
-import java.util.List;
 
 import javax.xml.namespace.QName;
 
@@ -39,7 +36,6 @@ import org.apache.woden.wsdl20.xml.InterfaceOperationElement;
 import org.apache.woden.wsdl20.xml.TypesElement;
 import org.apache.ws.commons.schema.XmlSchema;
 import org.apache.ws.commons.schema.XmlSchemaElement;
-import org.apache.ws.commons.schema.XmlSchemaObjectTable;
 
 /**
  * The WSDL document validator validates a WSDL XML model against the
@@ -246,7 +242,7 @@ public class WSDLDocumentValidator
     URI targetNS = descElement.getTargetNamespace();
     if(!targetNS.isAbsolute())
     {
-      errorReporter.reportError(new ErrorLocatorImpl(), "Description-0025", new Object[]{targetNS}, ErrorReporter.SEVERITY_ERROR);
+      errorReporter.reportError(ErrorLocatorImpl.forElement(descElement), "Description-0025", new Object[]{targetNS}, ErrorReporter.SEVERITY_ERROR);
       return false;
 	}
     return true;
@@ -273,7 +269,7 @@ public class WSDLDocumentValidator
 	String targetNS = schemaDef.getTargetNamespace();
 	if(targetNS == null || targetNS.equals(""))
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "Schema-0017", new Object[]{schema.getSchemaLocation()}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(schema), "Schema-0017", new Object[]{schema.getSchemaLocation()}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
 	}
 	return true;
@@ -301,7 +297,7 @@ public class WSDLDocumentValidator
 	String specifiedTargetNS = schema.getNamespace().toString();
 	if(specifiedTargetNS != null && !specifiedTargetNS.equals(importedSchemaTargetNS))
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "Schema-0052", new Object[]{specifiedTargetNS}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(schema), "Schema-0052", new Object[]{specifiedTargetNS}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
 	}
 	return true;
@@ -321,7 +317,7 @@ public class WSDLDocumentValidator
 	URI targetNS = schema.getNamespace();
 	if(targetNS == null || targetNS.toString().equals(""))
 	{
-	  errorReporter.reportError(new ErrorLocatorImpl(), "Schema-0019", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
+	  errorReporter.reportError(ErrorLocatorImpl.forElement(schema), "Schema-0019", new Object[]{}, ErrorReporter.SEVERITY_ERROR);
 	  return false;
 	}
 	return true;
@@ -341,7 +337,9 @@ public class WSDLDocumentValidator
   {
 	boolean isValid = true;
 	int numInlineSchemas = schema.length;
-	Hashtable schemas = new Hashtable();
+	// The elements and types defined by the schemas checked so far, keyed by namespace and name.
+	UniquenessIndex elements = new UniquenessIndex();
+	UniquenessIndex types = new UniquenessIndex();
 	for(int i = 0; i < numInlineSchemas; i++)
 	{
 	  InlinedSchema iSchema = schema[i];
@@ -350,57 +348,37 @@ public class WSDLDocumentValidator
 	  if(iSchemaNs == null)
 		continue;
 	  String ns = iSchemaNs.toString();
+	  XmlSchema schemaDef = iSchema.getSchemaDefinition();
+	  if(schemaDef == null)
+		continue;
 	  
-	  if(schemas.containsKey(ns))
+	  Iterator elementNames = schemaDef.getElements().getNames();
+	  while(elementNames.hasNext())
 	  {
-		List schemaList = (List)schemas.get(ns);
-		XmlSchemaObjectTable elements = iSchema.getSchemaDefinition().getElements();
-		Iterator elementNames = elements.getNames();
-		while(elementNames.hasNext())
-		{
-		  QName elementName = (QName)elementNames.next();
-		  Iterator otherInlineSchemas = schemaList.iterator();
-		  while(otherInlineSchemas.hasNext())
-		  {
-			if(((InlinedSchema)otherInlineSchemas.next()).getSchemaDefinition().getElementByName(elementName) != null)
-			{
-			  // Duplicate element defined.
-			  errorReporter.reportError(new ErrorLocatorImpl(), "Schema-0018", new Object[]{elementName, ns}, ErrorReporter.SEVERITY_ERROR);
-			  isValid = false;
-			}
-		  }
-		
-		}
-		
-		XmlSchemaObjectTable types = iSchema.getSchemaDefinition().getSchemaTypes();
-		Iterator typeNames = types.getNames();
-		while(typeNames.hasNext())
+		QName elementName = (QName)elementNames.next();
+		Object key = UniquenessIndex.key(ns, elementName);
+		// Duplicate element defined, reported once for each schema that defined it before.
+		for(int j = elements.count(key); j > 0; j--)
 		{
-		  QName typeName = (QName)typeNames.next();
-		  Iterator otherInlineSchemas = schemaList.iterator();
-		  while(otherInlineSchemas.hasNext())
-		  {
-		    if(((InlinedSchema)otherInlineSchemas.next()).getSchemaDefinition().getTypeByName(typeName) != null)
-		    {
-			  // Duplicate type defined.
-			  errorReporter.reportError(new ErrorLocatorImpl(), "Schema-0018b", new Object[]{typeName, ns}, ErrorReporter.SEVERITY_ERROR);
-			  isValid = false;
-		    }
-		  }
-			
+		  errorReporter.reportError(ErrorLocatorImpl.forElement(iSchema), "Schema-0018", new Object[]{elementName, ns}, ErrorReporter.SEVERITY_ERROR);
+		  isValid = false;
 		}
-		  //Check if another element has been defined.
-		  //check if another type has been defined.
-		  //add to the existing list of schemas
-		schemaList.add(iSchema);
+		elements.add(key);
 	  }
-	  else
+	  
+	  Iterator typeNames = schemaDef.getSchemaTypes().getNames();
+	  while(typeNames.hasNext())
 	  {
-		List schemaList = new ArrayList();
-		schemaList.add(iSchema);
-		schemas.put(ns, schemaList);
+		QName typeName = (QName)typeNames.next();
+		Object key = UniquenessIndex.key(ns, typeName);
+		// Duplicate type defined, reported once for each schema that defined it before.
+		for(int j = types.count(key); j > 0; j--)
+		{
+		  errorReporter.reportError(ErrorLocatorImpl.forElement(iSchema), "Schema-0018b", new Object[]{typeName, ns}, ErrorReporter.SEVERITY_ERROR);
+		  isValid = false;
+		}
+		types.add(key);
 	  }
-		 
 	}
 	return isValid;
   }
@@ -424,7 +402,7 @@ public class WSDLDocumentValidator
 	{
 	  if(!styleDefaults[i].isAbsolute())
 	  {
-	    errorReporter.reportError(new ErrorLocatorImpl(), "Interface-0031", new Object[]{styleDefaults[i].toString()}, ErrorReporter.SEVERITY_ERROR);
+	    errorReporter.reportError(ErrorLocatorImpl.forElement(interfaceElem), "Interface-0031", new Object[]{styleDefaults[i].toString()}, ErrorReporter.SEVERITY_ERROR);
 	    isValid = false;
 	  }
 	}
@@ -450,7 +428,7 @@ public class WSDLDocumentValidator
       QName elementName = messageReference.getElementName();
       if(descElement.toComponent().getTypeDefinition(elementName) != null)
       {
-    	errorReporter.reportError(new ErrorLocatorImpl(), "Schema-0020", new Object[]{messageReference.getMessageLabel(), elementName}, ErrorReporter.SEVERITY_ERROR);
+    	errorReporter.reportError(ErrorLocatorImpl.forElement(messageReference), "Schema-0020", new Object[]{messageReference.getMessageLabel(), elementName}, ErrorReporter.SEVERITY_ERROR);
   	    return false;
       }
     }
@@ -474,7 +452,7 @@ public class WSDLDocumentValidator
       QName elementName = faultElement.getElementName();
       if(descElement.toComponent().getTypeDefinition(elementName) != null)
       {
-    	errorReporter.reportError(new ErrorLocatorImpl(), "Schema-0020b", new Object[]{faultElement.getName(), elementName}, ErrorReporter.SEVERITY_ERROR);
+    	errorReporter.reportError(ErrorLocatorImpl.forElement(faultElement), "Schema-0020b", new Object[]{faultElement.getName(), elementName}, ErrorReporter.SEVERITY_ERROR);
   	    return false;
       }
     }
@@ -500,7 +478,7 @@ public class WSDLDocumentValidator
       TypesElement types = descElement.getTypesElement();
       if(types == null)
       {
-    	errorReporter.reportError(new ErrorLocatorImpl(), "Schema-0016", new Object[]{namespace}, ErrorReporter.SEVERITY_ERROR);
+    	errorReporter.reportError(ErrorLocatorImpl.forElement(descElement), "Schema-0016", new Object[]{namespace}, ErrorReporter.SEVERITY_ERROR);
         return false;
       }
       Schema[] schemas = types.getSchemas();
@@ -522,7 +500,7 @@ public class WSDLDocumentValidator
       }
       if(schemaNotFound)
       {
-        errorReporter.reportError(new ErrorLocatorImpl(), "Schema-0016", new Object[]{namespace}, ErrorReporter.SEVERITY_ERROR);
+        errorReporter.reportError(ErrorLocatorImpl.forElement(types), "Schema-0016", new Object[]{namespace}, ErrorReporter.SEVERITY_ERROR);
       	return false;
       } 
     }
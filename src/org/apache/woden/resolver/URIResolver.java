@@ -0,0 +1,58 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.resolver;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Maps the location of a document to the location it should actually be
+ * retrieved from, for example a local copy of a remote WSDL or schema
+ * document.
+ * <p>
+ * A URIResolver is set on a WSDLReader with the property
+ * <code>WSDLReader.PROPERTY_URI_RESOLVER</code>. The reader consults it 
+ * before retrieving any document: the WSDL being read, documents referenced 
+ * by &lt;wsdl:import&gt; and &lt;wsdl:include&gt;, schemas referenced by 
+ * &lt;xs:import&gt;, &lt;xs:include&gt; and &lt;xs:redefine&gt;, and external 
+ * entities such as DTDs.
+ * <p>
+ * The resolved URI is only used to retrieve the document. The document keeps 
+ * its original location as its base URI, so relative references within it 
+ * are resolved against the original location and then passed to the resolver 
+ * in turn.
+ * <p>
+ * The same resolver may be used by several readers and by the threads
+ * retrieving imported documents concurrently, so implementations must be
+ * thread-safe.
+ * 
+ * @see org.apache.woden.WSDLReader#PROPERTY_URI_RESOLVER
+ * @see org.apache.woden.resolver.XMLCatalogResolver
+ */
+public interface URIResolver {
+    
+    /**
+     * Returns the URI the document identified by the specified URI should be 
+     * retrieved from, or null if this resolver does not map the URI, in which 
+     * case the document is retrieved from its original location.
+     * 
+     * @param uri the absolute URI of the document.
+     * @return the URI to retrieve the document from, or null.
+     * @throws IOException if the resolver fails to access its mappings.
+     */
+    public URI resolveURI(URI uri) throws IOException;
+
+}
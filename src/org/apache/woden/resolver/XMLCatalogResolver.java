@@ -0,0 +1,380 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden.resolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.woden.WSDLException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * A URIResolver driven by OASIS XML Catalogs, as defined by the
+ * <a href="http://www.oasis-open.org/committees/entity/spec.html">
+ * XML Catalogs</a> specification.
+ * <p>
+ * The following catalog entries are supported:
+ * <code>uri</code>, <code>rewriteURI</code>, <code>system</code>,
+ * <code>rewriteSystem</code>, <code>group</code> and <code>nextCatalog</code>.
+ * <code>xml:base</code> is honoured on any element. Other entries, such as
+ * <code>public</code> and the delegate entries, are ignored, because Woden
+ * only ever retrieves documents by URI.
+ * <p>
+ * A URI is resolved by the first of these that applies:
+ * <ol>
+ * <li>a <code>uri</code> entry whose name is the URI,</li>
+ * <li>the <code>rewriteURI</code> entry with the longest start string matching the URI,</li>
+ * <li>a <code>system</code> entry whose system id is the URI,</li>
+ * <li>the <code>rewriteSystem</code> entry with the longest start string matching the URI.</li>
+ * </ol>
+ * Where several catalogs map the same URI exactly, the catalog loaded first
+ * wins. Relative URIs in a catalog are resolved against the location of the
+ * catalog, so a catalog packaged in a jar can map well-known locations to
+ * copies of the documents in the same jar, for example:
+ * <pre>
+ *   URL catalog = getClass().getClassLoader().getResource("META-INF/catalog.xml");
+ *   reader.setProperty(WSDLReader.PROPERTY_URI_RESOLVER, new XMLCatalogResolver(catalog));
+ * </pre>
+ * Entries can also be added programmatically. <code>addMirror</code> maps all
+ * the documents below a URI to a local directory.
+ * <p>
+ * This class is thread-safe.
+ */
+public class XMLCatalogResolver implements URIResolver {
+
+    /**
+     * The namespace of OASIS XML Catalog documents.
+     */
+    public static final String NS_URI_CATALOG =
+        "urn:oasis:names:tc:entity:xmlns:xml:catalog";
+
+    private static final String NS_URI_XML =
+        "http://www.w3.org/XML/1998/namespace";
+
+    //Exact mappings, keyed by the uri name or system id
+    private final Map fURIs = new HashMap();
+    private final Map fSystemIds = new HashMap();
+
+    //Rewrite rules, as String[] {startString, rewritePrefix}
+    private final List fRewriteURIs = new ArrayList();
+    private final List fRewriteSystemIds = new ArrayList();
+
+    //The catalogs loaded so far, to guard against nextCatalog cycles
+    private final Set fCatalogs = new HashSet();
+
+    /**
+     * Creates a resolver with no entries.
+     */
+    public XMLCatalogResolver()
+    {
+    }
+
+    /**
+     * Creates a resolver with the entries of the specified catalog and any
+     * catalogs it refers to with nextCatalog.
+     *
+     * @param catalogURL the location of the catalog document.
+     * @throws WSDLException if the catalog document cannot be parsed.
+     * @throws IOException if the catalog document cannot be retrieved.
+     */
+    public XMLCatalogResolver(URL catalogURL) throws WSDLException, IOException
+    {
+        addCatalog(catalogURL);
+    }
+
+    /**
+     * Adds the entries of the specified catalog and of any catalogs it refers
+     * to with nextCatalog. A catalog that has already been added is ignored.
+     *
+     * @param catalogURL the location of the catalog document.
+     * @throws WSDLException if the catalog document cannot be parsed.
+     * @throws IOException if the catalog document cannot be retrieved.
+     */
+    public synchronized void addCatalog(URL catalogURL) throws WSDLException, IOException
+    {
+        if(!fCatalogs.add(catalogURL.toString()))
+        {
+            return;
+        }
+
+        Document doc;
+        InputStream in = catalogURL.openStream();
+        try
+        {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            doc = factory.newDocumentBuilder().parse(in, catalogURL.toString());
+        }
+        catch(ParserConfigurationException e)
+        {
+            throw new WSDLException(WSDLException.CONFIGURATION_ERROR,
+                    "Unable to create a parser for the XML catalog " + catalogURL + ".", e);
+        }
+        catch(SAXException e)
+        {
+            throw new WSDLException(WSDLException.PARSER_ERROR,
+                    "Unable to parse the XML catalog " + catalogURL + ".", e);
+        }
+        finally
+        {
+            in.close();
+        }
+
+        Element catalogEl = doc.getDocumentElement();
+        if(!NS_URI_CATALOG.equals(catalogEl.getNamespaceURI()) ||
+           !"catalog".equals(catalogEl.getLocalName()))
+        {
+            throw new WSDLException(WSDLException.PARSER_ERROR,
+                    "The document " + catalogURL + " is not an XML catalog.");
+        }
+
+        List nextCatalogs = new ArrayList();
+        parseEntries(catalogEl, getBase(catalogEl, catalogURL), nextCatalogs);
+
+        //Per the specification, next catalogs are only consulted after all
+        //the entries of the current catalog.
+        for(int i = 0; i < nextCatalogs.size(); i++)
+        {
+            addCatalog((URL)nextCatalogs.get(i));
+        }
+    }
+
+    /**
+     * Adds the equivalent of a <code>uri</code> catalog entry.
+     *
+     * @param name the URI to map.
+     * @param uri the URI to retrieve the document from.
+     */
+    public synchronized void addURI(String name, URI uri)
+    {
+        if(!fURIs.containsKey(name))
+        {
+            fURIs.put(name, uri);
+        }
+    }
+
+    /**
+     * Adds the equivalent of a <code>system</code> catalog entry.
+     *
+     * @param systemId the system id to map.
+     * @param uri the URI to retrieve the document from.
+     */
+    public synchronized void addSystem(String systemId, URI uri)
+    {
+        if(!fSystemIds.containsKey(systemId))
+        {
+            fSystemIds.put(systemId, uri);
+        }
+    }
+
+    /**
+     * Adds the equivalent of a <code>rewriteURI</code> catalog entry. URIs
+     * starting with the start string are resolved by replacing the start string
+     * with the rewrite prefix.
+     *
+     * @param uriStartString the start of the URIs to map.
+     * @param rewritePrefix the string that replaces the start string.
+     */
+    public synchronized void addRewriteURI(String uriStartString, String rewritePrefix)
+    {
+        fRewriteURIs.add(new String[] {uriStartString, rewritePrefix});
+    }
+
+    /**
+     * Adds the equivalent of a <code>rewriteSystem</code> catalog entry.
+     *
+     * @param systemIdStartString the start of the system ids to map.
+     * @param rewritePrefix the string that replaces the start string.
+     */
+    public synchronized void addRewriteSystem(String systemIdStartString, String rewritePrefix)
+    {
+        fRewriteSystemIds.add(new String[] {systemIdStartString, rewritePrefix});
+    }
+
+    /**
+     * Maps all the documents below a URI to the files below a local directory
+     * that mirrors it. For example, mirroring "http://www.w3.org/2006/01/" to
+     * the directory "/opt/mirror/w3c" resolves
+     * "http://www.w3.org/2006/01/wsdl/wsdl20.xsd" to
+     * "file:/opt/mirror/w3c/wsdl/wsdl20.xsd".
+     *
+     * @param uriStartString the URI mirrored, normally ending with "/".
+     * @param directory the local directory.
+     */
+    public synchronized void addMirror(String uriStartString, File directory)
+    {
+        String prefix = directory.getAbsoluteFile().toURI().toString();
+        if(uriStartString.endsWith("/") && !prefix.endsWith("/"))
+        {
+            prefix = prefix + "/";
+        }
+        addRewriteURI(uriStartString, prefix);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.woden.resolver.URIResolver#resolveURI(java.net.URI)
+     */
+    public synchronized URI resolveURI(URI uri) throws IOException
+    {
+        String uriStr = uri.toString();
+
+        URI resolved = (URI)fURIs.get(uriStr);
+        if(resolved == null)
+        {
+            resolved = rewrite(fRewriteURIs, uriStr);
+        }
+        if(resolved == null)
+        {
+            resolved = (URI)fSystemIds.get(uriStr);
+        }
+        if(resolved == null)
+        {
+            resolved = rewrite(fRewriteSystemIds, uriStr);
+        }
+        return resolved;
+    }
+
+    /*
+     * Apply the rewrite rule with the longest start string matching the URI.
+     */
+    private URI rewrite(List rules, String uriStr) throws IOException
+    {
+        String[] match = null;
+        for(int i = 0; i < rules.size(); i++)
+        {
+            String[] rule = (String[])rules.get(i);
+            if(uriStr.startsWith(rule[0]) &&
+               (match == null || rule[0].length() > match[0].length()))
+            {
+                match = rule;
+            }
+        }
+        if(match == null)
+        {
+            return null;
+        }
+
+        String rewritten = match[1] + uriStr.substring(match[0].length());
+        try
+        {
+            return new URI(rewritten);
+        }
+        catch(URISyntaxException e)
+        {
+            throw new IOException("The rewritten URI " + rewritten + " is not valid.");
+        }
+    }
+
+    private void parseEntries(Element parentEl, URL base, List nextCatalogs)
+        throws WSDLException
+    {
+        for(Node node = parentEl.getFirstChild(); node != null; node = node.getNextSibling())
+        {
+            if(node.getNodeType() != Node.ELEMENT_NODE ||
+               !NS_URI_CATALOG.equals(node.getNamespaceURI()))
+            {
+                continue;
+            }
+
+            Element entryEl = (Element)node;
+            String name = entryEl.getLocalName();
+            URL entryBase = getBase(entryEl, base);
+
+            if("group".equals(name))
+            {
+                parseEntries(entryEl, entryBase, nextCatalogs);
+            }
+            else if("uri".equals(name))
+            {
+                addURI(entryEl.getAttribute("name"),
+                       toURI(entryBase, entryEl.getAttribute("uri")));
+            }
+            else if("system".equals(name))
+            {
+                addSystem(entryEl.getAttribute("systemId"),
+                          toURI(entryBase, entryEl.getAttribute("uri")));
+            }
+            else if("rewriteURI".equals(name))
+            {
+                addRewriteURI(entryEl.getAttribute("uriStartString"),
+                        toURI(entryBase, entryEl.getAttribute("rewritePrefix")).toString());
+            }
+            else if("rewriteSystem".equals(name))
+            {
+                addRewriteSystem(entryEl.getAttribute("systemIdStartString"),
+                        toURI(entryBase, entryEl.getAttribute("rewritePrefix")).toString());
+            }
+            else if("nextCatalog".equals(name))
+            {
+                nextCatalogs.add(toURL(entryBase, entryEl.getAttribute("catalog")));
+            }
+        }
+    }
+
+    /*
+     * Returns the base URL for the element, taking account of any xml:base attribute.
+     */
+    private URL getBase(Element el, URL base) throws WSDLException
+    {
+        if(el.hasAttributeNS(NS_URI_XML, "base"))
+        {
+            return toURL(base, el.getAttributeNS(NS_URI_XML, "base"));
+        }
+        return base;
+    }
+
+    private URL toURL(URL base, String spec) throws WSDLException
+    {
+        try
+        {
+            return new URL(base, spec);
+        }
+        catch(IOException e)
+        {
+            throw new WSDLException(WSDLException.PARSER_ERROR,
+                    "The XML catalog entry value " + spec + " is not a valid URI.", e);
+        }
+    }
+
+    private URI toURI(URL base, String spec) throws WSDLException
+    {
+        try
+        {
+            return new URI(toURL(base, spec).toString());
+        }
+        catch(URISyntaxException e)
+        {
+            throw new WSDLException(WSDLException.PARSER_ERROR,
+                    "The XML catalog entry value " + spec + " is not a valid URI.", e);
+        }
+    }
+}
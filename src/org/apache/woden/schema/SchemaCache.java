@@ -0,0 +1,82 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.schema;
+
+import org.apache.ws.commons.schema.XmlSchema;
+
+/**
+ * A cache of compiled schema definitions, used by a WSDLReader to avoid
+ * compiling the same schema more than once. 
+ * <p>
+ * A SchemaCache is set on a WSDLReader with the property
+ * <code>WSDLReader.PROPERTY_SCHEMA_CACHE</code>. The same cache may be set on 
+ * several readers, in which case the schemas it contains are shared by those
+ * readers, so implementations must be thread-safe. 
+ * <p>
+ * Entries are keyed by the resolved location of the schema plus a digest of 
+ * the schema content: the &lt;xs:schema&gt; element of an inlined schema, or 
+ * the document retrieved from the location of an imported schema. The reader 
+ * still retrieves an imported schema each time it is referenced, and only 
+ * reuses the cached definition if the content is unchanged.
+ * <p>
+ * The digest only covers the schema document itself, not the documents it
+ * includes or imports, which XmlSchema retrieves when the schema is compiled.
+ * A cached definition is therefore stale if one of those documents has changed
+ * since. To pick up such a change, remove the entries for the locations of the
+ * schemas which include or import the changed document (see
+ * {@link #removeSchemas(String)}), or clear the cache (see {@link #clear()}).
+ * 
+ * @see org.apache.woden.WSDLReader#PROPERTY_SCHEMA_CACHE
+ */
+public interface SchemaCache {
+    
+    /**
+     * Returns the schema definition cached for the specified location and
+     * content digest, or null if there is no such entry.
+     * 
+     * @param location the resolved schema location or, for an inlined schema, 
+     * the base URI of the containing document.
+     * @param digest a digest of the schema content.
+     * @return the cached XmlSchema or null.
+     */
+    public XmlSchema getSchema(String location, String digest);
+    
+    /**
+     * Caches a schema definition for the specified location and content digest,
+     * replacing any existing entry.
+     * 
+     * @param location the resolved schema location or, for an inlined schema, 
+     * the base URI of the containing document.
+     * @param digest a digest of the schema content.
+     * @param schemaDef the compiled schema definition.
+     */
+    public void putSchema(String location, String digest, XmlSchema schemaDef);
+    
+    /**
+     * Removes the entries cached for the specified location, whatever their
+     * content digest.
+     * 
+     * @param location the resolved schema location or, for an inlined schema, 
+     * the base URI of the containing document.
+     */
+    public void removeSchemas(String location);
+    
+    /**
+     * Removes all entries from the cache.
+     */
+    public void clear();
+    
+}
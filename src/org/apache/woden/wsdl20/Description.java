@@ -92,5 +92,27 @@ public interface Description extends WSDLComponent
     
     public TypeDefinition getTypeDefinition(QName qname);
     
+    /**
+     * Makes this Description and the WSDL elements it was built from read-only, 
+     * so that it can be shared between threads. The component model is fully 
+     * resolved first, then each component's properties and cross-references are 
+     * computed once and kept, so the component getters of a frozen Description 
+     * do not modify it or look up, resolve or index its elements again.
+     * <p>
+     * Once frozen, any method of the Element API which modifies the WSDL throws
+     * an IllegalStateException. The getters of the Description and of its 
+     * components which return an array return a copy of the array computed when
+     * the Description was frozen, so modifying it has no effect.
+     * The descriptions imported or included by this one are frozen with it, and
+     * their component models are built at the same time, but their components
+     * are resolved against this Description.
+     * <p>
+     * This method returns immediately if the Description is already frozen. It
+     * must complete before the Description is shared between threads.
+     * 
+     * @return this Description
+     */
+    public Description freeze();
+    
     public DescriptionElement toElement();
 }
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.wsdl20.extensions;
+
+/**
+ * Creates the Java objects that represent extensions, such as extension 
+ * elements, extension attributes and component extensions. A factory 
+ * registered with the ExtensionRegistry is used instead of creating the
+ * registered Java class by reflection.
+ * 
+ * @see ExtensionRegistry#registerExtElementType(Class, javax.xml.namespace.QName, Class, ExtensionFactory)
+ * @see ExtensionRegistry#registerExtAttributeType(Class, javax.xml.namespace.QName, Class, ExtensionFactory)
+ * @see ExtensionRegistry#registerComponentExtension(Class, java.net.URI, Class, ExtensionFactory)
+ */
+public interface ExtensionFactory {
+    
+    /**
+     * Returns a new instance of the Java class registered with this factory.
+     */
+    public Object newInstance();
+
+}
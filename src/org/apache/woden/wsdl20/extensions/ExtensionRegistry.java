@@ -16,7 +16,11 @@
 package org.apache.woden.wsdl20.extensions;
 
 import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -35,6 +39,16 @@ import org.apache.woden.xml.XMLAttr;
  * but not serializers and deserializers.
  * <p>
  * This class has been copied from WSDL4J and modified for Woden.
+ * <p>
+ * Once populated, a registry may be frozen with <code>freeze()</code>. 
+ * Its registrations are then compiled into lookup tables that are never 
+ * modified again, so they are read without locking and the registry can 
+ * be shared by readers on any number of threads, for example:
+ * <pre>
+ *   ExtensionRegistry extReg = factory.newPopulatedExtensionRegistry();
+ *   extReg.freeze();
+ *   reader.setExtensionRegistry(extReg);  //on each reader
+ * </pre>
  * 
  * TODO update method javadocs.
  *
@@ -86,7 +100,25 @@ public class ExtensionRegistry
    */
   protected Map compExtReg = new Hashtable();
   
-  private ErrorReporter errorReporter = null;
+  /*
+   * The ExtensionFactory objects registered for the extension element types,
+   * extension attribute types and component extensions, in Maps of Maps
+   * keyed like extElementReg, extAttributeReg and compExtReg. A type 
+   * registered without a factory is instantiated by reflection.
+   */
+  protected Map extElementFactoryReg = new Hashtable();
+  protected Map extAttributeFactoryReg = new Hashtable();
+  protected Map compExtFactoryReg = new Hashtable();
+  
+  /*
+   * The lookup tables compiled by freeze(), or null if the registry is not
+   * frozen. They are never modified once compiled.
+   */
+  private volatile FrozenTables frozenTables = null;
+  
+  //Only used to format the messages of configuration errors, so it may
+  //be set by each reader sharing a frozen registry.
+  private volatile ErrorReporter errorReporter = null;
   
   public void setErrorReporter(ErrorReporter errRpt)
   {
@@ -109,6 +141,7 @@ public class ExtensionRegistry
    */
   public void setDefaultSerializer(ExtensionSerializer defaultSer)
   {
+    checkNotFrozen();
     this.defaultSer = defaultSer;
   }
 
@@ -133,6 +166,7 @@ public class ExtensionRegistry
    */
   public void setDefaultDeserializer(ExtensionDeserializer defaultDeser)
   {
+    checkNotFrozen();
     this.defaultDeser = defaultDeser;
   }
 
@@ -166,6 +200,7 @@ public class ExtensionRegistry
                                  QName elementType,
                                  ExtensionSerializer es)
   {
+    checkNotFrozen();
     Map innerSerializerReg = (Map)serializerReg.get(parentType);
 
     if (innerSerializerReg == null)
@@ -198,6 +233,7 @@ public class ExtensionRegistry
                                    QName elementType,
                                    ExtensionDeserializer ed)
   {
+    checkNotFrozen();
     Map innerDeserializerReg = (Map)deserializerReg.get(parentType);
 
     if (innerDeserializerReg == null)
@@ -235,12 +271,16 @@ public class ExtensionRegistry
                                              QName elementType)
                                                throws WSDLException
   {
-    Map innerSerializerReg = (Map)serializerReg.get(parentType);
+    FrozenTables tables = frozenTables;
     ExtensionSerializer es = null;
 
-    if (innerSerializerReg != null)
+    if (tables != null)
+    {
+      es = (ExtensionSerializer)tables.serializers.get(new RegKey(parentType, elementType));
+    }
+    else
     {
-      es = (ExtensionSerializer)innerSerializerReg.get(elementType);
+      es = (ExtensionSerializer)query(serializerReg, parentType, elementType);
     }
 
     if (es == null)
@@ -284,12 +324,16 @@ public class ExtensionRegistry
                                                  QName elementType)
                                                    throws WSDLException
   {
-    Map innerDeserializerReg = (Map)deserializerReg.get(parentType);
+    FrozenTables tables = frozenTables;
     ExtensionDeserializer ed = null;
 
-    if (innerDeserializerReg != null)
+    if (tables != null)
+    {
+      ed = (ExtensionDeserializer)tables.deserializers.get(new RegKey(parentType, elementType));
+    }
+    else
     {
-      ed = (ExtensionDeserializer)innerDeserializerReg.get(elementType);
+      ed = (ExtensionDeserializer)query(deserializerReg, parentType, elementType);
     }
 
     if (ed == null)
@@ -326,16 +370,12 @@ public class ExtensionRegistry
    */
   public Class queryExtElementType(Class parentClass, QName elemQN)
   {
-    Map innerExtensionAttributeReg =
-      (Map)extAttributeReg.get(parentClass);
-    Class elemClass = null;
-
-    if (innerExtensionAttributeReg != null)
+    FrozenTables tables = frozenTables;
+    if (tables != null)
     {
-        elemClass = (Class)innerExtensionAttributeReg.get(elemQN);
+      return (Class)tables.extAttributeTypes.get(new RegKey(parentClass, elemQN));
     }
-
-    return elemClass;
+    return (Class)query(extAttributeReg, parentClass, elemQN);
   }
   
   /**
@@ -350,6 +390,12 @@ public class ExtensionRegistry
    */
   public Set getAllowableExtensions(Class parentType)
   {
+    FrozenTables tables = frozenTables;
+    if (tables != null)
+    {
+      return (Set)tables.allowableExtensions.get(parentType);
+    }
+    
     Map innerDeserializerReg = (Map)deserializerReg.get(parentType);
 
     return (innerDeserializerReg != null)
@@ -378,6 +424,7 @@ public class ExtensionRegistry
                                 QName elementType,
                                 Class extensionType)
   {
+    checkNotFrozen();
     Map innerExtensionTypeReg = (Map)extElementReg.get(parentType);
 
     if (innerExtensionTypeReg == null)
@@ -388,6 +435,30 @@ public class ExtensionRegistry
     }
 
     innerExtensionTypeReg.put(elementType, extensionType);
+    unregisterFactory(extElementFactoryReg, parentType, elementType);
+  }
+
+  /**
+   * Declare that the specified extensionType is the concrete class which 
+   * should be used to represent extensibility elements with qnames matching 
+   * elementQN, that are intended to exist as children of the specified 
+   * parentType, and that instances of it are created by the specified factory.
+   *
+   * @param parentType a class object indicating where in the WSDL
+   * definition this extension would exist.
+   * @param elementType the qname of the extensibility element
+   * @param extensionType the concrete class which the factory instantiates
+   * @param factory the factory creating instances of extensionType
+   *
+   * @see #registerExtElementType(Class, QName, Class)
+   */
+  public void registerExtElementType(Class parentType,
+                                     QName elementType,
+                                     Class extensionType,
+                                     ExtensionFactory factory)
+  {
+    registerExtElementType(parentType, elementType, extensionType);
+    registerFactory(extElementFactoryReg, parentType, elementType, factory);
   }
 
   /**
@@ -414,12 +485,23 @@ public class ExtensionRegistry
                                               QName elementType)
                                                 throws WSDLException
   {
-    Map innerExtensionTypeReg = (Map)extElementReg.get(parentType);
+    FrozenTables tables = frozenTables;
     Class extensionType = null;
 
-    if (innerExtensionTypeReg != null)
+    if (tables != null)
+    {
+      extensionType = (Class)tables.extElementTypes.get(new RegKey(parentType, elementType));
+    }
+    else
     {
-      extensionType = (Class)innerExtensionTypeReg.get(elementType);
+      extensionType = (Class)query(extElementReg, parentType, elementType);
+    }
+
+    ExtensionFactory factory = queryFactory(extElementFactoryReg,
+        tables != null ? tables.extElementFactories : null, parentType, elementType);
+    if (factory != null)
+    {
+      return (ExtensionElement)factory.newInstance();
     }
 
     if (extensionType == null)
@@ -488,6 +570,7 @@ public class ExtensionRegistry
                                        QName attrQName,
                                        Class attrClass)
   {
+    checkNotFrozen();
     Map innerExtensionAttributeReg =
       (Map)extAttributeReg.get(ownerClass);
 
@@ -499,6 +582,29 @@ public class ExtensionRegistry
     }
 
     innerExtensionAttributeReg.put(attrQName, attrClass);
+    unregisterFactory(extAttributeFactoryReg, ownerClass, attrQName);
+  }
+
+  /**
+   * Declare that the type of the specified extension attribute, when it occurs
+   * as an attribute of the specified parent type, should be assumed to be
+   * attrClass, and that instances of it are created by the specified factory.
+   *
+   * @param ownerClass a class object indicating where in the WSDL
+   * document this extensibility attribute was encountered.
+   * @param attrQName the qname of the extensibility attribute
+   * @param attrClass the XMLAttr class which the factory instantiates
+   * @param factory the factory creating instances of attrClass
+   *
+   * @see #registerExtAttributeType(Class, QName, Class)
+   */
+  public void registerExtAttributeType(Class ownerClass,
+                                       QName attrQName,
+                                       Class attrClass,
+                                       ExtensionFactory factory)
+  {
+    registerExtAttributeType(ownerClass, attrQName, attrClass);
+    registerFactory(extAttributeFactoryReg, ownerClass, attrQName, factory);
   }
 
   /**
@@ -518,30 +624,30 @@ public class ExtensionRegistry
    */
   public Class queryExtAttributeType(Class parentClass, QName attrQN)
   {
-    Map innerExtensionAttributeReg =
-      (Map)extAttributeReg.get(parentClass);
-    Class attrClass = null;
-
-    if (innerExtensionAttributeReg != null)
+    FrozenTables tables = frozenTables;
+    if (tables != null)
     {
-        attrClass = (Class)innerExtensionAttributeReg.get(attrQN);
+      return (Class)tables.extAttributeTypes.get(new RegKey(parentClass, attrQN));
     }
-
-    return attrClass;
+    return (Class)query(extAttributeReg, parentClass, attrQN);
   }
   
   public XMLAttr createExtAttribute(Class ownerClass, QName attrQName)
                                           throws WSDLException
   {
-      Map innerExtensionAttributeReg = (Map)extAttributeReg.get(ownerClass);
-      Class implClass = null;
-      XMLAttr attr = null;
-      
-      if (innerExtensionAttributeReg != null)
+      FrozenTables tables = frozenTables;
+      ExtensionFactory factory = queryFactory(extAttributeFactoryReg,
+          tables != null ? tables.extAttributeFactories : null, ownerClass, attrQName);
+      if (factory != null)
       {
-          implClass = (Class)innerExtensionAttributeReg.get(attrQName);
+          XMLAttr attr = (XMLAttr)factory.newInstance();
+          attr.setErrorReporter(getErrorReporter());
+          return attr;
       }
       
+      Class implClass = queryExtAttributeType(ownerClass, attrQName);
+      XMLAttr attr = null;
+      
       if (implClass == null)
       {
           /*
@@ -585,7 +691,10 @@ public class ExtensionRegistry
       }
       
       try {
-          attr = (XMLAttr)implClass.newInstance();
+          //Unregistered attributes are common, so avoid reflection for them
+          attr = (implClass == UnknownAttr.class) 
+                 ? new UnknownAttr() 
+                 : (XMLAttr)implClass.newInstance();
           attr.setErrorReporter(getErrorReporter());
       } 
       catch (InstantiationException e) 
@@ -615,6 +724,7 @@ public class ExtensionRegistry
                                          URI extNamespace,
                                          Class compExtClass)
   {
+      checkNotFrozen();
       if(!(ComponentExtensions.class.isAssignableFrom(compExtClass)))
       {
           String msg = getErrorReporter().getFormattedMessage("WSDL016", 
@@ -633,6 +743,26 @@ public class ExtensionRegistry
       }
       
       innerCompExtReg.put(extNamespace, compExtClass);
+      unregisterFactory(compExtFactoryReg, parentClass, extNamespace);
+  }
+  
+  /**
+   * Register the Java class which will represent extensions from a specified 
+   * namespace that will extend the specified WSDL component class, and the
+   * factory that creates instances of it.
+   * 
+   * @param parentClass the WSDL component class
+   * @param extNamespace the extension namespace
+   * @param compExtClass the Java class representing these extensions
+   * @param factory the factory creating instances of compExtClass
+   */
+  public void registerComponentExtension(Class parentClass,
+                                         URI extNamespace,
+                                         Class compExtClass,
+                                         ExtensionFactory factory)
+  {
+      registerComponentExtension(parentClass, extNamespace, compExtClass);
+      registerFactory(compExtFactoryReg, parentClass, extNamespace, factory);
   }
   
   /**
@@ -645,16 +775,12 @@ public class ExtensionRegistry
    */
   public Class queryComponentExtension(Class parentClass, URI extNamespace)
   {
-      Map innerCompExtReg =
-          (Map)compExtReg.get(parentClass);
-      Class compExtClass = null;
-      
-      if (innerCompExtReg != null)
+      FrozenTables tables = frozenTables;
+      if (tables != null)
       {
-          compExtClass = (Class)innerCompExtReg.get(extNamespace);
+          return (Class)tables.compExtTypes.get(new RegKey(parentClass, extNamespace));
       }
-      
-      return compExtClass;
+      return (Class)query(compExtReg, parentClass, extNamespace);
   }
 
   /**
@@ -665,6 +791,13 @@ public class ExtensionRegistry
    */
   public URI[] queryComponentExtensionNamespaces(Class parentClass)
   {
+      FrozenTables tables = frozenTables;
+      if (tables != null)
+      {
+          URI[] extNamespaces = (URI[])tables.compExtNamespaces.get(parentClass);
+          return extNamespaces != null ? extNamespaces.clone() : new URI[0];
+      }
+      
       Map innerCompExtReg =
           (Map)compExtReg.get(parentClass);
       
@@ -695,6 +828,14 @@ public class ExtensionRegistry
                                                       URI extNamespace)
                                                       throws WSDLException
   {
+      FrozenTables tables = frozenTables;
+      ExtensionFactory factory = queryFactory(compExtFactoryReg,
+          tables != null ? tables.compExtFactories : null, parentClass, extNamespace);
+      if (factory != null)
+      {
+          return (ComponentExtensions)factory.newInstance();
+      }
+      
       Class compExtClass = queryComponentExtension(parentClass, extNamespace);
       
       if(compExtClass == null)
@@ -724,5 +865,188 @@ public class ExtensionRegistry
       
       return compExt;
   }
+
+  /**
+   * Compile the registrations into read-only lookup tables. After this,
+   * lookups take no locks, and any attempt to change the registrations
+   * or the default serializer and deserializer throws an 
+   * IllegalStateException. Freezing a frozen registry has no effect.
+   */
+  public synchronized void freeze()
+  {
+    if (frozenTables == null)
+    {
+      frozenTables = new FrozenTables(this);
+    }
+  }
+  
+  /**
+   * Returns true if the registry has been frozen.
+   * 
+   * @see #freeze()
+   */
+  public boolean isFrozen()
+  {
+    return frozenTables != null;
+  }
+  
+  private void checkNotFrozen()
+  {
+    if (frozenTables != null)
+    {
+      throw new IllegalStateException("The extension registry is frozen.");
+    }
+  }
+  
+  private static void registerFactory(Map factoryReg, 
+                                      Class parentType, 
+                                      Object key, 
+                                      ExtensionFactory factory)
+  {
+    Map innerFactoryReg = (Map)factoryReg.get(parentType);
+    
+    if (innerFactoryReg == null)
+    {
+      innerFactoryReg = new Hashtable();
+      
+      factoryReg.put(parentType, innerFactoryReg);
+    }
+    
+    innerFactoryReg.put(key, factory);
+  }
   
-}
\ No newline at end of file
+  private static void unregisterFactory(Map factoryReg, Class parentType, Object key)
+  {
+    Map innerFactoryReg = (Map)factoryReg.get(parentType);
+    
+    if (innerFactoryReg != null)
+    {
+      innerFactoryReg.remove(key);
+    }
+  }
+  
+  /*
+   * Look up a factory in the frozen table if the registry is frozen,
+   * otherwise in the Map of Maps.
+   */
+  private static ExtensionFactory queryFactory(Map factoryReg, 
+                                               Map frozenTable, 
+                                               Class parentType, 
+                                               Object key)
+  {
+    if (frozenTable != null)
+    {
+      return (ExtensionFactory)frozenTable.get(new RegKey(parentType, key));
+    }
+    return (ExtensionFactory)query(factoryReg, parentType, key);
+  }
+  
+  /*
+   * Look up a registration in one of the Maps of Maps.
+   */
+  private static Object query(Map reg, Class parentType, Object key)
+  {
+    Map innerReg = (Map)reg.get(parentType);
+    return (innerReg != null) ? innerReg.get(key) : null;
+  }
+  
+  /*
+   * The registrations of a frozen registry, each Map of Maps flattened into
+   * a single Map keyed by parent type and name.
+   */
+  private static class FrozenTables
+  {
+    final Map serializers;
+    final Map deserializers;
+    final Map extElementTypes;
+    final Map extAttributeTypes;
+    final Map compExtTypes;
+    final Map extElementFactories;
+    final Map extAttributeFactories;
+    final Map compExtFactories;
+    
+    //Parent type to an unmodifiable Set of QNames
+    final Map allowableExtensions = new HashMap();
+    
+    //Parent component class to URI[]
+    final Map compExtNamespaces = new HashMap();
+    
+    FrozenTables(ExtensionRegistry reg)
+    {
+      serializers = flatten(reg.serializerReg);
+      deserializers = flatten(reg.deserializerReg);
+      extElementTypes = flatten(reg.extElementReg);
+      extAttributeTypes = flatten(reg.extAttributeReg);
+      compExtTypes = flatten(reg.compExtReg);
+      extElementFactories = flatten(reg.extElementFactoryReg);
+      extAttributeFactories = flatten(reg.extAttributeFactoryReg);
+      compExtFactories = flatten(reg.compExtFactoryReg);
+      
+      Iterator it = reg.deserializerReg.entrySet().iterator();
+      while (it.hasNext())
+      {
+        Map.Entry entry = (Map.Entry)it.next();
+        allowableExtensions.put(entry.getKey(), 
+            Collections.unmodifiableSet(new HashSet(((Map)entry.getValue()).keySet())));
+      }
+      
+      it = reg.compExtReg.entrySet().iterator();
+      while (it.hasNext())
+      {
+        Map.Entry entry = (Map.Entry)it.next();
+        Set namespaceKeys = ((Map)entry.getValue()).keySet();
+        compExtNamespaces.put(entry.getKey(), namespaceKeys.toArray(new URI[namespaceKeys.size()]));
+      }
+    }
+    
+    private static Map flatten(Map reg)
+    {
+      Map table = new HashMap();
+      Iterator outer = reg.entrySet().iterator();
+      while (outer.hasNext())
+      {
+        Map.Entry parentEntry = (Map.Entry)outer.next();
+        Class parentType = (Class)parentEntry.getKey();
+        Iterator inner = ((Map)parentEntry.getValue()).entrySet().iterator();
+        while (inner.hasNext())
+        {
+          Map.Entry entry = (Map.Entry)inner.next();
+          table.put(new RegKey(parentType, entry.getKey()), entry.getValue());
+        }
+      }
+      return table;
+    }
+  }
+  
+  /*
+   * The key of a frozen lookup table.
+   */
+  private static final class RegKey
+  {
+    private final Class parentType;
+    private final Object name;
+    
+    RegKey(Class parentType, Object name)
+    {
+      this.parentType = parentType;
+      this.name = name;
+    }
+    
+    public int hashCode()
+    {
+      return 31 * (parentType != null ? parentType.hashCode() : 0) + 
+             (name != null ? name.hashCode() : 0);
+    }
+    
+    public boolean equals(Object obj)
+    {
+      if (!(obj instanceof RegKey))
+      {
+        return false;
+      }
+      RegKey other = (RegKey)obj;
+      return parentType == other.parentType &&
+             (name == null ? other.name == null : name.equals(other.name));
+    }
+  }
+}
@@ -69,4 +69,28 @@ public class OMWSDLReaderTest extends TestCase{
             e.getMessage().indexOf("WSDL501") > -1);
         }
     }
+
+    /**
+     * Test that an error is reported with the document it was found in and
+     * the line of the element it was found on.
+     */
+    public void testErrorLocation() throws Exception{
+        TestErrorHandler errorHandler = new TestErrorHandler();
+        URL wsdlURL = getClass().getClassLoader().getResource("./org/apache/woden/badDescriptionTags.wsdl");
+        try{
+            omWSDLReader.readWSDL(wsdlURL.toString(), errorHandler);
+            fail("Expected a WSDLException because the \"description\" tag was deliberately misspelt.");
+        }
+        catch(WSDLException e){
+            //expected
+        }
+        ErrorInfo errorInfo = (ErrorInfo)errorHandler.fatalErrors.get("WSDL501");
+        assertNotNull("WSDL501 was not reported.", errorInfo);
+        ErrorLocator locator = errorInfo.getErrorLocator();
+        assertEquals(wsdlURL.toString(), locator.getDocumentBaseURI());
+        //the StAX implementation reports the first or the last line of the tag
+        int line = locator.getLineNumber();
+        assertTrue("The line of the <xdescription> start tag was not reported: " + line,
+                line >= 2 && line <= 8);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden;
+
+import java.net.URL;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.internal.schema.SchemaImpl;
+import org.apache.woden.internal.wsdl20.WSDLElementImpl;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+
+public class StAXWSDLReaderTest extends TestCase{
+
+    private WSDLFactory staxWSDLFactory = null;
+    private WSDLReader staxWSDLReader = null;
+    private ErrorHandler handler = null;
+
+    public static Test suite(){
+        return new TestSuite(StAXWSDLReaderTest.class);
+    }
+
+    protected void setUp() throws Exception{
+
+        handler = new TestErrorHandler();
+        try{
+            staxWSDLFactory = WSDLFactory.newInstance("org.apache.woden.internal.StAXWSDLFactory");
+            staxWSDLReader = staxWSDLFactory.newWSDLReader();
+        }
+        catch (Exception e){
+            e.printStackTrace();
+        }
+    }
+
+    public void testReadValidWSDL20WithStAX(){
+        DescriptionElement desc = null;
+        try{
+          URL wsdlURL = getClass().getClassLoader().getResource("./org/apache/woden/primer-hotelReservationService.wsdl");
+          desc = staxWSDLReader.readWSDL(wsdlURL.toString(), handler);
+        }
+        catch(WSDLException e){
+            fail("Unexpected exception: " + e.getMessage());
+        }
+        assertNotNull("The description returned is null.", desc);
+    }
+
+    public void testStAXModelMatchesDOMModel() throws Exception{
+        URL wsdlURL = getClass().getClassLoader().getResource("./org/apache/woden/primer-hotelReservationService.wsdl");
+
+        Description staxDesc = staxWSDLReader.readWSDL(wsdlURL.toString(), handler).toComponent();
+        Description domDesc = WSDLFactory.newInstance().newWSDLReader()
+                                  .readWSDL(wsdlURL.toString(), handler).toComponent();
+
+        assertEquals("Unexpected number of interfaces.",
+                domDesc.getInterfaces().length, staxDesc.getInterfaces().length);
+        assertEquals("Unexpected number of bindings.",
+                domDesc.getBindings().length, staxDesc.getBindings().length);
+        assertEquals("Unexpected number of services.",
+                domDesc.getServices().length, staxDesc.getServices().length);
+        assertEquals("Unexpected number of element declarations.",
+                domDesc.getElementDeclarations().length, staxDesc.getElementDeclarations().length);
+        assertEquals("Unexpected interface operations.",
+                domDesc.getInterfaces()[0].getInterfaceOperations().length,
+                staxDesc.getInterfaces()[0].getInterfaceOperations().length);
+        assertEquals("Unexpected endpoint address.",
+                domDesc.getServices()[0].getEndpoints()[0].getAddress(),
+                staxDesc.getServices()[0].getEndpoints()[0].getAddress());
+    }
+
+    public void testReadInvalidWSDL20WithStAX(){
+        try{
+            URL wsdlURL = getClass().getClassLoader().getResource("./org/apache/woden/badDescriptionTags.wsdl");
+            staxWSDLReader.readWSDL(wsdlURL.toString(), handler);
+            fail("Expected a WSDLException because the \"description\" tag was deliberately misspelt.");
+        }
+        catch(WSDLException e){
+            assertTrue("Expected a WSDLException with message containing \"WSDL501\", but got: " + e.getMessage() ,
+            e.getMessage().indexOf("WSDL501") > -1);
+        }
+    }
+
+    /*
+     * The elements read record the document and the start tag they were
+     * read from. The interface start tag is on a single line.
+     */
+    public void testSourceLocationsWithStAX() throws Exception{
+        URL wsdlURL = getClass().getClassLoader().getResource("./org/apache/woden/primer-hotelReservationService.wsdl");
+        DescriptionElement desc = staxWSDLReader.readWSDL(wsdlURL.toString(), handler);
+
+        WSDLElementImpl intface = (WSDLElementImpl)desc.getInterfaceElements()[0];
+        assertEquals("The interface line number", 39, intface.getSourceLineNumber());
+        assertNotNull("The interface source URI", intface.getSourceURI());
+
+        //The xs:schema start tag spans lines 18 to 21.
+        SchemaImpl schema = (SchemaImpl)desc.getTypesElement().getInlinedSchemas()[0];
+        assertTrue("The schema line number", 
+                schema.getSourceLineNumber() >= 18 && schema.getSourceLineNumber() <= 21);
+        assertEquals("The schema source URI", wsdlURL.toString(), schema.getSourceURI());
+    }
+}
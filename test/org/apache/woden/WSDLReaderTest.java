@@ -28,6 +28,8 @@ import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.apache.woden.internal.schema.SchemaImpl;
+import org.apache.woden.internal.wsdl20.WSDLElementImpl;
 import org.apache.woden.tests.TestErrorHandler;
 import org.apache.woden.wsdl20.xml.DescriptionElement;
 import org.w3c.dom.Document;
@@ -154,4 +156,28 @@ public class WSDLReaderTest extends TestCase
       }
       assertNotNull("The description returned is null.", desc);
   }
+
+  /*
+   * The elements read record the document and the end of the start tag
+   * they were read from.
+   */
+  public void testSourceLocations() throws Exception
+  {
+      URL wsdlURL = getClass().getClassLoader().getResource("org/apache/woden/primer-hotelReservationService.wsdl");
+      DescriptionElement desc = reader.readWSDL(wsdlURL.toString(), handler);
+      
+      WSDLElementImpl intface = (WSDLElementImpl)desc.getInterfaceElements()[0];
+      assertEquals("The interface line number", 39, intface.getSourceLineNumber());
+      assertTrue("The interface column number", intface.getSourceColumnNumber() > 0);
+      assertEquals("The interface source URI", wsdlURL.toString(), intface.getSourceURI());
+      
+      WSDLElementImpl oper = (WSDLElementImpl)desc.getInterfaceElements()[0].getInterfaceOperationElements()[0];
+      assertEquals("The operation line number", 45, oper.getSourceLineNumber());
+
+      //The xs:schema start tag spans lines 18 to 21.
+      SchemaImpl schema = (SchemaImpl)desc.getTypesElement().getInlinedSchemas()[0];
+      assertTrue("The schema line number", 
+              schema.getSourceLineNumber() >= 18 && schema.getSourceLineNumber() <= 21);
+      assertEquals("The schema source URI", wsdlURL.toString(), schema.getSourceURI());
+  }
 }
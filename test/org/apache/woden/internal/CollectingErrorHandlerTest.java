@@ -0,0 +1,86 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.ErrorInfo;
+import org.apache.woden.ErrorReporter;
+
+/**
+ * Test that the CollectingErrorHandler counts every error but keeps only
+ * the first and last ones.
+ */
+public class CollectingErrorHandlerTest extends TestCase 
+{
+    public static Test suite()
+    {
+        return new TestSuite(CollectingErrorHandlerTest.class);
+    }
+    
+    public void testCounts()
+    {
+        CollectingErrorHandler handler = new CollectingErrorHandler();
+        handler.warning(newErrorInfo("WSDL504", 1));
+        handler.error(newErrorInfo("WSDL505", 2));
+        handler.error(newErrorInfo("WSDL505", 3));
+        
+        assertEquals(3, handler.getTotalCount());
+        assertEquals(1, handler.count(ErrorReporter.SEVERITY_WARNING));
+        assertEquals(2, handler.count(ErrorReporter.SEVERITY_ERROR));
+        assertEquals(2, handler.count("WSDL505"));
+        assertEquals(0, handler.count("WSDL506"));
+        assertTrue(handler.hasErrors());
+        assertFalse(handler.hasFatal());
+        
+        handler.fatalError(newErrorInfo("WSDL500", 4));
+        assertTrue(handler.hasFatal());
+        assertEquals(4, handler.getErrors().length);
+        assertEquals(0, handler.getDiscardedCount());
+        
+        handler.reset();
+        assertEquals(0, handler.getTotalCount());
+        assertEquals(0, handler.getErrors().length);
+        assertFalse(handler.hasErrors());
+    }
+    
+    public void testFirstAndLastKept()
+    {
+        CollectingErrorHandler handler = new CollectingErrorHandler(2, 3);
+        for(int i = 1; i <= 10; i++)
+        {
+            handler.error(newErrorInfo("WSDL505", i));
+        }
+        
+        assertEquals(10, handler.count("WSDL505"));
+        assertEquals(5, handler.getDiscardedCount());
+        
+        ErrorInfo[] errors = handler.getErrors();
+        int[] expectedLines = new int[] {1, 2, 8, 9, 10};
+        assertEquals(expectedLines.length, errors.length);
+        for(int i = 0; i < errors.length; i++)
+        {
+            assertEquals(expectedLines[i], errors[i].getErrorLocator().getLineNumber());
+        }
+    }
+    
+    private ErrorInfo newErrorInfo(String errorId, int line)
+    {
+        return new ErrorInfoImpl(new ErrorLocatorImpl(null, line, 1), errorId, "message", null);
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.net.URL;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+
+/**
+ * Test the pooling of Xerces parsers and of the compiled WSDL 2.0 grammars.
+ */
+public class DOMParserPoolTest extends TestCase 
+{
+    public static Test suite()
+    {
+        return new TestSuite(DOMParserPoolTest.class);
+    }
+    
+    /**
+     * Test that the bundled WSDL 2.0 schemas are compiled into the grammar pool.
+     */
+    public void testGrammarPoolContainsWSDLSchemas()
+    {
+        XMLGrammarPool pool = WSDLGrammarPool.getGrammarPool();
+        Grammar[] grammars = pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA);
+        
+        assertTrue("The WSDL 2.0 schema is not in the grammar pool.", 
+                containsNamespace(grammars, "http://www.w3.org/2006/01/wsdl"));
+        assertTrue("The WSDL 2.0 extensions schema is not in the grammar pool.", 
+                containsNamespace(grammars, "http://www.w3.org/2006/01/wsdl-extensions"));
+        assertSame(pool, WSDLGrammarPool.getGrammarPool());
+    }
+    
+    /**
+     * Test that a released parser is reused, and that validating and 
+     * non-validating parsers are not mixed up.
+     */
+    public void testParserReuse()
+    {
+        DOMParserPool pool = new DOMParserPool();
+        
+        LocatingDOMParser parser = pool.getParser(false);
+        pool.releaseParser(parser, false);
+        assertSame("A released parser was not reused.", parser, pool.getParser(false));
+        
+        pool.releaseParser(parser, false);
+        LocatingDOMParser validating = pool.getParser(true);
+        assertNotSame("A non-validating parser was used for validation.", parser, validating);
+        pool.releaseParser(validating, true);
+        assertSame("A released parser was not reused.", validating, pool.getParser(true));
+    }
+    
+    /**
+     * Test that the same reader can read a document more than once with
+     * validation switched on, reusing its parsers.
+     */
+    public void testReadWithValidation() throws Exception
+    {
+        URL wsdlURL = getClass().getClassLoader().getResource(
+            "org/apache/woden/internal/resources/imports/main.wsdl");
+        assertNotNull("Failed to find the WSDL document on the classpath.", wsdlURL);
+        
+        WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+        reader.setFeature(WSDLReader.FEATURE_VALIDATION, true);
+        
+        for(int i = 0; i < 2; i++)
+        {
+            DescriptionElement descEl = reader.readWSDL(wsdlURL.toString(), new TestErrorHandler());
+            assertNotNull("The reader did not return a description.", descEl);
+            assertEquals(1, descEl.getImportElements().length);
+        }
+    }
+    
+    private boolean containsNamespace(Grammar[] grammars, String namespace)
+    {
+        for(int i = 0; i < grammars.length; i++)
+        {
+            if(namespace.equals(grammars[i].getGrammarDescription().getNamespace()))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
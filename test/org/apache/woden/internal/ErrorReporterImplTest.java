@@ -0,0 +1,121 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.ErrorInfo;
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.FilteringErrorHandler;
+import org.apache.woden.WSDLException;
+
+/**
+ * Test the lazy formatting of messages by the ErrorReporterImpl, and the 
+ * filtering of errors by severity.
+ */
+public class ErrorReporterImplTest extends TestCase 
+{
+    public static Test suite()
+    {
+        return new TestSuite(ErrorReporterImplTest.class);
+    }
+    
+    /**
+     * Test that a message is formatted from its key and arguments when 
+     * asked for.
+     */
+    public void testLazyMessage() throws Exception
+    {
+        ErrorReporterImpl reporter = new ErrorReporterImpl();
+        WarningsOffHandler handler = new WarningsOffHandler();
+        reporter.setErrorHandler(handler);
+        
+        reporter.reportError(new ErrorLocatorImpl(), "WSDL506", 
+                new Object[] {"bad uri"}, ErrorReporter.SEVERITY_ERROR);
+        
+        assertEquals(1, handler.fErrors.size());
+        ErrorInfo errorInfo = (ErrorInfo)handler.fErrors.get(0);
+        assertEquals("WSDL506", errorInfo.getKey());
+        assertEquals("bad uri", errorInfo.getArguments()[0]);
+        assertEquals("Could not create a URI from the string \"bad uri\".", 
+                errorInfo.getMessage());
+        assertEquals(reporter.getFormattedMessage("WSDL506", new Object[] {"bad uri"}),
+                errorInfo.getMessage());
+    }
+    
+    /**
+     * Test that errors of a severity the handler does not want are not 
+     * passed to it, and that fatal errors still terminate.
+     */
+    public void testFilteredSeverities() throws Exception
+    {
+        ErrorReporterImpl reporter = new ErrorReporterImpl();
+        WarningsOffHandler handler = new WarningsOffHandler();
+        handler.fFatalErrorsOn = false;
+        reporter.setErrorHandler(handler);
+        
+        //The key is not in the resource bundle, so formatting the message would fail.
+        reporter.reportError(new ErrorLocatorImpl(), "NoSuchKey", 
+                new Object[] {}, ErrorReporter.SEVERITY_WARNING);
+        reporter.reportError(new ErrorLocatorImpl(), "WSDL506", 
+                "A ready-formatted warning.", ErrorReporter.SEVERITY_WARNING);
+        assertTrue("A warning was reported.", handler.fErrors.isEmpty());
+        
+        try
+        {
+            reporter.reportError(new ErrorLocatorImpl(), "WSDL506", 
+                    new Object[] {"bad uri"}, ErrorReporter.SEVERITY_FATAL_ERROR);
+            fail("Expected a WSDLException for the fatal error.");
+        }
+        catch(WSDLException e)
+        {
+            assertTrue(e.getMessage().indexOf("WSDL506") > -1);
+        }
+        assertTrue("A fatal error was reported.", handler.fErrors.isEmpty());
+    }
+    
+    private static class WarningsOffHandler implements FilteringErrorHandler
+    {
+        List fErrors = new ArrayList();
+        boolean fFatalErrorsOn = true;
+        
+        public boolean isReported(short severity)
+        {
+            return severity == ErrorReporter.SEVERITY_ERROR ||
+                   (severity == ErrorReporter.SEVERITY_FATAL_ERROR && fFatalErrorsOn);
+        }
+
+        public void warning(ErrorInfo errorInfo)
+        {
+            fErrors.add(errorInfo);
+        }
+
+        public void error(ErrorInfo errorInfo)
+        {
+            fErrors.add(errorInfo);
+        }
+
+        public void fatalError(ErrorInfo errorInfo)
+        {
+            fErrors.add(errorInfo);
+        }
+    }
+}
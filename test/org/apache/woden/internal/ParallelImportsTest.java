@@ -0,0 +1,121 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.net.URL;
+import java.util.concurrent.Executor;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.Interface;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+
+/**
+ * Test that the parallel imports feature builds the same model as the
+ * sequential retrieval of imported and included documents.
+ */
+public class ParallelImportsTest extends TestCase 
+{
+    private static final String NS_MAIN = "http://ws.apache.woden/imports/main";
+    private static final String NS_A = "http://ws.apache.woden/imports/a";
+    private static final String NS_MSG = "http://ws.apache.woden/imports/messages";
+    
+    private String fWsdlURL = null;
+    
+    public static Test suite()
+    {
+        return new TestSuite(ParallelImportsTest.class);
+    }
+    
+    protected void setUp() throws Exception 
+    {
+        URL wsdlURL = getClass().getClassLoader().getResource(
+            "org/apache/woden/internal/resources/imports/main.wsdl");
+        assertNotNull("Failed to find the WSDL document on the classpath.", wsdlURL);
+        fWsdlURL = wsdlURL.toString();
+    }
+    
+    public void testSameModelAsSequential() throws Exception
+    {
+        Description sequential = read(false, null);
+        Description parallel = read(true, null);
+        
+        assertModel(sequential);
+        assertModel(parallel);
+        assertEquals(names(sequential.getInterfaces()), names(parallel.getInterfaces()));
+        assertEquals(sequential.getElementDeclarations().length, 
+                     parallel.getElementDeclarations().length);
+    }
+    
+    public void testUsesExecutorProperty() throws Exception
+    {
+        final int[] count = new int[1];
+        Executor executor = new Executor() {
+            public void execute(Runnable command) {
+                synchronized(count) {
+                    count[0]++;
+                }
+                new Thread(command).start();
+            }
+        };
+        
+        Description desc = read(true, executor);
+        
+        assertModel(desc);
+        assertTrue("The executor was not used.", count[0] > 0);
+    }
+    
+    private Description read(boolean parallel, Executor executor) throws Exception
+    {
+        WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+        reader.setFeature(WSDLReader.FEATURE_PARALLEL_IMPORTS, parallel);
+        if(executor != null) {
+            reader.setProperty(WSDLReader.PROPERTY_IMPORT_EXECUTOR, executor);
+        }
+        DescriptionElement descEl = reader.readWSDL(fWsdlURL, new TestErrorHandler());
+        return descEl.toComponent();
+    }
+    
+    private void assertModel(Description desc)
+    {
+        assertNotNull(desc.getInterface(new QName(NS_MAIN, "mainInterface")));
+        assertNotNull(desc.getInterface(new QName(NS_MAIN, "includedInterface")));
+        assertNotNull(desc.getInterface(new QName(NS_MAIN, "included2Interface")));
+        assertNotNull(desc.getInterface(new QName(NS_A, "aInterface")));
+        assertNotNull(desc.getElementDeclaration(new QName(NS_MSG, "request")));
+        
+        Interface intface = desc.getInterface(new QName(NS_MAIN, "mainInterface"));
+        assertEquals(2, intface.getExtendedInterfaces().length);
+    }
+    
+    private String names(Interface[] interfaces)
+    {
+        StringBuffer sb = new StringBuffer();
+        for(int i=0; i<interfaces.length; i++)
+        {
+            sb.append(interfaces[i].getName()).append(' ');
+        }
+        return sb.toString();
+    }
+}
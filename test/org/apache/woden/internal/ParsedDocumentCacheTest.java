@@ -0,0 +1,193 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.wsdl20.WSDLElementImpl;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.woden.wsdl20.xml.InterfaceElement;
+
+/**
+ * Test that a ParsedDocumentCache gives the same description as reading 
+ * the documents, and is written again when any document it was written 
+ * from has changed.
+ */
+public class ParsedDocumentCacheTest extends TestCase 
+{
+    private static final String[] DOCUMENTS = new String[] {
+        "main.wsdl", "a.wsdl", "included.wsdl", "included2.wsdl", "messages.xsd"};
+    
+    private File fDir = null;
+    private File fFile = null;
+    private String fWsdlURL = null;
+    
+    public static Test suite()
+    {
+        return new TestSuite(ParsedDocumentCacheTest.class);
+    }
+    
+    protected void setUp() throws Exception 
+    {
+        fDir = File.createTempFile("woden", "");
+        fDir.delete();
+        fDir.mkdirs();
+        fFile = new File(new File(fDir, "caches"), "main.wds");
+        fWsdlURL = new File(fDir, "main.wsdl").toURI().toString();
+        
+        for(int i = 0; i < DOCUMENTS.length; i++)
+        {
+            InputStream in = getClass().getClassLoader().getResourceAsStream(
+                    "org/apache/woden/internal/resources/imports/" + DOCUMENTS[i]);
+            assertNotNull("Failed to find " + DOCUMENTS[i] + " on the classpath.", in);
+            OutputStream out = new FileOutputStream(new File(fDir, DOCUMENTS[i]));
+            byte[] buffer = new byte[4096];
+            int n;
+            while((n = in.read(buffer)) != -1)
+            {
+                out.write(buffer, 0, n);
+            }
+            in.close();
+            out.close();
+        }
+    }
+    
+    protected void tearDown() throws Exception 
+    {
+        delete(fDir);
+    }
+    
+    /**
+     * Test that the description read from the cache has the same 
+     * components and source locations as the one read from the documents.
+     */
+    public void testCacheGivesSameDescription() throws Exception
+    {
+        ParsedDocumentCache cache = new ParsedDocumentCache(fFile);
+        
+        TestErrorHandler handler = new TestErrorHandler();
+        DescriptionElement parsed = cache.read(newReader(handler), fWsdlURL);
+        assertFalse(cache.isLastReadFromCache());
+        assertEquals(0, handler.numErrors);
+        assertTrue("The cache was not written.", fFile.isFile());
+        
+        handler = new TestErrorHandler();
+        DescriptionElement loaded = cache.read(newReader(handler), fWsdlURL);
+        assertTrue("The documents were parsed again.", cache.isLastReadFromCache());
+        assertEquals(0, handler.numErrors);
+        
+        Description parsedComp = parsed.toComponent();
+        Description loadedComp = loaded.toComponent();
+        assertEquals(parsedComp.getInterfaces().length, loadedComp.getInterfaces().length);
+        assertEquals(parsedComp.getElementDeclarations().length, 
+                loadedComp.getElementDeclarations().length);
+        assertNotNull(loadedComp.getElementDeclaration(
+                parsedComp.getElementDeclarations()[0].getName()));
+        
+        InterfaceElement parsedIntface = parsed.getInterfaceElements()[0];
+        InterfaceElement loadedIntface = loaded.getInterfaceElements()[0];
+        assertEquals(parsedIntface.getName(), loadedIntface.getName());
+        assertEquals(((WSDLElementImpl)parsedIntface).getSourceLineNumber(), 
+                ((WSDLElementImpl)loadedIntface).getSourceLineNumber());
+        assertEquals(((WSDLElementImpl)parsedIntface).getSourceColumnNumber(), 
+                ((WSDLElementImpl)loadedIntface).getSourceColumnNumber());
+        
+        //a new cache on the same file loads it
+        cache = new ParsedDocumentCache(fFile);
+        cache.read(newReader(new TestErrorHandler()), fWsdlURL);
+        assertTrue(cache.isLastReadFromCache());
+    }
+    
+    /**
+     * Test that a change to an imported schema is detected.
+     */
+    public void testChangedDocumentDetected() throws Exception
+    {
+        ParsedDocumentCache cache = new ParsedDocumentCache(fFile);
+        cache.read(newReader(new TestErrorHandler()), fWsdlURL);
+        
+        write("messages.xsd", read("messages.xsd") + "<!-- changed -->");
+        cache.read(newReader(new TestErrorHandler()), fWsdlURL);
+        assertFalse("The change was not detected.", cache.isLastReadFromCache());
+        
+        cache.read(newReader(new TestErrorHandler()), fWsdlURL);
+        assertTrue(cache.isLastReadFromCache());
+    }
+    
+    /**
+     * Test that no cache is written for a description with errors.
+     */
+    public void testNoCacheWithErrors() throws Exception
+    {
+        write("main.wsdl", read("main.wsdl").replaceFirst("<interface ", 
+            "<interface styleDefault=\"relative\" "));
+        
+        ParsedDocumentCache cache = new ParsedDocumentCache(fFile);
+        TestErrorHandler handler = new TestErrorHandler();
+        cache.read(newReader(handler), fWsdlURL);
+        assertTrue(handler.numErrors > 0);
+        assertFalse(fFile.exists());
+    }
+    
+    private WSDLReader newReader(TestErrorHandler handler) throws Exception
+    {
+        WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+        reader.setFeature(WSDLReader.FEATURE_VALIDATION, true);
+        reader.getErrorReporter().setErrorHandler(handler);
+        return reader;
+    }
+    
+    private String read(String name) throws IOException
+    {
+        File file = new File(fDir, name);
+        byte[] bytes = new byte[(int)file.length()];
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        in.readFully(bytes);
+        in.close();
+        return new String(bytes, "UTF-8");
+    }
+    
+    private void write(String name, String content) throws IOException
+    {
+        OutputStream out = new FileOutputStream(new File(fDir, name));
+        out.write(content.getBytes("UTF-8"));
+        out.close();
+    }
+    
+    private void delete(File file)
+    {
+        File[] files = file.listFiles();
+        for(int i = 0; files != null && i < files.length; i++)
+        {
+            delete(files[i]);
+        }
+        file.delete();
+    }
+}
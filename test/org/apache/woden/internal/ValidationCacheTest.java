@@ -0,0 +1,244 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.FilteringErrorHandler;
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.wsdl20.validation.ComponentAssertion;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.Interface;
+import org.apache.woden.wsdl20.WSDLComponent;
+
+/**
+ * Test that the ValidationCache reports the cached errors for unchanged
+ * documents and reads the description again when any document it was 
+ * read from has changed.
+ */
+public class ValidationCacheTest extends TestCase 
+{
+    private static final String[] DOCUMENTS = new String[] {
+        "main.wsdl", "a.wsdl", "included.wsdl", "included2.wsdl", "messages.xsd"};
+    
+    private File fDir = null;
+    private File fCacheDir = null;
+    
+    public static Test suite()
+    {
+        return new TestSuite(ValidationCacheTest.class);
+    }
+    
+    protected void setUp() throws Exception 
+    {
+        fDir = File.createTempFile("woden", "");
+        fDir.delete();
+        fDir.mkdirs();
+        fCacheDir = new File(fDir, "cache");
+        
+        for(int i = 0; i < DOCUMENTS.length; i++)
+        {
+            InputStream in = getClass().getClassLoader().getResourceAsStream(
+                    "org/apache/woden/internal/resources/imports/" + DOCUMENTS[i]);
+            assertNotNull("Failed to find " + DOCUMENTS[i] + " on the classpath.", in);
+            OutputStream out = new FileOutputStream(new File(fDir, DOCUMENTS[i]));
+            byte[] buffer = new byte[4096];
+            int n;
+            while((n = in.read(buffer)) != -1)
+            {
+                out.write(buffer, 0, n);
+            }
+            in.close();
+            out.close();
+        }
+        
+        //add an error, so that there is something to cache
+        write("main.wsdl", read("main.wsdl").replaceFirst("<interface ", 
+            "<interface styleDefault=\"relative\" "));
+    }
+    
+    protected void tearDown() throws Exception 
+    {
+        delete(fDir);
+    }
+    
+    /**
+     * Test that the errors are reported from the cache while no document 
+     * changes, and that a change to an imported schema is detected.
+     */
+    public void testUnchangedDocumentsNotRead() throws Exception
+    {
+        ValidationCache cache = new ValidationCache(fCacheDir);
+        String wsdlURL = new File(fDir, "main.wsdl").toURI().toString();
+        
+        TestErrorHandler first = new TestErrorHandler();
+        assertNotNull(cache.validate(newReader(), wsdlURL, first));
+        assertTrue("The description has no errors.", first.numErrors > 0);
+        assertEquals(1, cache.getEntryCount());
+        
+        TestErrorHandler second = new TestErrorHandler();
+        assertNull("The description was read again.", 
+                cache.validate(newReader(), wsdlURL, second));
+        assertEquals(first.numErrors, second.numErrors);
+        assertEquals(first.numWarnings, second.numWarnings);
+        assertEquals(first.errors.keySet(), second.errors.keySet());
+        
+        //a new cache on the same directory sees the entry
+        cache = new ValidationCache(fCacheDir);
+        assertNull(cache.validate(newReader(), wsdlURL, new TestErrorHandler()));
+        
+        write("messages.xsd", read("messages.xsd") + "<!-- changed -->");
+        TestErrorHandler third = new TestErrorHandler();
+        assertNotNull("The change was not detected.", 
+                cache.validate(newReader(), wsdlURL, third));
+        assertEquals(first.numErrors, third.numErrors);
+        assertNull(cache.validate(newReader(), wsdlURL, new TestErrorHandler()));
+    }
+    
+    /**
+     * Test that the least recently used entries are evicted when the cache 
+     * exceeds its size.
+     */
+    public void testEviction() throws Exception
+    {
+        ValidationCache cache = new ValidationCache(fCacheDir, 1);
+        String mainURL = new File(fDir, "main.wsdl").toURI().toString();
+        String aURL = new File(fDir, "a.wsdl").toURI().toString();
+        
+        cache.validate(newReader(), mainURL, new TestErrorHandler());
+        cache.validate(newReader(), aURL, new TestErrorHandler());
+        assertEquals(1, cache.getEntryCount());
+        assertNull(cache.validate(newReader(), aURL, new TestErrorHandler()));
+        assertNotNull(cache.validate(newReader(), mainURL, new TestErrorHandler()));
+        
+        cache.clear();
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getSize());
+    }
+    
+    /**
+     * Test that a filtering error handler is not passed the errors it filters, 
+     * and that the errors it filtered are not missing for another error handler.
+     */
+    public void testFilteringErrorHandler() throws Exception
+    {
+        ValidationCache cache = new ValidationCache(fCacheDir);
+        String wsdlURL = new File(fDir, "main.wsdl").toURI().toString();
+        
+        NoErrorsHandler filtering = new NoErrorsHandler();
+        assertNotNull(cache.validate(newReader(), wsdlURL, filtering));
+        assertEquals("The filtered errors were reported.", 0, filtering.numErrors);
+        assertNull(cache.validate(newReader(), wsdlURL, new NoErrorsHandler()));
+        
+        TestErrorHandler all = new TestErrorHandler();
+        assertNotNull("The errors were replayed from the filtered entry.", 
+                cache.validate(newReader(), wsdlURL, all));
+        assertTrue("The description has no errors.", all.numErrors > 0);
+        assertEquals(2, cache.getEntryCount());
+    }
+    
+    /**
+     * Test that an entry is not reused by a reader whose component validator 
+     * checks an assertion the entry was not recorded with.
+     */
+    public void testRegisteredAssertion() throws Exception
+    {
+        ValidationCache cache = new ValidationCache(fCacheDir);
+        String wsdlURL = new File(fDir, "main.wsdl").toURI().toString();
+        
+        assertNotNull(cache.validate(newReader(), wsdlURL, new TestErrorHandler()));
+        assertNull(cache.validate(newReader(), wsdlURL, new TestErrorHandler()));
+        
+        WSDLReader reader = newReader();
+        ((BaseWSDLReader)reader).getComponentValidator().getAssertionRegistry()
+            .registerAssertion(new ComponentAssertion() {
+                public String getId() {
+                    return "Test-Interface-Checked";
+                }
+                public Class getTargetType() {
+                    return Interface.class;
+                }
+                public boolean validate(Object target, Description desc, ErrorReporter errorReporter) {
+                    return true;
+                }
+                public WSDLComponent[] getDependencies(Object target, Description desc) {
+                    return new WSDLComponent[0];
+                }});
+        assertNotNull("The entry was reused with another assertion registered.",
+                cache.validate(reader, wsdlURL, new TestErrorHandler()));
+        assertNull(cache.validate(reader, wsdlURL, new TestErrorHandler()));
+        assertEquals(2, cache.getEntryCount());
+    }
+    
+    private WSDLReader newReader() throws Exception
+    {
+        WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+        reader.setFeature(WSDLReader.FEATURE_VALIDATION, true);
+        return reader;
+    }
+    
+    private String read(String name) throws IOException
+    {
+        File file = new File(fDir, name);
+        byte[] bytes = new byte[(int)file.length()];
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        in.readFully(bytes);
+        in.close();
+        return new String(bytes, "UTF-8");
+    }
+    
+    private void write(String name, String content) throws IOException
+    {
+        OutputStream out = new FileOutputStream(new File(fDir, name));
+        out.write(content.getBytes("UTF-8"));
+        out.close();
+    }
+    
+    private void delete(File file)
+    {
+        File[] files = file.listFiles();
+        for(int i = 0; files != null && i < files.length; i++)
+        {
+            delete(files[i]);
+        }
+        file.delete();
+    }
+    
+    /*
+     * An error handler that does not want errors of severity error.
+     */
+    private static class NoErrorsHandler extends TestErrorHandler 
+        implements FilteringErrorHandler
+    {
+        public boolean isReported(short severity)
+        {
+            return severity != ErrorReporter.SEVERITY_ERROR;
+        }
+    }
+}
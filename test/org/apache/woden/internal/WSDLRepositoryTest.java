@@ -0,0 +1,292 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.schema.SchemaCache;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.xml.DocumentationElement;
+import org.apache.ws.commons.schema.XmlSchema;
+import org.w3c.dom.Element;
+
+/**
+ * Test that a WSDLRepository reads a root again when a document it depends 
+ * on changes, without reading other roots or parsing unchanged documents,
+ * and that it follows the WSDL files added to and deleted from a directory.
+ */
+public class WSDLRepositoryTest extends TestCase 
+{
+    private static final String[] DOCUMENTS = new String[] {
+        "main.wsdl", "a.wsdl", "included.wsdl", "included2.wsdl", "messages.xsd"};
+    
+    private static final String NEW_WSDL = 
+        "<description xmlns='http://www.w3.org/2006/01/wsdl'" +
+        "    targetNamespace='http://ws.apache.woden/repository'" +
+        "    xmlns:tns='http://ws.apache.woden/repository'>" +
+        "  <interface name='newInterface'/>" +
+        "  <binding name='newBinding' interface='tns:newInterface'" +
+        "      type='http://www.w3.org/2006/01/wsdl/http'/>" +
+        "  <service name='newService' interface='tns:newInterface'>" +
+        "    <endpoint name='newEndpoint' binding='tns:newBinding' address='http://localhost/new'/>" +
+        "  </service>" +
+        "</description>";
+    
+    private File fDir = null;
+    private File fRootDir = null;
+    private File fMain = null;
+    private File fOther = null;
+    private WSDLReader fReader = null;
+    private TestErrorHandler fHandler = null;
+    private WSDLRepository fRepository = null;
+    
+    public static Test suite()
+    {
+        return new TestSuite(WSDLRepositoryTest.class);
+    }
+    
+    protected void setUp() throws Exception 
+    {
+        fDir = File.createTempFile("woden", "");
+        fDir.delete();
+        fDir.mkdirs();
+        fRootDir = new File(fDir, "roots");
+        fRootDir.mkdirs();
+        
+        for(int i = 0; i < DOCUMENTS.length; i++)
+        {
+            InputStream in = getClass().getClassLoader().getResourceAsStream(
+                    "org/apache/woden/internal/resources/imports/" + DOCUMENTS[i]);
+            assertNotNull("Failed to find " + DOCUMENTS[i] + " on the classpath.", in);
+            OutputStream out = new FileOutputStream(new File(fDir, DOCUMENTS[i]));
+            byte[] buffer = new byte[4096];
+            int n;
+            while((n = in.read(buffer)) != -1)
+            {
+                out.write(buffer, 0, n);
+            }
+            in.close();
+            out.close();
+        }
+        fMain = new File(fDir, "main.wsdl");
+        write(fMain, read(fMain).replaceFirst("<interface ", 
+                "<documentation>main</documentation><interface "));
+        fOther = new File(fRootDir, "other.wsdl");
+        write(fOther, read(new File(fDir, "included2.wsdl")));
+        
+        fReader = WSDLFactory.newInstance().newWSDLReader();
+        fHandler = new TestErrorHandler();
+        fReader.getErrorReporter().setErrorHandler(fHandler);
+        fRepository = new WSDLRepository(fReader);
+        fRepository.addRoot(fMain);
+        fRepository.addDirectory(fRootDir);
+    }
+    
+    protected void tearDown() throws Exception 
+    {
+        fRepository.close();
+        delete(fDir);
+    }
+    
+    /**
+     * Test that a change to an included document reads its root again, 
+     * reusing the DOM tree of the unchanged root document, and does not 
+     * read the other roots.
+     */
+    public void testChangedDocumentReloadsDependentRoots() throws Exception
+    {
+        Description main = fRepository.getDescription(fMain);
+        Description other = fRepository.getDescription(fOther);
+        assertNotNull("The root was not read.", main);
+        assertNotNull("The root in the directory was not read.", other);
+        assertEquals(4, main.getInterfaces().length);
+        assertEquals(2, fRepository.getDescriptions().length);
+        
+        File included2 = new File(fDir, "included2.wsdl");
+        write(included2, read(included2).replaceFirst("<interface ", 
+                "<interface name=\"addedInterface\"/><interface "));
+        waitForDescription(fMain, main);
+        
+        Description newMain = fRepository.getDescription(fMain);
+        assertNotSame("The root was not read again.", main, newMain);
+        assertEquals(5, newMain.getInterfaces().length);
+        assertSame("A root that does not depend on the document was read again.", 
+                other, fRepository.getDescription(fOther));
+        assertSame("The unchanged root document was parsed again.", 
+                getDocumentation(main).getOwnerDocument(), 
+                getDocumentation(newMain).getOwnerDocument());
+    }
+    
+    /**
+     * Test that a change to an imported schema document reads its root again
+     * with the new schema, rather than the one compiled before the change.
+     */
+    public void testChangedSchemaReloadsDependentRoots() throws Exception
+    {
+        QName extra = new QName("http://ws.apache.woden/imports/messages", "extra");
+        Description main = fRepository.getDescription(fMain);
+        assertNotNull(main.getElementDeclaration(new QName(extra.getNamespaceURI(), "request")));
+        assertNull(main.getElementDeclaration(extra));
+        
+        File messages = new File(fDir, "messages.xsd");
+        write(messages, read(messages).replaceFirst("<xs:element ", 
+                "<xs:element name=\"extra\" type=\"xs:string\"/><xs:element "));
+        waitForDescription(fMain, main);
+        
+        Description newMain = fRepository.getDescription(fMain);
+        assertNotSame("The root was not read again.", main, newMain);
+        assertNotNull("The root was read again with the old schema.", 
+                newMain.getElementDeclaration(extra));
+    }
+    
+    /**
+     * Test that a change to a document removes the schemas cached for the
+     * documents of the roots depending on it, and keeps the other schemas.
+     */
+    public void testChangedDocumentRemovesDependentSchemas() throws Exception
+    {
+        SchemaCache cache = (SchemaCache)fReader.getProperty(WSDLReader.PROPERTY_SCHEMA_CACHE);
+        String messagesLocation = new File(fDir, "messages.xsd").toURI().toString();
+        XmlSchema stale = new XmlSchema("urn:stale", null);
+        XmlSchema unrelated = new XmlSchema("urn:unrelated", null);
+        cache.putSchema(messagesLocation, "stale", stale);
+        cache.putSchema("http://example.org/unrelated.xsd", "0123", unrelated);
+        
+        Description main = fRepository.getDescription(fMain);
+        File included2 = new File(fDir, "included2.wsdl");
+        write(included2, read(included2).replaceFirst("<interface ", 
+                "<interface name=\"addedInterface\"/><interface "));
+        waitForDescription(fMain, main);
+        
+        assertNull("The schema imported by the changed root was kept.", 
+                cache.getSchema(messagesLocation, "stale"));
+        assertSame("A schema of no changed root was removed.", 
+                unrelated, cache.getSchema("http://example.org/unrelated.xsd", "0123"));
+    }
+    
+    /**
+     * Test that a change event for a document whose content is unchanged 
+     * does not read any root again.
+     */
+    public void testUnchangedContentIgnored() throws Exception
+    {
+        Description main = fRepository.getDescription(fMain);
+        File included2 = new File(fDir, "included2.wsdl");
+        write(included2, read(included2));
+        
+        assertFalse("A root was read again.", fRepository.checkForChanges(2000));
+        assertSame(main, fRepository.getDescription(fMain));
+    }
+    
+    /**
+     * Test that WSDL files created in a directory are added as roots, and 
+     * those deleted are removed, along with their endpoints.
+     */
+    public void testRootsAddedAndRemoved() throws Exception
+    {
+        File newFile = new File(fRootDir, "new.wsdl");
+        write(newFile, NEW_WSDL);
+        waitForDescription(newFile, null);
+        assertNotNull("The new root was not read.", fRepository.getDescription(newFile));
+        assertNotNull("The endpoint of the new root was not indexed.",
+                fRepository.getEndpointAddressIndex().getTarget("http://localhost/new"));
+        
+        newFile.delete();
+        Description deleted = fRepository.getDescription(newFile);
+        waitForDescription(newFile, deleted);
+        assertNull("The deleted root was not removed.", fRepository.getDescription(newFile));
+        assertNull("The endpoint of the deleted root is still indexed.",
+                fRepository.getEndpointAddressIndex().getTarget("http://localhost/new"));
+        assertNotNull(fRepository.getDescription(fOther));
+    }
+    
+    /**
+     * Test that the description is kept, and the failure reported, if a 
+     * root cannot be read again.
+     */
+    public void testFailedReadKeepsDescription() throws Exception
+    {
+        Description main = fRepository.getDescription(fMain);
+        write(new File(fDir, "included2.wsdl"), "<description");
+        
+        for(int i = 0; i < 10 && fHandler.errors.get("WSDL524") == null; i++)
+        {
+            fRepository.checkForChanges(500);
+        }
+        assertNotNull("The failure was not reported.", fHandler.errors.get("WSDL524"));
+        assertSame("The description was not kept.", main, fRepository.getDescription(fMain));
+    }
+    
+    /*
+     * Process changes until the description of the root is no longer the 
+     * specified one, or give up after a few seconds.
+     */
+    private void waitForDescription(File root, Description desc) throws Exception
+    {
+        for(int i = 0; i < 10 && fRepository.getDescription(root) == desc; i++)
+        {
+            fRepository.checkForChanges(500);
+        }
+    }
+    
+    private Element getDocumentation(Description desc)
+    {
+        DocumentationElement[] docs = desc.toElement().getDocumentationElements();
+        assertEquals(1, docs.length);
+        return (Element)docs[0].getContent();
+    }
+    
+    private String read(File file) throws IOException
+    {
+        byte[] bytes = new byte[(int)file.length()];
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        in.readFully(bytes);
+        in.close();
+        return new String(bytes, "UTF-8");
+    }
+    
+    private void write(File file, String content) throws IOException
+    {
+        OutputStream out = new FileOutputStream(file);
+        out.write(content.getBytes("UTF-8"));
+        out.close();
+    }
+    
+    private void delete(File file)
+    {
+        File[] files = file.listFiles();
+        for(int i = 0; files != null && i < files.length; i++)
+        {
+            delete(files[i]);
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.schema;
+
+import java.net.URL;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.schema.Schema;
+import org.apache.woden.schema.SchemaCache;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.ws.commons.schema.XmlSchema;
+
+public class LRUSchemaCacheTest extends TestCase 
+{
+    public static Test suite()
+    {
+        return new TestSuite(LRUSchemaCacheTest.class);
+    }
+    
+    /**
+     * Test that the least recently used entry is evicted when the cache is full.
+     */
+    public void testEviction()
+    {
+        LRUSchemaCache cache = new LRUSchemaCache(2);
+        XmlSchema s1 = new XmlSchema("urn:one", null);
+        XmlSchema s2 = new XmlSchema("urn:two", null);
+        XmlSchema s3 = new XmlSchema("urn:three", null);
+        
+        cache.putSchema("http://example.org/one.xsd", null, s1);
+        cache.putSchema("http://example.org/two.xsd", null, s2);
+        
+        //use 'one' so that 'two' becomes the least recently used
+        assertSame(s1, cache.getSchema("http://example.org/one.xsd", null));
+        
+        cache.putSchema("http://example.org/three.xsd", null, s3);
+        assertEquals(2, cache.size());
+        assertSame(s1, cache.getSchema("http://example.org/one.xsd", null));
+        assertNull(cache.getSchema("http://example.org/two.xsd", null));
+        assertSame(s3, cache.getSchema("http://example.org/three.xsd", null));
+    }
+    
+    /**
+     * Test that entries with the same location but different digests are distinct.
+     */
+    public void testDigestIsPartOfKey()
+    {
+        LRUSchemaCache cache = new LRUSchemaCache();
+        XmlSchema s1 = new XmlSchema("urn:one", null);
+        
+        cache.putSchema("http://example.org/a.wsdl", "0123", s1);
+        assertSame(s1, cache.getSchema("http://example.org/a.wsdl", "0123"));
+        assertNull(cache.getSchema("http://example.org/a.wsdl", "4567"));
+        assertNull(cache.getSchema("http://example.org/a.wsdl", null));
+        
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+    
+    /**
+     * Test that removing the schemas of a location removes its entries for
+     * every digest, and only those.
+     */
+    public void testRemoveSchemas()
+    {
+        LRUSchemaCache cache = new LRUSchemaCache();
+        XmlSchema s1 = new XmlSchema("urn:one", null);
+        XmlSchema s2 = new XmlSchema("urn:two", null);
+        XmlSchema s3 = new XmlSchema("urn:three", null);
+        
+        cache.putSchema("http://example.org/a.wsdl", "0123", s1);
+        cache.putSchema("http://example.org/a.wsdl", "4567", s2);
+        cache.putSchema("http://example.org/a.wsdl#b", "0123", s3);
+        
+        cache.removeSchemas("http://example.org/a.wsdl");
+        assertEquals(1, cache.size());
+        assertNull(cache.getSchema("http://example.org/a.wsdl", "0123"));
+        assertNull(cache.getSchema("http://example.org/a.wsdl", "4567"));
+        assertSame(s3, cache.getSchema("http://example.org/a.wsdl#b", "0123"));
+    }
+    
+    /**
+     * Test that two readers sharing a cache share the compiled inline schema.
+     */
+    public void testSharedBetweenReaders() throws Exception
+    {
+        URL wsdlURL = getClass().getClassLoader().getResource(
+            "org/apache/woden/primer-hotelReservationService.wsdl");
+        SchemaCache cache = new LRUSchemaCache();
+        
+        WSDLReader reader1 = WSDLFactory.newInstance().newWSDLReader();
+        reader1.setProperty(WSDLReader.PROPERTY_SCHEMA_CACHE, cache);
+        assertSame(cache, reader1.getProperty(WSDLReader.PROPERTY_SCHEMA_CACHE));
+        DescriptionElement desc1 = reader1.readWSDL(wsdlURL.toString(), new TestErrorHandler());
+        
+        WSDLReader reader2 = WSDLFactory.newInstance().newWSDLReader();
+        reader2.setProperty(WSDLReader.PROPERTY_SCHEMA_CACHE, cache);
+        DescriptionElement desc2 = reader2.readWSDL(wsdlURL.toString(), new TestErrorHandler());
+        
+        Schema[] schemas1 = desc1.getTypesElement().getInlinedSchemas();
+        Schema[] schemas2 = desc2.getTypesElement().getInlinedSchemas();
+        assertTrue("Expected an inlined schema.", schemas1.length > 0);
+        assertNotNull(schemas1[0].getSchemaDefinition());
+        assertSame(schemas1[0].getSchemaDefinition(), schemas2[0].getSchemaDefinition());
+    }
+    
+    /**
+     * Test that a property value which is not a SchemaCache is rejected.
+     */
+    public void testInvalidPropertyValue() throws Exception
+    {
+        WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+        try {
+            reader.setProperty(WSDLReader.PROPERTY_SCHEMA_CACHE, "not a cache");
+            fail("Expected an IllegalArgumentException.");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().indexOf(SchemaCache.class.getName()) > -1);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20;
+
+import java.net.URI;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.types.NCName;
+import org.apache.woden.wsdl20.xml.ImportElement;
+import org.apache.woden.wsdl20.xml.InterfaceElement;
+
+/**
+ * Unit tests for the modification stamps which keep the top-level component
+ * caches of DescriptionImpl up to date.
+ */
+public class DescriptionImplTest extends TestCase
+{
+    private static final String NS_A = "http://ws.apache.woden/a";
+    private static final String NS_B = "http://ws.apache.woden/b";
+
+    private DescriptionImpl fDescA = null;
+    private DescriptionImpl fDescB = null;
+
+    public static Test suite()
+    {
+        return new TestSuite(DescriptionImplTest.class);
+    }
+
+    protected void setUp() throws Exception
+    {
+        fDescA = new DescriptionImpl();
+        fDescA.setTargetNamespace(new URI(NS_A));
+        fDescB = new DescriptionImpl();
+        fDescB.setTargetNamespace(new URI(NS_B));
+    }
+
+    /**
+     * Test that modifying an element stamps the description containing it,
+     * but not another description.
+     */
+    public void testModificationStamps()
+    {
+        InterfaceElement intface = fDescA.addInterfaceElement();
+        long stampA = fDescA.getModificationStamp();
+        long stampB = fDescB.getModificationStamp();
+
+        intface.addInterfaceOperationElement().setName(new NCName("oper"));
+        assertTrue("Modifying a nested element did not stamp its description.",
+                fDescA.getModificationStamp() > stampA);
+        assertEquals("Modifying a description stamped another description.",
+                stampB, fDescB.getModificationStamp());
+
+        stampA = fDescA.getModificationStamp();
+        ImportElement imp = fDescA.addImportElement();
+        assertTrue(fDescA.getModificationStamp() > stampA);
+        stampA = fDescA.getModificationStamp();
+        imp.addDocumentationElement().setContent("changed");
+        assertTrue("Modifying the documentation of an import did not stamp its description.",
+                fDescA.getModificationStamp() > stampA);
+    }
+
+    /**
+     * Test that renaming an interface of an imported description is seen by
+     * the importing description.
+     */
+    public void testImportedDescriptionModified()
+    {
+        InterfaceElement intface = fDescB.addInterfaceElement();
+        intface.setName(new NCName("x"));
+        ImportElement imp = fDescA.addImportElement();
+        imp.setNamespace(URI.create(NS_B));
+        imp.setDescriptionElement(fDescB);
+
+        assertSame(intface, fDescA.getInterface(new QName(NS_B, "x")));
+
+        intface.setName(new NCName("y"));
+        assertNull(fDescA.getInterface(new QName(NS_B, "x")));
+        assertSame(intface, fDescA.getInterface(new QName(NS_B, "y")));
+        assertEquals(1, fDescA.getInterfaces().length);
+    }
+}
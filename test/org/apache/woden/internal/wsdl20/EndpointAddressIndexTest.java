@@ -0,0 +1,152 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20;
+
+import java.net.URI;
+import java.net.URL;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+
+/**
+ * Test that the EndpointAddressIndex maps request URLs to the endpoint with
+ * the longest matching address, and that it can be updated.
+ */
+public class EndpointAddressIndexTest extends TestCase 
+{
+    private String fWsdlPath = 
+        "org/apache/woden/internal/wsdl20/resources/EndpointAddressIndex.wsdl";
+    
+    private String fWsdlPath2 = 
+        "org/apache/woden/internal/wsdl20/extensions/soap/resources/SOAPDispatchIndex.wsdl";
+    
+    private WSDLReader fReader = null;
+    private Description fDesc = null;
+    private EndpointAddressIndex fIndex = null;
+    
+    public static Test suite()
+    {
+        return new TestSuite(EndpointAddressIndexTest.class);
+    }
+    
+    protected void setUp() throws Exception 
+    {
+        fReader = WSDLFactory.newInstance().newWSDLReader();
+        fReader.getErrorReporter().setErrorHandler(new TestErrorHandler());
+        fDesc = readDescription(fWsdlPath);
+        fIndex = new EndpointAddressIndex(fDesc);
+    }
+    
+    /**
+     * Test that a request is mapped to the endpoint whose address is the 
+     * longest path prefix of the request path.
+     */
+    public void testLongestPrefixMatch()
+    {
+        assertEndpoint("orders", "http://example.com/orders");
+        assertEndpoint("orders", "http://example.com/orders/123?status=open");
+        assertEndpoint("orders", "http://example.com//orders/");
+        assertEndpoint("admin", "http://EXAMPLE.COM/orders/admin/users");
+        assertEndpoint("root", "http://example.com/ordersX");
+        assertEndpoint("root", "http://example.com");
+        
+        EndpointAddressIndex.Target target = fIndex.getTarget("http://example.com/orders/admin");
+        assertEquals("The address of the endpoint was not normalized.",
+                URI.create("http://example.com:80/orders/admin/"), target.getAddress());
+        assertEquals("Unexpected service.", "service1", 
+                target.getService().getName().getLocalPart());
+        assertSame("Unexpected binding.", fDesc.getBindings()[0], target.getBinding());
+    }
+    
+    /**
+     * Test that the scheme, host and port of a request must match those of 
+     * the endpoint address.
+     */
+    public void testSchemeHostAndPort()
+    {
+        assertEndpoint("secure", "https://example.com:443/orders/1");
+        assertEndpoint("port8080", "http://example.com:8080/orders/1");
+        assertEndpoint("orders", "http://example.com:80/orders/1");
+        
+        assertNull("A request to another host should not be matched.",
+                fIndex.getTarget("http://example.org/orders"));
+        assertNull("A request to another port should not be matched.",
+                fIndex.getTarget("https://example.com:8443/orders"));
+        assertNull("An invalid URL should not be matched.",
+                fIndex.getTarget("http://example.com/orders/{id}"));
+        
+        EndpointAddressIndex.Target target = fIndex.getTarget("HTTP", "example.com", -1, "/orders/1");
+        assertNotNull("The parts of a request URL were not matched.", target);
+        assertEquals("Unexpected endpoint.", "orders", target.getEndpoint().getName().toString());
+    }
+    
+    /**
+     * Test that the first of several endpoints with the same address is indexed,
+     * and that endpoints with relative addresses are not indexed.
+     */
+    public void testDuplicateAndRelativeAddresses()
+    {
+        EndpointAddressIndex.Target target = fIndex.getTarget("http://example.com/orders");
+        assertEquals("The first endpoint with the address should be indexed.", 
+                "service1", target.getService().getName().getLocalPart());
+        
+        assertEndpoint("root", "http://example.com/relative/orders");
+    }
+    
+    /**
+     * Test that updating the index replaces the indexed endpoints.
+     */
+    public void testUpdate() throws Exception
+    {
+        Description desc2 = readDescription(fWsdlPath2);
+        assertNull("The endpoint should not be indexed yet.", 
+                fIndex.getTarget("http://localhost/endpoint1"));
+        
+        fIndex.update(new Description[] {desc2});
+        assertEndpoint("endpoint1", "http://localhost/endpoint1/x");
+        assertNull("The endpoints of the previous description should have been replaced.", 
+                fIndex.getTarget("http://example.com/orders"));
+        
+        fIndex.update(new Description[] {desc2, fDesc});
+        assertEndpoint("endpoint2", "http://localhost/endpoint2");
+        assertEndpoint("orders", "http://example.com/orders");
+    }
+    
+    private void assertEndpoint(String name, String requestURL)
+    {
+        EndpointAddressIndex.Target target = fIndex.getTarget(requestURL);
+        assertNotNull("No endpoint was found for " + requestURL + ".", target);
+        assertEquals("Unexpected endpoint for " + requestURL + ".", 
+                name, target.getEndpoint().getName().toString());
+    }
+    
+    private Description readDescription(String wsdlPath) throws Exception
+    {
+        URL wsdlURL = getClass().getClassLoader().getResource(wsdlPath);
+        assertNotNull("Failed to find the WSDL document on the classpath using the path: " + wsdlPath + ".", 
+                wsdlURL);
+        DescriptionElement descElem = fReader.readWSDL(wsdlURL.toString());
+        assertNotNull("The reader did not return a WSDL description.", descElem);
+        return descElem.toComponent();
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20;
+
+import java.net.URI;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.types.NCName;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.woden.wsdl20.xml.InterfaceElement;
+import org.apache.woden.wsdl20.xml.InterfaceFaultElement;
+import org.apache.woden.wsdl20.xml.InterfaceOperationElement;
+
+/**
+ * Unit tests for the lookup of in-scope operations and faults in InterfaceImpl,
+ * including those derived from indirectly extended interfaces.
+ */
+public class InterfaceImplTest extends TestCase 
+{
+    private String fTargetNS = "http://ws.apache.woden/interface";
+    private DescriptionElement fDescElement = null;
+
+    public static Test suite()
+    {
+        return new TestSuite(InterfaceImplTest.class);
+    }
+
+    protected void setUp() throws Exception 
+    {
+        fDescElement = WSDLFactory.newInstance().newDescription();
+        fDescElement.setTargetNamespace(new URI(fTargetNS));
+    }
+
+    protected void tearDown() throws Exception 
+    {
+        fDescElement = null;
+    }
+    
+    /**
+     * Test that operations and faults of indirectly extended interfaces are in-scope.
+     */
+    public void testInheritedComponents()
+    {
+        InterfaceElement a = addInterface("a", "b");
+        InterfaceElement b = addInterface("b", "c");
+        InterfaceElement c = addInterface("c", null);
+        InterfaceOperationElement oper = c.addInterfaceOperationElement();
+        oper.setName(new NCName("operC"));
+        InterfaceFaultElement fault = c.addInterfaceFaultElement();
+        fault.setName(new NCName("faultC"));
+        
+        InterfaceImpl intface = getInterface("a");
+        assertSame(oper, intface.getInScopeInterfaceOperation(new QName(fTargetNS, "operC")));
+        assertSame(fault, intface.getInScopeInterfaceFault(new QName(fTargetNS, "faultC")));
+        assertNull(intface.getInScopeInterfaceOperation(new QName(fTargetNS, "other")));
+        
+        assertEquals("Unexpected number of inherited interfaces.", 2, intface.getInheritedInterfaces().length);
+        assertSame(b, intface.getInheritedInterfaces()[0]);
+        assertSame(c, intface.getInheritedInterfaces()[1]);
+        assertSame(a, getInterface("a"));
+    }
+    
+    /**
+     * Test that the declared operation is found before an inherited one of the same name.
+     */
+    public void testDeclaredComponentFirst()
+    {
+        InterfaceElement a = addInterface("a", "b");
+        InterfaceElement b = addInterface("b", null);
+        b.addInterfaceOperationElement().setName(new NCName("oper"));
+        InterfaceOperationElement oper = a.addInterfaceOperationElement();
+        oper.setName(new NCName("oper"));
+        
+        assertSame(oper, getInterface("a").getInScopeInterfaceOperation(new QName(fTargetNS, "oper")));
+    }
+    
+    /**
+     * Test that a cycle of extended interfaces does not prevent the lookup.
+     */
+    public void testExtendsCycle()
+    {
+        addInterface("a", "b");
+        InterfaceElement b = addInterface("b", "c");
+        addInterface("c", "b");
+        InterfaceFaultElement fault = b.addInterfaceFaultElement();
+        fault.setName(new NCName("faultB"));
+        
+        InterfaceImpl intface = getInterface("a");
+        assertSame(fault, intface.getInScopeInterfaceFault(new QName(fTargetNS, "faultB")));
+        assertNull(intface.getInScopeInterfaceFault(new QName(fTargetNS, "other")));
+        assertEquals("Unexpected number of inherited interfaces.", 2, intface.getInheritedInterfaces().length);
+        assertEquals("Unexpected number of inherited interfaces.", 1, getInterface("c").getInheritedInterfaces().length);
+    }
+    
+    /**
+     * Test that extending another interface after a lookup is seen by later lookups.
+     */
+    public void testLookupAfterAddExtendedInterface()
+    {
+        InterfaceElement a = addInterface("a", null);
+        InterfaceElement b = addInterface("b", null);
+        InterfaceOperationElement oper = b.addInterfaceOperationElement();
+        oper.setName(new NCName("operB"));
+        
+        InterfaceImpl intface = getInterface("a");
+        assertNull(intface.getInScopeInterfaceOperation(new QName(fTargetNS, "operB")));
+        
+        a.addExtendedInterfaceName(new QName(fTargetNS, "b"));
+        assertSame(oper, intface.getInScopeInterfaceOperation(new QName(fTargetNS, "operB")));
+    }
+
+    /**
+     * Test that modifying an extended interface after a lookup is seen by later lookups.
+     */
+    public void testLookupAfterModifyExtendedInterface()
+    {
+        addInterface("a", "b");
+        InterfaceElement b = addInterface("b", "c");
+        InterfaceElement c = addInterface("c", null);
+        InterfaceFaultElement fault = c.addInterfaceFaultElement();
+        fault.setName(new NCName("fault"));
+
+        InterfaceImpl intface = getInterface("a");
+        assertNull(intface.getInScopeInterfaceOperation(new QName(fTargetNS, "oper")));
+        assertSame(fault, intface.getInScopeInterfaceFault(new QName(fTargetNS, "fault")));
+
+        InterfaceOperationElement oper = b.addInterfaceOperationElement();
+        oper.setName(new NCName("oper"));
+        fault.setName(new NCName("fault2"));
+
+        assertSame(oper, intface.getInScopeInterfaceOperation(new QName(fTargetNS, "oper")));
+        assertSame(fault, intface.getInScopeInterfaceFault(new QName(fTargetNS, "fault2")));
+        assertNull(intface.getInScopeInterfaceFault(new QName(fTargetNS, "fault")));
+    }
+
+    /**
+     * Test that an extended interface declared after a lookup is seen by later 
+     * lookups, although neither the interface nor the interfaces it already 
+     * extends were modified.
+     */
+    public void testLookupAfterExtendedInterfaceDeclared()
+    {
+        addInterface("a", "b");
+        InterfaceImpl intface = getInterface("a");
+        assertNull(intface.getInScopeInterfaceOperation(new QName(fTargetNS, "operB")));
+        assertEquals(0, intface.getInheritedInterfaces().length);
+        
+        InterfaceElement b = addInterface("b", null);
+        InterfaceOperationElement oper = b.addInterfaceOperationElement();
+        oper.setName(new NCName("operB"));
+        assertSame(oper, intface.getInScopeInterfaceOperation(new QName(fTargetNS, "operB")));
+        assertSame(b, intface.getInheritedInterfaces()[0]);
+    }
+
+    private InterfaceElement addInterface(String name, String extendsName)
+    {
+        InterfaceElement intface = fDescElement.addInterfaceElement();
+        intface.setName(new NCName(name));
+        if(extendsName != null) {
+            intface.addExtendedInterfaceName(new QName(fTargetNS, extendsName));
+        }
+        return intface;
+    }
+    
+    private InterfaceImpl getInterface(String name)
+    {
+        Description desc = fDescElement.toComponent();
+        return (InterfaceImpl)desc.getInterface(new QName(fTargetNS, name));
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.extensions.http;
+
+import java.net.URL;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.Binding;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+
+/**
+ * Test that the HTTPLocationRouter routes requests to the operations whose
+ * {http location} templates they match, with the values of the fields.
+ */
+public class HTTPLocationRouterTest extends TestCase 
+{
+    private static final String NS = "http://ws.apache.woden/router";
+    
+    private String fWsdlPath = 
+        "org/apache/woden/internal/wsdl20/extensions/http/resources/HTTPLocationRouter.wsdl";
+    
+    private HTTPLocationRouter fRouter = null;
+    
+    public static Test suite()
+    {
+        return new TestSuite(HTTPLocationRouterTest.class);
+    }
+    
+    protected void setUp() throws Exception 
+    {
+        WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+        reader.getErrorReporter().setErrorHandler(new TestErrorHandler());
+        
+        URL wsdlURL = getClass().getClassLoader().getResource(fWsdlPath);
+        assertNotNull("Failed to find the WSDL document on the classpath using the path: " + fWsdlPath + ".", 
+                wsdlURL);
+        DescriptionElement descElem = reader.readWSDL(wsdlURL.toString());
+        assertNotNull("The reader did not return a WSDL description.", descElem);
+        
+        Binding binding = descElem.toComponent().getBindings()[0];
+        fRouter = new HTTPLocationRouter(binding);
+    }
+    
+    /**
+     * Test that literal segments take precedence over fields, and that 
+     * field values are extracted and decoded.
+     */
+    public void testPathTemplates()
+    {
+        assertOperation("listItems", fRouter.route("GET", "items"));
+        assertOperation("getSpecialItem", fRouter.route("GET", "/items/special"));
+        
+        HTTPLocationRouter.Match match = fRouter.route("GET", "items/a%20b");
+        assertOperation("getItem", match);
+        assertEquals("a b", match.getValue("id"));
+        
+        match = fRouter.route("GET", "items/42.xml");
+        assertOperation("getItemXml", match);
+        assertEquals("42", match.getValue("id"));
+        
+        assertNull(fRouter.route("GET", "items/42/parts"));
+        assertNull(fRouter.route("GET", "other"));
+    }
+    
+    /**
+     * Test that the method of the request is matched, including the
+     * whttp:methodDefault of the binding.
+     */
+    public void testMethods()
+    {
+        HTTPLocationRouter.Match match = fRouter.route("PUT", "items/42");
+        assertOperation("updateItem", match);
+        assertEquals("42", match.getValue("id"));
+        
+        assertNull(fRouter.route("POST", "items/42"));
+    }
+    
+    /**
+     * Test the query parameters, the query parameter separator and 
+     * {http location ignore uncited}.
+     */
+    public void testQueries()
+    {
+        HTTPLocationRouter.Match match = fRouter.route("GET", "items?max=10&q=red+car&page=2");
+        assertOperation("search", match);
+        assertEquals("red car", match.getValue("query"));
+        assertEquals("10", match.getValue("limit"));
+        assertNull("An uncited parameter was returned.", match.getValue("page"));
+        
+        //the template with more parameters does not match, so it falls back
+        assertOperation("listItems", fRouter.route("GET", "items?q=red"));
+        
+        match = fRouter.route("GET", "lookup/{abc}?type=t;extra=x");
+        assertOperation("lookup", match);
+        assertEquals("abc", match.getValue("key"));
+        assertEquals("t", match.getValue("type"));
+        assertEquals("x", match.getValue("extra"));
+    }
+    
+    /**
+     * Test that the values of {!field} references are not decoded.
+     */
+    public void testRawFields()
+    {
+        HTTPLocationRouter.Match match = fRouter.route("GET", "files/a%2Fb");
+        assertOperation("getFile", match);
+        assertEquals("a%2Fb", match.getValue("name"));
+    }
+    
+    private void assertOperation(String name, HTTPLocationRouter.Match match)
+    {
+        assertNotNull("The request was not routed to " + name + ".", match);
+        assertEquals(new QName(NS, name), 
+                match.getBindingOperation().getInterfaceOperation().getName());
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.extensions.soap;
+
+import java.net.URI;
+import java.net.URL;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.Endpoint;
+import org.apache.woden.wsdl20.extensions.soap.SOAPHeaderBlock;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+
+/**
+ * Test that the SOAPDispatchIndex maps the actions and body elements of 
+ * messages to operations, and leaves out and reports the ambiguous ones.
+ */
+public class SOAPDispatchIndexTest extends TestCase 
+{
+    private static final String NS = "http://ws.apache.woden/dispatch";
+    
+    private String fWsdlPath = 
+        "org/apache/woden/internal/wsdl20/extensions/soap/resources/SOAPDispatchIndex.wsdl";
+    
+    private TestErrorHandler fHandler = null;
+    private Endpoint fEndpoint1 = null;
+    private Endpoint fEndpoint2 = null;
+    private SOAPDispatchIndex fIndex = null;
+    
+    public static Test suite()
+    {
+        return new TestSuite(SOAPDispatchIndexTest.class);
+    }
+    
+    protected void setUp() throws Exception 
+    {
+        WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+        fHandler = new TestErrorHandler();
+        reader.getErrorReporter().setErrorHandler(fHandler);
+        
+        URL wsdlURL = getClass().getClassLoader().getResource(fWsdlPath);
+        assertNotNull("Failed to find the WSDL document on the classpath using the path: " + fWsdlPath + ".", 
+                wsdlURL);
+        DescriptionElement descElem = reader.readWSDL(wsdlURL.toString());
+        assertNotNull("The reader did not return a WSDL description.", descElem);
+        Description desc = descElem.toComponent();
+        
+        fEndpoint1 = desc.getServices()[0].getEndpoints()[0];
+        fEndpoint2 = desc.getServices()[0].getEndpoints()[1];
+        
+        fHandler.reset();
+        fIndex = new SOAPDispatchIndex(desc, reader.getErrorReporter());
+    }
+    
+    /**
+     * Test dispatching by SOAP action and by WS-Addressing action.
+     */
+    public void testDispatchByAction()
+    {
+        SOAPDispatchIndex.Target target = fIndex.getTargetByAction(fEndpoint1, "urn:book");
+        assertNotNull("No operation for the SOAP action.", target);
+        assertEquals(new QName(NS, "book"), target.getInterfaceOperation().getName());
+        assertSame(target, fIndex.getTargetByAction(fEndpoint1, "urn:book:request"));
+        assertSame(target, fIndex.getTargetByAction(fEndpoint2, "urn:book"));
+        
+        assertEquals(new QName(NS, "cancel"), 
+                fIndex.getTargetByAction(fEndpoint2, "urn:cancel").getInterfaceOperation().getName());
+        assertNull(fIndex.getTargetByAction(fEndpoint1, "urn:unknown"));
+    }
+    
+    /**
+     * Test dispatching by the first child of the SOAP body.
+     */
+    public void testDispatchByBodyElement()
+    {
+        SOAPDispatchIndex.Target target = 
+            fIndex.getTargetByBodyElement(fEndpoint1, new QName(NS, "cancelRequest"));
+        assertNotNull("No operation for the body element.", target);
+        assertEquals(new QName(NS, "cancel"), target.getInterfaceOperation().getName());
+        assertSame(target, fIndex.getTargetByAction(fEndpoint1, "urn:cancel"));
+        
+        //output elements do not identify an operation
+        assertNull(fIndex.getTargetByBodyElement(fEndpoint1, new QName(NS, "bookResponse")));
+    }
+    
+    /**
+     * Test that an action or body element shared by two operations is 
+     * left out of the index and reported.
+     */
+    public void testAmbiguities()
+    {
+        assertNull(fIndex.getTargetByAction(fEndpoint1, "urn:status"));
+        assertNull(fIndex.getTargetByBodyElement(fEndpoint1, new QName(NS, "statusRequest")));
+        
+        assertEquals(2, fHandler.numWarnings);
+        assertTrue(fHandler.warnings.containsKey("WSDL600"));
+        assertTrue(fHandler.warnings.containsKey("WSDL601"));
+    }
+    
+    /**
+     * Test the SOAP MEP and header blocks of the operations.
+     */
+    public void testSoapDetails()
+    {
+        SOAPDispatchIndex.Target book = fIndex.getTargetByAction(fEndpoint1, "urn:book");
+        assertEquals("The {soap mep} was not defaulted for the SOAP HTTP binding.",
+                URI.create("http://www.w3.org/2003/05/soap/mep/request-response/"), 
+                book.getSoapMep());
+        
+        SOAPHeaderBlock[] headers = book.getInputHeaders();
+        assertEquals(1, headers.length);
+        assertEquals(new QName(NS, "session"), headers[0].toElement().getElementName());
+        assertEquals(0, book.getOutputHeaders().length);
+        
+        SOAPDispatchIndex.Target cancel = fIndex.getTargetByAction(fEndpoint1, "urn:cancel");
+        assertEquals(URI.create("http://www.w3.org/2003/05/soap/mep/soap-response/"), 
+                cancel.getSoapMep());
+        assertEquals(URI.create("urn:cancel"), cancel.getSoapAction());
+    }
+    
+    /**
+     * Test that the {soap mep} of the SOAP HTTP binding defaults to the 
+     * soap-response MEP for an operation whose {http method} is GET, either 
+     * explicitly or because the operation is safe.
+     */
+    public void testSoapResponseMepForGet()
+    {
+        URI soapResponse = URI.create("http://www.w3.org/2003/05/soap/mep/soap-response/");
+        assertEquals("The {soap mep} of a safe operation was not defaulted to soap-response.",
+                soapResponse, fIndex.getTargetByAction(fEndpoint1, "urn:lookup").getSoapMep());
+        assertEquals("The {soap mep} of a GET operation was not defaulted to soap-response.",
+                soapResponse, fIndex.getTargetByAction(fEndpoint1, "urn:find").getSoapMep());
+        assertEquals("The {soap mep} of an unsafe POST operation was not request-response.",
+                URI.create("http://www.w3.org/2003/05/soap/mep/request-response/"), 
+                fIndex.getTargetByAction(fEndpoint1, "urn:book").getSoapMep());
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.validation;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.ErrorHandler;
+import org.apache.woden.ErrorInfo;
+import org.apache.woden.ErrorReporter;
+import org.apache.woden.internal.ErrorReporterImpl;
+import org.apache.woden.internal.wsdl20.DescriptionImpl;
+import org.apache.woden.internal.wsdl20.extensions.PopulatedExtensionRegistry;
+import org.apache.woden.types.NCName;
+import org.apache.woden.wsdl20.Binding;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.WSDLComponent;
+import org.apache.woden.wsdl20.xml.BindingElement;
+import org.apache.woden.wsdl20.xml.EndpointElement;
+import org.apache.woden.wsdl20.xml.InterfaceElement;
+import org.apache.woden.wsdl20.xml.InterfaceOperationElement;
+import org.apache.woden.wsdl20.xml.ServiceElement;
+
+/**
+ * A test class to test the IncrementalValidator.
+ */
+public class IncrementalValidatorTest extends TestCase 
+{
+  private final static URI namespace = URI.create("http://www.sample.org");
+  private final static URI inOut = URI.create("http://www.w3.org/2006/01/wsdl/in-out");
+  private final static int numComponents = 5;
+  
+  private DescriptionImpl desc;
+  private WSDLComponentValidator compValidator;
+  private IncrementalValidator validator;
+  private List checkedBindings;
+  
+  /**
+   * Create a test suite from this test class.
+   * 
+   * @return A test suite from this test class.
+   */
+  public static Test suite()
+  {
+    return new TestSuite(IncrementalValidatorTest.class);
+  }
+  
+  /*
+   * Create a description with an interface, a binding of the interface and a
+   * service of the interface for each number, and an assertion that records the
+   * bindings it is checked against.
+   */
+  protected void setUp() throws Exception 
+  {
+    desc = new DescriptionImpl();
+    desc.setExtensionRegistry(new PopulatedExtensionRegistry());
+    desc.setTargetNamespace(namespace);
+    for(int i = 0; i < numComponents; i++)
+    {
+      InterfaceElement interfac = desc.addInterfaceElement();
+      interfac.setName(new NCName("interface" + i));
+      InterfaceOperationElement interfaceOperation = interfac.addInterfaceOperationElement();
+      interfaceOperation.setName(new NCName("operation" + i));
+      interfaceOperation.setPattern(inOut);
+      
+      BindingElement binding = desc.addBindingElement();
+      binding.setName(new NCName("binding" + i));
+      binding.setInterfaceName(qname("interface" + i));
+      binding.addBindingOperationElement().setRef(qname("operation" + i));
+      
+      ServiceElement service = desc.addServiceElement();
+      service.setName(new NCName("service" + i));
+      service.setInterfaceName(qname("interface" + i));
+      EndpointElement endpoint = service.addEndpointElement();
+      endpoint.setName(new NCName("endpoint"));
+      endpoint.setBindingName(qname("binding" + i));
+    }
+    
+    checkedBindings = new ArrayList();
+    compValidator = new WSDLComponentValidator();
+    compValidator.getAssertionRegistry().registerAssertion(new ComponentAssertion() {
+      public String getId() {
+        return "Test-Binding-Checked";
+      }
+      public Class getTargetType() {
+        return Binding.class;
+      }
+      public boolean validate(Object target, Description description, ErrorReporter errorReporter) {
+        checkedBindings.add(((Binding)target).getName().getLocalPart());
+        return true;
+      }
+      public WSDLComponent[] getDependencies(Object target, Description description) {
+        return new WSDLComponent[] {((Binding)target).getInterface()};
+      }});
+    validator = new IncrementalValidator(desc, new WSDLDocumentValidator(), compValidator);
+  }
+  
+  /**
+   * Test that an incremental validation reports the same errors, in the same 
+   * order, as a full validation of the modified description.
+   */
+  public void testSameErrorsAsFullValidation() throws Exception
+  {
+    List initialErrors = validate(false);
+    
+    // Add an operation with a duplicate name to an interface, which its binding does
+    // not bind, and give an endpoint a relative address.
+    InterfaceElement interfac = desc.getInterfaceElements()[1];
+    InterfaceOperationElement interfaceOperation = interfac.addInterfaceOperationElement();
+    interfaceOperation.setName(new NCName("operation1"));
+    interfaceOperation.setPattern(inOut);
+    desc.getServiceElements()[3].getEndpointElements()[0].setAddress(URI.create("relative"));
+    
+    List incrementalErrors = validate(true);
+    List fullErrors = validate(false);
+    
+    assertFalse("The modifications did not change the errors reported.", 
+        initialErrors.equals(fullErrors));
+    assertEquals("The incremental validation reported different errors than a full validation.",
+        fullErrors, incrementalErrors);
+    
+    // Validating again without modifications reports the same errors.
+    assertEquals("The errors changed although the description was not modified.",
+        fullErrors, validate(true));
+  }
+  
+  /**
+   * Test that an incremental validation after renaming an interface and an
+   * operation reports the same errors as a full validation by a new validator.
+   */
+  public void testSameErrorsAfterRename() throws Exception
+  {
+    List initialErrors = validate(false);
+
+    // Rename an operation, which its binding then no longer binds, and an
+    // interface, which its binding and service then no longer refer to.
+    desc.getInterfaceElements()[0].getInterfaceOperationElements()[0].setName(new NCName("renamedOperation"));
+    List incrementalErrors = validate(true);
+    List fullErrors = validateFresh();
+    assertFalse("Renaming the operation did not change the errors reported.",
+        initialErrors.equals(fullErrors));
+    assertEquals("The incremental validation reported different errors than a full validation.",
+        fullErrors, incrementalErrors);
+
+    desc.getInterfaceElements()[2].setName(new NCName("renamedInterface"));
+    incrementalErrors = validate(true);
+    List renamedErrors = validateFresh();
+    assertFalse("Renaming the interface did not change the errors reported.",
+        fullErrors.equals(renamedErrors));
+    assertEquals("The incremental validation reported different errors than a full validation.",
+        renamedErrors, incrementalErrors);
+  }
+
+  /**
+   * Test that an incremental validation after adding an operation to an extended
+   * interface reports the same errors as a full validation by a new validator.
+   */
+  public void testSameErrorsAfterExtendedInterfaceModified() throws Exception
+  {
+    // The binding of interface1 binds an operation it will inherit from interface0.
+    desc.getInterfaceElements()[1].addExtendedInterfaceName(qname("interface0"));
+    desc.getBindingElements()[1].addBindingOperationElement().setRef(qname("inheritedOperation"));
+    List initialErrors = validate(false);
+
+    InterfaceOperationElement interfaceOperation = desc.getInterfaceElements()[0].addInterfaceOperationElement();
+    interfaceOperation.setName(new NCName("inheritedOperation"));
+    interfaceOperation.setPattern(inOut);
+    List incrementalErrors = validate(true);
+    List fullErrors = validateFresh();
+
+    assertFalse("The modification did not change the errors reported.",
+        initialErrors.equals(fullErrors));
+    assertEquals("The incremental validation reported different errors than a full validation.",
+        fullErrors, incrementalErrors);
+  }
+
+  /**
+   * Test that an incremental validation only checks the assertions about the
+   * modified components and the components depending on them.
+   */
+  public void testOnlyAffectedAssertionsChecked() throws Exception
+  {
+    validate(false);
+    assertEquals("Not all the bindings were checked by the full validation.", 
+        numComponents, checkedBindings.size());
+    
+    // The binding of a modified interface is checked again.
+    checkedBindings.clear();
+    InterfaceOperationElement interfaceOperation = desc.getInterfaceElements()[2].addInterfaceOperationElement();
+    interfaceOperation.setName(new NCName("newOperation"));
+    interfaceOperation.setPattern(inOut);
+    validate(true);
+    assertEquals("The bindings checked were not only the binding of the modified interface.",
+        "[binding2]", checkedBindings.toString());
+    
+    // No binding is checked again if only a service is modified.
+    checkedBindings.clear();
+    desc.getServiceElements()[4].getEndpointElements()[0].setAddress(URI.create("http://www.sample.org/service4"));
+    validate(true);
+    assertTrue("A binding was checked although only a service was modified.", 
+        checkedBindings.isEmpty());
+    
+    // All the bindings are checked again if a component is added.
+    checkedBindings.clear();
+    desc.addInterfaceElement().setName(new NCName("newInterface"));
+    validate(true);
+    assertEquals("Not all the bindings were checked after an interface was added.", 
+        numComponents, checkedBindings.size());
+  }
+  
+  private List validate(boolean incremental) throws Exception
+  {
+    OrderedErrorHandler handler = new OrderedErrorHandler();
+    ErrorReporter reporter = new ErrorReporterImpl();
+    reporter.setErrorHandler(handler);
+    if(incremental)
+    {
+      validator.validateIncremental(reporter);
+    }
+    else
+    {
+      validator.validate(reporter);
+    }
+    return handler.messages;
+  }
+
+  /*
+   * Validate the description with a new validator, which checks all the assertions.
+   */
+  private List validateFresh() throws Exception
+  {
+    OrderedErrorHandler handler = new OrderedErrorHandler();
+    ErrorReporter reporter = new ErrorReporterImpl();
+    reporter.setErrorHandler(handler);
+    new IncrementalValidator(desc, new WSDLDocumentValidator(), compValidator).validate(reporter);
+    return handler.messages;
+  }
+
+  private static QName qname(String localPart)
+  {
+    return new QName(namespace.toString(), localPart);
+  }
+  
+  /*
+   * An error handler that records the messages reported, in order.
+   */
+  private static class OrderedErrorHandler implements ErrorHandler
+  {
+    List messages = new ArrayList();
+    
+    public void warning(ErrorInfo errorInfo)
+    {
+      messages.add(errorInfo.getKey() + " " + errorInfo.getMessage());
+    }
+    
+    public void error(ErrorInfo errorInfo)
+    {
+      messages.add(errorInfo.getKey() + " " + errorInfo.getMessage());
+    }
+    
+    public void fatalError(ErrorInfo errorInfo)
+    {
+      messages.add(errorInfo.getKey() + " " + errorInfo.getMessage());
+    }
+  }
+}
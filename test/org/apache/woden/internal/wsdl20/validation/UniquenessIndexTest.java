@@ -0,0 +1,106 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.woden.internal.wsdl20.validation;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the UniquenessIndex used by the uniqueness assertions.
+ */
+public class UniquenessIndexTest extends TestCase 
+{
+  private static final String NS = "http://www.sample.org";
+  
+  public static Test suite()
+  {
+    return new TestSuite(UniquenessIndexTest.class);
+  }
+  
+  /**
+   * Test that add reports the keys added before, comparing them by value.
+   */
+  public void testAdd()
+  {
+    UniquenessIndex index = new UniquenessIndex();
+    assertTrue(index.add(new QName(NS, "a")));
+    assertTrue(index.add(new QName(NS, "b")));
+    assertFalse("An equal QName was not detected as a duplicate.", 
+        index.add(new QName(NS, "a")));
+    assertFalse(index.add(new QName(NS, "a")));
+    assertTrue(index.add(new QName("http://www.sample2.org", "a")));
+  }
+  
+  /**
+   * Test that count returns the number of times each key was added.
+   */
+  public void testCount()
+  {
+    UniquenessIndex index = new UniquenessIndex();
+    assertEquals(0, index.count("a"));
+    index.add("a");
+    index.add("b");
+    index.add("a");
+    index.add("a");
+    assertEquals(3, index.count("a"));
+    assertEquals(1, index.count("b"));
+    assertEquals(0, index.count("c"));
+  }
+  
+  /**
+   * Test that null is a key like any other.
+   */
+  public void testNullKey()
+  {
+    UniquenessIndex index = new UniquenessIndex();
+    assertEquals(0, index.count(null));
+    assertTrue(index.add(null));
+    assertFalse("A second null key was not detected as a duplicate.", index.add(null));
+    assertEquals(2, index.count(null));
+    assertTrue(index.add("a"));
+  }
+  
+  /**
+   * Test that keys for a combination of two values are equal when both
+   * values are equal, null or not.
+   */
+  public void testKey()
+  {
+    Object key = UniquenessIndex.key(NS, new QName(NS, "a"));
+    assertEquals(key, UniquenessIndex.key(NS, new QName(NS, "a")));
+    assertEquals(key.hashCode(), UniquenessIndex.key(NS, new QName(NS, "a")).hashCode());
+    assertFalse(key.equals(UniquenessIndex.key(NS, new QName(NS, "b"))));
+    assertFalse(key.equals(UniquenessIndex.key("http://www.sample2.org", new QName(NS, "a"))));
+    assertFalse("The values of a key are not ordered.", 
+        UniquenessIndex.key("a", "b").equals(UniquenessIndex.key("b", "a")));
+    assertFalse(key.equals(new QName(NS, "a")));
+    
+    assertEquals(UniquenessIndex.key(null, null), UniquenessIndex.key(null, null));
+    assertEquals(UniquenessIndex.key(null, "a"), UniquenessIndex.key(null, "a"));
+    assertEquals(UniquenessIndex.key("a", null), UniquenessIndex.key("a", null));
+    assertFalse(UniquenessIndex.key(null, "a").equals(UniquenessIndex.key("a", null)));
+    assertFalse(UniquenessIndex.key("a", null).equals(UniquenessIndex.key("a", "a")));
+    
+    UniquenessIndex index = new UniquenessIndex();
+    assertTrue(index.add(UniquenessIndex.key("a", null)));
+    assertFalse(index.add(UniquenessIndex.key("a", null)));
+    assertTrue(index.add(UniquenessIndex.key("a", "b")));
+    assertEquals(2, index.count(UniquenessIndex.key("a", null)));
+  }
+}
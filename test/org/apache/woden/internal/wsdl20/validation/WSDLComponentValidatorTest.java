@@ -17,6 +17,10 @@ package org.apache.woden.internal.wsdl20.validation;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.xml.namespace.QName;
 
@@ -24,6 +28,8 @@ import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.apache.woden.ErrorHandler;
+import org.apache.woden.ErrorInfo;
 import org.apache.woden.ErrorReporter;
 import org.apache.woden.WSDLException;
 import org.apache.woden.internal.ErrorReporterImpl;
@@ -60,6 +66,7 @@ import org.apache.woden.wsdl20.InterfaceMessageReference;
 import org.apache.woden.wsdl20.InterfaceOperation;
 import org.apache.woden.wsdl20.Property;
 import org.apache.woden.wsdl20.Service;
+import org.apache.woden.wsdl20.WSDLComponent;
 import org.apache.woden.wsdl20.enumeration.MessageLabel;
 import org.apache.woden.wsdl20.xml.BindingElement;
 import org.apache.woden.wsdl20.xml.BindingFaultElement;
@@ -3278,4 +3285,126 @@ public class WSDLComponentValidatorTest extends TestCase
 	  fail("There was a problem running the test assertion method " + e);
 	}
   }
+  
+  /**
+   * Test that validating the components concurrently on a ForkJoinPool, as the
+   * readers do by default, reports the same errors, in the same order, as 
+   * validating them on the calling thread.
+   */
+  public void testValidateConcurrently() throws Exception
+  {
+    DescriptionImpl desc = new DescriptionImpl();
+    desc.setExtensionRegistry(new PopulatedExtensionRegistry());
+    desc.setTargetNamespace(namespace1);
+    for(int i = 0; i < 10; i++)
+    {
+      // An interface that extends itself and has two operations with the same name.
+      InterfaceElement interfac = desc.addInterfaceElement();
+      interfac.setName(new NCName("interface" + i));
+      interfac.addExtendedInterfaceName(new QName(namespace1.toString(), "interface" + i));
+      for(int j = 0; j < 2; j++)
+      {
+        InterfaceOperationElement interfaceOperation = interfac.addInterfaceOperationElement();
+        interfaceOperation.setName(name1);
+        interfaceOperation.setPattern(URI.create("http://www.w3.org/2006/01/wsdl/in-out"));
+      }
+      
+      // A service whose endpoints have the same name.
+      ServiceElement service = desc.addServiceElement();
+      service.setName(new NCName("service" + i));
+      service.setInterfaceName(new QName(namespace1.toString(), "interface" + i));
+      service.addEndpointElement().setName(name1);
+      service.addEndpointElement().setName(name1);
+    }
+    
+    OrderedErrorHandler sequentialHandler = new OrderedErrorHandler();
+    ErrorReporter sequentialReporter = new ErrorReporterImpl();
+    sequentialReporter.setErrorHandler(sequentialHandler);
+    val.validate(desc, sequentialReporter);
+    
+    OrderedErrorHandler concurrentHandler = new OrderedErrorHandler();
+    ErrorReporter concurrentReporter = new ErrorReporterImpl();
+    concurrentReporter.setErrorHandler(concurrentHandler);
+    ExecutorService executor = new ForkJoinPool(4);
+    try
+    {
+      val.setExecutor(executor);
+      val.validate(desc, concurrentReporter);
+    }
+    finally
+    {
+      val.setExecutor(null);
+      executor.shutdownNow();
+    }
+    
+    assertFalse("No errors were reported for the description.", 
+        sequentialHandler.messages.isEmpty());
+    assertEquals("The errors reported concurrently differ from the errors reported sequentially.",
+        sequentialHandler.messages, concurrentHandler.messages);
+  }
+  
+  /**
+   * Test that an assertion registered with the assertion registry is checked
+   * against each component of its target type.
+   */
+  public void testRegisteredAssertion() throws Exception
+  {
+    DescriptionImpl desc = new DescriptionImpl();
+    desc.setExtensionRegistry(new PopulatedExtensionRegistry());
+    desc.setTargetNamespace(namespace1);
+    InterfaceElement interfac = desc.addInterfaceElement();
+    interfac.setName(name1);
+    BindingElement binding = desc.addBindingElement();
+    binding.setName(name2);
+    binding.setInterfaceName(name1QN);
+    BindingElement binding2 = desc.addBindingElement();
+    binding2.setName(name3);
+    binding2.setInterfaceName(name1QN);
+    
+    final List checked = new ArrayList();
+    val.getAssertionRegistry().registerAssertion(new ComponentAssertion() {
+      public String getId() {
+        return "Test-Binding-Checked";
+      }
+      public Class getTargetType() {
+        return Binding.class;
+      }
+      public boolean validate(Object target, Description description, ErrorReporter errorReporter) {
+        checked.add(((Binding)target).getName());
+        return true;
+      }
+      public WSDLComponent[] getDependencies(Object target, Description description) {
+        return new WSDLComponent[0];
+      }});
+    val.validate(desc, reporter);
+    
+    assertEquals("The registered assertion was not checked against each binding.", 2, checked.size());
+    assertTrue("The registered assertion was not checked against binding " + name2QN, 
+        checked.contains(name2QN));
+    assertTrue("The registered assertion was not checked against binding " + name3QN, 
+        checked.contains(name3QN));
+  }
+  
+  /*
+   * An error handler that records the messages reported, in order.
+   */
+  private static class OrderedErrorHandler implements ErrorHandler
+  {
+    List messages = new ArrayList();
+    
+    public void warning(ErrorInfo errorInfo)
+    {
+      messages.add(errorInfo.getKey() + " " + errorInfo.getMessage());
+    }
+    
+    public void error(ErrorInfo errorInfo)
+    {
+      messages.add(errorInfo.getKey() + " " + errorInfo.getMessage());
+    }
+    
+    public void fatalError(ErrorInfo errorInfo)
+    {
+      messages.add(errorInfo.getKey() + " " + errorInfo.getMessage());
+    }
+  }
 }
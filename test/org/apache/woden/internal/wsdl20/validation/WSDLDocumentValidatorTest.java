@@ -960,6 +960,35 @@ public class WSDLDocumentValidatorTest extends TestCase
     }
   }
   
+  /**
+   * Test that Schema-0018 and Schema-0018b are reported once for each earlier 
+   * inline schema that defined the same element or type, so three schemas 
+   * defining it report it 0 + 1 + 2 times.
+   */
+  public void testTestAssertionSchema0018ReportedPerEarlierSchema() throws Exception
+  {
+	String schemaString = "<schema xmlns=\"http://www.w3.org/2001/XMLSchema\" targetNamespace=\"http://www.sample.org\">"
+		  	+ "<element name=\"myElement\" type=\"string\"/>"
+		  	+ "<simpleType name=\"myType\"><restriction base=\"string\"/></simpleType></schema>";
+	
+	InlinedSchema[] inlinedSchemas = new InlinedSchema[3];
+	XmlSchemaCollection xsc = new XmlSchemaCollection();
+	for(int i = 0; i < inlinedSchemas.length; i++)
+	{
+	  DOMParser builder = new DOMParser();
+	  builder.parse(new XMLInputSource(null, null, null, new StringReader(schemaString), null));
+	  inlinedSchemas[i] = new InlinedSchemaImpl();
+	  inlinedSchemas[i].setNamespace(new URI("http://www.sample.org"));
+	  inlinedSchemas[i].setSchemaDefinition(xsc.read(builder.getDocument().getDocumentElement()));
+	}
+	
+	handler.reset();
+	assertFalse(val.testAssertionSchema0018(inlinedSchemas, reporter));
+	assertTrue(handler.errors.containsKey("Schema-0018"));
+	assertTrue(handler.errors.containsKey("Schema-0018b"));
+	assertEquals("Expected 3 Schema-0018 and 3 Schema-0018b errors.", 6, handler.numErrors);
+  }
+  
   /**
    * Test assertion Interface-0031. Style defaults specified on interface elements
    * must all be absolute.
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.resolver;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.Description;
+
+/**
+ * Test the XML catalog based URIResolver, and the use of a URIResolver
+ * by the WSDL readers.
+ */
+public class XMLCatalogResolverTest extends TestCase 
+{
+    private static final String NS_MAIN = "http://ws.apache.woden/imports/main";
+    private static final String NS_A = "http://ws.apache.woden/imports/a";
+    private static final String NS_MSG = "http://ws.apache.woden/imports/messages";
+    
+    private URL fCatalogURL = null;
+    private URL fImportsURL = null;
+    
+    public static Test suite()
+    {
+        return new TestSuite(XMLCatalogResolverTest.class);
+    }
+    
+    protected void setUp() throws Exception 
+    {
+        fCatalogURL = getClass().getClassLoader().getResource(
+            "org/apache/woden/resolver/resources/catalog.xml");
+        assertNotNull("Failed to find the catalog on the classpath.", fCatalogURL);
+        
+        fImportsURL = getClass().getClassLoader().getResource(
+            "org/apache/woden/internal/resources/imports/");
+        assertNotNull("Failed to find the WSDL documents on the classpath.", fImportsURL);
+    }
+    
+    public void testCatalogEntries() throws Exception
+    {
+        XMLCatalogResolver resolver = new XMLCatalogResolver(fCatalogURL);
+        
+        assertEquals("A rewriteURI entry was not applied.",
+                new URL(fImportsURL, "a.wsdl").toString(),
+                resolve(resolver, "http://example.org/woden/imports/a.wsdl"));
+        assertEquals("A uri entry was not applied.",
+                new URL(fImportsURL, "main.wsdl").toString(),
+                resolve(resolver, "http://example.org/woden/main.wsdl"));
+        assertEquals("A system entry in a group with xml:base was not applied.",
+                new URL(fImportsURL, "messages.xsd").toString(),
+                resolve(resolver, "http://example.org/woden/messages.xsd"));
+        assertEquals("A rewriteSystem entry of the next catalog was not applied.",
+                new URL(fImportsURL, "included.wsdl").toString(),
+                resolve(resolver, "http://example.org/woden/next/included.wsdl"));
+        assertNull("A URI not in the catalog was resolved.",
+                resolver.resolveURI(new URI("http://example.org/other/a.wsdl")));
+    }
+    
+    public void testLongestRewriteWins() throws Exception
+    {
+        XMLCatalogResolver resolver = new XMLCatalogResolver();
+        resolver.addRewriteURI("http://example.org/", "file:/short/");
+        resolver.addRewriteURI("http://example.org/woden/", "file:/long/");
+        resolver.addURI("http://example.org/woden/exact.wsdl", new URI("file:/exact.wsdl"));
+        
+        assertEquals("file:/long/a.wsdl", resolve(resolver, "http://example.org/woden/a.wsdl"));
+        assertEquals("file:/short/a.wsdl", resolve(resolver, "http://example.org/a.wsdl"));
+        assertEquals("file:/exact.wsdl", resolve(resolver, "http://example.org/woden/exact.wsdl"));
+    }
+    
+    public void testMirror() throws Exception
+    {
+        File dir = new File(new URI(fImportsURL.toString()));
+        XMLCatalogResolver resolver = new XMLCatalogResolver();
+        resolver.addMirror("http://example.org/mirror/", dir);
+        
+        assertEquals(new File(dir, "a.wsdl").toURI(), 
+                resolver.resolveURI(new URI("http://example.org/mirror/a.wsdl")));
+    }
+    
+    /**
+     * Test that a WSDL, its imports, includes and imported schemas are all
+     * retrieved through the resolver, with no access to the original locations.
+     */
+    public void testReadThroughResolver() throws Exception
+    {
+        XMLCatalogResolver resolver = new XMLCatalogResolver(fCatalogURL);
+        
+        String[] factories = new String[] {
+            "org.apache.woden.internal.DOMWSDLFactory",
+            "org.apache.woden.internal.StAXWSDLFactory"};
+        
+        for(int i = 0; i < factories.length; i++)
+        {
+            WSDLReader reader = WSDLFactory.newInstance(factories[i]).newWSDLReader();
+            reader.setProperty(WSDLReader.PROPERTY_URI_RESOLVER, resolver);
+            assertSame(resolver, reader.getProperty(WSDLReader.PROPERTY_URI_RESOLVER));
+            
+            Description desc = reader.readWSDL("http://example.org/woden/imports/main.wsdl", 
+                    new TestErrorHandler()).toComponent();
+            
+            assertNotNull(factories[i], desc.getInterface(new QName(NS_MAIN, "mainInterface")));
+            assertNotNull(factories[i], desc.getInterface(new QName(NS_MAIN, "included2Interface")));
+            assertNotNull(factories[i], desc.getInterface(new QName(NS_A, "aInterface")));
+            assertNotNull(factories[i], desc.getElementDeclaration(new QName(NS_MSG, "request")));
+        }
+    }
+    
+    public void testInvalidPropertyValue() throws Exception
+    {
+        WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+        try
+        {
+            reader.setProperty(WSDLReader.PROPERTY_URI_RESOLVER, "catalog.xml");
+            fail("Expected an IllegalArgumentException.");
+        }
+        catch(IllegalArgumentException e)
+        {
+            assertTrue(e.getMessage().indexOf(URIResolver.class.getName()) != -1);
+        }
+        reader.setProperty(WSDLReader.PROPERTY_URI_RESOLVER, null);
+        assertNull(reader.getProperty(WSDLReader.PROPERTY_URI_RESOLVER));
+    }
+    
+    private String resolve(URIResolver resolver, String uri) throws Exception
+    {
+        URI resolved = resolver.resolveURI(new URI(uri));
+        return resolved != null ? resolved.toString() : null;
+    }
+}
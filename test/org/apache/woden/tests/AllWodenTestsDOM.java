@@ -20,11 +20,30 @@ import javax.xml.namespace.QNameTest;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.apache.woden.StAXWSDLReaderTest;
 import org.apache.woden.WSDLFactoryTest;
 import org.apache.woden.WSDLReaderTest;
+import org.apache.woden.internal.CollectingErrorHandlerTest;
+import org.apache.woden.internal.ParsedDocumentCacheTest;
+import org.apache.woden.internal.DOMParserPoolTest;
+import org.apache.woden.internal.ErrorReporterImplTest;
+import org.apache.woden.internal.ParallelImportsTest;
 import org.apache.woden.internal.ReaderFeaturesTest;
+import org.apache.woden.internal.ValidationCacheTest;
+import org.apache.woden.internal.WSDLRepositoryTest;
+import org.apache.woden.internal.schema.LRUSchemaCacheTest;
+import org.apache.woden.internal.wsdl20.DescriptionImplTest;
+import org.apache.woden.internal.wsdl20.EndpointAddressIndexTest;
+import org.apache.woden.internal.wsdl20.InterfaceImplTest;
+import org.apache.woden.internal.wsdl20.extensions.http.HTTPLocationRouterTest;
+import org.apache.woden.internal.wsdl20.extensions.soap.SOAPDispatchIndexTest;
+import org.apache.woden.internal.wsdl20.validation.IncrementalValidatorTest;
+import org.apache.woden.internal.wsdl20.validation.UniquenessIndexTest;
 import org.apache.woden.internal.wsdl20.validation.WSDLComponentValidatorTest;
 import org.apache.woden.internal.wsdl20.validation.WSDLDocumentValidatorTest;
+import org.apache.woden.resolver.XMLCatalogResolverTest;
+import org.apache.woden.wsdl20.DescriptionTest;
+import org.apache.woden.wsdl20.extensions.ExtensionRegistryTest;
 import org.apache.woden.wsdl20.extensions.http.HTTPBindingExtensionsTest;
 import org.apache.woden.wsdl20.extensions.http.HTTPBindingFaultExtensionsTest;
 import org.apache.woden.wsdl20.extensions.http.HTTPBindingMessageReferenceExtensionsTest;
@@ -78,10 +97,27 @@ public class AllWodenTestsDOM extends TestSuite
 
 	addTest(WSDLFactoryTest.suite());
 	addTest(WSDLReaderTest.suite());
+	addTest(StAXWSDLReaderTest.suite());
 	addTest(W3CTestSuiteTest.suite());
+	addTest(WSDLGeneratorTest.suite());
 	addTestSuite(ReaderFeaturesTest.class);
+	addTest(LRUSchemaCacheTest.suite());
+	addTest(ParallelImportsTest.suite());
+	addTest(DOMParserPoolTest.suite());
+	addTest(XMLCatalogResolverTest.suite());
 	addTest(WSDLDocumentValidatorTest.suite());
 	addTest(WSDLComponentValidatorTest.suite());
+	addTest(IncrementalValidatorTest.suite());
+	addTest(UniquenessIndexTest.suite());
+	addTest(ValidationCacheTest.suite());
+	addTest(ParsedDocumentCacheTest.suite());
+	addTest(WSDLRepositoryTest.suite());
+	addTest(ErrorReporterImplTest.suite());
+	addTest(CollectingErrorHandlerTest.suite());
+    addTest(DescriptionTest.suite());
+    addTest(InterfaceImplTest.suite());
+    addTest(DescriptionImplTest.suite());
+    addTest(EndpointAddressIndexTest.suite());
     addTest(ServiceElementTest.suite());
     addTest(EndpointElementTest.suite());
     addTest(NameAttributeTest.suite());
@@ -92,11 +128,14 @@ public class AllWodenTestsDOM extends TestSuite
     addTest(SOAPBindingOperationExtensionsTest.suite());
     addTest(SOAPBindingMessageReferenceExtensionsTest.suite());
     addTest(SOAPBindingFaultReferenceExtensionsTest.suite());
+    addTest(SOAPDispatchIndexTest.suite());
     addTest(HTTPBindingExtensionsTest.suite());
     addTest(HTTPBindingFaultExtensionsTest.suite());
     addTest(HTTPBindingOperationExtensionsTest.suite());
     addTest(HTTPBindingMessageReferenceExtensionsTest.suite());
     addTest(HTTPEndpointExtensionsTest.suite());
+    addTest(HTTPLocationRouterTest.suite());
+    addTest(ExtensionRegistryTest.suite());
     //TODO in-progress 30May06 tests for BindingOpExt and BindingMsgRefExt
   }
 
@@ -0,0 +1,643 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.tests;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Generates valid WSDL 2.0 descriptions of any size, for scale tests and
+ * benchmarks. The generated documents depend only on the settings, so the
+ * same settings always produce the same documents.
+ * <p>
+ * The description consists of a main document, <code>main.wsdl</code>, which
+ * imports <code>import</code><i>n</i><code>.wsdl</code> and includes
+ * <code>include</code><i>n</i><code>.wsdl</code>. Each of these WSDL documents
+ * contains:
+ * <ul>
+ * <li>a types element with the inline schemas of the document and xs:imports
+ * of the schema documents <code>schema</code><i>n</i><code>.xsd</code>,</li>
+ * <li>the interfaces, each with a fault and operations using the in-out, in-only
+ * and robust-in-only patterns. Consecutive interfaces form chains of interfaces
+ * each extending the one before, as deep as the extends depth,</li>
+ * <li>a SOAP and/or an HTTP binding for each interface, which binds all the
+ * operations and faults in scope of the interface,</li>
+ * <li>a service for each interface, with an endpoint for each of its bindings.</li>
+ * </ul>
+ * For example, to generate a description of about 10 MB:
+ * <pre>
+ *   WSDLGenerator generator = new WSDLGenerator();
+ *   generator.setImports(2);
+ *   generator.setSize(WSDLGenerator.parseSize("10MB"));
+ *   File mainDocument = generator.generate(dir);
+ * </pre>
+ * The generator can also be run from the command line, see main.
+ */
+public class WSDLGenerator 
+{
+    public static final String NS_BASE = "http://ws.apache.woden/generated";
+    
+    public static final String MAIN_DOCUMENT = "main.wsdl";
+    
+    private static final String NS_WSDL = "http://www.w3.org/2006/01/wsdl";
+    private static final String NS_XSD = "http://www.w3.org/2001/XMLSchema";
+    private static final String NS_WSOAP = "http://www.w3.org/2006/01/wsdl/soap";
+    private static final String NS_WHTTP = "http://www.w3.org/2006/01/wsdl/http";
+    private static final String NS_SOAP_ENV = "http://www.w3.org/2003/05/soap-envelope";
+    private static final String SOAP_PROTOCOL_HTTP = "http://www.w3.org/2003/05/soap/bindings/HTTP/";
+    
+    private static final String[] PATTERNS = new String[] {
+        NS_WSDL + "/in-out",
+        NS_WSDL + "/in-only",
+        NS_WSDL + "/robust-in-only"};
+    
+    private int fInterfaces = 10;
+    private int fOperations = 5;
+    private int fExtendsDepth = 0;
+    private boolean fSOAPBindings = true;
+    private boolean fHTTPBindings = false;
+    private int fInlineSchemas = 1;
+    private int fImportedSchemas = 0;
+    private int fImports = 0;
+    private int fIncludes = 0;
+    
+    /**
+     * Sets the number of interfaces in each WSDL document. The default is 10.
+     */
+    public void setInterfaces(int interfaces)
+    {
+        fInterfaces = interfaces;
+    }
+    
+    public int getInterfaces()
+    {
+        return fInterfaces;
+    }
+    
+    /**
+     * Sets the number of operations declared by each interface. The default is 5.
+     */
+    public void setOperations(int operations)
+    {
+        fOperations = operations;
+    }
+    
+    /**
+     * Sets the length of the chains of interfaces extending each other.
+     * With a depth of 0, the default, no interface extends another.
+     */
+    public void setExtendsDepth(int extendsDepth)
+    {
+        fExtendsDepth = extendsDepth;
+    }
+    
+    /**
+     * Sets whether each interface has a SOAP binding. The default is true.
+     */
+    public void setSOAPBindings(boolean soapBindings)
+    {
+        fSOAPBindings = soapBindings;
+    }
+    
+    /**
+     * Sets whether each interface has an HTTP binding. The default is false.
+     */
+    public void setHTTPBindings(boolean httpBindings)
+    {
+        fHTTPBindings = httpBindings;
+    }
+    
+    /**
+     * Sets the number of inline schemas in each WSDL document. The default is 1.
+     */
+    public void setInlineSchemas(int inlineSchemas)
+    {
+        fInlineSchemas = inlineSchemas;
+    }
+    
+    /**
+     * Sets the number of schema documents, which every WSDL document imports.
+     * The default is 0.
+     */
+    public void setImportedSchemas(int importedSchemas)
+    {
+        fImportedSchemas = importedSchemas;
+    }
+    
+    /**
+     * Sets the number of WSDL documents, in other namespaces, imported by the
+     * main document. The default is 0.
+     */
+    public void setImports(int imports)
+    {
+        fImports = imports;
+    }
+    
+    /**
+     * Sets the number of WSDL documents included by the main document.
+     * The default is 0.
+     */
+    public void setIncludes(int includes)
+    {
+        fIncludes = includes;
+    }
+    
+    /**
+     * Sets the number of interfaces so that the generated documents are about
+     * the specified size in total. The other settings are kept, so this should
+     * be called last. The number of interfaces is a multiple of the extends
+     * depth plus one and at least that.
+     * 
+     * @param bytes the total size of the documents
+     */
+    public void setSize(long bytes) throws IOException
+    {
+        int chainLength = fExtendsDepth + 1;
+        
+        fInterfaces = chainLength;
+        long oneChain = getSize();
+        fInterfaces = 2 * chainLength;
+        long perChain = Math.max(1, getSize() - oneChain);
+        
+        long chains = Math.max(1, (bytes - oneChain + perChain / 2) / perChain + 1);
+        fInterfaces = (int)(chains * chainLength);
+    }
+    
+    /**
+     * Returns the total size in bytes of the documents that would be generated
+     * with the current settings, without writing them.
+     */
+    public long getSize() throws IOException
+    {
+        return write(null);
+    }
+    
+    /**
+     * Writes the documents to the specified directory, which is created if
+     * necessary. Existing documents with the same names are overwritten.
+     * 
+     * @param dir the directory to write the documents to
+     * @return the main document
+     */
+    public File generate(File dir) throws IOException
+    {
+        if(!dir.isDirectory() && !dir.mkdirs())
+        {
+            throw new IOException("Unable to create the directory " + dir + ".");
+        }
+        write(dir);
+        return new File(dir, MAIN_DOCUMENT);
+    }
+    
+    /**
+     * Parses a size such as <code>500</code>, <code>10KB</code> or <code>100MB</code>.
+     * 
+     * @param size a number of bytes, optionally followed by KB or MB
+     * @return the number of bytes
+     * @throws NumberFormatException if the size is not valid
+     */
+    public static long parseSize(String size)
+    {
+        String upper = size.trim().toUpperCase();
+        long unit = 1;
+        if(upper.endsWith("KB"))
+        {
+            unit = 1024;
+            upper = upper.substring(0, upper.length() - 2);
+        }
+        else if(upper.endsWith("MB"))
+        {
+            unit = 1024 * 1024;
+            upper = upper.substring(0, upper.length() - 2);
+        }
+        return Long.parseLong(upper.trim()) * unit;
+    }
+    
+    /**
+     * Generates a description from the command line. The arguments are the
+     * names and values of the settings, followed by the output directory, for example:
+     * <pre>
+     *   -extendsDepth 3 -http true -imports 2 -includes 2 -size 10MB out/registry
+     * </pre>
+     * The settings are -interfaces, -operations, -extendsDepth, -soap, -http,
+     * -inlineSchemas, -importedSchemas, -imports, -includes and -size.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if(args.length % 2 != 1)
+        {
+            System.err.println("Usage: WSDLGenerator [-setting value]... directory");
+            System.exit(1);
+        }
+        
+        WSDLGenerator generator = new WSDLGenerator();
+        String size = null;
+        for(int i = 0; i < args.length - 1; i += 2)
+        {
+            String name = args[i];
+            String value = args[i + 1];
+            if("-interfaces".equals(name)) {
+                generator.setInterfaces(Integer.parseInt(value));
+            } else if("-operations".equals(name)) {
+                generator.setOperations(Integer.parseInt(value));
+            } else if("-extendsDepth".equals(name)) {
+                generator.setExtendsDepth(Integer.parseInt(value));
+            } else if("-soap".equals(name)) {
+                generator.setSOAPBindings(Boolean.valueOf(value).booleanValue());
+            } else if("-http".equals(name)) {
+                generator.setHTTPBindings(Boolean.valueOf(value).booleanValue());
+            } else if("-inlineSchemas".equals(name)) {
+                generator.setInlineSchemas(Integer.parseInt(value));
+            } else if("-importedSchemas".equals(name)) {
+                generator.setImportedSchemas(Integer.parseInt(value));
+            } else if("-imports".equals(name)) {
+                generator.setImports(Integer.parseInt(value));
+            } else if("-includes".equals(name)) {
+                generator.setIncludes(Integer.parseInt(value));
+            } else if("-size".equals(name)) {
+                size = value;
+            } else {
+                System.err.println("Unknown setting " + name + ".");
+                System.exit(1);
+            }
+        }
+        if(size != null)
+        {
+            generator.setSize(parseSize(size));
+        }
+        
+        File main = generator.generate(new File(args[args.length - 1]));
+        System.out.println("Generated " + main + " with " + generator.getInterfaces() + 
+                " interfaces per document.");
+    }
+    
+    /*
+     * Writes all the documents to the directory, or just counts their size if
+     * the directory is null.
+     */
+    private long write(File dir) throws IOException
+    {
+        long size = writeDescription(dir, "main", MAIN_DOCUMENT, NS_BASE);
+        for(int i = 0; i < fImports; i++)
+        {
+            size += writeDescription(dir, "import" + i, "import" + i + ".wsdl", 
+                    NS_BASE + "/import" + i);
+        }
+        for(int i = 0; i < fIncludes; i++)
+        {
+            size += writeDescription(dir, "include" + i, "include" + i + ".wsdl", NS_BASE);
+        }
+        for(int i = 0; i < fImportedSchemas; i++)
+        {
+            size += writeSchemaDocument(dir, i);
+        }
+        return size;
+    }
+    
+    private long writeDescription(File dir, String docId, String fileName, String tns)
+        throws IOException
+    {
+        CountingWriter out = openWriter(dir, fileName);
+        try
+        {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<description xmlns=\"" + NS_WSDL + "\"\n");
+            out.write("    targetNamespace=\"" + tns + "\"\n");
+            out.write("    xmlns:tns=\"" + tns + "\"\n");
+            out.write("    xmlns:xs=\"" + NS_XSD + "\"\n");
+            out.write("    xmlns:wsoap=\"" + NS_WSOAP + "\"\n");
+            out.write("    xmlns:whttp=\"" + NS_WHTTP + "\"\n");
+            out.write("    xmlns:soap=\"" + NS_SOAP_ENV + "\"");
+            for(int s = 0; s < getSchemaCount(); s++)
+            {
+                out.write("\n    xmlns:s" + s + "=\"" + getSchemaNamespace(docId, s) + "\"");
+            }
+            out.write(">\n\n");
+            
+            if(MAIN_DOCUMENT.equals(fileName))
+            {
+                for(int i = 0; i < fImports; i++)
+                {
+                    out.write("  <import namespace=\"" + NS_BASE + "/import" + i + 
+                            "\" location=\"import" + i + ".wsdl\"/>\n");
+                }
+                for(int i = 0; i < fIncludes; i++)
+                {
+                    out.write("  <include location=\"include" + i + ".wsdl\"/>\n");
+                }
+                out.write("\n");
+            }
+            
+            writeTypes(out, docId);
+            for(int i = 0; i < fInterfaces; i++)
+            {
+                writeInterface(out, docId, i);
+            }
+            for(int i = 0; i < fInterfaces; i++)
+            {
+                if(fSOAPBindings)
+                {
+                    writeBinding(out, docId, i, true);
+                }
+                if(fHTTPBindings)
+                {
+                    writeBinding(out, docId, i, false);
+                }
+            }
+            if(fSOAPBindings || fHTTPBindings)
+            {
+                for(int i = 0; i < fInterfaces; i++)
+                {
+                    writeService(out, docId, i);
+                }
+            }
+            out.write("</description>\n");
+        }
+        finally
+        {
+            out.close();
+        }
+        return out.getCount();
+    }
+    
+    private void writeTypes(Writer out, String docId) throws IOException
+    {
+        if(getSchemaCount() == 0)
+        {
+            return;
+        }
+        
+        out.write("  <types>\n");
+        for(int s = 0; s < fImportedSchemas; s++)
+        {
+            out.write("    <xs:import namespace=\"" + getSchemaNamespace(docId, fInlineSchemas + s) + 
+                    "\" schemaLocation=\"schema" + s + ".xsd\"/>\n");
+        }
+        for(int s = 0; s < fInlineSchemas; s++)
+        {
+            out.write("    <xs:schema targetNamespace=\"" + getSchemaNamespace(docId, s) + 
+                    "\" elementFormDefault=\"qualified\">\n");
+            writeElementDeclarations(out, "      ");
+            out.write("    </xs:schema>\n");
+        }
+        out.write("  </types>\n\n");
+    }
+    
+    private long writeSchemaDocument(File dir, int index) throws IOException
+    {
+        CountingWriter out = openWriter(dir, "schema" + index + ".xsd");
+        try
+        {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<xs:schema xmlns:xs=\"" + NS_XSD + "\"\n");
+            out.write("    targetNamespace=\"" + getSchemaNamespace(null, fInlineSchemas + index) + "\"\n");
+            out.write("    elementFormDefault=\"qualified\">\n\n");
+            writeElementDeclarations(out, "  ");
+            out.write("</xs:schema>\n");
+        }
+        finally
+        {
+            out.close();
+        }
+        return out.getCount();
+    }
+    
+    /*
+     * Every schema declares the request and response elements of the operations
+     * with the same index in each interface, and the fault element.
+     */
+    private void writeElementDeclarations(Writer out, String indent) throws IOException
+    {
+        for(int k = 0; k < fOperations; k++)
+        {
+            writeElementDeclaration(out, indent, "request" + k);
+            writeElementDeclaration(out, indent, "response" + k);
+        }
+        writeElementDeclaration(out, indent, "fault");
+    }
+    
+    private void writeElementDeclaration(Writer out, String indent, String name) throws IOException
+    {
+        out.write(indent + "<xs:element name=\"" + name + "\">\n");
+        out.write(indent + "  <xs:complexType>\n");
+        out.write(indent + "    <xs:sequence>\n");
+        out.write(indent + "      <xs:element name=\"id\" type=\"xs:string\"/>\n");
+        out.write(indent + "      <xs:element name=\"value\" type=\"xs:int\" minOccurs=\"0\"/>\n");
+        out.write(indent + "    </xs:sequence>\n");
+        out.write(indent + "  </xs:complexType>\n");
+        out.write(indent + "</xs:element>\n");
+    }
+    
+    private void writeInterface(Writer out, String docId, int index) throws IOException
+    {
+        String name = getInterfaceName(docId, index);
+        out.write("  <interface name=\"" + name + "\"");
+        if(index % (fExtendsDepth + 1) != 0)
+        {
+            out.write(" extends=\"tns:" + getInterfaceName(docId, index - 1) + "\"");
+        }
+        out.write(">\n");
+        
+        out.write("    <fault name=\"" + name + "Fault\" element=\"" + 
+                getElement(index, "fault") + "\"/>\n");
+        for(int k = 0; k < fOperations; k++)
+        {
+            int pattern = k % PATTERNS.length;
+            out.write("    <operation name=\"" + name + "Op" + k + 
+                    "\" pattern=\"" + PATTERNS[pattern] + "\">\n");
+            out.write("      <input element=\"" + getElement(index, "request" + k) + "\"/>\n");
+            if(pattern == 0)
+            {
+                out.write("      <output element=\"" + getElement(index, "response" + k) + "\"/>\n");
+            }
+            if(pattern != 1)
+            {
+                out.write("      <outfault ref=\"tns:" + name + "Fault\"/>\n");
+            }
+            out.write("    </operation>\n");
+        }
+        out.write("  </interface>\n\n");
+    }
+    
+    /*
+     * A binding must bind all the operations in scope of its interface, so the
+     * operations and faults of the interfaces it extends are bound too.
+     */
+    private void writeBinding(Writer out, String docId, int index, boolean soap) throws IOException
+    {
+        String interfaceName = getInterfaceName(docId, index);
+        int first = index - index % (fExtendsDepth + 1);
+        
+        out.write("  <binding name=\"" + getBindingName(docId, index, soap) + 
+                "\" interface=\"tns:" + interfaceName + "\"\n");
+        if(soap)
+        {
+            out.write("      type=\"" + NS_WSOAP + "\" wsoap:version=\"1.2\" wsoap:protocol=\"" + 
+                    SOAP_PROTOCOL_HTTP + "\">\n");
+        }
+        else
+        {
+            out.write("      type=\"" + NS_WHTTP + "\" whttp:methodDefault=\"POST\">\n");
+        }
+        
+        for(int i = first; i <= index; i++)
+        {
+            String name = getInterfaceName(docId, i);
+            out.write("    <fault ref=\"tns:" + name + "Fault\"" + 
+                    (soap ? " wsoap:code=\"soap:Sender\"" : " whttp:code=\"500\"") + "/>\n");
+        }
+        for(int i = first; i <= index; i++)
+        {
+            String name = getInterfaceName(docId, i);
+            for(int k = 0; k < fOperations; k++)
+            {
+                String opName = name + "Op" + k;
+                out.write("    <operation ref=\"tns:" + opName + "\"" + 
+                        (soap ? " wsoap:action=\"urn:" + docId + ":" + opName + "\""
+                              : " whttp:location=\"" + interfaceName + "/" + opName + "\"") + 
+                        "/>\n");
+            }
+        }
+        out.write("  </binding>\n\n");
+    }
+    
+    private void writeService(Writer out, String docId, int index) throws IOException
+    {
+        String name = getInterfaceName(docId, index);
+        String address = "http://example.org/" + docId + "/" + name;
+        out.write("  <service name=\"" + name + "Service\" interface=\"tns:" + name + "\">\n");
+        if(fSOAPBindings)
+        {
+            out.write("    <endpoint name=\"SOAPEndpoint\" binding=\"tns:" + 
+                    getBindingName(docId, index, true) + "\" address=\"" + address + "/soap\"/>\n");
+        }
+        if(fHTTPBindings)
+        {
+            out.write("    <endpoint name=\"HTTPEndpoint\" binding=\"tns:" + 
+                    getBindingName(docId, index, false) + "\" address=\"" + address + "/http/\"/>\n");
+        }
+        out.write("  </service>\n\n");
+    }
+    
+    private int getSchemaCount()
+    {
+        return fInlineSchemas + fImportedSchemas;
+    }
+    
+    /*
+     * Inline schemas have a namespace of their own in each document, imported
+     * schema documents are shared by all of them.
+     */
+    private String getSchemaNamespace(String docId, int schema)
+    {
+        if(schema < fInlineSchemas)
+        {
+            return NS_BASE + "/types/" + docId + "/inline" + schema;
+        }
+        return NS_BASE + "/types/schema" + (schema - fInlineSchemas);
+    }
+    
+    /*
+     * The interfaces use the schemas of the document in turn. Without schemas,
+     * messages may have any content.
+     */
+    private String getElement(int interfaceIndex, String localName)
+    {
+        if(getSchemaCount() == 0)
+        {
+            return "#any";
+        }
+        return "s" + (interfaceIndex % getSchemaCount()) + ":" + localName;
+    }
+    
+    private static String getInterfaceName(String docId, int index)
+    {
+        return docId + "Interface" + index;
+    }
+    
+    private static String getBindingName(String docId, int index, boolean soap)
+    {
+        return getInterfaceName(docId, index) + (soap ? "SOAPBinding" : "HTTPBinding");
+    }
+    
+    private static CountingWriter openWriter(File dir, String fileName) throws IOException
+    {
+        if(dir == null)
+        {
+            return new CountingWriter(null);
+        }
+        return new CountingWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(new File(dir, fileName)), "UTF-8")));
+    }
+    
+    /*
+     * Counts the characters written, which are all ASCII, before passing them
+     * on to the underlying writer, if any.
+     */
+    private static class CountingWriter extends Writer
+    {
+        private final Writer fOut;
+        private long fCount = 0;
+        
+        CountingWriter(Writer out)
+        {
+            fOut = out;
+        }
+        
+        long getCount()
+        {
+            return fCount;
+        }
+        
+        public void write(char[] cbuf, int off, int len) throws IOException
+        {
+            fCount += len;
+            if(fOut != null)
+            {
+                fOut.write(cbuf, off, len);
+            }
+        }
+        
+        public void write(String str) throws IOException
+        {
+            fCount += str.length();
+            if(fOut != null)
+            {
+                fOut.write(str);
+            }
+        }
+        
+        public void flush() throws IOException
+        {
+            if(fOut != null)
+            {
+                fOut.flush();
+            }
+        }
+        
+        public void close() throws IOException
+        {
+            if(fOut != null)
+            {
+                fOut.close();
+            }
+        }
+    }
+}
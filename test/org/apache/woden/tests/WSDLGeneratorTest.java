@@ -0,0 +1,156 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.tests;
+
+import java.io.File;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.wsdl20.InterfaceImpl;
+import org.apache.woden.wsdl20.Description;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+
+/**
+ * Tests that the WSDLGenerator produces valid descriptions of the requested
+ * shape and size.
+ */
+public class WSDLGeneratorTest extends TestCase 
+{
+    private File fDir = null;
+    
+    public static Test suite()
+    {
+        return new TestSuite(WSDLGeneratorTest.class);
+    }
+    
+    protected void setUp() throws Exception 
+    {
+        fDir = File.createTempFile("woden-generated", "");
+        fDir.delete();
+    }
+    
+    protected void tearDown() throws Exception 
+    {
+        File[] files = fDir.listFiles();
+        for(int i = 0; files != null && i < files.length; i++)
+        {
+            files[i].delete();
+        }
+        fDir.delete();
+        fDir = null;
+    }
+    
+    /**
+     * Test that a description using all the settings is valid and has the expected
+     * number of components.
+     */
+    public void testGeneratedDescriptionIsValid() throws Exception
+    {
+        WSDLGenerator generator = new WSDLGenerator();
+        generator.setInterfaces(6);
+        generator.setOperations(4);
+        generator.setExtendsDepth(2);
+        generator.setHTTPBindings(true);
+        generator.setInlineSchemas(2);
+        generator.setImportedSchemas(1);
+        generator.setImports(2);
+        generator.setIncludes(1);
+        File main = generator.generate(fDir);
+        
+        assertEquals("Unexpected number of documents generated.", 5, fDir.listFiles().length);
+        
+        TestErrorHandler handler = new TestErrorHandler();
+        WSDLReader reader = WSDLFactory.newInstance().newWSDLReader();
+        reader.setFeature(WSDLReader.FEATURE_VALIDATION, true);
+        DescriptionElement descElem = reader.readWSDL(main.toURI().toString(), handler);
+        
+        assertEquals("Errors reported for the generated description: " + 
+                handler.getSummaryOfMessageKeys(), 0, handler.numErrors + handler.numFatalErrors);
+        
+        //6 interfaces in each of the main, included and 2 imported documents
+        Description desc = descElem.toComponent();
+        assertEquals("Unexpected number of interfaces.", 24, desc.getInterfaces().length);
+        assertEquals("Unexpected number of bindings.", 48, desc.getBindings().length);
+        assertEquals("Unexpected number of services.", 24, desc.getServices().length);
+        
+        InterfaceImpl last = (InterfaceImpl)desc.getInterface(
+                new QName(WSDLGenerator.NS_BASE, "mainInterface2"));
+        assertEquals("Unexpected number of interfaces inherited by the last interface in a chain.",
+                2, last.getInheritedInterfaces().length);
+        assertNotNull("An operation of the first interface in the chain is not in scope.",
+                last.getInScopeInterfaceOperation(
+                        new QName(WSDLGenerator.NS_BASE, "mainInterface0Op3")));
+    }
+    
+    /**
+     * Test that the same settings generate the same documents.
+     */
+    public void testDeterministic() throws Exception
+    {
+        WSDLGenerator generator = new WSDLGenerator();
+        generator.setImports(1);
+        generator.setIncludes(1);
+        generator.setImportedSchemas(1);
+        long size = generator.getSize();
+        
+        generator.generate(fDir);
+        long generated = 0;
+        File[] files = fDir.listFiles();
+        for(int i = 0; i < files.length; i++)
+        {
+            generated += files[i].length();
+        }
+        assertEquals("The generated size does not match the computed size.", size, generated);
+        
+        WSDLGenerator other = new WSDLGenerator();
+        other.setImports(1);
+        other.setIncludes(1);
+        other.setImportedSchemas(1);
+        assertEquals("The same settings gave a different size.", size, other.getSize());
+    }
+    
+    /**
+     * Test that setSize gives documents close to the requested size.
+     */
+    public void testSetSize() throws Exception
+    {
+        WSDLGenerator generator = new WSDLGenerator();
+        generator.setExtendsDepth(3);
+        generator.setHTTPBindings(true);
+        generator.setImports(2);
+        
+        long target = WSDLGenerator.parseSize("2MB");
+        generator.setSize(target);
+        long size = generator.getSize();
+        assertTrue("The size " + size + " is not within 5% of " + target + ".",
+                Math.abs(size - target) < target / 20);
+        assertEquals("The interfaces do not form whole extends chains.", 
+                0, generator.getInterfaces() % 4);
+    }
+    
+    public void testParseSize() throws Exception
+    {
+        assertEquals(500, WSDLGenerator.parseSize("500"));
+        assertEquals(10 * 1024, WSDLGenerator.parseSize("10KB"));
+        assertEquals(100 * 1024 * 1024, WSDLGenerator.parseSize("100mb"));
+    }
+}
@@ -0,0 +1,323 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.wsdl20;
+
+import java.net.URI;
+import java.util.Arrays;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.types.NCName;
+import org.apache.woden.wsdl20.xml.BindingElement;
+import org.apache.woden.wsdl20.xml.BindingOperationElement;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.woden.wsdl20.xml.EndpointElement;
+import org.apache.woden.wsdl20.xml.InterfaceElement;
+import org.apache.woden.wsdl20.xml.InterfaceFaultElement;
+import org.apache.woden.wsdl20.xml.InterfaceOperationElement;
+import org.apache.woden.wsdl20.xml.ServiceElement;
+
+/**
+ * Functional verification test of the top-level component lookups of
+ * org.apache.woden.wsdl20.Description and of a frozen Description.
+ */
+public class DescriptionTest extends TestCase 
+{
+    private String fTargetNS = "http://ws.apache.woden/description";
+    private DescriptionElement fDescElement = null;
+
+    public static Test suite()
+    {
+        return new TestSuite(DescriptionTest.class);
+    }
+
+    protected void setUp() throws Exception 
+    {
+        fDescElement = WSDLFactory.newInstance().newDescription();
+        fDescElement.setTargetNamespace(new URI(fTargetNS));
+    }
+
+    protected void tearDown() throws Exception 
+    {
+        fDescElement = null;
+    }
+    
+    /**
+     * Test that getInterface, getBinding and getService find components by QName.
+     */
+    public void testGetTopLevelComponentsByName()
+    {
+        for(int i=0; i<10; i++)
+        {
+            fDescElement.addInterfaceElement().setName(new NCName("interface" + i));
+            fDescElement.addBindingElement().setName(new NCName("binding" + i));
+            fDescElement.addServiceElement().setName(new NCName("service" + i));
+        }
+        Description desc = fDescElement.toComponent();
+        
+        assertEquals("Unexpected number of interfaces.", 10, desc.getInterfaces().length);
+        
+        Interface intface = desc.getInterface(new QName(fTargetNS, "interface7"));
+        assertNotNull("Interface not found.", intface);
+        assertEquals(new QName(fTargetNS, "interface7"), intface.getName());
+        
+        Binding binding = desc.getBinding(new QName(fTargetNS, "binding3"));
+        assertNotNull("Binding not found.", binding);
+        assertEquals(new QName(fTargetNS, "binding3"), binding.getName());
+        
+        Service service = desc.getService(new QName(fTargetNS, "service9"));
+        assertNotNull("Service not found.", service);
+        assertEquals(new QName(fTargetNS, "service9"), service.getName());
+        
+        assertNull(desc.getInterface(new QName(fTargetNS, "interface10")));
+        assertNull(desc.getBinding(new QName("urn:other", "binding3")));
+        assertNull(desc.getService(null));
+    }
+    
+    /**
+     * Test that components added after a lookup are found by later lookups.
+     */
+    public void testLookupAfterAddElement()
+    {
+        InterfaceElement first = fDescElement.addInterfaceElement();
+        first.setName(new NCName("first"));
+        Description desc = fDescElement.toComponent();
+        assertNull(desc.getInterface(new QName(fTargetNS, "second")));
+        
+        InterfaceElement second = fDescElement.addInterfaceElement();
+        second.setName(new NCName("second"));
+        BindingElement binding = fDescElement.addBindingElement();
+        binding.setName(new NCName("binding"));
+        ServiceElement service = fDescElement.addServiceElement();
+        service.setName(new NCName("service"));
+        
+        assertSame(second, desc.getInterface(new QName(fTargetNS, "second")));
+        assertSame(first, desc.getInterface(new QName(fTargetNS, "first")));
+        assertSame(binding, desc.getBinding(new QName(fTargetNS, "binding")));
+        assertSame(service, desc.getService(new QName(fTargetNS, "service")));
+        assertEquals("Unexpected number of interfaces.", 2, desc.getInterfaces().length);
+    }
+    
+    /**
+     * Test that a component renamed after a lookup is found by its new name only.
+     */
+    public void testLookupAfterRename()
+    {
+        InterfaceElement base = fDescElement.addInterfaceElement();
+        base.setName(new NCName("base"));
+        BindingElement binding = fDescElement.addBindingElement();
+        binding.setName(new NCName("binding"));
+        Description desc = fDescElement.toComponent();
+        assertSame(base, desc.getInterface(new QName(fTargetNS, "base")));
+        assertSame(binding, desc.getBinding(new QName(fTargetNS, "binding")));
+
+        base.setName(new NCName("base2"));
+        binding.setName(new NCName("binding2"));
+
+        assertSame(base, desc.getInterface(new QName(fTargetNS, "base2")));
+        assertNull(desc.getInterface(new QName(fTargetNS, "base")));
+        assertSame(binding, desc.getBinding(new QName(fTargetNS, "binding2")));
+        assertNull(desc.getBinding(new QName(fTargetNS, "binding")));
+    }
+
+    /**
+     * Test that a component added to an included description after a lookup
+     * is found by later lookups.
+     */
+    public void testLookupAfterIncludedDescriptionChange() throws Exception
+    {
+        DescriptionElement included = WSDLFactory.newInstance().newDescription();
+        included.setTargetNamespace(new URI(fTargetNS));
+        included.addInterfaceElement().setName(new NCName("first"));
+        fDescElement.addIncludeElement().setDescriptionElement(included);
+        Description desc = fDescElement.toComponent();
+        assertEquals("Unexpected number of interfaces.", 1, desc.getInterfaces().length);
+        assertNull(desc.getInterface(new QName(fTargetNS, "second")));
+
+        InterfaceElement second = included.addInterfaceElement();
+        second.setName(new NCName("second"));
+
+        assertSame(second, desc.getInterface(new QName(fTargetNS, "second")));
+        assertEquals("Unexpected number of interfaces.", 2, desc.getInterfaces().length);
+    }
+
+    /**
+     * Test that the first of several interfaces with the same name is returned.
+     */
+    public void testDuplicateNameReturnsFirst()
+    {
+        InterfaceElement first = fDescElement.addInterfaceElement();
+        first.setName(new NCName("dup"));
+        first.addExtendedInterfaceName(new QName(fTargetNS, "a"));
+        InterfaceElement second = fDescElement.addInterfaceElement();
+        second.setName(new NCName("dup"));
+        second.addExtendedInterfaceName(new QName(fTargetNS, "b"));
+        
+        Description desc = fDescElement.toComponent();
+        assertEquals("Unexpected number of interfaces.", 2, desc.getInterfaces().length);
+        assertSame(first, desc.getInterface(new QName(fTargetNS, "dup")));
+    }
+    
+    /**
+     * Test that a frozen description resolves the same components as before,
+     * returns a copy of each array and cannot be modified.
+     */
+    public void testFreeze()
+    {
+        InterfaceElement intface = buildService();
+        Description desc = fDescElement.toComponent();
+        assertSame(desc, desc.freeze());
+        assertSame(desc, desc.freeze());
+        
+        Interface[] interfaces = desc.getInterfaces();
+        assertNotSame(interfaces, desc.getInterfaces());
+        assertTrue(Arrays.equals(interfaces, desc.getInterfaces()));
+        interfaces[0] = null;
+        assertNotNull(desc.getInterfaces()[0]);
+        assertTrue(Arrays.equals(desc.getServices(), desc.getServices()));
+        
+        Interface frozenIntface = desc.getInterface(new QName(fTargetNS, "interface"));
+        assertSame(intface, frozenIntface);
+        assertSame(frozenIntface.getName(), frozenIntface.getName());
+        InterfaceOperation[] opers = frozenIntface.getInterfaceOperations();
+        assertNotSame(opers, frozenIntface.getInterfaceOperations());
+        assertTrue(Arrays.equals(opers, frozenIntface.getInterfaceOperations()));
+        assertNotNull(frozenIntface.getInterfaceFault(new QName(fTargetNS, "fault")));
+        assertNotNull(frozenIntface.getInterfaceOperation(new QName(fTargetNS, "operation")));
+        assertNull(frozenIntface.getInterfaceOperation(new QName(fTargetNS, "other")));
+        
+        Service service = desc.getServices()[0];
+        assertSame(frozenIntface, service.getInterface());
+        Endpoint endpoint = service.getEndpoint(new NCName("endpoint"));
+        assertNotNull("Endpoint not found.", endpoint);
+        assertSame(desc.getBindings()[0], endpoint.getBinding());
+        BindingOperation bindOper = endpoint.getBinding().getBindingOperations()[0];
+        assertSame(frozenIntface.getInterfaceOperations()[0], bindOper.getInterfaceOperation());
+        
+        try {
+            fDescElement.addInterfaceElement();
+            fail("Expected an IllegalStateException adding an interface to a frozen description.");
+        } catch(IllegalStateException e) {
+            //expected
+        }
+        try {
+            intface.setName(new NCName("renamed"));
+            fail("Expected an IllegalStateException renaming a frozen interface.");
+        } catch(IllegalStateException e) {
+            //expected
+        }
+        assertEquals(new QName(fTargetNS, "interface"), frozenIntface.getName());
+    }
+    
+    /**
+     * Test that the component model of an included description is built when 
+     * it is frozen with the description including it, so that it can still be 
+     * read once frozen.
+     */
+    public void testFreezeIncludedDescription() throws Exception
+    {
+        DescriptionElement included = WSDLFactory.newInstance().newDescription();
+        included.setTargetNamespace(new URI(fTargetNS));
+        InterfaceElement intface = included.addInterfaceElement();
+        intface.setName(new NCName("included"));
+        fDescElement.addIncludeElement().setDescriptionElement(included);
+        Description desc = fDescElement.toComponent().freeze();
+        
+        Description includedDesc = included.toComponent();
+        assertEquals("Unexpected number of interfaces.", 1, includedDesc.getInterfaces().length);
+        assertSame(intface, includedDesc.getInterface(new QName(fTargetNS, "included")));
+        assertEquals("Unexpected number of element declarations.", 0, 
+                includedDesc.getElementDeclarations().length);
+        assertSame(intface, desc.getInterface(new QName(fTargetNS, "included")));
+        try {
+            included.addInterfaceElement();
+            fail("Expected an IllegalStateException adding an interface to a frozen description.");
+        } catch(IllegalStateException e) {
+            //expected
+        }
+    }
+    
+    /**
+     * Test that several threads can read a frozen description at the same time.
+     */
+    public void testConcurrentReadOfFrozenDescription() throws Exception
+    {
+        buildService();
+        final Description desc = fDescElement.toComponent().freeze();
+        final QName bindingName = new QName(fTargetNS, "binding");
+        final Throwable[] failure = new Throwable[1];
+        
+        Thread[] threads = new Thread[4];
+        for(int i=0; i<threads.length; i++)
+        {
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for(int j=0; j<1000; j++) {
+                            Service service = desc.getServices()[0];
+                            Binding binding = service.getEndpoints()[0].getBinding();
+                            assertSame(desc.getBinding(bindingName), binding);
+                            assertNotNull(binding.getBindingOperations()[0].getInterfaceOperation());
+                            assertSame(service.getInterface(), binding.getInterface());
+                        }
+                    } catch(Throwable t) {
+                        failure[0] = t;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for(int i=0; i<threads.length; i++) {
+            threads[i].join();
+        }
+        if(failure[0] != null) {
+            fail("Concurrent read failed: " + failure[0]);
+        }
+    }
+    
+    /*
+     * Build an interface with a fault and an operation, a binding of the operation
+     * and a service with an endpoint for the binding. Returns the interface.
+     */
+    private InterfaceElement buildService()
+    {
+        InterfaceElement intface = fDescElement.addInterfaceElement();
+        intface.setName(new NCName("interface"));
+        InterfaceFaultElement fault = intface.addInterfaceFaultElement();
+        fault.setName(new NCName("fault"));
+        InterfaceOperationElement oper = intface.addInterfaceOperationElement();
+        oper.setName(new NCName("operation"));
+        
+        BindingElement binding = fDescElement.addBindingElement();
+        binding.setName(new NCName("binding"));
+        binding.setInterfaceName(new QName(fTargetNS, "interface"));
+        BindingOperationElement bindOper = binding.addBindingOperationElement();
+        bindOper.setRef(new QName(fTargetNS, "operation"));
+        
+        ServiceElement service = fDescElement.addServiceElement();
+        service.setName(new NCName("service"));
+        service.setInterfaceName(new QName(fTargetNS, "interface"));
+        EndpointElement endpoint = service.addEndpointElement();
+        endpoint.setName(new NCName("endpoint"));
+        endpoint.setBindingName(new QName(fTargetNS, "binding"));
+        return intface;
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2005, 2006 Apache Software Foundation 
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); 
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package org.apache.woden.wsdl20.extensions;
+
+import java.net.URL;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.woden.WSDLFactory;
+import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.wsdl20.extensions.soap.SOAPConstants;
+import org.apache.woden.internal.xml.StringAttrImpl;
+import org.apache.woden.internal.xml.URIAttrImpl;
+import org.apache.woden.tests.TestErrorHandler;
+import org.apache.woden.wsdl20.Binding;
+import org.apache.woden.wsdl20.InterfaceOperation;
+import org.apache.woden.wsdl20.extensions.soap.SOAPBindingExtensions;
+import org.apache.woden.wsdl20.xml.BindingElement;
+import org.apache.woden.wsdl20.xml.BindingOperationElement;
+import org.apache.woden.wsdl20.xml.DescriptionElement;
+import org.apache.woden.xml.XMLAttr;
+
+/**
+ * Test that a frozen ExtensionRegistry answers lookups as it did before 
+ * being frozen, and rejects changes, and that registered factories are used.
+ */
+public class ExtensionRegistryTest extends TestCase 
+{
+    public static Test suite()
+    {
+        return new TestSuite(ExtensionRegistryTest.class);
+    }
+    
+    public void testFrozenLookups() throws Exception
+    {
+        WSDLFactory factory = WSDLFactory.newInstance();
+        ExtensionRegistry mutable = factory.newPopulatedExtensionRegistry();
+        ExtensionRegistry frozen = factory.newPopulatedExtensionRegistry();
+        frozen.freeze();
+        assertFalse(mutable.isFrozen());
+        assertTrue(frozen.isFrozen());
+        
+        assertSame(mutable.queryExtAttributeType(BindingElement.class, SOAPConstants.Q_ATTR_SOAP_VERSION),
+                   frozen.queryExtAttributeType(BindingElement.class, SOAPConstants.Q_ATTR_SOAP_VERSION));
+        assertNotNull(frozen.queryExtAttributeType(BindingElement.class, SOAPConstants.Q_ATTR_SOAP_VERSION));
+        assertSame(mutable.queryDeserializer(BindingOperationElement.class, SOAPConstants.Q_ELEM_SOAP_MODULE).getClass(),
+                   frozen.queryDeserializer(BindingOperationElement.class, SOAPConstants.Q_ELEM_SOAP_MODULE).getClass());
+        assertEquals(mutable.getAllowableExtensions(BindingOperationElement.class),
+                     frozen.getAllowableExtensions(BindingOperationElement.class));
+        assertSame(mutable.queryComponentExtension(Binding.class, ComponentExtensions.URI_NS_SOAP),
+                   frozen.queryComponentExtension(Binding.class, ComponentExtensions.URI_NS_SOAP));
+        assertEquals(mutable.queryComponentExtensionNamespaces(InterfaceOperation.class).length,
+                     frozen.queryComponentExtensionNamespaces(InterfaceOperation.class).length);
+        assertNull(frozen.queryExtAttributeType(BindingElement.class, SOAPConstants.Q_ELEM_SOAP_MODULE));
+        
+        try
+        {
+            frozen.registerExtAttributeType(BindingElement.class, 
+                    SOAPConstants.Q_ATTR_SOAP_VERSION, Object.class);
+            fail("A frozen registry accepted a registration.");
+        }
+        catch(IllegalStateException e)
+        {
+        }
+    }
+    
+    /**
+     * Test that a registered factory is used to create extension attributes,
+     * and that registering a class alone replaces it.
+     */
+    public void testFactory() throws Exception
+    {
+        WSDLFactory factory = WSDLFactory.newInstance();
+        ExtensionRegistry extReg = factory.newPopulatedExtensionRegistry();
+        final int[] created = new int[1];
+        
+        extReg.registerExtAttributeType(BindingElement.class, SOAPConstants.Q_ATTR_SOAP_VERSION, 
+                StringAttrImpl.class, new ExtensionFactory() {
+                    public Object newInstance() {
+                        created[0]++;
+                        return new StringAttrImpl();
+                    }
+                });
+        XMLAttr attr = extReg.createExtAttribute(BindingElement.class, SOAPConstants.Q_ATTR_SOAP_VERSION);
+        assertTrue(attr instanceof StringAttrImpl);
+        assertEquals(1, created[0]);
+        
+        extReg.freeze();
+        extReg.createExtAttribute(BindingElement.class, SOAPConstants.Q_ATTR_SOAP_VERSION);
+        assertEquals(2, created[0]);
+        
+        extReg = factory.newPopulatedExtensionRegistry();
+        extReg.registerExtAttributeType(BindingElement.class, SOAPConstants.Q_ATTR_SOAP_VERSION, 
+                URIAttrImpl.class);
+        attr = extReg.createExtAttribute(BindingElement.class, SOAPConstants.Q_ATTR_SOAP_VERSION);
+        assertTrue(attr instanceof URIAttrImpl);
+        
+        ComponentExtensions compExt = extReg.createComponentExtension(Binding.class, 
+                ComponentExtensions.URI_NS_SOAP);
+        assertTrue(compExt instanceof SOAPBindingExtensions);
+    }
+    
+    /**
+     * Test that readers can share a frozen registry.
+     */
+    public void testReadWithFrozenRegistry() throws Exception
+    {
+        WSDLFactory factory = WSDLFactory.newInstance();
+        ExtensionRegistry extReg = factory.newPopulatedExtensionRegistry();
+        extReg.freeze();
+        
+        URL wsdlURL = getClass().getClassLoader().getResource(
+                "org/apache/woden/wsdl20/extensions/soap/resources/SOAPBindingExtensions.wsdl");
+        for(int i = 0; i < 2; i++)
+        {
+            WSDLReader reader = factory.newWSDLReader();
+            reader.setExtensionRegistry(extReg);
+            DescriptionElement desc = reader.readWSDL(wsdlURL.toString(), new TestErrorHandler());
+            assertSame(extReg, desc.getExtensionRegistry());
+            assertNotNull(desc.toComponent().getBindings()[0]
+                    .getComponentExtensionsForNamespace(ComponentExtensions.URI_NS_SOAP));
+        }
+    }
+}
@@ -24,12 +24,14 @@ import junit.framework.TestSuite;
 import org.apache.woden.ErrorHandler;
 import org.apache.woden.WSDLFactory;
 import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.wsdl20.extensions.http.HTTPConstants;
 import org.apache.woden.tests.TestErrorHandler;
 import org.apache.woden.wsdl20.Binding;
 import org.apache.woden.wsdl20.BindingMessageReference;
 import org.apache.woden.wsdl20.BindingOperation;
 import org.apache.woden.wsdl20.Description;
 import org.apache.woden.wsdl20.extensions.ComponentExtensions;
+import org.apache.woden.wsdl20.xml.BindingOperationElement;
 import org.apache.woden.wsdl20.xml.DescriptionElement;
 
 /**
@@ -116,6 +118,31 @@ public class HTTPBindingMessageReferenceExtensionsTest extends TestCase {
                 actual2);
     }
 
+    /**
+     * Test that the default {http transfer coding} reflects a change to the
+     * {http transfer coding default} of the BindingOperation made after the
+     * component model was built, while the whttp:transferCoding attribute 
+     * is still returned.
+     */
+    public void testGetHttpTransferCodingAfterBindingOperationModify() {
+        
+        BindingMessageReference[] bindMsgRefs = fBindOpers[0].getBindingMessageReferences();
+        HTTPBindingMessageReferenceExtensions inputExts = 
+            (HTTPBindingMessageReferenceExtensions) bindMsgRefs[0]
+                .getComponentExtensionsForNamespace(ComponentExtensions.URI_NS_HTTP);
+        HTTPBindingMessageReferenceExtensions outputExts = 
+            (HTTPBindingMessageReferenceExtensions) bindMsgRefs[1]
+                .getComponentExtensionsForNamespace(ComponentExtensions.URI_NS_HTTP);
+        assertEquals("chunked", outputExts.getHttpTransferCoding());
+        
+        ((BindingOperationElement)fBindOpers[0]).setExtensionAttribute(
+                HTTPConstants.Q_ATTR_TRANSFER_CODING_DEFAULT, null);
+        assertNull("The default {http transfer coding} was not updated.",
+                outputExts.getHttpTransferCoding());
+        assertEquals("Unexpected value for http transfer coding.",
+                "compress", inputExts.getHttpTransferCoding());
+    }
+
     /**
      * Testcases for the {http headers} property returned 
      * by the <code>getHttpHeaders</code> method.
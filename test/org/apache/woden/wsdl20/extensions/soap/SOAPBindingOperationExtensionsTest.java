@@ -25,11 +25,13 @@ import junit.framework.TestSuite;
 import org.apache.woden.ErrorHandler;
 import org.apache.woden.WSDLFactory;
 import org.apache.woden.WSDLReader;
+import org.apache.woden.internal.wsdl20.extensions.soap.SOAPConstants;
 import org.apache.woden.tests.TestErrorHandler;
 import org.apache.woden.wsdl20.Binding;
 import org.apache.woden.wsdl20.BindingOperation;
 import org.apache.woden.wsdl20.Description;
 import org.apache.woden.wsdl20.extensions.ComponentExtensions;
+import org.apache.woden.wsdl20.xml.BindingOperationElement;
 import org.apache.woden.wsdl20.xml.DescriptionElement;
 
 /**
@@ -124,5 +126,38 @@ public class SOAPBindingOperationExtensionsTest extends TestCase
         SOAPModule[] actual = soapBindOperExts.getSoapModules();
         assertEquals("Unexpected number of SOAPModule objects.", 1, actual.length);
     }
+    
+    /**
+     * Test that the array returned by <code>getSoapModules</code> is a copy, 
+     * so modifying it does not change the {soap modules} property.
+     */
+    public void testGetSoapModulesReturnsCopy()
+    {
+        SOAPBindingOperationExtensions soapBindOperExts = 
+            (SOAPBindingOperationExtensions) fBindOper.getComponentExtensionsForNamespace(ComponentExtensions.URI_NS_SOAP);
+        SOAPModule[] actual = soapBindOperExts.getSoapModules();
+        actual[0] = null;
+        assertNotNull("Modifying the returned array changed the {soap modules} property.", 
+                soapBindOperExts.getSoapModules()[0]);
+    }
+    
+    /**
+     * Test that the {soap action} property reflects a change to the 
+     * <code>wsoap:action</code> extension attribute made after the component
+     * model was built, and is kept once the description is frozen.
+     */
+    public void testGetSoapActionAfterModify()
+    {
+        SOAPBindingOperationExtensions soapBindOperExts = 
+            (SOAPBindingOperationExtensions) fBindOper.getComponentExtensionsForNamespace(ComponentExtensions.URI_NS_SOAP);
+        assertEquals("Unexpected soap action URI.", URI.create("urn:action"), soapBindOperExts.getSoapAction());
+        
+        ((BindingOperationElement)fBindOper).setExtensionAttribute(SOAPConstants.Q_ATTR_SOAP_ACTION, null);
+        assertNull("The {soap action} property was not updated.", soapBindOperExts.getSoapAction());
+        assertEquals("Unexpected soap mep URI.", URI.create("urn:mep"), soapBindOperExts.getSoapMep());
+        
+        fDescElem.toComponent().freeze();
+        assertNull("The {soap action} property changed when frozen.", soapBindOperExts.getSoapAction());
+    }
 
 }